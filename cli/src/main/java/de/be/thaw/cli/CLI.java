@@ -3,7 +3,6 @@ package de.be.thaw.cli;
 import de.be.thaw.core.document.Document;
 import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
 import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
-import de.be.thaw.export.Exporter;
 import de.be.thaw.export.exception.ExportException;
 import de.be.thaw.export.pdf.PdfExporter;
 import de.be.thaw.info.ThawInfo;
@@ -19,6 +18,7 @@ import de.be.thaw.style.parser.exception.StyleModelParseException;
 import de.be.thaw.text.model.TextModel;
 import de.be.thaw.text.parser.TextParser;
 import de.be.thaw.text.parser.exception.ParseException;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingReport;
 import picocli.CommandLine;
 
 import java.io.BufferedReader;
@@ -60,6 +60,12 @@ public class CLI implements Callable<Integer> {
             "If not specified the systems default charset will be used.")
     private String charsetName;
 
+    /**
+     * Whether to typeset the sections between explicit page breaks concurrently.
+     */
+    @CommandLine.Option(names = {"--parallel-sections"}, description = "Typeset the sections between explicit page breaks (as well as paragraph break points and foot notes ahead of the layout) concurrently")
+    private boolean parallelSections;
+
     /**
      * Entry point of the CLI application.
      *
@@ -119,6 +125,7 @@ public class CLI implements Callable<Integer> {
 
         Charset charset = getCharset();
         System.out.println(String.format("Charset: '%s'", charset.displayName(Locale.ENGLISH)));
+        System.out.println(String.format("Parallel sections: %b", parallelSections));
 
         System.out.println();
         System.out.println("### Processing ###");
@@ -126,6 +133,7 @@ public class CLI implements Callable<Integer> {
         File root = getRootInfoFolderPath().toFile();
         ThawContext.getInstance().setRootFolder(root);
         ThawContext.getInstance().setCurrentFolder(root);
+        ThawContext.getInstance().setTypesetSectionsInParallel(parallelSections);
         System.out.println(String.format("Searching for Thaw files within folder at '%s'...", root.getAbsolutePath()));
 
         System.out.println();
@@ -231,7 +239,7 @@ public class CLI implements Callable<Integer> {
                 )
         ));
 
-        Exporter exporter = new PdfExporter();
+        PdfExporter exporter = new PdfExporter();
         try {
             exporter.export(document, getOutputPath());
         } catch (ExportException e) {
@@ -244,6 +252,22 @@ public class CLI implements Callable<Integer> {
             return ErrorResult.EXPORT_ERROR.getCode();
         }
 
+        // Report paragraphs whose styles may need tuning
+        for (LineBreakingReport.EmergencyParagraph paragraph : exporter.getLineBreakingReport().getEmergencyParagraphs()) {
+            if (paragraph.isFirstFit()) {
+                System.out.println(String.format(
+                        "[WARNING] Paragraph at %s could not be split into lines properly and has been set using the first-fit algorithm.",
+                        paragraph.getTextPosition()
+                ));
+            } else {
+                System.out.println(String.format(
+                        "[WARNING] Paragraph at %s could not be split into lines with the best quality (needed line breaking quality level %d).",
+                        paragraph.getTextPosition(),
+                        paragraph.getQuality()
+                ));
+            }
+        }
+
         return ErrorResult.OK.getCode();
     }
 
@@ -6,35 +6,48 @@ import de.be.thaw.export.Exporter;
 import de.be.thaw.export.exception.ExportException;
 import de.be.thaw.export.pdf.element.ElementExporter;
 import de.be.thaw.export.pdf.element.ElementExporters;
+import de.be.thaw.export.pdf.font.ResolvedFont;
 import de.be.thaw.export.pdf.font.ThawPdfFont;
 import de.be.thaw.export.pdf.util.ElementLocator;
 import de.be.thaw.export.pdf.util.ExportContext;
 import de.be.thaw.export.pdf.util.PdfImageSource;
 import de.be.thaw.font.ThawFont;
 import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.hyphenation.CachingHyphenationDictionary;
 import de.be.thaw.hyphenation.HyphenationDictionaries;
 import de.be.thaw.hyphenation.HyphenationDictionary;
 import de.be.thaw.info.model.language.Language;
 import de.be.thaw.math.util.MathFont;
+import de.be.thaw.reference.Reference;
+import de.be.thaw.reference.ReferenceType;
+import de.be.thaw.reference.impl.InternalReference;
 import de.be.thaw.shared.ThawContext;
 import de.be.thaw.style.model.style.StyleType;
 import de.be.thaw.style.model.style.Styles;
+import de.be.thaw.typeset.PageConsumer;
 import de.be.thaw.typeset.TypeSetter;
 import de.be.thaw.typeset.exception.TypeSettingException;
 import de.be.thaw.typeset.knuthplass.KnuthPlassTypeSetter;
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.StringMetricsCache;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingCache;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingReport;
 import de.be.thaw.typeset.page.Element;
 import de.be.thaw.typeset.page.Page;
+import de.be.thaw.typeset.page.impl.PageNumberPlaceholderElement;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Size;
+import de.be.thaw.util.cache.CacheUtil;
+import de.be.thaw.util.cache.exception.CouldNotGetProjectCacheDirectoryException;
+import de.be.thaw.util.debug.Debug;
 import de.be.thaw.util.unit.Unit;
 import org.apache.fontbox.ttf.TTFParser;
-import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.multipdf.LayerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -50,20 +63,51 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Exporter exporting documents to PDF.
  */
 public class PdfExporter implements Exporter {
 
+    /**
+     * Logger for the class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(PdfExporter.class.getSimpleName());
+
+    /**
+     * Maximum count of bytes the PDF document is allowed to hold in main memory.
+     * Page content streams exceeding it are held in a temporary file instead.
+     */
+    private static final long MAX_MAIN_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Name the bundled math font is registered under.
+     */
+    private static final String MATH_FONT_NAME = "thaw-math-font";
+
+    /**
+     * Name of the folder in the project root folder holding additional hyphenation dictionaries.
+     */
+    private static final String HYPHENATION_FOLDER_NAME = "hyphenation";
+
+    /**
+     * Report of the paragraphs of the last export that needed the emergency line breaking pass.
+     */
+    private LineBreakingReport lineBreakingReport = new LineBreakingReport();
+
     @Override
     public void export(Document document, Path path) throws ExportException {
-        try (PDDocument doc = new PDDocument()) {
+        try (PDDocument doc = new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES))) {
             ExportContext ctx = new ExportContext(doc, document);
 
             Styles styles = document.getRoot().getStyles();
@@ -92,27 +136,34 @@ public class PdfExporter implements Exporter {
 
             ThawFont mathFont;
             try {
-                TTFParser ttfParser = new TTFParser();
-                TrueTypeFont ttf = ttfParser.parse(MathFont.getMathFontStream());
-
-                mathFont = new ThawPdfFont(ttf, ctx.getPdDocument());
+                // The parsed math font is shared by all exports, it is only embedded per document
+                mathFont = ThawPdfFont.load(MATH_FONT_NAME, () -> {
+                    try (InputStream in = MathFont.getMathFontStream()) {
+                        return new TTFParser().parse(in);
+                    }
+                }, ctx.getPdDocument());
             } catch (IOException e) {
                 throw new ExportException(e);
             }
             ctx.setMathFont(mathFont);
 
-            // Typeset the document to individual pages
-            List<Page> pages;
+            // Typeset the document and export each page to PDF as soon as it is finished
+            CrossPageData crossPageData = new CrossPageData();
+            ctx.setElementLookup(new HashMap<>());
             try {
-                pages = typeset(document, ctx);
+                typeset(document, ctx, page -> {
+                    try {
+                        exportPage(page, ctx, crossPageData);
+                    } catch (ExportException e) {
+                        throw new TypeSettingException(e);
+                    }
+                });
             } catch (TypeSettingException e) {
                 throw new ExportException(e);
             }
 
-            // Build lookup from original DocumentNode ID to the typeset element
-            ctx.setElementLookup(buildElementLookup(pages));
-
-            exportToPages(pages, ctx);
+            exportDeferredElements(ctx, crossPageData);
+            runAfterExportHooks(ctx, crossPageData);
 
             doc.save(path.toFile());
         } catch (IOException e) {
@@ -121,117 +172,221 @@ public class PdfExporter implements Exporter {
     }
 
     /**
-     * Build a lookup from the original DocumentNode ID to the typeset element.
-     *
-     * @param pages to get elements for
-     * @return lookup
-     */
-    private Map<String, ElementLocator> buildElementLookup(List<Page> pages) {
-        Map<String, ElementLocator> elementLookup = new HashMap<>();
-
-        for (Page page : pages) {
-            for (Element element : page.getElements()) {
-                element.getNode().ifPresent(node -> elementLookup.put(node.getId(), new ElementLocator(page.getNumber(), element)));
-            }
-        }
-
-        return elementLookup;
-    }
-
-    /**
-     * Export the passed pages using the given export context to PDF pages.
+     * Export the passed typeset page to a new PDF page.
+     * Only data needed after all pages have been exported is retained in the passed cross page data.
      *
-     * @param pages to export to PDF pages
-     * @param ctx   the export context
+     * @param page          to export
+     * @param ctx           the export context
+     * @param crossPageData to retain data needed after all pages have been exported in
      * @throws ExportException in case the page export did not work
      */
-    private void exportToPages(List<Page> pages, ExportContext ctx) throws ExportException {
+    private void exportPage(Page page, ExportContext ctx, CrossPageData crossPageData) throws ExportException {
         PDRectangle pageRect = new PDRectangle(
                 (float) ctx.getPageSize().getWidth(),
                 (float) ctx.getPageSize().getHeight()
         );
 
+        Set<String> referenceTargetIDs = crossPageData.getReferenceTargetIDs(ctx.getDocument());
+
         try {
-            // Create initial page
             PDPage pdfPage = new PDPage(pageRect);
             ctx.getPdDocument().addPage(pdfPage);
             ctx.setCurrentPage(pdfPage);
             ctx.setContentStream(new PDPageContentStream(ctx.getPdDocument(), ctx.getCurrentPage()));
-
-            // Export all elements from all pages to PDF
-            int pageCounter = 0;
-            for (Page page : pages) {
-                ctx.setCurrentSourcePage(page);
-
-                int len = page.getElements().size();
-                for (int i = 0; i < len; i++) {
-                    ctx.setCurrentSourceElementIndex(i);
-                    Element element = page.getElements().get(i);
-
-                    ElementExporter elementExporter = ElementExporters.getForType(element.getType()).orElseThrow(() -> new ExportException(String.format(
-                            "Elements of type '%s' cannot be exported as there is no suitable exporter",
-                            element.getType().name()
-                    )));
-
-                    elementExporter.export(element, ctx);
+            ctx.setCurrentSourcePage(page);
+
+            int len = page.getElements().size();
+            for (int i = 0; i < len; i++) {
+                ctx.setCurrentSourceElementIndex(i);
+                Element element = page.getElements().get(i);
+
+                // Build lookup from original DocumentNode ID to the typeset element (for reference targets only)
+                element.getNode()
+                        .filter(node -> referenceTargetIDs.contains(node.getId()))
+                        .ifPresent(node -> ctx.getElementLookup().put(node.getId(), new ElementLocator(page.getNumber(), element)));
+
+                if (element instanceof PageNumberPlaceholderElement) {
+                    // Page number of the target may not be known yet -> export once all pages are typeset
+                    crossPageData.getDeferredElements().computeIfAbsent(pdfPage, p -> new ArrayList<>()).add(element);
+                    continue;
                 }
 
-                ctx.getContentStream().close();
+                ElementExporter elementExporter = getElementExporter(element);
+                elementExporter.export(element, ctx);
 
-                if (pageCounter < pages.size() - 1) {
-                    // Create next PDF page
-                    pdfPage = new PDPage(pageRect);
-                    ctx.getPdDocument().addPage(pdfPage);
-                    ctx.setCurrentPage(pdfPage);
-                    ctx.setContentStream(new PDPageContentStream(ctx.getPdDocument(), ctx.getCurrentPage()));
+                if (elementExporter.requiresAfterExport(element, ctx)) {
+                    crossPageData.getAfterExportElements().add(element);
                 }
-
-                pageCounter++;
             }
 
-            // Run after export hooks for each element again (for example to create links)
-            for (Page page : pages) {
-                for (Element element : page.getElements()) {
-                    ElementExporter elementExporter = ElementExporters.getForType(element.getType()).orElseThrow(() -> new ExportException(String.format(
-                            "Elements of type '%s' cannot be exported as there is no suitable exporter",
-                            element.getType().name()
-                    )));
+            ctx.getContentStream().close();
+        } catch (IOException e) {
+            throw new ExportException(e);
+        }
+    }
 
-                    elementExporter.afterExport(element, ctx);
+    /**
+     * Export the elements that have been deferred until all pages are typeset
+     * (for example page number placeholders of a table of contents) by appending them to their PDF pages.
+     *
+     * @param ctx           the export context
+     * @param crossPageData holding the deferred elements
+     * @throws ExportException in case the element export did not work
+     */
+    private void exportDeferredElements(ExportContext ctx, CrossPageData crossPageData) throws ExportException {
+        try {
+            for (Map.Entry<PDPage, List<Element>> entry : crossPageData.getDeferredElements().entrySet()) {
+                ctx.setCurrentPage(entry.getKey());
+                ctx.setContentStream(new PDPageContentStream(ctx.getPdDocument(), entry.getKey(), PDPageContentStream.AppendMode.APPEND, true, true));
+                ctx.setCurrentlyUnderlined(false);
+
+                for (Element element : entry.getValue()) {
+                    ElementExporter elementExporter = getElementExporter(element);
+                    elementExporter.export(element, ctx);
+
+                    if (elementExporter.requiresAfterExport(element, ctx)) {
+                        crossPageData.getAfterExportElements().add(element);
+                    }
                 }
+
+                ctx.getContentStream().close();
             }
         } catch (IOException e) {
             throw new ExportException(e);
         }
     }
 
+    /**
+     * Run the after export hooks for all retained elements (for example to create links).
+     *
+     * @param ctx           the export context
+     * @param crossPageData holding the retained elements
+     * @throws ExportException in case a hook failed
+     */
+    private void runAfterExportHooks(ExportContext ctx, CrossPageData crossPageData) throws ExportException {
+        for (Element element : crossPageData.getAfterExportElements()) {
+            getElementExporter(element).afterExport(element, ctx);
+        }
+    }
+
+    /**
+     * Get the exporter for the passed element.
+     *
+     * @param element to get exporter for
+     * @return the element exporter
+     * @throws ExportException in case there is no suitable exporter
+     */
+    private ElementExporter getElementExporter(Element element) throws ExportException {
+        return ElementExporters.getForType(element.getType()).orElseThrow(() -> new ExportException(String.format(
+                "Elements of type '%s' cannot be exported as there is no suitable exporter",
+                element.getType().name()
+        )));
+    }
+
     /**
      * Try to type set the passed document.
      *
      * @param document to type set
      * @param ctx      the export context to use
-     * @return the typeset pages
+     * @param consumer to hand the typeset pages to as soon as they are finished
      * @throws TypeSettingException in case the document could not be type set
      */
-    private List<Page> typeset(Document document, ExportContext ctx) throws TypeSettingException {
-        TypeSetter typeSetter = createTypeSetter(ctx, document.getInfo().getLanguage());
+    private void typeset(Document document, ExportContext ctx, PageConsumer consumer) throws TypeSettingException {
+        LineBreakingCache lineBreakingCache = createLineBreakingCache();
+        lineBreakingReport = new LineBreakingReport();
+        StringMetricsCache stringMetricsCache = new StringMetricsCache(StringMetricsCache.DEFAULT_MAX_ENTRIES);
+        TypeSetter typeSetter = createTypeSetter(
+                ctx,
+                document.getInfo().getLanguage(),
+                document.getInfo().getHyphenationExceptions(),
+                lineBreakingCache,
+                lineBreakingReport,
+                stringMetricsCache
+        );
+
+        typeSetter.typeset(document, consumer);
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "String metrics cache: %d hits, %d misses",
+                    stringMetricsCache.getHits(),
+                    stringMetricsCache.getMisses()
+            ));
+        }
+
+        try {
+            lineBreakingCache.persist();
+        } catch (IOException e) {
+            // The cache is only an optimization, so the next run will just have to find the break points again
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.WARNING, "Could not persist the line breaking cache", e);
+            }
+        }
+    }
+
+    /**
+     * Create the cache for found line break points.
+     * It is persisted in the project-specific cache directory, so that unchanged paragraphs
+     * do not need to be broken into lines again in the next run.
+     *
+     * @return line breaking cache
+     */
+    private LineBreakingCache createLineBreakingCache() {
+        File projectCacheDir = null;
+
+        File rootFolder = ThawContext.getInstance().getRootFolder();
+        if (rootFolder != null) {
+            try {
+                projectCacheDir = CacheUtil.getProjectSpecificCacheDir(rootFolder);
+            } catch (CouldNotGetProjectCacheDirectoryException e) {
+                // Fall back to caching in memory only
+            }
+        }
 
-        return typeSetter.typeset(document);
+        return new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES, projectCacheDir);
+    }
+
+    /**
+     * Get the report of the paragraphs that needed the emergency line breaking pass in the last export.
+     *
+     * @return line breaking report
+     */
+    public LineBreakingReport getLineBreakingReport() {
+        return lineBreakingReport;
     }
 
     /**
      * Create a type setter.
      *
-     * @param ctx      the export context
-     * @param language to use
+     * @param ctx                   the export context
+     * @param language              to use
+     * @param hyphenationExceptions words with hyphens marking the only allowed hyphenation points
+     * @param lineBreakingCache     cache for found line break points
+     * @param lineBreakingReport    report to add the paragraphs that needed the emergency line breaking pass to
+     * @param stringMetricsCache    cache for measured strings
      * @return type setter to use
      */
-    private TypeSetter createTypeSetter(ExportContext ctx, Language language) throws TypeSettingException {
-        // Load hyphenation dictionary
-        HyphenationDictionary hyphenationDictionary = HyphenationDictionaries.getDictionary(language).orElseThrow(() -> new TypeSettingException(String.format(
+    private TypeSetter createTypeSetter(
+            ExportContext ctx,
+            Language language,
+            List<String> hyphenationExceptions,
+            LineBreakingCache lineBreakingCache,
+            LineBreakingReport lineBreakingReport,
+            StringMetricsCache stringMetricsCache
+    ) throws TypeSettingException {
+        // Load hyphenation dictionary (preferring dictionaries provided by the project)
+        File rootFolder = ThawContext.getInstance().getRootFolder();
+        File projectDictionaryFolder = rootFolder != null ? new File(rootFolder, HYPHENATION_FOLDER_NAME) : null;
+
+        HyphenationDictionary patternDictionary = HyphenationDictionaries.getDictionary(language, projectDictionaryFolder).orElseThrow(() -> new TypeSettingException(String.format(
                 "Could not find the hyphenation dictionary for language '%s'",
                 language.name()
         )));
+        HyphenationDictionary hyphenationDictionary = new CachingHyphenationDictionary(
+                patternDictionary,
+                hyphenationExceptions,
+                CachingHyphenationDictionary.DEFAULT_MAX_ENTRIES
+        );
 
         // Load properties to use during typesetting
         Properties properties = new Properties();
@@ -254,20 +409,29 @@ public class PdfExporter implements Exporter {
                 .setPageSize(ctx.getPageSize())
                 .setPageInsets(ctx.getPageInsets())
                 .setLooseness(1)
+                .setLineBreakingCache(lineBreakingCache)
+                .setLineBreakingReport(lineBreakingReport)
+                .setTypesetSectionsInParallel(ThawContext.getInstance().isTypesetSectionsInParallel())
                 .setFontDetailsSupplier(new FontDetailsSupplier() {
                     @Override
                     public StringMetrics measureString(DocumentNode node, int charBefore, String str) throws Exception {
-                        double fontSize = ctx.getFontSizeForNode(node);
-                        ThawFont font = ctx.getFontForNode(node);
+                        // Resolving the font is thread-safe and the resolved fonts may be measured concurrently
+                        ResolvedFont resolved = ctx.resolveFont(node);
+                        ThawPdfFont font = resolved.getFont();
+                        double fontSize = resolved.getFontSize();
 
-                        KernedSize size = font.getKernedStringSize(charBefore, str, fontSize);
+                        return stringMetricsCache.get(font, resolved.getKerningMode(), fontSize, charBefore, str, () -> {
+                            KernedSize size = font.getKernedStringSize(charBefore, str, fontSize);
 
-                        return new StringMetrics(size.getWidth(), size.getHeight(), size.getKerningAdjustments(), fontSize, font.getAscent(fontSize));
+                            return new StringMetrics(size.getWidth(), size.getHeight(), size.getKerningAdjustments(), fontSize, font.getAscent(fontSize));
+                        });
                     }
 
                     @Override
                     public double getSpaceWidth(DocumentNode node) throws Exception {
-                        return ctx.getFontForNode(node).getCharacterSize(' ', ctx.getFontSizeForNode(node)).getWidth(); // TODO Make this adjustable using the style file
+                        ResolvedFont resolved = ctx.resolveFont(node);
+
+                        return resolved.getFont().getCharacterSize(' ', resolved.getFontSize()).getWidth(); // TODO Make this adjustable using the style file
                     }
                 })
                 .setGlueConfig(new GlueConfig() {
@@ -284,10 +448,17 @@ public class PdfExporter implements Exporter {
                 .setHyphenator(new Hyphenator() {
                     @Override
                     public HyphenatedWord hyphenate(String word) {
-                        return new HyphenatedWord(hyphenationDictionary.hyphenate(word)
-                                .stream()
-                                .map(HyphenatedWordPart::new)
-                                .collect(Collectors.toList()));
+                        int[] breaks = hyphenationDictionary.hyphenate(word);
+
+                        List<HyphenatedWordPart> parts = new ArrayList<>(breaks.length + 1);
+                        int start = 0;
+                        for (int offset : breaks) {
+                            parts.add(new HyphenatedWordPart(word.substring(start, offset)));
+                            start = offset;
+                        }
+                        parts.add(new HyphenatedWordPart(word.substring(start)));
+
+                        return new HyphenatedWord(parts);
                     }
 
                     @Override
@@ -296,36 +467,98 @@ public class PdfExporter implements Exporter {
                     }
                 })
                 .setImageSourceSupplier(src -> {
-                    File currentProcessingFolder = ThawContext.getInstance().getCurrentFolder();
-                    File imgFile = new File(currentProcessingFolder, src);
-
-                    if (imgFile.getName().endsWith(".pdf")) {
-                        PDFormXObject form;
-                        Size size;
-                        try (PDDocument srcDoc = PDDocument.load(imgFile)) {
-                            PDPage srcPage = srcDoc.getPage(0);
-
-                            LayerUtility layerUtility = new LayerUtility(ctx.getPdDocument());
-                            form = layerUtility.importPageAsForm(srcDoc, srcPage);
-                            size = new Size(srcPage.getMediaBox().getWidth(), srcPage.getMediaBox().getHeight());
+                    synchronized (ctx) { // The images are added to the PDF document which is not thread-safe
+                        File currentProcessingFolder = ThawContext.getInstance().getCurrentFolder();
+                        File imgFile = new File(currentProcessingFolder, src);
+
+                        if (imgFile.getName().endsWith(".pdf")) {
+                            PDFormXObject form;
+                            Size size;
+                            try (PDDocument srcDoc = PDDocument.load(imgFile)) {
+                                PDPage srcPage = srcDoc.getPage(0);
+
+                                LayerUtility layerUtility = new LayerUtility(ctx.getPdDocument());
+                                form = layerUtility.importPageAsForm(srcDoc, srcPage);
+                                size = new Size(srcPage.getMediaBox().getWidth(), srcPage.getMediaBox().getHeight());
+                            }
+
+                            return new PdfImageSource(
+                                    form,
+                                    size,
+                                    Unit.POINTS
+                            );
+                        } else {
+                            PDImageXObject imageXObject = PDImageXObject.createFromFile(imgFile.getAbsolutePath(), ctx.getPdDocument());
+
+                            return new PdfImageSource(
+                                    imageXObject,
+                                    new Size(imageXObject.getWidth(), imageXObject.getHeight()),
+                                    Unit.PIXEL
+                            );
                         }
-
-                        return new PdfImageSource(
-                                form,
-                                size,
-                                Unit.POINTS
-                        );
-                    } else {
-                        PDImageXObject imageXObject = PDImageXObject.createFromFile(imgFile.getAbsolutePath(), ctx.getPdDocument());
-
-                        return new PdfImageSource(
-                                imageXObject,
-                                new Size(imageXObject.getWidth(), imageXObject.getHeight()),
-                                Unit.PIXEL
-                        );
                     }
                 })
                 .build());
     }
 
+    /**
+     * Data retained while exporting pages one after another that is needed
+     * once all pages have been exported.
+     */
+    private static class CrossPageData {
+
+        /**
+         * Elements whose export needs to be deferred until all pages are typeset by their PDF page.
+         */
+        private final Map<PDPage, List<Element>> deferredElements = new LinkedHashMap<>();
+
+        /**
+         * Elements to run the after export hooks for.
+         */
+        private final List<Element> afterExportElements = new ArrayList<>();
+
+        /**
+         * IDs of the nodes that are targets of internal references.
+         */
+        private Set<String> referenceTargetIDs = new HashSet<>();
+
+        /**
+         * Count of references the target IDs have been collected from.
+         */
+        private int referenceCount = -1;
+
+        public Map<PDPage, List<Element>> getDeferredElements() {
+            return deferredElements;
+        }
+
+        public List<Element> getAfterExportElements() {
+            return afterExportElements;
+        }
+
+        /**
+         * Get the IDs of the nodes that are targets of internal references.
+         * References may be added during typesetting (for example for a table of contents),
+         * so the IDs are collected again whenever the count of references changed.
+         *
+         * @param document to get reference targets for
+         * @return the target node IDs
+         */
+        public Set<String> getReferenceTargetIDs(Document document) {
+            List<Reference> references = document.getReferenceModel().getReferences();
+            if (references.size() != referenceCount) {
+                referenceTargetIDs = new HashSet<>();
+                for (Reference reference : references) {
+                    if (reference.getType() == ReferenceType.INTERNAL) {
+                        referenceTargetIDs.add(((InternalReference) reference).getTargetID());
+                    }
+                }
+
+                referenceCount = references.size();
+            }
+
+            return referenceTargetIDs;
+        }
+
+    }
+
 }
@@ -38,4 +38,14 @@ public interface ElementExporter {
      */
     void afterExport(Element element, ExportContext ctx) throws ExportException;
 
+    /**
+     * Check whether the passed element needs to be retained until the export of ALL elements of all pages
+     * finished to call {@link #afterExport(Element, ExportContext)} for it.
+     *
+     * @param element to check
+     * @param ctx     current exporting context
+     * @return whether the after export hook needs to be called for the element
+     */
+    boolean requiresAfterExport(Element element, ExportContext ctx);
+
 }
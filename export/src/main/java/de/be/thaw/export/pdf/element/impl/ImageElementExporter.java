@@ -93,4 +93,9 @@ public class ImageElementExporter implements ElementExporter {
         // Nothing to do after export
     }
 
+    @Override
+    public boolean requiresAfterExport(Element element, ExportContext ctx) {
+        return false;
+    }
+
 }
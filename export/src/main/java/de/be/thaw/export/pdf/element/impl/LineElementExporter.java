@@ -69,4 +69,9 @@ public class LineElementExporter implements ElementExporter {
         // Nothing to do after export
     }
 
+    @Override
+    public boolean requiresAfterExport(Element element, ExportContext ctx) {
+        return false;
+    }
+
 }
@@ -287,4 +287,9 @@ public class MathElementExporter implements ElementExporter {
         // Nothing to do after export
     }
 
+    @Override
+    public boolean requiresAfterExport(Element element, ExportContext ctx) {
+        return false;
+    }
+
 }
@@ -214,4 +214,9 @@ public class RectangleElementExporter implements ElementExporter {
         // Nothing to do after export
     }
 
+    @Override
+    public boolean requiresAfterExport(Element element, ExportContext ctx) {
+        return false;
+    }
+
 }
@@ -3,6 +3,7 @@ package de.be.thaw.export.pdf.element.impl;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.export.exception.ExportException;
 import de.be.thaw.export.pdf.element.ElementExporter;
+import de.be.thaw.export.pdf.font.ResolvedFont;
 import de.be.thaw.export.pdf.font.ThawPdfFont;
 import de.be.thaw.export.pdf.util.ElementLocator;
 import de.be.thaw.export.pdf.util.ExportContext;
@@ -64,8 +65,9 @@ public class TextElementExporter implements ElementExporter {
         try {
             out.beginText();
 
-            ThawPdfFont font = (ThawPdfFont) ctx.getFontForNode(node);
-            double fontSize = ctx.getFontSizeForNode(node);
+            ResolvedFont resolved = ctx.resolveFont(node);
+            ThawPdfFont font = resolved.getFont();
+            double fontSize = resolved.getFontSize();
 
             // Apply font
             out.setFont(font.getPdFont(), (float) fontSize);
@@ -134,6 +136,14 @@ public class TextElementExporter implements ElementExporter {
         createLinkIfNecessary(te, ctx, reference);
     }
 
+    @Override
+    public boolean requiresAfterExport(Element element, ExportContext ctx) {
+        DocumentNode node = element.getNode().orElseThrow();
+
+        // Only elements with a reference need a link to be created
+        return ctx.getDocument().getReferenceModel().getReference(node.getId()).isPresent();
+    }
+
     /**
      * Get the font color for the passed node and reference (if any).
      *
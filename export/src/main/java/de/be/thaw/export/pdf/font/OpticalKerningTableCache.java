@@ -0,0 +1,251 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.typeset.kerning.optical.OpticalKerningTable;
+import de.be.thaw.util.cache.CacheUtil;
+import de.be.thaw.util.debug.Debug;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Formatter;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of optical kerning tables in the Thaw cache directory.
+ * <p>
+ * Tables are stored in a compact binary format keyed by a hash of the font file location, modification time and size
+ * (or of the font data for fonts not loaded from a file) and the font name, so that different versions of a font do not collide.
+ * The format consists of a header (magic number, version, glyph count), the sorted glyph IDs
+ * and the kerning matrix as floats (all big endian).
+ * Cache files are memory-mapped when reading and the kerning matrix is accessed directly in the mapped file.
+ * Writes go to a temporary file that is atomically moved to its place afterwards, so that
+ * concurrent builds sharing the cache directory never read a partially written file.
+ */
+final class OpticalKerningTableCache {
+
+    /**
+     * Logger of the cache.
+     */
+    private static final Logger LOGGER = Logger.getLogger(OpticalKerningTableCache.class.getSimpleName());
+
+    /**
+     * Name of the directory in the cache root directory holding the cached tables.
+     */
+    private static final String CACHE_LOCATION = "optical-kerning";
+
+    /**
+     * File ending of cached tables.
+     */
+    private static final String CACHE_FILE_ENDING = ".okt";
+
+    /**
+     * Magic number at the beginning of each cache file ('TOKT').
+     */
+    private static final int MAGIC = 0x544F4B54;
+
+    /**
+     * Version of the cache file format (and the optical kerning calculation).
+     * When the versions mismatch, the table will have to be recalculated.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    /**
+     * Size of the header (magic number, version and glyph count) in bytes.
+     */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Directory holding the cached tables.
+     */
+    private final File cacheDir;
+
+    OpticalKerningTableCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Get the cache in the default cache location.
+     *
+     * @return the cache
+     */
+    static OpticalKerningTableCache getDefault() {
+        File cacheDir = new File(CacheUtil.getCacheRootDir(), CACHE_LOCATION);
+        if (!cacheDir.exists()) {
+            cacheDir.mkdirs();
+        }
+
+        return new OpticalKerningTableCache(cacheDir);
+    }
+
+    /**
+     * Generate the key of the optical kerning table of a font loaded from the passed file.
+     * The key is derived from the location, modification time and size of the file instead of its contents,
+     * so that generating it does not need to read the whole font file.
+     *
+     * @param fontFile the font has been loaded from
+     * @param fontName name of the font (needed as font collection files contain multiple fonts)
+     * @return the key
+     * @throws IOException in case the key could not be generated
+     */
+    static String generateKey(File fontFile, String fontName) throws IOException {
+        File file = fontFile.getAbsoluteFile();
+        String fileInfo = String.format("%s\n%d\n%d\n", file.getPath(), file.lastModified(), file.length());
+
+        return generateKey(new ByteArrayInputStream(fileInfo.getBytes(StandardCharsets.UTF_8)), fontName);
+    }
+
+    /**
+     * Generate the key of the optical kerning table of a font from its data.
+     *
+     * @param fontData of the font file (will be closed)
+     * @param fontName name of the font (needed as font collection files contain multiple fonts)
+     * @return the key
+     * @throws IOException in case the font data could not be read
+     */
+    static String generateKey(InputStream fontData, String fontName) throws IOException {
+        InputStream in = new SequenceInputStream(fontData, new ByteArrayInputStream(fontName.getBytes(StandardCharsets.UTF_8)));
+
+        try (Formatter formatter = new Formatter()) {
+            for (byte b : CacheUtil.generateHash(in)) {
+                formatter.format("%02x", b);
+            }
+            return formatter.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Load the cached table with the passed key.
+     *
+     * @param key of the table
+     * @return the cached table or an empty Optional if there is no valid cached table
+     */
+    Optional<OpticalKerningTable> load(String key) {
+        File file = getCacheFile(key);
+        if (!file.isFile()) {
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuffer data;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Mapping stays valid after closing the channel
+            }
+
+            if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Not an optical kerning table cache file");
+            }
+
+            int version = data.getInt(Integer.BYTES);
+            if (version != CACHE_VERSION) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.INFO, String.format(
+                            "Cached optical kerning table '%s' has version %d instead of %d and will be recalculated",
+                            file.getAbsolutePath(),
+                            version,
+                            CACHE_VERSION
+                    ));
+                }
+                return Optional.empty();
+            }
+
+            int glyphCount = data.getInt(2 * Integer.BYTES);
+            long expectedSize = HEADER_SIZE + (long) glyphCount * Integer.BYTES + (long) glyphCount * glyphCount * Float.BYTES;
+            if (glyphCount < 0 || data.limit() != expectedSize) {
+                throw new IOException(String.format(
+                        "Expected %d bytes for %d glyphs but the file has %d bytes",
+                        expectedSize,
+                        glyphCount,
+                        data.limit()
+                ));
+            }
+
+            int[] glyphIDs = new int[glyphCount];
+            for (int i = 0; i < glyphCount; i++) {
+                glyphIDs[i] = data.getInt(HEADER_SIZE + i * Integer.BYTES);
+            }
+
+            FloatBuffer kerning = data.position(HEADER_SIZE + glyphCount * Integer.BYTES).slice().asFloatBuffer();
+
+            return Optional.of(new OpticalKerningTable(glyphIDs, kerning));
+        } catch (IOException | IllegalArgumentException e) {
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.WARNING, String.format(
+                        "Could not load cached optical kerning table '%s'. Recalculating it.",
+                        file.getAbsolutePath()
+                ), e);
+            }
+
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the passed table under the passed key.
+     *
+     * @param key   of the table
+     * @param table to store
+     * @throws IOException in case the table could not be written
+     */
+    void store(String key, OpticalKerningTable table) throws IOException {
+        int[] glyphIDs = table.getGlyphIDs();
+        FloatBuffer kerning = table.getKerningMatrix();
+
+        // Write to a temporary file unique to this writer first to not leave a broken cache file behind
+        Path tmpFile = Files.createTempFile(cacheDir.toPath(), key, ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmpFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(CACHE_VERSION);
+                out.writeInt(glyphIDs.length);
+
+                for (int glyphID : glyphIDs) {
+                    out.writeInt(glyphID);
+                }
+
+                for (int i = 0; i < kerning.limit(); i++) {
+                    out.writeFloat(kerning.get(i));
+                }
+            }
+
+            Path target = getCacheFile(key).toPath();
+            try {
+                Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Get the cache file for the passed key.
+     *
+     * @param key of the table
+     * @return cache file
+     */
+    private File getCacheFile(String key) {
+        return new File(cacheDir, key + CACHE_FILE_ENDING);
+    }
+
+}
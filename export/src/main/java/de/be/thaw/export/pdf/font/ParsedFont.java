@@ -0,0 +1,641 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.export.pdf.font.exception.FontParseException;
+import de.be.thaw.font.opentype.OpenTypeFace;
+import de.be.thaw.font.opentype.OpenTypeFile;
+import de.be.thaw.font.opentype.gpos.GlyphPositioningTable;
+import de.be.thaw.font.util.CharacterSize;
+import de.be.thaw.typeset.kerning.glyph.Coordinate;
+import de.be.thaw.typeset.kerning.glyph.Glyph;
+import de.be.thaw.typeset.kerning.optical.OpticalKerningTable;
+import de.be.thaw.util.Size;
+import de.be.thaw.util.debug.Debug;
+import de.be.thaw.util.os.OperatingSystem;
+import de.be.thaw.util.os.exception.CouldNotDetermineOperatingSystemException;
+import org.apache.fontbox.ttf.CmapSubtable;
+import org.apache.fontbox.ttf.CmapTable;
+import org.apache.fontbox.ttf.GlyphData;
+import org.apache.fontbox.ttf.GlyphDescription;
+import org.apache.fontbox.ttf.GlyphTable;
+import org.apache.fontbox.ttf.KerningSubtable;
+import org.apache.fontbox.ttf.KerningTable;
+import org.apache.fontbox.ttf.OpenTypeScript;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TTFTable;
+import org.apache.fontbox.ttf.TrueTypeCollection;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A parsed TrueType font that is independent of the PDF document it is embedded in.
+ * It holds the character map, the glyph metrics and the kerning tables and is shared
+ * by all documents using the font (see {@link ParsedFontRegistry}).
+ * Glyph metrics are loaded lazily and published safely, so the font may be used by multiple threads.
+ * Closing the font releases the font file (if it is still open).
+ */
+final class ParsedFont implements Closeable {
+
+    /**
+     * Logger of the parsed font.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ParsedFont.class.getSimpleName());
+
+    /**
+     * The latin alphabet.
+     */
+    private static final String LATIN_ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * The decimal digits.
+     */
+    private static final String DIGITS = "0123456789";
+
+    /**
+     * Common punctuation characters.
+     */
+    private static final String PUNCTUATION = ".,:;!?'\"-()[]/&";
+
+    /**
+     * Characters for which we do optical kerning.
+     */
+    private static final char[] OPTICAL_KERNING_CHARACTERS = (LATIN_ALPHABET + LATIN_ALPHABET.toUpperCase() + DIGITS + PUNCTUATION).toCharArray();
+
+    /**
+     * Count of code points in the basic multilingual plane.
+     */
+    private static final int BMP_SIZE = 0x10000;
+
+    /**
+     * Handle used to publish lazily loaded glyph metrics to other threads.
+     */
+    private static final VarHandle FLOAT_ARRAY_HANDLE = MethodHandles.arrayElementVarHandle(float[].class);
+
+    /**
+     * The parsed TrueType font.
+     */
+    private final TrueTypeFont ttf;
+
+    /**
+     * The font collection the font has been taken from (if any).
+     * It is kept open as the font tables are read lazily from it.
+     */
+    @Nullable
+    private final TrueTypeCollection collection;
+
+    /**
+     * File the font has been loaded from (if any).
+     */
+    @Nullable
+    private final File fontFile;
+
+    /**
+     * The glyph table of the font.
+     */
+    private GlyphTable glyphTable;
+
+    /**
+     * Table used to determine kerning adjustments.
+     */
+    private KerningSubtable kerningSubtable;
+
+    /**
+     * Kerning table calculated from optical kerning (loaded on the first optical kerning request).
+     */
+    @Nullable
+    private volatile OpticalKerningTable opticalKerningTable;
+
+    /**
+     * A map of characters.
+     */
+    private CmapSubtable characterMap;
+
+    /**
+     * Glyph IDs by code point for the basic multilingual plane (-1 when not looked up yet).
+     */
+    private int[] bmpGlyphIDs;
+
+    /**
+     * Advance widths by glyph ID (in 1/1000 em rounded like the widths of the embedded PDF font, NaN when not loaded yet).
+     * The minimum and maximum y-coordinates of a glyph are valid once its advance width is loaded.
+     */
+    private float[] advanceWidths;
+
+    /**
+     * Minimum y-coordinates of the glyph bounding boxes by glyph ID (in font units).
+     */
+    private float[] yMinimums;
+
+    /**
+     * Maximum y-coordinates of the glyph bounding boxes by glyph ID (in font units).
+     */
+    private float[] yMaximums;
+
+    /**
+     * Units per EM of this font.
+     */
+    private double unitsPerEm;
+
+    /**
+     * The glyph positioning table.
+     */
+    @Nullable
+    private GlyphPositioningTable gposTable;
+
+    /**
+     * Create a parsed font.
+     *
+     * @param ttf      the parsed TrueType font
+     * @param fontFile file the font has been loaded from (if any)
+     * @throws IOException in case the font could not be loaded properly
+     */
+    ParsedFont(TrueTypeFont ttf, @Nullable File fontFile) throws IOException {
+        this(ttf, null, fontFile);
+    }
+
+    /**
+     * Create a parsed font.
+     *
+     * @param ttf        the parsed TrueType font
+     * @param collection the font collection the font has been taken from (if any)
+     * @param fontFile   file the font has been loaded from (if any)
+     * @throws IOException in case the font could not be loaded properly
+     */
+    private ParsedFont(TrueTypeFont ttf, @Nullable TrueTypeCollection collection, @Nullable File fontFile) throws IOException {
+        this.ttf = ttf;
+        this.collection = collection;
+        this.fontFile = fontFile;
+
+        initForTTF(ttf, fontFile);
+    }
+
+    /**
+     * Parse the font with the passed name from the passed font file.
+     *
+     * @param fontName name of the font
+     * @param fontFile file of the font
+     * @return the parsed font
+     * @throws FontParseException in case the font could not be parsed
+     */
+    static ParsedFont parse(String fontName, File fontFile) throws FontParseException {
+        String fileName = fontFile.getName().toLowerCase();
+
+        boolean isTrueType = fileName.endsWith(".ttf");
+        boolean isTrueTypeCollection = fileName.endsWith(".ttc");
+
+        try {
+            if (isTrueType) {
+                try (InputStream in = new FileInputStream(fontFile)) {
+                    return new ParsedFont(new TTFParser().parse(in), fontFile);
+                }
+            } else if (isTrueTypeCollection) {
+                // The collection is kept open as the font tables are read lazily
+                TrueTypeCollection collection = new TrueTypeCollection(fontFile);
+                try {
+                    TrueTypeFont ttf = collection.getFontByName(fontName);
+                    if (ttf == null) {
+                        throw new FontParseException(String.format("Could not find font '%s' in font collection '%s'", fontName, fileName));
+                    }
+
+                    return new ParsedFont(ttf, collection, fontFile);
+                } catch (IOException | FontParseException e) {
+                    collection.close();
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            throw new FontParseException(e);
+        }
+
+        throw new FontParseException(String.format("Could not parse font from file '%s'", fileName));
+    }
+
+    /**
+     * Initialize for the passed true type font.
+     *
+     * @param ttf      to initialize for
+     * @param fontFile file the font has been loaded from (if any)
+     */
+    private void initForTTF(TrueTypeFont ttf, @Nullable File fontFile) throws IOException {
+        characterMap = getCharacterMap(ttf);
+        glyphTable = ttf.getGlyph();
+        unitsPerEm = ttf.getUnitsPerEm();
+
+        bmpGlyphIDs = new int[BMP_SIZE];
+        Arrays.fill(bmpGlyphIDs, -1);
+
+        int numberOfGlyphs = Math.max(ttf.getNumberOfGlyphs(), 1);
+        advanceWidths = new float[numberOfGlyphs];
+        Arrays.fill(advanceWidths, Float.NaN);
+        yMinimums = new float[numberOfGlyphs];
+        yMaximums = new float[numberOfGlyphs];
+
+        // Fetch GPOS table for getting kerning information
+        ByteBuffer gpos = getGlyphPositioningTableData(ttf, fontFile);
+        if (gpos != null) {
+            // Parse GPOS table to fetch pair positioning (kerning) information
+            gposTable = new GlyphPositioningTable(gpos);
+        } else {
+            // Fallback to the older KERN table
+            KerningTable kerningTable = ttf.getKerning();
+            if (kerningTable != null) {
+                kerningSubtable = kerningTable.getHorizontalKerningSubtable();
+            }
+        }
+    }
+
+    /**
+     * Get the data of the GPOS table of the passed font.
+     * When the font file is known, the table is read from the memory-mapped file without copying it.
+     *
+     * @param ttf      to get GPOS table data of
+     * @param fontFile file the font has been loaded from (if any)
+     * @return the GPOS table data or null if the font does not have a GPOS table
+     * @throws IOException in case the table could not be read
+     */
+    @Nullable
+    private ByteBuffer getGlyphPositioningTableData(TrueTypeFont ttf, @Nullable File fontFile) throws IOException {
+        if (fontFile != null) {
+            OpenTypeFile file = OpenTypeFile.open(fontFile);
+
+            Optional<OpenTypeFace> face = file.getFaceCount() == 1
+                    ? Optional.of(file.getFace(0))
+                    : file.getFaceByPostScriptName(ttf.getName());
+            if (face.isPresent()) {
+                return face.orElseThrow().getTable(GlyphPositioningTable.TAG).orElse(null);
+            }
+        }
+
+        TTFTable gpos = ttf.getTableMap().get(GlyphPositioningTable.TAG);
+        return gpos != null ? ByteBuffer.wrap(ttf.getTableBytes(gpos)) : null;
+    }
+
+    /**
+     * Get the character map for the passed TrueType font.
+     *
+     * @param ttf to get character map for
+     * @return character map
+     * @throws IOException in case the character map could not be loaded
+     */
+    private CmapSubtable getCharacterMap(TrueTypeFont ttf) throws IOException {
+        CmapSubtable cMap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_FULL);
+        if (cMap != null) {
+            return cMap;
+        }
+
+        cMap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_UNICODE, CmapTable.ENCODING_UNICODE_2_0_BMP);
+        if (cMap != null) {
+            return cMap;
+        }
+
+        try {
+            OperatingSystem os = OperatingSystem.current();
+
+            if (os == OperatingSystem.WINDOWS) {
+                cMap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_WINDOWS, CmapTable.ENCODING_WIN_UNICODE_FULL);
+                if (cMap != null) {
+                    return cMap;
+                }
+
+                cMap = ttf.getCmap().getSubtable(CmapTable.PLATFORM_WINDOWS, CmapTable.ENCODING_WIN_UNICODE_BMP);
+            } else if (os == OperatingSystem.MAC_OS) {
+                return ttf.getCmap().getSubtable(CmapTable.PLATFORM_MACINTOSH, CmapTable.ENCODING_MAC_ROMAN);
+            }
+        } catch (CouldNotDetermineOperatingSystemException e) {
+            throw new IOException(e);
+        }
+
+        if (cMap == null) {
+            throw new IOException("Could not load character map for the font");
+        }
+
+        return cMap;
+    }
+
+    /**
+     * Get the size of the passed character.
+     *
+     * @param character to get size of
+     * @param fontSize  the font size
+     * @return character size
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    CharacterSize getCharacterSize(int character, double fontSize) throws IOException {
+        int glyphID = getLoadedGlyphID(character);
+
+        return new CharacterSize(
+                advanceWidths[glyphID] * fontSize / 1000,
+                (yMaximums[glyphID] - yMinimums[glyphID]) * fontSize / unitsPerEm,
+                yMaximums[glyphID] * fontSize / unitsPerEm,
+                -yMinimums[glyphID] * fontSize / unitsPerEm
+        );
+    }
+
+    /**
+     * Get the width of the passed character.
+     *
+     * @param character to get width of
+     * @param fontSize  the font size
+     * @return width
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    double getCharacterWidth(int character, double fontSize) throws IOException {
+        return advanceWidths[getLoadedGlyphID(character)] * fontSize / 1000;
+    }
+
+    /**
+     * Get the height of the passed character.
+     *
+     * @param character to get height of
+     * @param fontSize  the font size
+     * @return height
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    double getCharacterHeight(int character, double fontSize) throws IOException {
+        int glyphID = getLoadedGlyphID(character);
+
+        return (yMaximums[glyphID] - yMinimums[glyphID]) * fontSize / unitsPerEm;
+    }
+
+    /**
+     * Get the ascent of the passed character.
+     *
+     * @param character to get ascent of
+     * @param fontSize  the font size
+     * @return ascent
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    double getCharacterAscent(int character, double fontSize) throws IOException {
+        return yMaximums[getLoadedGlyphID(character)] * fontSize / unitsPerEm;
+    }
+
+    /**
+     * Get the descent of the passed character.
+     *
+     * @param character to get descent of
+     * @param fontSize  the font size
+     * @return descent
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    double getCharacterDescent(int character, double fontSize) throws IOException {
+        return -yMinimums[getLoadedGlyphID(character)] * fontSize / unitsPerEm;
+    }
+
+    /**
+     * Get the glyph ID for the passed code point.
+     * Lookups in the basic multilingual plane are cached.
+     *
+     * @param codePoint to get glyph ID for
+     * @return glyph ID
+     */
+    private int getGlyphID(int codePoint) {
+        if (codePoint < 0 || codePoint >= BMP_SIZE) {
+            return characterMap.getGlyphId(codePoint);
+        }
+
+        int glyphID = bmpGlyphIDs[codePoint];
+        if (glyphID == -1) {
+            glyphID = characterMap.getGlyphId(codePoint);
+            bmpGlyphIDs[codePoint] = glyphID;
+        }
+
+        return glyphID;
+    }
+
+    /**
+     * Get the glyph ID for the passed code point and make sure the metrics of the glyph are loaded.
+     *
+     * @param codePoint to get glyph ID for
+     * @return glyph ID
+     * @throws IOException in case the glyph metrics could not be loaded
+     */
+    private int getLoadedGlyphID(int codePoint) throws IOException {
+        int glyphID = getGlyphID(codePoint);
+        if (glyphID < 0 || glyphID >= advanceWidths.length) {
+            glyphID = 0; // Not part of the font -> use the missing glyph
+        }
+
+        if (Float.isNaN((float) FLOAT_ARRAY_HANDLE.getAcquire(advanceWidths, glyphID))) {
+            loadGlyphMetrics(glyphID);
+        }
+
+        return glyphID;
+    }
+
+    /**
+     * Load the metrics of the glyph with the passed ID.
+     * Reading a glyph parses its outline, which is why this is only done once per glyph.
+     *
+     * @param glyphID to load metrics for
+     * @throws IOException in case the glyph could not be read
+     */
+    private synchronized void loadGlyphMetrics(int glyphID) throws IOException {
+        if (!Float.isNaN(advanceWidths[glyphID])) {
+            return; // Already loaded by another thread
+        }
+
+        GlyphData data = glyphTable.getGlyph(glyphID);
+        if (data != null) {
+            yMinimums[glyphID] = data.getYMinimum();
+            yMaximums[glyphID] = data.getYMaximum();
+        }
+
+        // Publish the advance width last as it marks the glyph metrics as loaded
+        FLOAT_ARRAY_HANDLE.setRelease(advanceWidths, glyphID, (float) Math.round(ttf.getAdvanceWidth(glyphID) * (1000f / (float) unitsPerEm)));
+    }
+
+    /**
+     * Get the kerning adjustment between the passed characters using the fonts native kerning (GPOS or KERN table).
+     *
+     * @param leftChar  the left character
+     * @param rightChar the right character
+     * @param fontSize  the font size
+     * @return kerning adjustment
+     */
+    double getNativeKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+        if (gposTable != null) {
+            return gposTable.getKerning(getGlyphID(leftChar), getGlyphID(rightChar), OpenTypeScript.getScriptTags(leftChar), null) * fontSize / unitsPerEm;
+        } else if (kerningSubtable != null) {
+            return kerningSubtable.getKerning(getGlyphID(leftChar), getGlyphID(rightChar)) * fontSize / unitsPerEm;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get the kerning adjustment between the passed characters using the optical kerning table.
+     *
+     * @param leftChar  the left character
+     * @param rightChar the right character
+     * @param fontSize  the font size
+     * @return kerning adjustment
+     */
+    double getOpticalKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+        return getOpticalKerningTable().getKerning(getGlyphID(leftChar), getGlyphID(rightChar)) * fontSize / unitsPerEm;
+    }
+
+    /**
+     * Get the optical kerning table of the font.
+     * The table is loaded from the cache (or calculated) on the first request,
+     * so that fonts that are never kerned optically do not pay for it.
+     *
+     * @return optical kerning table
+     */
+    private OpticalKerningTable getOpticalKerningTable() {
+        OpticalKerningTable table = opticalKerningTable;
+        if (table == null) {
+            synchronized (this) {
+                table = opticalKerningTable;
+                if (table == null) {
+                    table = loadOpticalKerningTable();
+                    opticalKerningTable = table;
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Load the optical kerning table of the font from the cache or calculate (and cache) it.
+     *
+     * @return optical kerning table (empty in case it could not be calculated)
+     */
+    private OpticalKerningTable loadOpticalKerningTable() {
+        OpticalKerningTableCache cache = OpticalKerningTableCache.getDefault();
+
+        try {
+            String cacheKey = fontFile != null
+                    ? OpticalKerningTableCache.generateKey(fontFile, ttf.getName())
+                    : OpticalKerningTableCache.generateKey(ttf.getOriginalData(), ttf.getName());
+
+            Optional<OpticalKerningTable> cached = cache.load(cacheKey);
+            if (cached.isPresent()) {
+                return cached.orElseThrow();
+            }
+
+            OpticalKerningTable table = calculateOpticalKerningTable();
+
+            try {
+                cache.store(cacheKey, table);
+            } catch (IOException e) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format(
+                            "Could not cache the optical kerning table of font '%s'",
+                            ttf.getName()
+                    ), e);
+                }
+            }
+
+            return table;
+        } catch (IOException e) {
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.WARNING, "Could not calculate the optical kerning table of the font. Continuing without optical kerning.", e);
+            }
+
+            return new OpticalKerningTable();
+        }
+    }
+
+    /**
+     * Get the parsed TrueType font.
+     *
+     * @return TrueType font
+     */
+    TrueTypeFont getTrueTypeFont() {
+        return ttf;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (collection != null) {
+            collection.close(); // The fonts of a collection share the collection's file
+        } else {
+            ttf.close();
+        }
+    }
+
+    /**
+     * Get the units per EM of the font.
+     *
+     * @return units per EM
+     */
+    double getUnitsPerEm() {
+        return unitsPerEm;
+    }
+
+    /**
+     * Calculate the optical kerning table.
+     *
+     * @return optical kerning table
+     * @throws IOException in case the glyphs could not be fetched from the font
+     */
+    private OpticalKerningTable calculateOpticalKerningTable() throws IOException {
+        List<Glyph> glyphs = new ArrayList<>(OPTICAL_KERNING_CHARACTERS.length);
+        for (char c : OPTICAL_KERNING_CHARACTERS) {
+            int glyphID = characterMap.getGlyphId(c);
+            if (glyphID == 0) {
+                continue; // Character is not part of the font
+            }
+
+            GlyphData data = glyphTable.getGlyph(glyphID);
+            if (data != null) {
+                glyphs.add(convertToGlyph(data, glyphID, c));
+            }
+        }
+
+        OpticalKerningTable okt = new OpticalKerningTable();
+        okt.init(glyphs.toArray(Glyph[]::new));
+
+        return okt;
+    }
+
+    /**
+     * Convert the passed arguments to a glyph.
+     *
+     * @param data      of the glyph
+     * @param glyphID   the glyph ID
+     * @param codePoint the actual code point the glyph is representing
+     * @return glyph
+     */
+    private Glyph convertToGlyph(GlyphData data, int glyphID, int codePoint) {
+        Size size = new Size(data.getXMaximum() - data.getXMinimum(), data.getYMaximum() - data.getYMinimum());
+        Coordinate position = new Coordinate(data.getXMinimum(), data.getYMinimum());
+
+        List<List<Coordinate>> contours = new ArrayList<>(Math.max(0, data.getNumberOfContours()));
+        GlyphDescription description = data.getDescription();
+        int start = 0;
+        for (int c = 0; c < data.getNumberOfContours(); c++) {
+            int end = description.getEndPtOfContours(c);
+
+            List<Coordinate> contour = new ArrayList<>();
+            for (int i = start; i <= end; i++) {
+                short x = description.getXCoordinate(i);
+                short y = description.getYCoordinate(i);
+
+                contour.add(new Coordinate(x, y));
+            }
+
+            contours.add(contour);
+
+            start = end + 1;
+        }
+
+        return new Glyph(glyphID, codePoint, size, position, contours);
+    }
+
+}
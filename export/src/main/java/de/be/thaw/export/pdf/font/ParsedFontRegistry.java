@@ -0,0 +1,194 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.export.pdf.font.exception.FontParseException;
+import de.be.thaw.util.debug.Debug;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide registry of parsed fonts.
+ * Parsing a font and calculating its kerning tables is expensive, thus parsed fonts are shared
+ * by all documents exported in the same JVM. Only the embedding of a font in a PDF document
+ * is done per document (see {@link ThawPdfFontCore}).
+ * <p>
+ * The registry holds a bounded count of fonts and evicts the least recently used ones.
+ * A font whose file changed is replaced by the newly parsed font.
+ * Evicted and replaced fonts are not closed, as they may still be used by an export in progress.
+ * They are released once they are no more referenced.
+ */
+final class ParsedFontRegistry {
+
+    /**
+     * Logger of the registry.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ParsedFontRegistry.class.getSimpleName());
+
+    /**
+     * Default maximum count of parsed fonts to keep.
+     */
+    private static final int DEFAULT_MAX_FONTS = 64;
+
+    /**
+     * Maximum count of parsed fonts to keep.
+     */
+    private final int maxFonts;
+
+    /**
+     * Parsed fonts by their key in least recently used order.
+     */
+    private final Map<Key, ParsedFont> fonts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ParsedFont> eldest) {
+            return size() > maxFonts;
+        }
+    };
+
+    ParsedFontRegistry(int maxFonts) {
+        this.maxFonts = maxFonts;
+    }
+
+    /**
+     * Get the current instance of the registry.
+     *
+     * @return instance
+     */
+    static ParsedFontRegistry getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Get the parsed font with the passed name in the passed font file.
+     * The font is parsed on first request.
+     * A font file that changed since it has been parsed is parsed again.
+     *
+     * @param fontName name of the font (needed as font collection files contain multiple fonts)
+     * @param fontFile file of the font
+     * @return the parsed font
+     * @throws FontParseException in case the font could not be parsed
+     */
+    synchronized ParsedFont get(String fontName, File fontFile) throws FontParseException {
+        Key key = new Key(fontFile.getAbsolutePath(), fontName, fontFile.lastModified(), fontFile.length());
+
+        ParsedFont font = fonts.get(key);
+        if (font == null) {
+            font = ParsedFont.parse(fontName, fontFile);
+
+            // Drop outdated versions of the font (not closing them as they may still be in use)
+            fonts.keySet().removeIf(k -> key.path.equals(k.path) && key.fontName.equals(k.fontName));
+
+            fonts.put(key, font);
+
+            log(key);
+        }
+
+        return font;
+    }
+
+    /**
+     * Get the parsed font registered under the passed name (for example for fonts bundled with Thaw).
+     * The font is loaded using the passed loader on first request.
+     *
+     * @param name   of the font
+     * @param loader to load the font with
+     * @return the parsed font
+     * @throws IOException in case the font could not be loaded
+     */
+    synchronized ParsedFont get(String name, ThawPdfFont.TrueTypeFontLoader loader) throws IOException {
+        Key key = new Key(null, name, 0, 0);
+
+        ParsedFont font = fonts.get(key);
+        if (font == null) {
+            font = new ParsedFont(loader.load(), null);
+            fonts.put(key, font);
+
+            log(key);
+        }
+
+        return font;
+    }
+
+    /**
+     * Log that the font with the passed key has been parsed.
+     *
+     * @param key of the font
+     */
+    private void log(Key key) {
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Parsed font '%s'%s (%d fonts registered)",
+                    key.fontName,
+                    key.path != null ? String.format(" from '%s'", key.path) : "",
+                    fonts.size()
+            ));
+        }
+    }
+
+    /**
+     * Key of a parsed font.
+     */
+    private static final class Key {
+
+        /**
+         * Absolute path of the font file (or null for fonts not loaded from a file).
+         */
+        private final String path;
+
+        /**
+         * Name of the font.
+         */
+        private final String fontName;
+
+        /**
+         * Modification time of the font file.
+         */
+        private final long lastModified;
+
+        /**
+         * Size of the font file.
+         */
+        private final long size;
+
+        Key(String path, String fontName, long lastModified, long size) {
+            this.path = path;
+            this.fontName = fontName;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return lastModified == key.lastModified
+                    && size == key.size
+                    && Objects.equals(path, key.path)
+                    && fontName.equals(key.fontName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, fontName, lastModified, size);
+        }
+
+    }
+
+    /**
+     * Holder of the registry singleton instance.
+     */
+    private static final class InstanceHolder {
+
+        /**
+         * Instance of the registry.
+         */
+        static final ParsedFontRegistry INSTANCE = new ParsedFontRegistry(DEFAULT_MAX_FONTS);
+
+    }
+
+}
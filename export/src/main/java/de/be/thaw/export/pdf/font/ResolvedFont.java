@@ -0,0 +1,59 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.font.util.KerningMode;
+
+/**
+ * Immutable handle of a font resolved for a style (font family, variant, kerning mode and size).
+ * Handles are shared by all document nodes with the same font style.
+ */
+public final class ResolvedFont {
+
+    /**
+     * The resolved font.
+     */
+    private final ThawPdfFont font;
+
+    /**
+     * Kerning mode to use with the font.
+     */
+    private final KerningMode kerningMode;
+
+    /**
+     * Size of the font (in points).
+     */
+    private final double fontSize;
+
+    public ResolvedFont(ThawPdfFont font, KerningMode kerningMode, double fontSize) {
+        this.font = font;
+        this.kerningMode = kerningMode;
+        this.fontSize = fontSize;
+    }
+
+    /**
+     * Get the resolved font.
+     *
+     * @return font
+     */
+    public ThawPdfFont getFont() {
+        return font;
+    }
+
+    /**
+     * Get the kerning mode to use with the font.
+     *
+     * @return kerning mode
+     */
+    public KerningMode getKerningMode() {
+        return kerningMode;
+    }
+
+    /**
+     * Get the size of the font (in points).
+     *
+     * @return font size
+     */
+    public double getFontSize() {
+        return fontSize;
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.font.util.KerningMode;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+import java.io.IOException;
+
+/**
+ * Immutable core of a PDF font shared by all kerning mode views ({@link ThawPdfFont}) of the font.
+ * It holds the font embedded in a PDF document and refers to the parsed font data
+ * that is shared by all documents (see {@link ParsedFont}).
+ */
+final class ThawPdfFontCore {
+
+    /**
+     * The parsed font shared by all documents.
+     */
+    private final ParsedFont parsedFont;
+
+    /**
+     * The ready to use PDF font embedded in the document.
+     */
+    private final PDFont pdFont;
+
+    /**
+     * Views of the font by kerning mode (indexed by the kerning mode ordinal).
+     */
+    private final ThawPdfFont[] views;
+
+    /**
+     * Create new PDF font core.
+     *
+     * @param parsedFont the parsed font to embed
+     * @param document   to embed font in
+     * @throws IOException in case the font could not be embedded
+     */
+    ThawPdfFontCore(ParsedFont parsedFont, PDDocument document) throws IOException {
+        this.parsedFont = parsedFont;
+
+        // Embedding does not take ownership of the shared TrueType font (it is not closed with the document)
+        pdFont = PDType0Font.load(document, parsedFont.getTrueTypeFont(), true);
+
+        KerningMode[] kerningModes = KerningMode.values();
+        views = new ThawPdfFont[kerningModes.length];
+        for (KerningMode kerningMode : kerningModes) {
+            views[kerningMode.ordinal()] = new ThawPdfFont(this, kerningMode);
+        }
+    }
+
+    /**
+     * Get the view of the font using the passed kerning mode.
+     *
+     * @param kerningMode of the view
+     * @return view
+     */
+    ThawPdfFont getView(KerningMode kerningMode) {
+        return views[kerningMode.ordinal()];
+    }
+
+    /**
+     * Get the parsed font shared by all documents.
+     *
+     * @return parsed font
+     */
+    ParsedFont getParsedFont() {
+        return parsedFont;
+    }
+
+    /**
+     * Get the PDF font embedded in the document.
+     *
+     * @return PDF font
+     */
+    PDFont getPdFont() {
+        return pdFont;
+    }
+
+    /**
+     * Get the ascent of the font.
+     *
+     * @param fontSize the font size
+     * @return ascent
+     */
+    double getAscent(double fontSize) {
+        return pdFont.getFontDescriptor().getAscent() * fontSize / parsedFont.getUnitsPerEm();
+    }
+
+    /**
+     * Get the descent of the font.
+     *
+     * @param fontSize the font size
+     * @return descent
+     */
+    double getDescent(double fontSize) {
+        return pdFont.getFontDescriptor().getDescent() * fontSize / parsedFont.getUnitsPerEm();
+    }
+
+}
@@ -4,6 +4,7 @@ import de.be.thaw.core.document.Document;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.export.exception.ExportException;
 import de.be.thaw.export.pdf.PdfExporter;
+import de.be.thaw.export.pdf.font.ResolvedFont;
 import de.be.thaw.export.pdf.font.ThawPdfFont;
 import de.be.thaw.export.pdf.font.exception.FontParseException;
 import de.be.thaw.font.ThawFont;
@@ -32,8 +33,10 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -47,10 +50,15 @@ public class ExportContext {
     private static final Logger LOGGER = Logger.getLogger(PdfExporter.class.getSimpleName());
 
     /**
-     * Cache for already loaded and embedded fonts.
+     * Cache for already loaded and embedded fonts (only accessed while holding the lock on the context).
      */
     private final Map<FontVariantLocator, ThawFont> fontCache = new HashMap<>();
 
+    /**
+     * Cache of already resolved fonts by the font style they have been resolved for.
+     */
+    private final Map<FontStyleSignature, ResolvedFont> resolvedFontCache = new ConcurrentHashMap<>();
+
     /**
      * The PDF document to export to.
      */
@@ -360,9 +368,60 @@ public class ExportContext {
      * @return font
      */
     public ThawFont getFontForNode(DocumentNode node) throws ExportException {
-        FontVariantLocator locator = getFontVariantLocatorForStyleValue(
+        return resolveFont(node).getFont();
+    }
+
+    /**
+     * Resolve the font for the passed node.
+     * Fonts are resolved only once per distinct font style (family, variant, kerning mode and size),
+     * further nodes with the same font style share the resolved font handle.
+     * <p>
+     * This method is thread-safe. Already resolved fonts are looked up without locking,
+     * only loading a font (and embedding it in the PDF document) is done while holding the lock on the context.
+     *
+     * @param node to resolve font for
+     * @return the resolved font
+     * @throws ExportException in case the font could not be resolved
+     */
+    public ResolvedFont resolveFont(DocumentNode node) throws ExportException {
+        FontStyleSignature signature = new FontStyleSignature(
                 node.getStyles().resolve(StyleType.FONT_FAMILY).orElseThrow(),
+                node.getStyles().resolve(StyleType.INLINE_CODE_FONT_FAMILY).orElse(null),
                 getFontVariantFromNode(node),
+                node.getStyles()
+                        .resolve(StyleType.FONT_KERNING)
+                        .orElse(new KerningModeStyleValue(KerningMode.NATIVE))
+                        .kerningMode(),
+                getFontSizeForNode(node)
+        );
+
+        ResolvedFont resolved = resolvedFontCache.get(signature);
+        if (resolved == null) {
+            synchronized (this) { // The PDF document the fonts are embedded in is not thread-safe
+                resolved = resolvedFontCache.get(signature);
+                if (resolved == null) {
+                    resolved = resolveFont(signature, node);
+
+                    resolvedFontCache.put(signature, resolved);
+                }
+            }
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Resolve the font for the passed font style.
+     *
+     * @param signature of the font style to resolve font for
+     * @param node      the font style belongs to
+     * @return the resolved font
+     * @throws ExportException in case the font could not be resolved
+     */
+    private ResolvedFont resolveFont(FontStyleSignature signature, DocumentNode node) throws ExportException {
+        FontVariantLocator locator = getFontVariantLocatorForStyleValue(
+                signature.getFontFamily(),
+                signature.getVariant(),
                 node
         );
 
@@ -370,7 +429,7 @@ public class ExportContext {
         if (font == null) {
             // Load the font
             try {
-                font = new ThawPdfFont(locator.getFontName(), new File(locator.getFontFile().getLocation()), getPdDocument());
+                font = ThawPdfFont.load(locator.getFontName(), new File(locator.getFontFile().getLocation()), getPdDocument());
 
                 fontCache.put(locator, font);
             } catch (FontParseException e) {
@@ -378,14 +437,10 @@ public class ExportContext {
             }
         }
 
-        if (locator.getVariant() != FontVariant.MONOSPACE) { // Monospaced fonts should not be optically kerned
-            font.setKerningMode(node.getStyles()
-                    .resolve(StyleType.FONT_KERNING)
-                    .orElse(new KerningModeStyleValue(KerningMode.NATIVE))
-                    .kerningMode());
-        }
+        // Monospaced fonts should not be optically kerned
+        KerningMode kerningMode = locator.getVariant() != FontVariant.MONOSPACE ? signature.getKerningMode() : KerningMode.NATIVE;
 
-        return font;
+        return new ResolvedFont(font.withKerningMode(kerningMode), kerningMode, signature.getFontSize());
     }
 
     /**
@@ -436,4 +491,103 @@ public class ExportContext {
         return mathFont;
     }
 
+    /**
+     * Signature of a font style, containing all style values that influence the font to resolve.
+     */
+    private static final class FontStyleSignature {
+
+        /**
+         * The font family style value.
+         */
+        private final StyleValue fontFamily;
+
+        /**
+         * Name of the font family.
+         */
+        private final String fontFamilyName;
+
+        /**
+         * File or folder of the font family (if any).
+         */
+        private final File fontFamilyFile;
+
+        /**
+         * Name of the inline code font family (if any).
+         */
+        private final String inlineCodeFontFamilyName;
+
+        /**
+         * File or folder of the inline code font family (if any).
+         */
+        private final File inlineCodeFontFamilyFile;
+
+        /**
+         * The preferred font variant.
+         */
+        private final FontVariant variant;
+
+        /**
+         * Kerning mode to use.
+         */
+        private final KerningMode kerningMode;
+
+        /**
+         * Size of the font (in points).
+         */
+        private final double fontSize;
+
+        FontStyleSignature(
+                StyleValue fontFamily,
+                StyleValue inlineCodeFontFamily,
+                FontVariant variant,
+                KerningMode kerningMode,
+                double fontSize
+        ) {
+            this.fontFamily = fontFamily;
+            this.fontFamilyName = fontFamily.value();
+            this.fontFamilyFile = fontFamily.file();
+            this.inlineCodeFontFamilyName = inlineCodeFontFamily != null ? inlineCodeFontFamily.value() : null;
+            this.inlineCodeFontFamilyFile = inlineCodeFontFamily != null ? inlineCodeFontFamily.file() : null;
+            this.variant = variant;
+            this.kerningMode = kerningMode;
+            this.fontSize = fontSize;
+        }
+
+        public StyleValue getFontFamily() {
+            return fontFamily;
+        }
+
+        public FontVariant getVariant() {
+            return variant;
+        }
+
+        public KerningMode getKerningMode() {
+            return kerningMode;
+        }
+
+        public double getFontSize() {
+            return fontSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FontStyleSignature that = (FontStyleSignature) o;
+            return Double.compare(that.fontSize, fontSize) == 0
+                    && Objects.equals(fontFamilyName, that.fontFamilyName)
+                    && Objects.equals(fontFamilyFile, that.fontFamilyFile)
+                    && Objects.equals(inlineCodeFontFamilyName, that.inlineCodeFontFamilyName)
+                    && Objects.equals(inlineCodeFontFamilyFile, that.inlineCodeFontFamilyFile)
+                    && variant == that.variant
+                    && kerningMode == that.kerningMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fontFamilyName, fontFamilyFile, inlineCodeFontFamilyName, inlineCodeFontFamilyFile, variant, kerningMode, fontSize);
+        }
+
+    }
+
 }
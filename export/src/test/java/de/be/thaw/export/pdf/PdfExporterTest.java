@@ -0,0 +1,149 @@
+package de.be.thaw.export.pdf;
+
+import de.be.thaw.core.document.Document;
+import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
+import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
+import de.be.thaw.info.impl.DefaultThawInfo;
+import de.be.thaw.info.model.author.Author;
+import de.be.thaw.info.model.language.Language;
+import de.be.thaw.math.util.MathFont;
+import de.be.thaw.reference.citation.empty.EmptyCitationManager;
+import de.be.thaw.shared.ThawContext;
+import de.be.thaw.style.model.impl.DefaultStyleModel;
+import de.be.thaw.style.parser.impl.DefaultStyleFormatParser;
+import de.be.thaw.text.parser.TextParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+public class PdfExporterTest {
+
+    /**
+     * Document starting with a table of contents, followed by headlines on the next pages.
+     */
+    private static final String TEXT = "#TOC#\n" +
+            "\n" +
+            "#BREAK, type=PAGE#\n" +
+            "\n" +
+            "#H1# First chapter\n" +
+            "\n" +
+            "The first chapter.\n" +
+            "\n" +
+            "#BREAK, type=PAGE#\n" +
+            "\n" +
+            "#H1# Second chapter\n" +
+            "\n" +
+            "The second chapter.\n" +
+            "\n" +
+            "#BREAK, type=PAGE#\n" +
+            "\n" +
+            "#H2# Section\n" +
+            "\n" +
+            "A section of the second chapter.\n";
+
+    /**
+     * Styles of the document using the font file in the working directory (independent of the installed fonts).
+     */
+    private static final String STYLE = "document {\n" +
+            "    font-family: STIX Two Math:url(font.ttf);\n" +
+            "}\n";
+
+    /**
+     * Temporary directory to export to.
+     */
+    @TempDir
+    File dir;
+
+    /**
+     * Create a document from the passed text and styles.
+     *
+     * @param text  of the document
+     * @param style of the document
+     * @return the document
+     * @throws Exception in case the document could not be built
+     */
+    private Document createDocument(String text, String style) throws Exception {
+        File fontFile = new File(dir, "font.ttf");
+        try (InputStream in = MathFont.getMathFontStream()) {
+            Files.copy(in, fontFile.toPath());
+        }
+
+        ThawContext.getInstance().setCurrentFolder(dir);
+        ThawContext.getInstance().setTextParser(new TextParser());
+
+        DefaultThawInfo info = new DefaultThawInfo(
+                StandardCharsets.UTF_8,
+                Language.ENGLISH,
+                new Author("Test", "test@example.com"),
+                new HashMap<>()
+        );
+
+        return new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                info,
+                new TextParser().parse(new StringReader(text)),
+                new DefaultStyleFormatParser().parse(new StringReader(style), dir).merge(DefaultStyleModel.defaultModel()),
+                new EmptyCitationManager()
+        ));
+    }
+
+    /**
+     * Get the line of the passed text containing the passed string.
+     *
+     * @param text to search line in
+     * @param str  to search for
+     * @return the line (with normalized whitespace)
+     */
+    private static String getLineContaining(String text, String str) {
+        for (String line : text.split("\\R")) {
+            if (line.contains(str)) {
+                return line.trim().replaceAll("\\s+", " ");
+            }
+        }
+
+        return Assertions.fail(String.format("No line containing '%s' in:%n%s", str, text));
+    }
+
+    @Test
+    public void deferredPageNumbersTest() throws Exception {
+        Document document = createDocument(TEXT, STYLE);
+
+        File pdf = new File(dir, "out.pdf");
+        new PdfExporter().export(document, pdf.toPath());
+
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            Assertions.assertEquals(4, doc.getNumberOfPages());
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+
+            // The page numbers of the table of contents are exported only after the pages of the headlines,
+            // but end up in the content of the first page at the end of the table of contents lines
+            stripper.setStartPage(1);
+            stripper.setEndPage(1);
+            String toc = stripper.getText(doc);
+
+            Assertions.assertEquals("1 First chapter 2", getLineContaining(toc, "First chapter"));
+            Assertions.assertEquals("2 Second chapter 3", getLineContaining(toc, "Second chapter"));
+            Assertions.assertEquals("2.1 Section 4", getLineContaining(toc, "Section"));
+
+            // The headlines are on the pages the table of contents refers to
+            String[] headlines = {"First chapter", "Second chapter", "Section"};
+            for (int i = 0; i < headlines.length; i++) {
+                stripper.setStartPage(i + 2);
+                stripper.setEndPage(i + 2);
+
+                Assertions.assertTrue(stripper.getText(doc).contains(headlines[i]), headlines[i]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.typeset.kerning.optical.OpticalKerningTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+
+public class OpticalKerningTableCacheTest {
+
+    /**
+     * Key of the cached table in the tests.
+     */
+    private static final String KEY = "test";
+
+    /**
+     * Temporary cache directory.
+     */
+    @TempDir
+    File cacheDir;
+
+    /**
+     * Create a table with the glyphs 3, 5 and 8.
+     *
+     * @return the table
+     */
+    private static OpticalKerningTable createTable() {
+        return new OpticalKerningTable(new int[]{3, 5, 8}, FloatBuffer.wrap(new float[]{
+                0, -10, 20,
+                -30, 0, 40.5f,
+                50, -60.25f, 0
+        }));
+    }
+
+    /**
+     * Get the cache file of the table with the passed key.
+     * Each test case modifies its own file, as loaded files stay memory-mapped.
+     *
+     * @param key of the table
+     * @return cache file
+     */
+    private File getCacheFile(String key) {
+        return new File(cacheDir, key + ".okt");
+    }
+
+    /**
+     * Overwrite the integer at the passed offset in the cache file of the table with the passed key.
+     *
+     * @param key    of the table
+     * @param offset of the integer
+     * @param value  to write
+     * @throws Exception in case the file could not be written
+     */
+    private void writeInt(String key, long offset, int value) throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(getCacheFile(key), "rw")) {
+            file.seek(offset);
+            file.writeInt(value);
+        }
+    }
+
+    @Test
+    public void roundTripTest() throws Exception {
+        OpticalKerningTableCache cache = new OpticalKerningTableCache(cacheDir);
+        OpticalKerningTable table = createTable();
+
+        Assertions.assertTrue(cache.load(KEY).isEmpty());
+
+        cache.store(KEY, table);
+
+        Optional<OpticalKerningTable> loaded = cache.load(KEY);
+        Assertions.assertTrue(loaded.isPresent());
+        Assertions.assertArrayEquals(table.getGlyphIDs(), loaded.orElseThrow().getGlyphIDs());
+        Assertions.assertEquals(table.getKerningMatrix(), loaded.orElseThrow().getKerningMatrix());
+
+        Assertions.assertEquals(-60.25, loaded.orElseThrow().getKerning(8, 5));
+        Assertions.assertEquals(40.5, loaded.orElseThrow().getKerning(5, 8));
+        Assertions.assertEquals(0, loaded.orElseThrow().getKerning(4, 5)); // Glyph not in the table
+
+        // No temporary files are left behind
+        Assertions.assertEquals(1, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void versionMismatchTest() throws Exception {
+        OpticalKerningTableCache cache = new OpticalKerningTableCache(cacheDir);
+        cache.store(KEY, createTable());
+
+        writeInt(KEY, Integer.BYTES, Integer.MAX_VALUE); // Version
+
+        Assertions.assertTrue(cache.load(KEY).isEmpty());
+    }
+
+    @Test
+    public void glyphCountMismatchTest() throws Exception {
+        OpticalKerningTableCache cache = new OpticalKerningTableCache(cacheDir);
+        cache.store(KEY, createTable());
+        cache.store("negative", createTable());
+
+        writeInt(KEY, 2 * Integer.BYTES, 4); // Glyph count
+        Assertions.assertTrue(cache.load(KEY).isEmpty());
+
+        writeInt("negative", 2 * Integer.BYTES, -1);
+        Assertions.assertTrue(cache.load("negative").isEmpty());
+    }
+
+    @Test
+    public void corruptFileTest() throws Exception {
+        OpticalKerningTableCache cache = new OpticalKerningTableCache(cacheDir);
+        cache.store(KEY, createTable());
+        byte[] data = Files.readAllBytes(getCacheFile(KEY).toPath());
+
+        // Truncated file
+        Files.write(getCacheFile("truncated").toPath(), Arrays.copyOf(data, data.length - 3));
+        Assertions.assertTrue(cache.load("truncated").isEmpty());
+
+        // Wrong magic number
+        Files.write(getCacheFile("magic").toPath(), data);
+        writeInt("magic", 0, 0);
+        Assertions.assertTrue(cache.load("magic").isEmpty());
+
+        // Shorter than the header
+        Files.write(getCacheFile("short").toPath(), new byte[]{0x54, 0x4F});
+        Assertions.assertTrue(cache.load("short").isEmpty());
+
+        // A corrupt file is replaced when storing the table again
+        Files.write(getCacheFile("replaced").toPath(), Arrays.copyOf(data, data.length - 3));
+        cache.store("replaced", createTable());
+        Assertions.assertTrue(cache.load("replaced").isPresent());
+    }
+
+    @Test
+    public void fileKeyTest() throws Exception {
+        File fontFile = new File(cacheDir, "font.ttf");
+        Files.write(fontFile.toPath(), new byte[]{1, 2, 3});
+        fontFile.setLastModified(1_000_000_000L);
+
+        String key = OpticalKerningTableCache.generateKey(fontFile, "Font");
+        Assertions.assertEquals(key, OpticalKerningTableCache.generateKey(fontFile, "Font"));
+        Assertions.assertNotEquals(key, OpticalKerningTableCache.generateKey(fontFile, "Font-Bold"));
+
+        // Modified font file
+        Files.write(fontFile.toPath(), new byte[]{1, 2, 3, 4});
+        fontFile.setLastModified(1_000_000_000L);
+        String modifiedKey = OpticalKerningTableCache.generateKey(fontFile, "Font");
+        Assertions.assertNotEquals(key, modifiedKey);
+
+        fontFile.setLastModified(2_000_000_000L);
+        Assertions.assertNotEquals(modifiedKey, OpticalKerningTableCache.generateKey(fontFile, "Font"));
+    }
+
+}
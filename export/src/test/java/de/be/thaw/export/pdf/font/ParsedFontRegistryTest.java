@@ -0,0 +1,111 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.math.util.MathFont;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+public class ParsedFontRegistryTest {
+
+    /**
+     * Name of the font used in the tests.
+     */
+    private static final String FONT_NAME = "STIXTwoMath-Regular";
+
+    /**
+     * Font size used in the tests.
+     */
+    private static final double FONT_SIZE = 12;
+
+    /**
+     * Temporary directory to copy the font files to.
+     */
+    @TempDir
+    File dir;
+
+    /**
+     * Copy the font bundled with Thaw to a file with the passed name in the temporary directory.
+     *
+     * @param fileName name of the font file
+     * @return the font file
+     * @throws Exception in case the font could not be copied
+     */
+    private File copyFont(String fileName) throws Exception {
+        File fontFile = new File(dir, fileName);
+        try (InputStream in = MathFont.getMathFontStream()) {
+            Files.copy(in, fontFile.toPath());
+        }
+        fontFile.setLastModified(1_000_000_000L);
+
+        return fontFile;
+    }
+
+    @Test
+    public void sameKeyReuseTest() throws Exception {
+        ParsedFontRegistry registry = new ParsedFontRegistry(4);
+        File fontFile = copyFont("font.ttf");
+
+        ParsedFont font = registry.get(FONT_NAME, fontFile);
+        Assertions.assertSame(font, registry.get(FONT_NAME, fontFile));
+        Assertions.assertSame(font, registry.get(FONT_NAME, new File(dir, "font.ttf")));
+    }
+
+    @Test
+    public void replaceChangedFileTest() throws Exception {
+        ParsedFontRegistry registry = new ParsedFontRegistry(4);
+        File fontFile = copyFont("font.ttf");
+
+        ParsedFont font = registry.get(FONT_NAME, fontFile);
+
+        // Modification time changed
+        fontFile.setLastModified(2_000_000_000L);
+        ParsedFont modified = registry.get(FONT_NAME, fontFile);
+        Assertions.assertNotSame(font, modified);
+        Assertions.assertSame(modified, registry.get(FONT_NAME, fontFile));
+
+        // Size changed (with the same modification time)
+        Files.write(fontFile.toPath(), new byte[16], StandardOpenOption.APPEND);
+        fontFile.setLastModified(2_000_000_000L);
+        ParsedFont resized = registry.get(FONT_NAME, fontFile);
+        Assertions.assertNotSame(modified, resized);
+        Assertions.assertSame(resized, registry.get(FONT_NAME, fontFile));
+
+        // Replaced fonts are not closed, as they may still be in use (metrics of the glyphs are loaded lazily)
+        Assertions.assertTrue(font.getCharacterWidth('x', FONT_SIZE) > 0);
+        Assertions.assertTrue(modified.getCharacterWidth('y', FONT_SIZE) > 0);
+        Assertions.assertEquals(font.getCharacterWidth('z', FONT_SIZE), resized.getCharacterWidth('z', FONT_SIZE));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() throws Exception {
+        ParsedFontRegistry registry = new ParsedFontRegistry(2);
+        File fileA = copyFont("a.ttf");
+        File fileB = copyFont("b.ttf");
+        File fileC = copyFont("c.ttf");
+
+        ParsedFont fontA = registry.get(FONT_NAME, fileA);
+        ParsedFont fontB = registry.get(FONT_NAME, fileB);
+
+        // Use A again, so that B is the least recently used font
+        Assertions.assertSame(fontA, registry.get(FONT_NAME, fileA));
+
+        ParsedFont fontC = registry.get(FONT_NAME, fileC); // Evicts B
+
+        Assertions.assertSame(fontA, registry.get(FONT_NAME, fileA));
+        Assertions.assertSame(fontC, registry.get(FONT_NAME, fileC));
+
+        ParsedFont reparsedB = registry.get(FONT_NAME, fileB); // Evicts A
+        Assertions.assertNotSame(fontB, reparsedB);
+        Assertions.assertSame(fontC, registry.get(FONT_NAME, fileC));
+        Assertions.assertNotSame(fontA, registry.get(FONT_NAME, fileA));
+
+        // Evicted fonts are not closed
+        Assertions.assertTrue(fontB.getCharacterWidth('x', FONT_SIZE) > 0);
+    }
+
+}
@@ -0,0 +1,86 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.math.util.MathFont;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+public class ParsedFontTest {
+
+    /**
+     * Name of the font used in the tests.
+     */
+    private static final String FONT_NAME = "STIXTwoMath-Regular";
+
+    /**
+     * Allowed deviation of kerning values (in font units), as the kerning table stores floats.
+     */
+    private static final double DELTA = 0.001;
+
+    /**
+     * Temporary directory to copy the font file to.
+     */
+    @TempDir
+    File dir;
+
+    /**
+     * Parse the font bundled with Thaw from a temporary copy (so that a fresh optical kerning table is calculated).
+     *
+     * @return the parsed font
+     * @throws Exception in case the font could not be parsed
+     */
+    private ParsedFont parseFont() throws Exception {
+        File fontFile = new File(dir, "font.ttf");
+        try (InputStream in = MathFont.getMathFontStream()) {
+            Files.copy(in, fontFile.toPath());
+        }
+
+        return ParsedFont.parse(FONT_NAME, fontFile);
+    }
+
+    /**
+     * Assert the optical kerning of the passed character pair.
+     *
+     * @param expected kerning (in font units)
+     * @param font     to get kerning from
+     * @param pair     the left and right character
+     */
+    private static void assertOpticalKerning(double expected, ParsedFont font, String pair) {
+        Assertions.assertEquals(
+                expected,
+                font.getOpticalKerningAdjustment(pair.charAt(0), pair.charAt(1), font.getUnitsPerEm()),
+                DELTA,
+                pair
+        );
+    }
+
+    @Test
+    public void opticalKerningTest() throws Exception {
+        try (ParsedFont font = parseFont()) {
+            // Letter pairs are kerned like before digits and punctuation were added to the table,
+            // as the mean minimum distance is still taken over letter pairs only
+            assertOpticalKerning(-126.4, font, "AV");
+            assertOpticalKerning(-56.4, font, "To");
+            assertOpticalKerning(-72.8, font, "LT");
+            assertOpticalKerning(-96.8, font, "Wa");
+            assertOpticalKerning(-13.6, font, "oo");
+            assertOpticalKerning(0, font, "ov");
+
+            // Digits and punctuation are kerned relative to the letter spacing
+            assertOpticalKerning(-80.8, font, "T.");
+            assertOpticalKerning(-122.8, font, "F,");
+            assertOpticalKerning(-108.8, font, "7.");
+            assertOpticalKerning(-92.8, font, "/A");
+            assertOpticalKerning(38, font, "(j");
+            assertOpticalKerning(0, font, "1,");
+
+            // Characters not in the table are not kerned
+            assertOpticalKerning(0, font, "Aα");
+        }
+    }
+
+}
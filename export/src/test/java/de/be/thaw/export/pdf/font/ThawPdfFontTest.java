@@ -0,0 +1,123 @@
+package de.be.thaw.export.pdf.font;
+
+import de.be.thaw.font.util.KerningMode;
+import de.be.thaw.math.util.MathFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+public class ThawPdfFontTest {
+
+    /**
+     * Name of the font used in the tests.
+     */
+    private static final String FONT_NAME = "STIXTwoMath-Regular";
+
+    /**
+     * Allowed deviation of kerning values.
+     */
+    private static final double DELTA = 0.001;
+
+    /**
+     * Temporary directory to copy the font file to.
+     */
+    @TempDir
+    File dir;
+
+    /**
+     * The font file used in the tests (a copy of the font bundled with Thaw).
+     */
+    private File fontFile;
+
+    @BeforeEach
+    public void copyFont() throws Exception {
+        fontFile = new File(dir, "font.ttf");
+        try (InputStream in = MathFont.getMathFontStream()) {
+            Files.copy(in, fontFile.toPath());
+        }
+    }
+
+    @Test
+    public void kerningModeViewsTest() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            ThawPdfFont font = ThawPdfFont.load(FONT_NAME, fontFile, document);
+            Assertions.assertEquals(KerningMode.NATIVE, font.getKerningMode());
+
+            // Every kerning mode has exactly one view
+            Assertions.assertSame(font, font.withKerningMode(KerningMode.NATIVE));
+            for (KerningMode kerningMode : KerningMode.values()) {
+                ThawPdfFont view = font.withKerningMode(kerningMode);
+
+                Assertions.assertEquals(kerningMode, view.getKerningMode());
+                Assertions.assertSame(view, font.withKerningMode(kerningMode));
+                Assertions.assertSame(font, view.withKerningMode(KerningMode.NATIVE));
+
+                // All views share the font embedded in the document
+                Assertions.assertSame(font.getPdFont(), view.getPdFont());
+                Assertions.assertEquals(font.getAscent(12), view.getAscent(12));
+                Assertions.assertEquals(font.getDescent(12), view.getDescent(12));
+            }
+
+            // Getting other views does not change the kerning mode of a view
+            Assertions.assertEquals(KerningMode.NATIVE, font.getKerningMode());
+        }
+    }
+
+    @Test
+    public void kerningAdjustmentTest() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            ThawPdfFont font = ThawPdfFont.load(FONT_NAME, fontFile, document);
+            ParsedFont parsedFont = ParsedFontRegistry.getInstance().get(FONT_NAME, fontFile);
+
+            ThawPdfFont optical = font.withKerningMode(KerningMode.OPTICAL);
+            ThawPdfFont none = font.withKerningMode(KerningMode.NONE);
+
+            for (String pair : new String[]{"AV", "To", "T.", "oo"}) {
+                int left = pair.charAt(0);
+                int right = pair.charAt(1);
+
+                Assertions.assertEquals(parsedFont.getNativeKerningAdjustment(left, right, 10), font.getKerningAdjustment(left, right, 10), DELTA, pair);
+                Assertions.assertEquals(parsedFont.getOpticalKerningAdjustment(left, right, 10), optical.getKerningAdjustment(left, right, 10), DELTA, pair);
+                Assertions.assertEquals(0, none.getKerningAdjustment(left, right, 10), pair);
+            }
+
+            // Optical kerning of the font (-126.4 font units) scaled to the font size
+            Assertions.assertEquals(-1.264, optical.getKerningAdjustment('A', 'V', 10), DELTA);
+
+            // The views kern the same string differently while measuring the same characters
+            Assertions.assertEquals(
+                    font.getStringSize("AV", 10).getWidth(),
+                    none.getStringSize("AV", 10).getWidth(),
+                    DELTA
+            );
+            Assertions.assertEquals(
+                    none.getKernedStringSize(-1, "AV", 10).getWidth() - 1.264,
+                    optical.getKernedStringSize(-1, "AV", 10).getWidth(),
+                    DELTA
+            );
+        }
+    }
+
+    @Test
+    public void documentsShareParsedFontTest() throws Exception {
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            ThawPdfFont firstFont = ThawPdfFont.load(FONT_NAME, fontFile, first);
+            ThawPdfFont secondFont = ThawPdfFont.load(FONT_NAME, fontFile, second);
+
+            // Each document embeds the font itself, but the kerning is calculated from the same parsed font
+            Assertions.assertNotSame(firstFont, secondFont);
+            Assertions.assertNotSame(firstFont.getPdFont(), secondFont.getPdFont());
+            Assertions.assertEquals(
+                    firstFont.withKerningMode(KerningMode.OPTICAL).getKerningAdjustment('A', 'V', 10),
+                    secondFont.withKerningMode(KerningMode.OPTICAL).getKerningAdjustment('A', 'V', 10)
+            );
+        }
+    }
+
+}
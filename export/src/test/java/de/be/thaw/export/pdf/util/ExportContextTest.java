@@ -0,0 +1,132 @@
+package de.be.thaw.export.pdf.util;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.export.pdf.font.ResolvedFont;
+import de.be.thaw.export.pdf.font.ThawPdfFont;
+import de.be.thaw.font.util.FontManager;
+import de.be.thaw.font.util.FontVariant;
+import de.be.thaw.font.util.KerningMode;
+import de.be.thaw.math.util.MathFont;
+import de.be.thaw.style.model.block.StyleBlock;
+import de.be.thaw.style.model.style.StyleType;
+import de.be.thaw.style.model.style.Styles;
+import de.be.thaw.style.model.style.value.DoubleStyleValue;
+import de.be.thaw.style.model.style.value.FontFamilyStyleValue;
+import de.be.thaw.style.model.style.value.FontVariantStyleValue;
+import de.be.thaw.style.model.style.value.KerningModeStyleValue;
+import de.be.thaw.style.model.style.value.StyleValue;
+import de.be.thaw.util.unit.Unit;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ExportContextTest {
+
+    /**
+     * Temporary directory to copy the font file to.
+     */
+    @TempDir
+    File dir;
+
+    /**
+     * The font file used in the tests (a copy of the font bundled with Thaw).
+     */
+    private File fontFile;
+
+    @BeforeEach
+    public void copyFont() throws Exception {
+        fontFile = new File(dir, "font.ttf");
+        try (InputStream in = MathFont.getMathFontStream()) {
+            Files.copy(in, fontFile.toPath());
+        }
+    }
+
+    /**
+     * Create a document node using the font file with the passed styles.
+     *
+     * @param size        of the font (in points)
+     * @param kerningMode to use
+     * @param variant     of the font
+     * @return the node
+     */
+    private DocumentNode node(double size, KerningMode kerningMode, FontVariant variant) {
+        Map<StyleType, StyleValue> styles = new HashMap<>();
+        styles.put(StyleType.FONT_FAMILY, new FontFamilyStyleValue("STIX Two Math", fontFile));
+        styles.put(StyleType.FONT_SIZE, new DoubleStyleValue(size, Unit.POINTS));
+        styles.put(StyleType.FONT_KERNING, new KerningModeStyleValue(kerningMode));
+        styles.put(StyleType.FONT_VARIANT, new FontVariantStyleValue(variant));
+
+        return new DocumentNode(null, null, new Styles(List.of(new StyleBlock(null, styles))));
+    }
+
+    @Test
+    public void sameFontStyleTest() throws Exception {
+        try (PDDocument pdDocument = new PDDocument()) {
+            ExportContext ctx = new ExportContext(pdDocument, null);
+
+            ResolvedFont resolved = ctx.resolveFont(node(12, KerningMode.OPTICAL, FontVariant.PLAIN));
+            Assertions.assertEquals(12, resolved.getFontSize());
+            Assertions.assertEquals(KerningMode.OPTICAL, resolved.getKerningMode());
+            Assertions.assertEquals(KerningMode.OPTICAL, ((ThawPdfFont) resolved.getFont()).getKerningMode());
+
+            // Nodes with the same font style (but different style instances) share the resolved font handle
+            Assertions.assertSame(resolved, ctx.resolveFont(node(12, KerningMode.OPTICAL, FontVariant.PLAIN)));
+            Assertions.assertSame(resolved.getFont(), ctx.getFontForNode(node(12, KerningMode.OPTICAL, FontVariant.PLAIN)));
+        }
+    }
+
+    @Test
+    public void differentFontStyleTest() throws Exception {
+        try (PDDocument pdDocument = new PDDocument()) {
+            ExportContext ctx = new ExportContext(pdDocument, null);
+
+            ResolvedFont resolved = ctx.resolveFont(node(12, KerningMode.NATIVE, FontVariant.PLAIN));
+
+            // Another font size uses the same font
+            ResolvedFont otherSize = ctx.resolveFont(node(14, KerningMode.NATIVE, FontVariant.PLAIN));
+            Assertions.assertNotSame(resolved, otherSize);
+            Assertions.assertEquals(14, otherSize.getFontSize());
+            Assertions.assertSame(resolved.getFont(), otherSize.getFont());
+
+            // Another kerning mode uses another view of the same font
+            ResolvedFont otherKerning = ctx.resolveFont(node(12, KerningMode.NONE, FontVariant.PLAIN));
+            Assertions.assertNotSame(resolved, otherKerning);
+            Assertions.assertEquals(KerningMode.NONE, otherKerning.getKerningMode());
+            Assertions.assertSame(
+                    ((ThawPdfFont) resolved.getFont()).withKerningMode(KerningMode.NONE),
+                    otherKerning.getFont()
+            );
+            Assertions.assertSame(
+                    ((ThawPdfFont) resolved.getFont()).getPdFont(),
+                    ((ThawPdfFont) otherKerning.getFont()).getPdFont()
+            );
+
+            // A single font file is used for all font variants
+            ResolvedFont otherVariant = ctx.resolveFont(node(12, KerningMode.NATIVE, FontVariant.BOLD));
+            Assertions.assertNotSame(resolved, otherVariant);
+            Assertions.assertSame(resolved.getFont(), otherVariant.getFont());
+        }
+    }
+
+    @Test
+    public void fontFileRegisteredOnceTest() throws Exception {
+        FontManager fontManager = FontManager.getInstance();
+
+        List<?> locators = fontManager.registerFont(fontFile);
+        Assertions.assertEquals(1, locators.size());
+
+        // Further registrations of the same file (even by another file instance) return the already registered locators
+        Assertions.assertSame(locators, fontManager.registerFont(fontFile));
+        Assertions.assertSame(locators, fontManager.registerFont(new File(fontFile.getAbsolutePath())));
+    }
+
+}
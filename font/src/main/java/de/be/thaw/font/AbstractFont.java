@@ -1,11 +1,9 @@
 package de.be.thaw.font;
 
-import de.be.thaw.font.util.CharacterSize;
 import de.be.thaw.font.util.KernedSize;
 import de.be.thaw.font.util.StringSize;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Abstract font representation.
@@ -29,12 +27,11 @@ public abstract class AbstractFont implements ThawFont {
                 i += charCount - 1;
             }
 
-            CharacterSize characterSize = getCharacterSize(character, fontSize);
-            width += characterSize.getWidth();
-            height = Math.max(characterSize.getHeight(), height);
+            width += getCharacterWidth(character, fontSize);
+            height = Math.max(getCharacterHeight(character, fontSize), height);
 
-            maxAscent = Math.max(characterSize.getAscent(), maxAscent);
-            maxDescent = Math.max(characterSize.getDescent(), maxDescent);
+            maxAscent = Math.max(getCharacterAscent(character, fontSize), maxAscent);
+            maxDescent = Math.max(getCharacterDescent(character, fontSize), maxDescent);
         }
 
         return new StringSize(width, height, maxAscent, maxDescent);
@@ -49,7 +46,8 @@ public abstract class AbstractFont implements ThawFont {
         double maxDescent = Double.MIN_VALUE;
 
         int len = str.length();
-        List<Double> kerningAdjustments = new ArrayList<>(len);
+        double[] kerningAdjustments = new double[len];
+        int codePoints = 0;
         for (int i = 0; i < len; i++) {
             int character = str.codePointAt(i);
 
@@ -62,14 +60,13 @@ public abstract class AbstractFont implements ThawFont {
             if (charBefore != -1) {
                 kerningAdjustment = getKerningAdjustment(charBefore, character, fontSize);
             }
-            kerningAdjustments.add(kerningAdjustment);
+            kerningAdjustments[codePoints++] = kerningAdjustment;
 
-            CharacterSize characterSize = getCharacterSize(character, fontSize);
-            width += characterSize.getWidth() + kerningAdjustment;
-            height = Math.max(characterSize.getHeight(), height);
+            width += getCharacterWidth(character, fontSize) + kerningAdjustment;
+            height = Math.max(getCharacterHeight(character, fontSize), height);
 
-            maxAscent = Math.max(characterSize.getAscent(), maxAscent);
-            maxDescent = Math.max(characterSize.getDescent(), maxDescent);
+            maxAscent = Math.max(getCharacterAscent(character, fontSize), maxAscent);
+            maxDescent = Math.max(getCharacterDescent(character, fontSize), maxDescent);
 
             charBefore = character;
         }
@@ -79,8 +76,58 @@ public abstract class AbstractFont implements ThawFont {
                 height,
                 maxAscent,
                 maxDescent,
-                kerningAdjustments.stream().mapToDouble(i -> i).toArray()
+                codePoints == len ? kerningAdjustments : Arrays.copyOf(kerningAdjustments, codePoints)
         );
     }
 
+    /**
+     * Get the advance width of the passed character.
+     * Fonts should override the character metric methods to measure strings
+     * without creating a character size for each character.
+     *
+     * @param character to get width for
+     * @param fontSize  the font size
+     * @return width
+     * @throws Exception in case the width could not be determined
+     */
+    protected double getCharacterWidth(int character, double fontSize) throws Exception {
+        return getCharacterSize(character, fontSize).getWidth();
+    }
+
+    /**
+     * Get the height of the passed character.
+     *
+     * @param character to get height for
+     * @param fontSize  the font size
+     * @return height
+     * @throws Exception in case the height could not be determined
+     */
+    protected double getCharacterHeight(int character, double fontSize) throws Exception {
+        return getCharacterSize(character, fontSize).getHeight();
+    }
+
+    /**
+     * Get the ascent of the passed character.
+     *
+     * @param character to get ascent for
+     * @param fontSize  the font size
+     * @return ascent
+     * @throws Exception in case the ascent could not be determined
+     */
+    protected double getCharacterAscent(int character, double fontSize) throws Exception {
+        return getCharacterSize(character, fontSize).getAscent();
+    }
+
+    /**
+     * Get the descent of the passed character.
+     *
+     * @param character to get descent for
+     * @param fontSize  the font size
+     * @return descent
+     * @throws Exception in case the descent could not be determined
+     */
+    protected double getCharacterDescent(int character, double fontSize) throws Exception {
+        return getCharacterSize(character, fontSize).getDescent();
+    }
+
 }
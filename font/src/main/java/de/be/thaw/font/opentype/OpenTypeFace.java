@@ -0,0 +1,166 @@
+package de.be.thaw.font.opentype;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A single face of an {@link OpenTypeFile}.
+ * It holds the table directory of the face and hands out the tables as read-only slices of the file data.
+ */
+public final class OpenTypeFace {
+
+    /**
+     * Tag of the naming table.
+     */
+    private static final String NAME_TABLE_TAG = "name";
+
+    /**
+     * Name ID of the PostScript name in the naming table.
+     */
+    private static final int POST_SCRIPT_NAME_ID = 6;
+
+    /**
+     * Data of the whole font file.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Offset and length of the tables (as two ints) by their tag.
+     */
+    private final Map<String, int[]> tableRecords;
+
+    private OpenTypeFace(ByteBuffer data, Map<String, int[]> tableRecords) {
+        this.data = data;
+        this.tableRecords = tableRecords;
+    }
+
+    /**
+     * Read the table directory of the face at the passed offset.
+     *
+     * @param data   of the font file
+     * @param offset of the table directory
+     * @return the face
+     * @throws IOException in case the table directory could not be read
+     */
+    static OpenTypeFace read(ByteBuffer data, int offset) throws IOException {
+        try {
+            int numTables = data.getShort(offset + 4) & 0xFFFF;
+
+            Map<String, int[]> tableRecords = new HashMap<>(numTables * 2);
+            for (int i = 0; i < numTables; i++) {
+                int recordOffset = offset + 12 + i * 16;
+
+                byte[] tag = new byte[4];
+                for (int a = 0; a < tag.length; a++) {
+                    tag[a] = data.get(recordOffset + a);
+                }
+
+                int tableOffset = data.getInt(recordOffset + 8);
+                int tableLength = data.getInt(recordOffset + 12);
+                if (tableOffset < 0 || tableLength < 0 || (long) tableOffset + tableLength > data.limit()) {
+                    throw new IOException(String.format(
+                            "Table '%s' exceeds the font file",
+                            new String(tag, StandardCharsets.ISO_8859_1)
+                    ));
+                }
+
+                tableRecords.put(new String(tag, StandardCharsets.ISO_8859_1), new int[]{tableOffset, tableLength});
+            }
+
+            return new OpenTypeFace(data, tableRecords);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Table directory exceeds the font file", e);
+        }
+    }
+
+    /**
+     * Get the table with the passed tag.
+     * The returned buffer is a read-only view of the table data (starting at index 0)
+     * and shares the memory with the (mapped) font file.
+     *
+     * @param tag of the table
+     * @return the table data or an empty Optional if the face does not have the table
+     */
+    public Optional<ByteBuffer> getTable(String tag) {
+        int[] record = tableRecords.get(tag);
+        if (record == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(data.slice(record[0], record[1]).asReadOnlyBuffer());
+    }
+
+    /**
+     * Check whether the face has the table with the passed tag.
+     *
+     * @param tag of the table
+     * @return whether the table is present
+     */
+    public boolean hasTable(String tag) {
+        return tableRecords.containsKey(tag);
+    }
+
+    /**
+     * Get the PostScript name of the face from the naming table.
+     *
+     * @return PostScript name or an empty Optional if the face does not specify one
+     */
+    public Optional<String> getPostScriptName() {
+        Optional<ByteBuffer> optionalNameTable = getTable(NAME_TABLE_TAG);
+        if (optionalNameTable.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ByteBuffer nameTable = optionalNameTable.orElseThrow();
+        try {
+            int count = nameTable.getShort(2) & 0xFFFF;
+            int storageOffset = nameTable.getShort(4) & 0xFFFF;
+
+            String macName = null;
+            for (int i = 0; i < count; i++) {
+                int recordOffset = 6 + i * 12;
+
+                int platformID = nameTable.getShort(recordOffset) & 0xFFFF;
+                int nameID = nameTable.getShort(recordOffset + 6) & 0xFFFF;
+                if (nameID != POST_SCRIPT_NAME_ID) {
+                    continue;
+                }
+
+                int length = nameTable.getShort(recordOffset + 8) & 0xFFFF;
+                int offset = nameTable.getShort(recordOffset + 10) & 0xFFFF;
+
+                if (platformID == 0 || platformID == 3) {
+                    return Optional.of(readString(nameTable, storageOffset + offset, length, StandardCharsets.UTF_16BE));
+                } else if (platformID == 1 && macName == null) {
+                    macName = readString(nameTable, storageOffset + offset, length, StandardCharsets.ISO_8859_1);
+                }
+            }
+
+            return Optional.ofNullable(macName);
+        } catch (IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read a string from the passed buffer.
+     *
+     * @param buffer  to read from
+     * @param offset  of the string
+     * @param length  of the string (in bytes)
+     * @param charset of the string
+     * @return the read string
+     */
+    private static String readString(ByteBuffer buffer, int offset, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes, 0, length);
+
+        return new String(bytes, charset);
+    }
+
+}
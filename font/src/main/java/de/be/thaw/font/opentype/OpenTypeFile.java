@@ -0,0 +1,127 @@
+package de.be.thaw.font.opentype;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * OpenType font file (TrueType, OpenType or a font collection) that is memory-mapped.
+ * Only the offsets of the contained faces are read when opening the file,
+ * the table directory of a face is read when the face is requested and tables
+ * are handed out as {@link ByteBuffer} slices of the mapped file without copying them.
+ */
+public final class OpenTypeFile {
+
+    /**
+     * Tag of a font collection file.
+     */
+    private static final int COLLECTION_TAG = 0x74746366; // 'ttcf'
+
+    /**
+     * The mapped file content.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Offsets of the table directories of all faces in the file.
+     */
+    private final int[] faceOffsets;
+
+    private OpenTypeFile(ByteBuffer data, int[] faceOffsets) {
+        this.data = data;
+        this.faceOffsets = faceOffsets;
+    }
+
+    /**
+     * Open the passed font file by mapping it into memory.
+     *
+     * @param file to open
+     * @return the opened font file
+     * @throws IOException in case the file could not be mapped or is no OpenType font file
+     */
+    public static OpenTypeFile open(File file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Mapping stays valid after closing the channel
+        }
+
+        return of(data);
+    }
+
+    /**
+     * Create a font file from the passed data.
+     *
+     * @param data of the font file (starting at index 0)
+     * @return the font file
+     * @throws IOException in case the data is no OpenType font file
+     */
+    public static OpenTypeFile of(ByteBuffer data) throws IOException {
+        data = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        if (data.limit() < 12) {
+            throw new IOException("File is too small to be an OpenType font file");
+        }
+
+        int[] faceOffsets;
+        if (data.getInt(0) == COLLECTION_TAG) {
+            int faceCount = data.getInt(8);
+            if (faceCount < 0 || 12 + faceCount * 4L > data.limit()) {
+                throw new IOException(String.format("Invalid font count %d in font collection", faceCount));
+            }
+
+            faceOffsets = new int[faceCount];
+            for (int i = 0; i < faceCount; i++) {
+                faceOffsets[i] = data.getInt(12 + i * 4);
+            }
+        } else {
+            faceOffsets = new int[]{0};
+        }
+
+        return new OpenTypeFile(data, faceOffsets);
+    }
+
+    /**
+     * Get the count of faces in the file.
+     * Collection files may contain multiple faces, other files a single one.
+     *
+     * @return face count
+     */
+    public int getFaceCount() {
+        return faceOffsets.length;
+    }
+
+    /**
+     * Get the face with the passed index.
+     *
+     * @param index of the face
+     * @return the face
+     * @throws IOException in case the table directory of the face could not be read
+     */
+    public OpenTypeFace getFace(int index) throws IOException {
+        return OpenTypeFace.read(data, faceOffsets[index]);
+    }
+
+    /**
+     * Find the face with the passed PostScript name.
+     *
+     * @param postScriptName of the face to find
+     * @return the face or an empty Optional if there is no face with the passed name
+     * @throws IOException in case a face could not be read
+     */
+    public Optional<OpenTypeFace> getFaceByPostScriptName(String postScriptName) throws IOException {
+        for (int i = 0; i < faceOffsets.length; i++) {
+            OpenTypeFace face = getFace(i);
+            if (face.getPostScriptName().filter(postScriptName::equals).isPresent()) {
+                return Optional.of(face);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+}
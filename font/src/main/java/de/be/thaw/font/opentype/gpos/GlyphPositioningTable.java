@@ -1,5 +1,6 @@
 package de.be.thaw.font.opentype.gpos;
 
+import de.be.thaw.font.opentype.gpos.kerning.PairKerningTable;
 import de.be.thaw.font.opentype.gpos.subtable.ValueRecord;
 import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
 import de.be.thaw.font.opentype.gpos.subtable.classdef.format1.ClassDefTableFormat1;
@@ -13,7 +14,6 @@ import de.be.thaw.font.opentype.gpos.subtable.fontunitadjust.DeltaFormat;
 import de.be.thaw.font.opentype.gpos.subtable.fontunitadjust.DeviceTable;
 import de.be.thaw.font.opentype.gpos.subtable.fontunitadjust.FontUnitAdjustmentTable;
 import de.be.thaw.font.opentype.gpos.subtable.fontunitadjust.VariationIndexTable;
-import de.be.thaw.font.opentype.gpos.subtable.pairpos.PairPosSubTable;
 import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairPosFormat1SubTable;
 import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairSetTable;
 import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairValueRecord;
@@ -21,21 +21,29 @@ import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class1Record;
 import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class2Record;
 import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.PairPosFormat2SubTable;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
 /**
  * Implementation of the GPOS (glyph positioning table).
+ * <p>
+ * The table is read from a {@link ByteBuffer} (usually a slice of a memory-mapped font file)
+ * using absolute reads. Only the script and feature lists are decoded eagerly,
+ * lookup tables and their sub tables are decoded when first needed.
  */
 public class GlyphPositioningTable {
 
@@ -49,6 +57,16 @@ public class GlyphPositioningTable {
      */
     public static final String TAG = "GPOS";
 
+    /**
+     * Value of a NULL offset.
+     */
+    private static final int NULL_OFFSET = 0;
+
+    /**
+     * Data of the table.
+     */
+    private final ByteBuffer data;
+
     /**
      * Header of the table.
      */
@@ -71,14 +89,25 @@ public class GlyphPositioningTable {
     private String[] featureTableTags;
 
     /**
-     * Lookup for lookup tables by their index.
+     * Offsets of the lookup tables (from the beginning of the GPOS table) by their index.
      */
-    private LookupTable[] lookupTables;
+    private int[] lookupTableOffsets;
 
     /**
-     * Cache for already fetched kerning pairs.
+     * Lookup tables by their index.
+     * They are decoded when first needed.
      */
-    private Map<Long, Integer> kerningCache = new HashMap<>();
+    private AtomicReferenceArray<LookupTable> lookupTables;
+
+    /**
+     * Compiled pair kerning tables by script tag (with all features enabled).
+     */
+    private final Map<String, PairKerningTable> kerningTables;
+
+    /**
+     * Compiled pair kerning tables by script tag for restricted sets of enabled features.
+     */
+    private final Map<Set<String>, Map<String, PairKerningTable>> featureKerningTables = new ConcurrentHashMap<>();
 
     /**
      * Create the GPOS table from the passed bytes.
@@ -87,7 +116,28 @@ public class GlyphPositioningTable {
      * @throws IOException if the table could not be parsed
      */
     public GlyphPositioningTable(InputStream inputStream) throws IOException {
-        read(inputStream);
+        this(ByteBuffer.wrap(inputStream.readAllBytes()));
+    }
+
+    /**
+     * Create the GPOS table from the passed table data.
+     * The buffer must contain the table only (starting at index 0) and must not be modified afterwards.
+     *
+     * @param data of the table
+     * @throws IOException if the table could not be parsed
+     */
+    public GlyphPositioningTable(ByteBuffer data) throws IOException {
+        this.data = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        try {
+            read();
+
+            kerningTables = compileKerningTables(null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("GPOS table is truncated", e);
+        }
     }
 
     /**
@@ -100,45 +150,56 @@ public class GlyphPositioningTable {
      * @return kerning (in design units)
      */
     public int getKerning(int leftGlyphID, int rightGlyphID, String[] scriptTags, Set<String> enabledFeatures) {
-        long cacheKey = Integer.toUnsignedLong(leftGlyphID) | Integer.toUnsignedLong(rightGlyphID) << 32;
-
-        Integer cachedKerningValue = kerningCache.get(cacheKey);
-        if (cachedKerningValue != null) {
-            return cachedKerningValue;
+        Map<String, PairKerningTable> tables = kerningTables;
+        if (enabledFeatures != null) {
+            tables = featureKerningTables.get(enabledFeatures);
+            if (tables == null) {
+                tables = featureKerningTables.computeIfAbsent(Set.copyOf(enabledFeatures), this::compileKerningTables);
+            }
         }
 
-        int kerningValue = 0;
+        PairKerningTable table = tables.get(chooseScriptTag(scriptTags));
 
-        String scriptTag = chooseScriptTag(scriptTags);
-        ScriptTable scriptTable = scriptTableLookup.get(scriptTag);
-        if (scriptTable != null) {
-            List<LangSysTable> langSysTables = fetchLangSysTables(scriptTable);
-            List<FeatureTable> featureTables = fetchFeatureTables(langSysTables, enabledFeatures);
-
-            for (FeatureTable featureTable : featureTables) {
-                for (int lookupListIndex : featureTable.getLookupListIndices()) {
-                    LookupTable lookupTable = lookupTables[lookupListIndex];
-                    LookupType type = LookupType.forTypeNumber(lookupTable.getLookupType());
-
-                    if (type == LookupType.PAIR_ADJUSTMENT_POSITIONING) {
-                        for (LookupSubTable subTable : lookupTable.getSubTables()) {
-                            PairPosSubTable pairPosSubTable = (PairPosSubTable) subTable;
+        return table != null ? table.getKerning(leftGlyphID, rightGlyphID) : 0;
+    }
 
-                            Optional<PairPosSubTable.PairPosAdjustment> optionalAdjustment = pairPosSubTable.getAdjustment(leftGlyphID, rightGlyphID);
-                            if (optionalAdjustment.isPresent()) {
-                                PairPosSubTable.PairPosAdjustment adjustment = optionalAdjustment.orElseThrow();
+    /**
+     * Compile the pair kerning tables of all scripts for the passed set of enabled features.
+     * Scripts using the same pair positioning lookups share the compiled table.
+     *
+     * @param enabledFeatures set of enabled features (or null to enable all)
+     * @return compiled pair kerning tables by script tag
+     */
+    private Map<String, PairKerningTable> compileKerningTables(Set<String> enabledFeatures) {
+        Map<String, PairKerningTable> result = new HashMap<>();
+        Map<Set<Integer>, PairKerningTable> tablesByLookups = new HashMap<>();
 
-                                kerningValue += adjustment.getLeft().getXAdvance();
-                            }
-                        }
+        for (Map.Entry<String, ScriptTable> entry : scriptTableLookup.entrySet()) {
+            // Lookups are applied in lookup list order and only once (even if referenced by multiple features)
+            Set<Integer> lookupIndices = new TreeSet<>();
+            for (FeatureTable featureTable : fetchFeatureTables(fetchLangSysTables(entry.getValue()), enabledFeatures)) {
+                for (int lookupListIndex : featureTable.getLookupListIndices()) {
+                    if (lookupListIndex < lookupTableOffsets.length && readLookupType(lookupListIndex) == LookupType.PAIR_ADJUSTMENT_POSITIONING) {
+                        lookupIndices.add(lookupListIndex);
                     }
                 }
             }
-        }
 
-        kerningCache.put(cacheKey, kerningValue);
+            PairKerningTable table = tablesByLookups.get(lookupIndices);
+            if (table == null) {
+                List<LookupSubTable[]> lookups = new ArrayList<>(lookupIndices.size());
+                for (int index : lookupIndices) {
+                    lookups.add(getLookupTable(index).getSubTables());
+                }
+
+                table = PairKerningTable.compile(lookups);
+                tablesByLookups.put(lookupIndices, table);
+            }
+
+            result.put(entry.getKey(), table);
+        }
 
-        return kerningValue;
+        return result;
     }
 
     /**
@@ -209,38 +270,58 @@ public class GlyphPositioningTable {
     }
 
     /**
-     * Read the table from the given bytes.
+     * Read the unsigned 16-bit integer at the passed offset.
      *
-     * @param inputStream of the table data
+     * @param offset to read at
+     * @return the value
      */
-    private void read(InputStream inputStream) throws IOException {
-        DataInputStream dis = new DataInputStream(inputStream);
-        dis.mark(Integer.MAX_VALUE); // Mark the beginning of the stream
+    private int readUnsignedShort(int offset) {
+        return data.getShort(offset) & 0xFFFF;
+    }
 
-        header = readHeader(dis);
+    /**
+     * Read the 4-byte tag at the passed offset.
+     *
+     * @param offset to read at
+     * @return the tag
+     */
+    private String readTag(int offset) {
+        byte[] tagBuffer = new byte[4];
+        for (int i = 0; i < tagBuffer.length; i++) {
+            tagBuffer[i] = data.get(offset + i);
+        }
 
-        readScriptTables(dis);
-        readFeatureTables(dis);
-        readLookupTables(dis);
+        return new String(tagBuffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Read the script and feature lists of the table.
+     * Lookup tables are read lazily.
+     */
+    private void read() {
+        header = readHeader();
+
+        readScriptTables();
+        readFeatureTables();
+        readLookupTableOffsets();
     }
 
     /**
      * Read the GPOS table header.
      *
-     * @param dis stream to read data from
      * @return GPOS table header
      */
-    private Header readHeader(DataInputStream dis) throws IOException {
-        int majorVersion = dis.readUnsignedShort();
-        int minorVersion = dis.readUnsignedShort();
+    private Header readHeader() {
+        int majorVersion = readUnsignedShort(0);
+        int minorVersion = readUnsignedShort(2);
 
-        int scriptListOffset = dis.readUnsignedShort();
-        int featureListOffset = dis.readUnsignedShort();
-        int lookupListOffset = dis.readUnsignedShort();
+        int scriptListOffset = readUnsignedShort(4);
+        int featureListOffset = readUnsignedShort(6);
+        int lookupListOffset = readUnsignedShort(8);
 
         Long featureVariationsOffset = null;
         if (minorVersion > 0) {
-            featureVariationsOffset = Integer.toUnsignedLong(dis.readInt());
+            featureVariationsOffset = Integer.toUnsignedLong(data.getInt(10));
         }
 
         return new Header(
@@ -254,289 +335,213 @@ public class GlyphPositioningTable {
     }
 
     /**
-     * Read all script records from the passed input stream.
-     *
-     * @param dis the input stream
-     * @return script records
-     * @throws IOException in case the script records could not be read
+     * Read the ScriptList tables.
      */
-    private ScriptRecord[] readScriptRecords(DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(header.getScriptListOffset());
-
-        int scriptCount = dis.readUnsignedShort();
-
-        ScriptRecord[] records = new ScriptRecord[scriptCount];
+    private void readScriptTables() {
+        int scriptListOffset = header.getScriptListOffset();
+        int scriptCount = readUnsignedShort(scriptListOffset);
 
+        Map<String, ScriptTable> result = new HashMap<>();
         for (int i = 0; i < scriptCount; i++) {
-            records[i] = readScriptRecord(dis);
-        }
+            int recordOffset = scriptListOffset + 2 + i * 6;
 
-        return records;
-    }
+            String scriptTag = readTag(recordOffset);
+            int scriptOffset = readUnsignedShort(recordOffset + 4);
 
-    /**
-     * Read a single script record from the stream.
-     *
-     * @param dis the input stream
-     * @return script record
-     * @throws IOException in case the script record could not be read
-     */
-    private ScriptRecord readScriptRecord(DataInputStream dis) throws IOException {
-        byte[] scriptTagBuffer = new byte[4];
-        dis.read(scriptTagBuffer);
-
-        String scriptTag = new String(scriptTagBuffer, StandardCharsets.ISO_8859_1);
-        int scriptOffset = dis.readUnsignedShort();
-
-        return new ScriptRecord(scriptTag, scriptOffset);
-    }
-
-    /**
-     * Read all language system records from the current input stream.
-     *
-     * @param dis input stream to read records from
-     * @return language-system records
-     * @throws IOException in case the records could not be read
-     */
-    private LangSysRecord[] readLangSysRecords(DataInputStream dis) throws IOException {
-        int langSysCount = dis.readUnsignedShort();
-
-        LangSysRecord[] langSysRecords = new LangSysRecord[langSysCount];
-
-        for (int i = 0; i < langSysCount; i++) {
-            langSysRecords[i] = readLangSysRecord(dis);
+            result.put(scriptTag, readScriptTable(scriptListOffset + scriptOffset));
         }
 
-        return langSysRecords;
-    }
-
-    /**
-     * Read a language-system record from the input stream.
-     *
-     * @param dis input stream
-     * @return language-system record
-     * @throws IOException in case the language system record could not be read
-     */
-    private LangSysRecord readLangSysRecord(DataInputStream dis) throws IOException {
-        byte[] tagBuffer = new byte[4];
-        dis.read(tagBuffer);
-
-        String tag = new String(tagBuffer, StandardCharsets.ISO_8859_1);
-        int offset = dis.readUnsignedShort();
-
-        return new LangSysRecord(tag, offset);
+        scriptTableLookup = result;
     }
 
     /**
-     * Read a script table for the given record and input stream.
+     * Read the script table at the passed offset.
      *
-     * @param record to read table for
-     * @param dis    input stream
+     * @param offset of the script table
      * @return script table
-     * @throws IOException in case the script table could not be read
      */
-    private ScriptTable readScriptTable(ScriptRecord record, DataInputStream dis) throws IOException {
-        dis.reset(); // Jump to the beginning of the GPOS table
-        dis.skipBytes(header.getScriptListOffset() + record.getOffset()); // Jump to the beginning of the script table to parse
-
-        int defaultLangSysOffset = dis.readUnsignedShort();
-
-        LangSysRecord[] langSysRecords = readLangSysRecords(dis);
-
-        // Parse default language-system table
-        dis.reset(); // Jump to the beginning of the GPOS table
-        dis.skipBytes(header.getScriptListOffset() + record.getOffset() + defaultLangSysOffset); // Jump to the default language-system table
+    private ScriptTable readScriptTable(int offset) {
+        int defaultLangSysOffset = readUnsignedShort(offset);
+        LangSysTable defaultLangSysTable = defaultLangSysOffset != NULL_OFFSET
+                ? readLangSysTable(offset + defaultLangSysOffset)
+                : null;
 
-        LangSysTable defaultLangSysTable = readLangSysTable(dis);
+        int langSysCount = readUnsignedShort(offset + 2);
 
-        // Parse other language-system tables
         Map<String, LangSysTable> tables = new HashMap<>();
-        for (LangSysRecord langSysRecord : langSysRecords) {
-            dis.reset(); // Jump to the beginning of the GPOS table
-            dis.skipBytes(header.getScriptListOffset() + record.getOffset() + langSysRecord.getOffset()); // Jump to the beginning of the LangSys table to parse
+        for (int i = 0; i < langSysCount; i++) {
+            int recordOffset = offset + 4 + i * 6;
+
+            String tag = readTag(recordOffset);
+            int langSysOffset = readUnsignedShort(recordOffset + 4);
 
-            tables.put(langSysRecord.getTag(), readLangSysTable(dis));
+            tables.put(tag, readLangSysTable(offset + langSysOffset));
         }
 
         return new ScriptTable(defaultLangSysTable, tables);
     }
 
     /**
-     * Read the ScriptList tables from the provided stream.
+     * Read the LangSysTable at the passed offset.
      *
-     * @param dis input stream
-     * @throws IOException in case the ScriptList could not be read
+     * @param offset of the table
+     * @return LangSysTable
      */
-    private void readScriptTables(DataInputStream dis) throws IOException {
-        ScriptRecord[] records = readScriptRecords(dis);
+    private LangSysTable readLangSysTable(int offset) {
+        // Skip lookupOrder (not yet used)
+        int requiredFeatureIndex = readUnsignedShort(offset + 2);
 
-        Map<String, ScriptTable> result = new HashMap<>();
-        for (ScriptRecord record : records) {
-            result.put(record.getTag(), readScriptTable(record, dis));
+        int featureIndexCount = readUnsignedShort(offset + 4);
+        int[] featureIndices = new int[featureIndexCount];
+        for (int i = 0; i < featureIndexCount; i++) {
+            featureIndices[i] = readUnsignedShort(offset + 6 + i * 2);
         }
 
-        scriptTableLookup = result;
+        return new LangSysTable(null, requiredFeatureIndex, featureIndices);
     }
 
     /**
-     * Read a LangSysTable from the current input stream.
-     *
-     * @param dis stream to read from
-     * @return LangSysTable
-     * @throws IOException in case the table could not be read
+     * Read the FeatureList tables.
      */
-    private LangSysTable readLangSysTable(DataInputStream dis) throws IOException {
-        dis.readUnsignedShort(); // Skip lookupOrder (not yet used)
+    private void readFeatureTables() {
+        int featureListOffset = header.getFeatureListOffset();
+        int featureCount = readUnsignedShort(featureListOffset);
 
-        int requiredFeatureIndex = dis.readUnsignedShort();
+        featureTables = new FeatureTable[featureCount];
+        featureTableTags = new String[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            int recordOffset = featureListOffset + 2 + i * 6;
 
-        int featureIndexCount = dis.readUnsignedShort();
-        int[] featureIndices = new int[featureIndexCount];
-        for (int i = 0; i < featureIndexCount; i++) {
-            featureIndices[i] = dis.readUnsignedShort();
+            featureTableTags[i] = readTag(recordOffset);
+            featureTables[i] = readFeatureTable(featureListOffset + readUnsignedShort(recordOffset + 4));
         }
-
-        return new LangSysTable(null, requiredFeatureIndex, featureIndices);
     }
 
     /**
-     * Read all feature records in the passed input stream.
+     * Read the feature table at the passed offset.
      *
-     * @param dis input stream
-     * @return feature records
-     * @throws IOException in case the records could not be read
+     * @param offset of the table
+     * @return feature table
      */
-    private FeatureRecord[] readFeatureRecords(DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(header.getFeatureListOffset());
-
-        int featureCount = dis.readUnsignedShort();
+    private FeatureTable readFeatureTable(int offset) {
+        int featureParams = readUnsignedShort(offset);
 
-        FeatureRecord[] records = new FeatureRecord[featureCount];
-        for (int i = 0; i < featureCount; i++) {
-            records[i] = readFeatureRecord(dis);
+        int lookupIndexCount = readUnsignedShort(offset + 2);
+        int[] lookupListIndices = new int[lookupIndexCount];
+        for (int i = 0; i < lookupIndexCount; i++) {
+            lookupListIndices[i] = readUnsignedShort(offset + 4 + i * 2);
         }
 
-        return records;
+        return new FeatureTable(featureParams, lookupListIndices);
     }
 
     /**
-     * Read a feature record from the passed input stream.
-     *
-     * @param dis input stream to read from
-     * @return the feature record
-     * @throws IOException in case the feature record could not be read
+     * Read the offsets of the lookup tables from the LookupList.
      */
-    private FeatureRecord readFeatureRecord(DataInputStream dis) throws IOException {
-        byte[] featureTagBuffer = new byte[4];
-        dis.read(featureTagBuffer);
+    private void readLookupTableOffsets() {
+        int lookupListOffset = header.getLookupListOffset();
+        int lookupCount = readUnsignedShort(lookupListOffset);
 
-        String featureTag = new String(featureTagBuffer, StandardCharsets.ISO_8859_1);
-        int featureOffset = dis.readUnsignedShort();
+        lookupTableOffsets = new int[lookupCount];
+        for (int i = 0; i < lookupCount; i++) {
+            lookupTableOffsets[i] = lookupListOffset + readUnsignedShort(lookupListOffset + 2 + i * 2);
+        }
 
-        return new FeatureRecord(featureTag, featureOffset);
+        lookupTables = new AtomicReferenceArray<>(lookupCount);
     }
 
     /**
-     * Read the feature tables from the provided stream.
+     * Read the type of the lookup table with the passed index without decoding the table.
+     * The type of extension lookups is the type of the lookup they extend.
      *
-     * @param dis input stream
-     * @throws IOException in case the feature tables could not be read
+     * @param index of the lookup table
+     * @return lookup type or null if unknown
      */
-    private void readFeatureTables(DataInputStream dis) throws IOException {
-        FeatureRecord[] records = readFeatureRecords(dis);
-
-        featureTables = new FeatureTable[records.length];
-        featureTableTags = new String[records.length];
-        for (int i = 0; i < records.length; i++) {
-            featureTables[i] = readFeatureTable(records[i], dis);
-            featureTableTags[i] = records[i].getTag();
-        }
+    private LookupType readLookupType(int index) {
+        int offset = lookupTableOffsets[index];
+
+        return LookupType.forTypeNumber(readLookupType(offset, readUnsignedShort(offset)));
     }
 
     /**
-     * Read a feature table for the given record.
+     * Resolve the type of the lookup table at the passed offset.
+     * The type of extension lookups is the type of the lookup they extend.
      *
-     * @param record to read table for
-     * @param dis    input stream
-     * @return feature table
-     * @throws IOException in case the table could not be read
+     * @param offset     of the lookup table
+     * @param lookupType type number stored in the lookup table
+     * @return the resolved lookup type number
      */
-    private FeatureTable readFeatureTable(FeatureRecord record, DataInputStream dis) throws IOException {
-        dis.reset(); // Jump to the beginning of the GPOS table
-        dis.skipBytes(header.getFeatureListOffset() + record.getOffset()); // Jump to the beginning of the script table to parse
-
-        int featureParams = dis.readUnsignedShort();
-
-        int lookupIndexCount = dis.readUnsignedShort();
-        int[] lookupListIndices = new int[lookupIndexCount];
-        for (int i = 0; i < lookupIndexCount; i++) {
-            lookupListIndices[i] = dis.readUnsignedShort();
+    private int readLookupType(int offset, int lookupType) {
+        if (LookupType.forTypeNumber(lookupType) == LookupType.EXTENSION_POSITIONING && readUnsignedShort(offset + 4) > 0) {
+            int subTableOffset = offset + readUnsignedShort(offset + 6);
+            return readUnsignedShort(subTableOffset + 2);
         }
 
-        return new FeatureTable(featureParams, lookupListIndices);
+        return lookupType;
     }
 
     /**
-     * Read the lookup tables.
+     * Get the lookup table with the passed index.
+     * The table is decoded when first requested.
      *
-     * @param dis stream to read from
-     * @throws IOException in case the lookup tables could not be read
+     * @param index of the lookup table
+     * @return lookup table
      */
-    private void readLookupTables(DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(header.getLookupListOffset());
+    private LookupTable getLookupTable(int index) {
+        LookupTable table = lookupTables.get(index);
+        if (table == null) {
+            try {
+                table = readLookupTable(lookupTableOffsets[index]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
 
-        int lookupCount = dis.readUnsignedShort();
-        int[] lookupTableOffsets = new int[lookupCount];
-        for (int i = 0; i < lookupCount; i++) {
-            lookupTableOffsets[i] = dis.readUnsignedShort();
+            if (!lookupTables.compareAndSet(index, null, table)) {
+                table = lookupTables.get(index);
+            }
         }
 
-        lookupTables = new LookupTable[lookupTableOffsets.length];
-        for (int i = 0; i < lookupTables.length; i++) {
-            int offset = lookupTableOffsets[i];
-
-            lookupTables[i] = readLookupTable(offset, dis);
-        }
+        return table;
     }
 
     /**
      * Read the lookup table at the given offset.
      *
      * @param offset of the table
-     * @param dis    input stream to read from
      * @return lookup table
      * @throws IOException in case the lookup table could not be read
      */
-    private LookupTable readLookupTable(int offset, DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(header.getLookupListOffset() + offset);
-
-        int lookupType = dis.readUnsignedShort();
-        int lookupFlag = dis.readUnsignedShort();
+    private LookupTable readLookupTable(int offset) throws IOException {
+        int lookupType = readUnsignedShort(offset);
+        int lookupFlag = readUnsignedShort(offset + 2);
 
         // Parse the lookup flag to the available options
         Set<LookupTableOption> options = LookupTableOption.collect(lookupFlag);
 
-        int subTableCount = dis.readUnsignedShort();
-        int[] subTableOffsets = new int[subTableCount];
-        for (int i = 0; i < subTableCount; i++) {
-            subTableOffsets[i] = dis.readUnsignedShort();
-        }
+        int subTableCount = readUnsignedShort(offset + 4);
 
         Integer markFilteringSet = options.contains(LookupTableOption.USE_MARK_FILTERING_SET)
-                ? dis.readUnsignedShort()
+                ? readUnsignedShort(offset + 6 + subTableCount * 2)
                 : null;
 
+        boolean isExtension = LookupType.forTypeNumber(lookupType) == LookupType.EXTENSION_POSITIONING;
+
         LookupSubTable[] subTables = new LookupSubTable[subTableCount];
         for (int i = 0; i < subTableCount; i++) {
-            subTables[i] = readLookupSubTable(lookupType, offset, subTableOffsets[i], dis);
+            int subTableOffset = offset + readUnsignedShort(offset + 6 + i * 2);
+            int subTableType = lookupType;
+
+            if (isExtension) {
+                // Extension sub tables point to the actual sub table using a 32-bit offset
+                subTableType = readUnsignedShort(subTableOffset + 2);
+                subTableOffset += data.getInt(subTableOffset + 4);
+            }
+
+            subTables[i] = readLookupSubTable(subTableType, subTableOffset);
         }
 
         return new LookupTable(
-                lookupType,
+                isExtension ? readLookupType(offset, lookupType) : lookupType,
                 lookupFlag,
                 options,
                 subTables,
@@ -547,16 +552,19 @@ public class GlyphPositioningTable {
     /**
      * Read a sub table of a lookup table.
      *
-     * @param lookupType        type of the table
-     * @param lookupTableOffset offset of the lookup table
-     * @param offset            of the sub table from the start of the lookup table
-     * @param dis               input stream to read from
-     * @return lookup sub table
+     * @param lookupType type of the table
+     * @param offset     of the sub table
+     * @return lookup sub table or null if the sub table type is not yet supported
      * @throws IOException in case the sub table could not be read
      */
-    private LookupSubTable readLookupSubTable(int lookupType, int lookupTableOffset, int offset, DataInputStream dis) throws IOException {
-        return switch (LookupType.forTypeNumber(lookupType)) {
-            case PAIR_ADJUSTMENT_POSITIONING -> readPairAdjustmentSubTable(header.getLookupListOffset() + lookupTableOffset + offset, dis);
+    private LookupSubTable readLookupSubTable(int lookupType, int offset) throws IOException {
+        LookupType type = LookupType.forTypeNumber(lookupType);
+        if (type == null) {
+            return null;
+        }
+
+        return switch (type) {
+            case PAIR_ADJUSTMENT_POSITIONING -> readPairAdjustmentSubTable(offset);
             default -> null; // Sub table type not yet implemented
         };
     }
@@ -564,21 +572,17 @@ public class GlyphPositioningTable {
     /**
      * Read the pair adjustment sub table.
      *
-     * @param offset of the table in the stream
-     * @param dis    input stream to read from
+     * @param offset of the table
      * @return sub table
      * @throws IOException in case the table could not be read
      */
-    private LookupSubTable readPairAdjustmentSubTable(int offset, DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-
-        int posFormat = dis.readUnsignedShort();
+    private LookupSubTable readPairAdjustmentSubTable(int offset) throws IOException {
+        int posFormat = readUnsignedShort(offset);
 
         if (posFormat == 1) {
-            return readPairAdjustmentSubTableFormat1(offset, dis);
+            return readPairAdjustmentSubTableFormat1(offset);
         } else if (posFormat == 2) {
-            return readPairAdjustmentSubTableFormat2(offset, dis);
+            return readPairAdjustmentSubTableFormat2(offset);
         } else {
             throw new IOException(String.format(
                     "Pair adjustment sub table format %d unknown",
@@ -590,28 +594,25 @@ public class GlyphPositioningTable {
     /**
      * Read the pair adjustment sub table of format 1.
      *
-     * @param offset of the table in the stream
-     * @param dis    input stream to read from
+     * @param offset of the table
      * @return the table
      * @throws IOException in case the table could not be read
      */
-    private LookupSubTable readPairAdjustmentSubTableFormat1(int offset, DataInputStream dis) throws IOException {
-        int coverageOffset = dis.readUnsignedShort();
+    private LookupSubTable readPairAdjustmentSubTableFormat1(int offset) throws IOException {
+        int coverageOffset = readUnsignedShort(offset + 2);
 
-        int valueFormat1 = dis.readUnsignedShort();
-        int valueFormat2 = dis.readUnsignedShort();
+        int valueFormat1 = readUnsignedShort(offset + 4);
+        int valueFormat2 = readUnsignedShort(offset + 6);
 
-        int pairSetCount = dis.readUnsignedShort();
-        int[] pairSetOffsets = new int[pairSetCount];
-        for (int i = 0; i < pairSetCount; i++) {
-            pairSetOffsets[i] = dis.readUnsignedShort();
-        }
+        int pairSetCount = readUnsignedShort(offset + 8);
 
-        CoverageTable coverageTable = readCoverageTable(offset + coverageOffset, dis);
+        CoverageTable coverageTable = readCoverageTable(offset + coverageOffset);
 
-        PairSetTable[] pairSetTables = new PairSetTable[pairSetOffsets.length];
-        for (int i = 0; i < pairSetOffsets.length; i++) {
-            pairSetTables[i] = readPairSetTable(offset + pairSetOffsets[i], dis, valueFormat1, valueFormat2);
+        PairSetTable[] pairSetTables = new PairSetTable[pairSetCount];
+        for (int i = 0; i < pairSetCount; i++) {
+            int pairSetOffset = readUnsignedShort(offset + 10 + i * 2);
+
+            pairSetTables[i] = readPairSetTable(offset + pairSetOffset, offset, valueFormat1, valueFormat2);
         }
 
         return new PairPosFormat1SubTable(
@@ -625,52 +626,35 @@ public class GlyphPositioningTable {
     /**
      * Read the pair adjustment sub table of format 2.
      *
-     * @param offset of the table in the stream
-     * @param dis    input stream to read from
+     * @param offset of the table
      * @return the table
      * @throws IOException in case the table could not be read
      */
-    private LookupSubTable readPairAdjustmentSubTableFormat2(int offset, DataInputStream dis) throws IOException {
-        int coverageOffset = dis.readUnsignedShort();
+    private LookupSubTable readPairAdjustmentSubTableFormat2(int offset) throws IOException {
+        int coverageOffset = readUnsignedShort(offset + 2);
 
-        int valueFormat1 = dis.readUnsignedShort();
-        int valueFormat2 = dis.readUnsignedShort();
+        int valueFormat1 = readUnsignedShort(offset + 4);
+        int valueFormat2 = readUnsignedShort(offset + 6);
 
-        int classDef1Offset = dis.readUnsignedShort();
-        int classDef2Offset = dis.readUnsignedShort();
+        int classDef1Offset = readUnsignedShort(offset + 8);
+        int classDef2Offset = readUnsignedShort(offset + 10);
 
-        int class1Count = dis.readUnsignedShort();
-        int class2Count = dis.readUnsignedShort();
+        int class1Count = readUnsignedShort(offset + 12);
+        int class2Count = readUnsignedShort(offset + 14);
 
-        // Gather the value records to read entirely afterwards
-        class Class1RecordDataCollector {
-            ValueRecordToRead[] valueRecords1ToRead;
-            ValueRecordToRead[] valueRecords2ToRead;
-        }
+        int valueRecord1Size = getValueRecordSize(valueFormat1);
+        int valueRecord2Size = getValueRecordSize(valueFormat2);
 
-        Class1RecordDataCollector[] recordCollectors = new Class1RecordDataCollector[class1Count];
-        for (int i = 0; i < class1Count; i++) {
-            Class1RecordDataCollector collector = new Class1RecordDataCollector();
-            collector.valueRecords1ToRead = new ValueRecordToRead[class2Count];
-            collector.valueRecords2ToRead = new ValueRecordToRead[class2Count];
-
-            for (int a = 0; a < class2Count; a++) {
-                collector.valueRecords1ToRead[a] = readValueRecordToRead(dis, valueFormat1);
-                collector.valueRecords2ToRead[a] = readValueRecordToRead(dis, valueFormat2);
-            }
-
-            recordCollectors[i] = collector;
-        }
-
-        // Read class 1 records now properly
+        int recordOffset = offset + 16;
         Class1Record[] class1Records = new Class1Record[class1Count];
         for (int i = 0; i < class1Count; i++) {
-            Class1RecordDataCollector collector = recordCollectors[i];
-
             Class2Record[] class2Records = new Class2Record[class2Count];
             for (int a = 0; a < class2Count; a++) {
-                ValueRecord valueRecord1 = readValueRecord(collector.valueRecords1ToRead[a], offset, dis);
-                ValueRecord valueRecord2 = readValueRecord(collector.valueRecords2ToRead[a], offset, dis);
+                ValueRecord valueRecord1 = readValueRecord(recordOffset, valueFormat1, offset);
+                recordOffset += valueRecord1Size;
+
+                ValueRecord valueRecord2 = readValueRecord(recordOffset, valueFormat2, offset);
+                recordOffset += valueRecord2Size;
 
                 class2Records[a] = new Class2Record(valueRecord1, valueRecord2);
             }
@@ -679,11 +663,11 @@ public class GlyphPositioningTable {
         }
 
         // Read coverage table
-        CoverageTable coverageTable = readCoverageTable(offset + coverageOffset, dis);
+        CoverageTable coverageTable = readCoverageTable(offset + coverageOffset);
 
         // Read class def tables
-        ClassDefTable classDef1Table = readClassDefTable(offset + classDef1Offset, dis);
-        ClassDefTable classDef2Table = readClassDefTable(offset + classDef2Offset, dis);
+        ClassDefTable classDef1Table = readClassDefTable(offset + classDef1Offset);
+        ClassDefTable classDef2Table = readClassDefTable(offset + classDef2Offset);
 
         return new PairPosFormat2SubTable(
                 coverageTable,
@@ -701,20 +685,16 @@ public class GlyphPositioningTable {
      * Read the class def table at the given offset.
      *
      * @param offset to read class def table at
-     * @param dis    input stream to read from
      * @return the class def table
      * @throws IOException in case the class def table could not be read
      */
-    private ClassDefTable readClassDefTable(int offset, DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-
-        int classFormat = dis.readUnsignedShort();
+    private ClassDefTable readClassDefTable(int offset) throws IOException {
+        int classFormat = readUnsignedShort(offset);
 
         if (classFormat == 1) {
-            return readClassDefTableFormat1(dis);
+            return readClassDefTableFormat1(offset);
         } else if (classFormat == 2) {
-            return readClassDefTableFormat2(dis);
+            return readClassDefTableFormat2(offset);
         } else {
             throw new IOException(String.format(
                     "Unexpected ClassDefTable format %d",
@@ -726,17 +706,16 @@ public class GlyphPositioningTable {
     /**
      * Read the class def table in format 1.
      *
-     * @param dis to read table for
+     * @param offset of the table
      * @return the class def table
-     * @throws IOException in case the table could not be read
      */
-    private ClassDefTable readClassDefTableFormat1(DataInputStream dis) throws IOException {
-        int startGlyphID = dis.readUnsignedShort();
+    private ClassDefTable readClassDefTableFormat1(int offset) {
+        int startGlyphID = readUnsignedShort(offset + 2);
 
-        int glyphCount = dis.readUnsignedShort();
+        int glyphCount = readUnsignedShort(offset + 4);
         int[] classValueArray = new int[glyphCount];
         for (int i = 0; i < glyphCount; i++) {
-            classValueArray[i] = dis.readUnsignedShort();
+            classValueArray[i] = readUnsignedShort(offset + 6 + i * 2);
         }
 
         return new ClassDefTableFormat1(startGlyphID, classValueArray);
@@ -745,53 +724,39 @@ public class GlyphPositioningTable {
     /**
      * Read the class def table in format 2.
      *
-     * @param dis to read table for
+     * @param offset of the table
      * @return the class def table
-     * @throws IOException in case the table could not be read
      */
-    private ClassDefTable readClassDefTableFormat2(DataInputStream dis) throws IOException {
-        int classRangeCount = dis.readUnsignedShort();
+    private ClassDefTable readClassDefTableFormat2(int offset) {
+        int classRangeCount = readUnsignedShort(offset + 2);
         ClassRangeRecord[] records = new ClassRangeRecord[classRangeCount];
         for (int i = 0; i < classRangeCount; i++) {
-            records[i] = readClassRangeRecord(dis);
-        }
+            int recordOffset = offset + 4 + i * 6;
 
-        return new ClassDefTableFormat2(records);
-    }
+            int startGlyphID = readUnsignedShort(recordOffset);
+            int endGlyphID = readUnsignedShort(recordOffset + 2);
+            int classValue = readUnsignedShort(recordOffset + 4);
 
-    /**
-     * Read a class range record from the passed stream.
-     *
-     * @param dis stream to read from
-     * @return the read class range record
-     * @throws IOException in case the record could not be read
-     */
-    private ClassRangeRecord readClassRangeRecord(DataInputStream dis) throws IOException {
-        int startGlyphID = dis.readUnsignedShort();
-        int endGlyphID = dis.readUnsignedShort();
-        int classValue = dis.readUnsignedShort();
+            records[i] = new ClassRangeRecord(startGlyphID, endGlyphID, classValue);
+        }
 
-        return new ClassRangeRecord(startGlyphID, endGlyphID, classValue);
+        return new ClassDefTableFormat2(records);
     }
 
     /**
-     * Read the coverage table at the passed offset from the given stream.
+     * Read the coverage table at the passed offset.
      *
      * @param offset to read table at
-     * @param dis    input stream to read from
      * @return the coverage table
      * @throws IOException in case the table could not be read
      */
-    private CoverageTable readCoverageTable(int offset, DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-
-        int coverageFormat = dis.readUnsignedShort();
+    private CoverageTable readCoverageTable(int offset) throws IOException {
+        int coverageFormat = readUnsignedShort(offset);
 
         if (coverageFormat == 1) {
-            return readCoverageTableFormat1(dis);
+            return readCoverageTableFormat1(offset);
         } else if (coverageFormat == 2) {
-            return readCoverageTableFormat2(dis);
+            return readCoverageTableFormat2(offset);
         } else {
             throw new IOException(String.format(
                     "Could not read coverage table with format %d",
@@ -803,15 +768,14 @@ public class GlyphPositioningTable {
     /**
      * Read the coverage table in format 1.
      *
-     * @param dis stream to read from
+     * @param offset of the table
      * @return coverage table
-     * @throws IOException in case the table could not be read
      */
-    private CoverageTable readCoverageTableFormat1(DataInputStream dis) throws IOException {
-        int glyphCount = dis.readUnsignedShort();
+    private CoverageTable readCoverageTableFormat1(int offset) {
+        int glyphCount = readUnsignedShort(offset + 2);
         int[] glyphIDs = new int[glyphCount];
         for (int i = 0; i < glyphIDs.length; i++) {
-            glyphIDs[i] = dis.readUnsignedShort();
+            glyphIDs[i] = readUnsignedShort(offset + 4 + i * 2);
         }
 
         return new CoverageTableFormat1(glyphIDs);
@@ -820,17 +784,18 @@ public class GlyphPositioningTable {
     /**
      * Read the coverage table in format 2.
      *
-     * @param dis stream to read from
+     * @param offset of the table
      * @return coverage table
-     * @throws IOException in case the table could not be read
      */
-    private CoverageTable readCoverageTableFormat2(DataInputStream dis) throws IOException {
-        int rangeCount = dis.readUnsignedShort();
+    private CoverageTable readCoverageTableFormat2(int offset) {
+        int rangeCount = readUnsignedShort(offset + 2);
         RangeRecord[] records = new RangeRecord[rangeCount];
         for (int i = 0; i < rangeCount; i++) {
-            int startGlyphId = dis.readUnsignedShort();
-            int endGlyphId = dis.readUnsignedShort();
-            int startCoverageIndex = dis.readUnsignedShort();
+            int recordOffset = offset + 4 + i * 6;
+
+            int startGlyphId = readUnsignedShort(recordOffset);
+            int endGlyphId = readUnsignedShort(recordOffset + 2);
+            int startCoverageIndex = readUnsignedShort(recordOffset + 4);
 
             records[i] = new RangeRecord(startGlyphId, endGlyphId, startCoverageIndex);
         }
@@ -841,96 +806,74 @@ public class GlyphPositioningTable {
     /**
      * Read the pair set table at the given offset.
      *
-     * @param offset       to read table at
-     * @param dis          input stream to read from
-     * @param valueFormat1 format of the valueRecord1
-     * @param valueFormat2 format of the valueRecord2
+     * @param offset         to read table at
+     * @param subTableOffset offset of the pair adjustment sub table (device table offsets are relative to it)
+     * @param valueFormat1   format of the valueRecord1
+     * @param valueFormat2   format of the valueRecord2
      * @return the pair set table
      * @throws IOException in case the table could not be read
      */
-    private PairSetTable readPairSetTable(int offset, DataInputStream dis, int valueFormat1, int valueFormat2) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-
-        int pairValueCount = dis.readUnsignedShort();
-        int[] secondGlyphs = new int[pairValueCount];
-        ValueRecordToRead[] valueRecords1ToRead = new ValueRecordToRead[pairValueCount];
-        ValueRecordToRead[] valueRecords2ToRead = new ValueRecordToRead[pairValueCount];
-        for (int i = 0; i < pairValueCount; i++) {
-            secondGlyphs[i] = dis.readUnsignedShort();
-            valueRecords1ToRead[i] = readValueRecordToRead(dis, valueFormat1);
-            valueRecords2ToRead[i] = readValueRecordToRead(dis, valueFormat2);
-        }
+    private PairSetTable readPairSetTable(int offset, int subTableOffset, int valueFormat1, int valueFormat2) throws IOException {
+        int valueRecord1Size = getValueRecordSize(valueFormat1);
+        int valueRecord2Size = getValueRecordSize(valueFormat2);
 
+        int pairValueCount = readUnsignedShort(offset);
         PairValueRecord[] records = new PairValueRecord[pairValueCount];
+
+        int recordOffset = offset + 2;
         for (int i = 0; i < pairValueCount; i++) {
-            records[i] = new PairValueRecord(
-                    secondGlyphs[i],
-                    readValueRecord(valueRecords1ToRead[i], offset, dis),
-                    readValueRecord(valueRecords2ToRead[i], offset, dis)
-            );
+            int secondGlyph = readUnsignedShort(recordOffset);
+            recordOffset += 2;
+
+            ValueRecord valueRecord1 = readValueRecord(recordOffset, valueFormat1, subTableOffset);
+            recordOffset += valueRecord1Size;
+
+            ValueRecord valueRecord2 = readValueRecord(recordOffset, valueFormat2, subTableOffset);
+            recordOffset += valueRecord2Size;
+
+            records[i] = new PairValueRecord(secondGlyph, valueRecord1, valueRecord2);
         }
 
         return new PairSetTable(records);
     }
 
     /**
-     * Read a value record that is yet to be read properly afterwards.
+     * Get the size of a value record with the passed format (in bytes).
      *
-     * @param dis         input stream
-     * @param valueFormat that defines the structure of the value record
-     * @return value record to read
-     * @throws IOException in case the value record to read could not be read
+     * @param valueFormat of the value record
+     * @return size of the record
      */
-    private ValueRecordToRead readValueRecordToRead(DataInputStream dis, int valueFormat) throws IOException {
-        int xPlacement = (valueFormat & 0x0001) != 0 ? dis.readShort() : 0;
-        int yPlacement = (valueFormat & 0x0002) != 0 ? dis.readShort() : 0;
-
-        int xAdvance = (valueFormat & 0x0004) != 0 ? dis.readShort() : 0;
-        int yAdvance = (valueFormat & 0x0008) != 0 ? dis.readShort() : 0;
-
-        int xPlaDeviceOffset = (valueFormat & 0x0010) != 0 ? dis.readUnsignedShort() : 0;
-        int yPlaDeviceOffset = (valueFormat & 0x0020) != 0 ? dis.readUnsignedShort() : 0;
-
-        int xAdvDeviceOffset = (valueFormat & 0x0040) != 0 ? dis.readUnsignedShort() : 0;
-        int yAdvDeviceOffset = (valueFormat & 0x0080) != 0 ? dis.readUnsignedShort() : 0;
-
-        return new ValueRecordToRead(
-                xPlacement,
-                yPlacement,
-                xAdvance,
-                yAdvance,
-                xPlaDeviceOffset,
-                yPlaDeviceOffset,
-                xAdvDeviceOffset,
-                yAdvDeviceOffset
-        );
+    private static int getValueRecordSize(int valueFormat) {
+        return Integer.bitCount(valueFormat & 0x00FF) * 2;
     }
 
     /**
-     * Read a value record properly.
+     * Read a value record.
      *
-     * @param toRead the value record details to read with
-     * @param offset of the parent table
-     * @param dis    input stream to read from
+     * @param offset       of the value record
+     * @param valueFormat  that defines the structure of the value record
+     * @param parentOffset offset of the parent table (device table offsets are relative to it)
      * @return the read value record
      * @throws IOException in case the record could not be read
      */
-    private ValueRecord readValueRecord(ValueRecordToRead toRead, int offset, DataInputStream dis) throws IOException {
-        FontUnitAdjustmentTable xPlaDevice = toRead.getXPlaDevice() != 0 ? readFontUnitAdjustmentTable(offset + toRead.getXPlaDevice(), dis) : null;
-        FontUnitAdjustmentTable yPlaDevice = toRead.getYPlaDevice() != 0 ? readFontUnitAdjustmentTable(offset + toRead.getYPlaDevice(), dis) : null;
-        FontUnitAdjustmentTable xAdvDevice = toRead.getXAdvDevice() != 0 ? readFontUnitAdjustmentTable(offset + toRead.getXAdvDevice(), dis) : null;
-        FontUnitAdjustmentTable yAdvDevice = toRead.getYAdvDevice() != 0 ? readFontUnitAdjustmentTable(offset + toRead.getYAdvDevice(), dis) : null;
+    private ValueRecord readValueRecord(int offset, int valueFormat, int parentOffset) throws IOException {
+        int[] values = new int[8];
+        for (int i = 0; i < values.length; i++) {
+            if ((valueFormat & (1 << i)) != 0) {
+                values[i] = i < 4 ? data.getShort(offset) : readUnsignedShort(offset);
+                offset += 2;
+            }
+        }
 
         return new ValueRecord(
-                toRead.getXPlacement(),
-                toRead.getYPlacement(),
-                toRead.getXAdvance(),
-                toRead.getYAdvance(),
-                xPlaDevice,
-                yPlaDevice,
-                xAdvDevice,
-                yAdvDevice
+                values[0],
+                values[1],
+                values[2],
+                values[3],
+                values[4] != NULL_OFFSET ? readFontUnitAdjustmentTable(parentOffset + values[4]) : null,
+                values[5] != NULL_OFFSET ? readFontUnitAdjustmentTable(parentOffset + values[5]) : null,
+                values[6] != NULL_OFFSET ? readFontUnitAdjustmentTable(parentOffset + values[6]) : null,
+                values[7] != NULL_OFFSET ? readFontUnitAdjustmentTable(parentOffset + values[7]) : null
         );
     }
 
@@ -938,18 +881,14 @@ public class GlyphPositioningTable {
      * Read the font unit adjustment table at the given offset.
      *
      * @param offset of the table
-     * @param dis    input stream
      * @return font unit adjustment table
      * @throws IOException in case the table could not be read
      */
-    private FontUnitAdjustmentTable readFontUnitAdjustmentTable(int offset, DataInputStream dis) throws IOException {
-        dis.reset();
-        dis.skipBytes(offset);
-
-        int firstUnsignedShort = dis.readUnsignedShort();
-        int secondUnsignedShort = dis.readUnsignedShort();
+    private FontUnitAdjustmentTable readFontUnitAdjustmentTable(int offset) throws IOException {
+        int firstUnsignedShort = readUnsignedShort(offset);
+        int secondUnsignedShort = readUnsignedShort(offset + 2);
 
-        int deltaFormatValue = dis.readUnsignedShort();
+        int deltaFormatValue = readUnsignedShort(offset + 4);
         DeltaFormat deltaFormat = DeltaFormat.forValue(deltaFormatValue);
         if (deltaFormat == null) {
             throw new IOException(String.format("Could not find delta format for value %d", deltaFormatValue));
@@ -963,8 +902,10 @@ public class GlyphPositioningTable {
                 int[] deltaValues = new int[deltaValueCount];
 
                 int count = 0;
+                int deltaOffset = offset + 6;
                 while (count < deltaValueCount) {
-                    int src = dis.readUnsignedShort();
+                    int src = readUnsignedShort(deltaOffset);
+                    deltaOffset += 2;
 
                     int[] values = switch (deltaFormat) {
                         case LOCAL_2_BIT_DELTAS -> new int[]{
@@ -1013,200 +954,4 @@ public class GlyphPositioningTable {
         };
     }
 
-    /**
-     * A ScriptRecord in a GPOS table.
-     */
-    private static final class ScriptRecord {
-
-        /**
-         * Tag of the table.
-         */
-        private final String tag;
-
-        /**
-         * Offset of where to find the actual ScriptTable.
-         * Measured from the beginning of the ScriptList.
-         */
-        private final int offset;
-
-        public ScriptRecord(String tag, int offset) {
-            this.tag = tag;
-            this.offset = offset;
-        }
-
-        public String getTag() {
-            return tag;
-        }
-
-        public int getOffset() {
-            return offset;
-        }
-
-    }
-
-    /**
-     * A language-system record in a GPOS table.
-     * It specifies a tag and offset of the actual language-system table to read.
-     */
-    private static final class LangSysRecord {
-
-        /**
-         * Tag of the table.
-         */
-        private final String tag;
-
-        /**
-         * Offset of where to find the actual language-system table.
-         * Measured from the beginning of the ScriptTable.
-         */
-        private final int offset;
-
-        public LangSysRecord(String tag, int offset) {
-            this.tag = tag;
-            this.offset = offset;
-        }
-
-        public String getTag() {
-            return tag;
-        }
-
-        public int getOffset() {
-            return offset;
-        }
-
-    }
-
-    /**
-     * A feature record in a GPOS table.
-     * It specifies a tag and offset of the actual feature table to read.
-     */
-    private static final class FeatureRecord {
-
-        /**
-         * Tag of the table.
-         */
-        private final String tag;
-
-        /**
-         * Offset of where to find the actual feature table.
-         * Measured from the beginning of the FeatureList.
-         */
-        private final int offset;
-
-        public FeatureRecord(String tag, int offset) {
-            this.tag = tag;
-            this.offset = offset;
-        }
-
-        public String getTag() {
-            return tag;
-        }
-
-        public int getOffset() {
-            return offset;
-        }
-
-    }
-
-    /**
-     * A value record yet to read properly
-     */
-    private static class ValueRecordToRead {
-
-        /**
-         * Horizontal adjustment for placement (in design units).
-         */
-        private final int xPlacement;
-
-        /**
-         * Vertical adjustment for placement (in design units).
-         */
-        private final int yPlacement;
-
-        /**
-         * Horizontal adjustment for advance (in design units).
-         * Only used for horizontal layout.
-         */
-        private final int xAdvance;
-
-        /**
-         * Vertical adjustment for advance (in design units).
-         * Only used for vertical layout.
-         */
-        private final int yAdvance;
-
-        /**
-         * The table defining horizontal adjustments to the placement.
-         */
-        private final int xPlaDevice;
-
-        /**
-         * The table defining vertical adjustments to the placement.
-         */
-        private final int yPlaDevice;
-
-        /**
-         * The table defining horizontal adjustments to the advance.
-         */
-        private final int xAdvDevice;
-
-        /**
-         * The table defining vertical adjustments to the advance.
-         */
-        private final int yAdvDevice;
-
-        public ValueRecordToRead(
-                int xPlacement,
-                int yPlacement,
-                int xAdvance,
-                int yAdvance,
-                int xPlaDevice,
-                int yPlaDevice,
-                int xAdvDevice,
-                int yAdvDevice
-        ) {
-            this.xPlacement = xPlacement;
-            this.yPlacement = yPlacement;
-            this.xAdvance = xAdvance;
-            this.yAdvance = yAdvance;
-            this.xPlaDevice = xPlaDevice;
-            this.yPlaDevice = yPlaDevice;
-            this.xAdvDevice = xAdvDevice;
-            this.yAdvDevice = yAdvDevice;
-        }
-
-        public int getXPlacement() {
-            return xPlacement;
-        }
-
-        public int getYPlacement() {
-            return yPlacement;
-        }
-
-        public int getXAdvance() {
-            return xAdvance;
-        }
-
-        public int getYAdvance() {
-            return yAdvance;
-        }
-
-        public int getXPlaDevice() {
-            return xPlaDevice;
-        }
-
-        public int getYPlaDevice() {
-            return yPlaDevice;
-        }
-
-        public int getXAdvDevice() {
-            return xAdvDevice;
-        }
-
-        public int getYAdvDevice() {
-            return yAdvDevice;
-        }
-
-    }
-
 }
@@ -0,0 +1,63 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+/**
+ * Kerning segment compiled from a pair positioning sub table of format 2.
+ * Glyph classes are stored in dense arrays indexed by glyph ID
+ * and the kerning values in a flat class-pair matrix.
+ */
+final class ClassPairSegment implements KerningSegment {
+
+    /**
+     * Marker for a glyph that is not covered by the sub table (or has an invalid class).
+     */
+    static final char NOT_COVERED = 0xFFFF;
+
+    /**
+     * Class of the left glyph by its glyph ID ({@link #NOT_COVERED} if the glyph is not in the coverage).
+     * Glyphs beyond the array are not covered.
+     */
+    private final char[] leftClasses;
+
+    /**
+     * Class of the right glyph by its glyph ID ({@link #NOT_COVERED} for invalid classes).
+     * Glyphs beyond the array are of class 0.
+     */
+    private final char[] rightClasses;
+
+    /**
+     * Count of right glyph classes (row length of the matrix).
+     */
+    private final int rightClassCount;
+
+    /**
+     * Kerning values by left class * rightClassCount + right class.
+     */
+    private final short[] matrix;
+
+    ClassPairSegment(char[] leftClasses, char[] rightClasses, int rightClassCount, short[] matrix) {
+        this.leftClasses = leftClasses;
+        this.rightClasses = rightClasses;
+        this.rightClassCount = rightClassCount;
+        this.matrix = matrix;
+    }
+
+    @Override
+    public int getKerning(int leftGlyphID, int rightGlyphID) {
+        if (leftGlyphID < 0 || leftGlyphID >= leftClasses.length) {
+            return NO_MATCH;
+        }
+
+        char leftClass = leftClasses[leftGlyphID];
+        if (leftClass == NOT_COVERED) {
+            return NO_MATCH;
+        }
+
+        int rightClass = rightGlyphID >= 0 && rightGlyphID < rightClasses.length ? rightClasses[rightGlyphID] : 0;
+        if (rightClass == NOT_COVERED) {
+            return NO_MATCH;
+        }
+
+        return matrix[leftClass * rightClassCount + rightClass];
+    }
+
+}
@@ -0,0 +1,167 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import java.util.Arrays;
+
+/**
+ * Kerning segment compiled from pair positioning sub tables of format 1.
+ * The individual glyph pairs are stored in an open-addressed hash table
+ * mapping the glyph pair (as long) to the kerning (as short).
+ */
+final class GlyphPairSegment implements KerningSegment {
+
+    /**
+     * Key marking an empty slot.
+     * Keys of glyph pairs are never negative as glyph IDs are 16-bit unsigned integers.
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * Maximum load factor of the hash table.
+     */
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    /**
+     * Keys of the hash table (glyph pairs).
+     */
+    private long[] keys;
+
+    /**
+     * Kerning values by the slot in the hash table.
+     */
+    private short[] values;
+
+    /**
+     * Mask to get the slot from a hash.
+     */
+    private int mask;
+
+    /**
+     * Count of stored glyph pairs.
+     */
+    private int size;
+
+    GlyphPairSegment(int expectedSize) {
+        int capacity = Integer.highestOneBit((int) Math.max(expectedSize / MAX_LOAD_FACTOR, 2) - 1) << 1;
+
+        allocate(capacity);
+    }
+
+    /**
+     * Put the kerning for the passed glyph pair unless the pair is already present
+     * (the first sub table containing a pair wins).
+     *
+     * @param leftGlyphID  ID of the left glyph
+     * @param rightGlyphID ID of the right glyph
+     * @param kerning      to store
+     */
+    void putIfAbsent(int leftGlyphID, int rightGlyphID, short kerning) {
+        if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+
+        long key = toKey(leftGlyphID, rightGlyphID);
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = kerning;
+        size++;
+    }
+
+    /**
+     * Get the count of stored glyph pairs.
+     *
+     * @return size
+     */
+    int size() {
+        return size;
+    }
+
+    @Override
+    public int getKerning(int leftGlyphID, int rightGlyphID) {
+        long key = toKey(leftGlyphID, rightGlyphID);
+
+        long[] keys = this.keys;
+        int slot = hash(key) & mask;
+
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return values[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return NO_MATCH;
+    }
+
+    /**
+     * Allocate empty tables with the passed capacity (power of two).
+     *
+     * @param capacity of the tables
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        values = new short[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Grow the hash table to the passed capacity.
+     *
+     * @param capacity new capacity (power of two)
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        short[] oldValues = values;
+
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Get the key of the passed glyph pair.
+     *
+     * @param leftGlyphID  ID of the left glyph
+     * @param rightGlyphID ID of the right glyph
+     * @return key
+     */
+    private static long toKey(int leftGlyphID, int rightGlyphID) {
+        return Integer.toUnsignedLong(leftGlyphID) << 32 | Integer.toUnsignedLong(rightGlyphID);
+    }
+
+    /**
+     * Spread the bits of the passed key to get a well-distributed hash.
+     *
+     * @param key to hash
+     * @return hash
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
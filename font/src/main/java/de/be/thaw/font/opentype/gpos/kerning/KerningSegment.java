@@ -0,0 +1,22 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+/**
+ * Compiled part of a pair positioning lookup answering kerning queries in constant time.
+ */
+interface KerningSegment {
+
+    /**
+     * Value returned when the segment does not apply to a glyph pair.
+     */
+    int NO_MATCH = Integer.MIN_VALUE;
+
+    /**
+     * Get the kerning (in design units) for the passed glyph pair.
+     *
+     * @param leftGlyphID  ID of the left glyph
+     * @param rightGlyphID ID of the right glyph
+     * @return kerning or {@link #NO_MATCH} in case the segment does not apply to the pair
+     */
+    int getKerning(int leftGlyphID, int rightGlyphID);
+
+}
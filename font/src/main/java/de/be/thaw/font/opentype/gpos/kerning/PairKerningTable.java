@@ -0,0 +1,268 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import de.be.thaw.font.opentype.gpos.LookupSubTable;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format1.ClassDefTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassDefTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassRangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.CoverageTable;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format1.CoverageTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.CoverageTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.RangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairPosFormat1SubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairSetTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class2Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.PairPosFormat2SubTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pair kerning table compiled from the pair positioning lookups of a GPOS table
+ * for a script and set of features.
+ * <p>
+ * Each lookup is flattened into a short list of primitive segments:
+ * consecutive format 1 sub tables are merged into an open-addressed glyph pair table
+ * and each format 2 sub table is turned into a class-pair matrix.
+ * Fetching the kerning of a glyph pair is thus allocation-free and takes constant time.
+ * The table is immutable and may be shared between threads.
+ */
+public final class PairKerningTable {
+
+    /**
+     * Table without any kerning pairs.
+     */
+    public static final PairKerningTable EMPTY = new PairKerningTable(new KerningSegment[0][]);
+
+    /**
+     * Compiled segments per lookup (in lookup list order).
+     */
+    private final KerningSegment[][] lookups;
+
+    private PairKerningTable(KerningSegment[][] lookups) {
+        this.lookups = lookups;
+    }
+
+    /**
+     * Compile a pair kerning table from the passed pair positioning lookups.
+     * Within a lookup the first sub table applying to a glyph pair determines its adjustment,
+     * while the adjustments of multiple lookups add up.
+     *
+     * @param lookups the sub tables of each pair positioning lookup to compile (in lookup list order)
+     * @return the compiled table
+     */
+    public static PairKerningTable compile(List<LookupSubTable[]> lookups) {
+        List<KerningSegment[]> result = new ArrayList<>(lookups.size());
+        for (LookupSubTable[] subTables : lookups) {
+            List<KerningSegment> segments = new ArrayList<>();
+
+            GlyphPairSegment glyphPairSegment = null;
+            for (LookupSubTable subTable : subTables) {
+                if (subTable instanceof PairPosFormat1SubTable) {
+                    PairPosFormat1SubTable format1SubTable = (PairPosFormat1SubTable) subTable;
+
+                    if (glyphPairSegment == null) {
+                        glyphPairSegment = new GlyphPairSegment(countPairs(format1SubTable));
+                        segments.add(glyphPairSegment);
+                    }
+
+                    addGlyphPairs(glyphPairSegment, format1SubTable);
+                } else if (subTable instanceof PairPosFormat2SubTable) {
+                    glyphPairSegment = null; // Sub tables in between need to be checked first
+
+                    segments.add(compileClassPairs((PairPosFormat2SubTable) subTable));
+                }
+            }
+
+            if (!segments.isEmpty()) {
+                result.add(segments.toArray(new KerningSegment[0]));
+            }
+        }
+
+        return result.isEmpty() ? EMPTY : new PairKerningTable(result.toArray(new KerningSegment[0][]));
+    }
+
+    /**
+     * Get the kerning for the passed glyph pair.
+     *
+     * @param leftGlyphID  ID of the left glyph
+     * @param rightGlyphID ID of the right glyph
+     * @return kerning (in design units)
+     */
+    public int getKerning(int leftGlyphID, int rightGlyphID) {
+        int kerning = 0;
+
+        for (KerningSegment[] segments : lookups) {
+            for (KerningSegment segment : segments) {
+                int value = segment.getKerning(leftGlyphID, rightGlyphID);
+                if (value != KerningSegment.NO_MATCH) {
+                    kerning += value;
+                    break;
+                }
+            }
+        }
+
+        return kerning;
+    }
+
+    /**
+     * Count the glyph pairs in the passed format 1 sub table.
+     *
+     * @param subTable to count pairs in
+     * @return pair count
+     */
+    private static int countPairs(PairPosFormat1SubTable subTable) {
+        int count = 0;
+        for (PairSetTable pairSetTable : subTable.getPairSetTables()) {
+            count += pairSetTable.getRecords().length;
+        }
+
+        return count;
+    }
+
+    /**
+     * Add the glyph pairs of the passed format 1 sub table to the passed segment.
+     *
+     * @param segment  to add pairs to
+     * @param subTable to add pairs of
+     */
+    private static void addGlyphPairs(GlyphPairSegment segment, PairPosFormat1SubTable subTable) {
+        int[] coveredGlyphs = getCoveredGlyphs(subTable.getCoverageTable());
+        PairSetTable[] pairSetTables = subTable.getPairSetTables();
+
+        int count = Math.min(coveredGlyphs.length, pairSetTables.length);
+        for (int i = 0; i < count; i++) {
+            int leftGlyphID = coveredGlyphs[i];
+
+            for (PairValueRecord record : pairSetTables[i].getRecords()) {
+                segment.putIfAbsent(leftGlyphID, record.getSecondGlyph(), (short) record.getValueRecord1().getXAdvance());
+            }
+        }
+    }
+
+    /**
+     * Compile the passed format 2 sub table to a class-pair segment.
+     *
+     * @param subTable to compile
+     * @return the compiled segment
+     */
+    private static ClassPairSegment compileClassPairs(PairPosFormat2SubTable subTable) {
+        int class1Count = subTable.getClass1Count();
+        int class2Count = subTable.getClass2Count();
+
+        // Left glyphs need to be in the coverage table, undefined classes default to class 0
+        int[] coveredGlyphs = getCoveredGlyphs(subTable.getCoverageTable());
+        char[] class1ByGlyph = getDenseClasses(subTable.getClassDef1Table(), class1Count);
+
+        int maxCoveredGlyphID = -1;
+        for (int glyphID : coveredGlyphs) {
+            maxCoveredGlyphID = Math.max(glyphID, maxCoveredGlyphID);
+        }
+
+        char[] leftClasses = new char[maxCoveredGlyphID + 1];
+        Arrays.fill(leftClasses, ClassPairSegment.NOT_COVERED);
+        for (int glyphID : coveredGlyphs) {
+            char leftClass = glyphID < class1ByGlyph.length ? class1ByGlyph[glyphID] : 0;
+            leftClasses[glyphID] = class1Count > 0 ? leftClass : ClassPairSegment.NOT_COVERED;
+        }
+
+        char[] rightClasses = getDenseClasses(subTable.getClassDef2Table(), class2Count);
+
+        short[] matrix = new short[class1Count * class2Count];
+        for (int c1 = 0; c1 < class1Count; c1++) {
+            Class2Record[] class2Records = subTable.getClass1Records()[c1].getClass2Records();
+            for (int c2 = 0; c2 < class2Count; c2++) {
+                matrix[c1 * class2Count + c2] = (short) class2Records[c2].getValueRecord1().getXAdvance();
+            }
+        }
+
+        return new ClassPairSegment(leftClasses, rightClasses, class2Count, matrix);
+    }
+
+    /**
+     * Get the glyph IDs in the passed coverage table ordered by their coverage index.
+     *
+     * @param coverageTable to get glyph IDs of
+     * @return glyph IDs
+     */
+    private static int[] getCoveredGlyphs(CoverageTable coverageTable) {
+        if (coverageTable instanceof CoverageTableFormat1) {
+            return ((CoverageTableFormat1) coverageTable).getGlyphIDs();
+        } else if (coverageTable instanceof CoverageTableFormat2) {
+            RangeRecord[] rangeRecords = ((CoverageTableFormat2) coverageTable).getRangeRecords();
+
+            int count = 0;
+            for (RangeRecord record : rangeRecords) {
+                count = Math.max(record.getStartCoverageIndex() + record.getEndGlpyhID() - record.getStartGlyphID() + 1, count);
+            }
+
+            int[] result = new int[count];
+            for (RangeRecord record : rangeRecords) {
+                for (int glyphID = record.getStartGlyphID(); glyphID <= record.getEndGlpyhID(); glyphID++) {
+                    result[record.getStartCoverageIndex() + glyphID - record.getStartGlyphID()] = glyphID;
+                }
+            }
+
+            return result;
+        }
+
+        return new int[0];
+    }
+
+    /**
+     * Get the classes of the passed class definition table as dense array indexed by glyph ID.
+     * Glyphs not defined in the table are of class 0, classes exceeding the passed class count
+     * are marked as {@link ClassPairSegment#NOT_COVERED}.
+     *
+     * @param classDefTable to get classes of
+     * @param classCount    count of valid classes
+     * @return classes by glyph ID
+     */
+    private static char[] getDenseClasses(ClassDefTable classDefTable, int classCount) {
+        if (classDefTable instanceof ClassDefTableFormat1) {
+            ClassDefTableFormat1 format1 = (ClassDefTableFormat1) classDefTable;
+            int startGlyphID = format1.getStartGlyphID();
+            int[] classValues = format1.getClassValueArray();
+
+            char[] result = new char[startGlyphID + classValues.length];
+            for (int i = 0; i < classValues.length; i++) {
+                result[startGlyphID + i] = toClass(classValues[i], classCount);
+            }
+
+            return result;
+        } else if (classDefTable instanceof ClassDefTableFormat2) {
+            ClassRangeRecord[] records = ((ClassDefTableFormat2) classDefTable).getRecords();
+
+            int maxGlyphID = -1;
+            for (ClassRangeRecord record : records) {
+                maxGlyphID = Math.max(record.getEndGlyphID(), maxGlyphID);
+            }
+
+            char[] result = new char[maxGlyphID + 1];
+            for (ClassRangeRecord record : records) {
+                char value = toClass(record.getClassValue(), classCount);
+                for (int glyphID = record.getStartGlyphID(); glyphID <= record.getEndGlyphID(); glyphID++) {
+                    result[glyphID] = value;
+                }
+            }
+
+            return result;
+        }
+
+        return new char[0];
+    }
+
+    /**
+     * Convert the passed class value to the value stored in the dense class arrays.
+     *
+     * @param classValue to convert
+     * @param classCount count of valid classes
+     * @return the class or {@link ClassPairSegment#NOT_COVERED} in case the class is invalid
+     */
+    private static char toClass(int classValue, int classCount) {
+        return classValue >= 0 && classValue < classCount ? (char) classValue : ClassPairSegment.NOT_COVERED;
+    }
+
+}
@@ -42,7 +42,8 @@ public class ClassDefTableFormat1 implements ClassDefTable {
 
     @Override
     public int getClass(int glyphID) {
-        return classValueArray.length > glyphID ? classValueArray[glyphID] : -1;
+        int index = glyphID - startGlyphID;
+        return index >= 0 && index < classValueArray.length ? classValueArray[index] : -1;
     }
 
 }
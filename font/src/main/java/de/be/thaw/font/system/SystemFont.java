@@ -0,0 +1,130 @@
+package de.be.thaw.font.system;
+
+import de.be.thaw.font.util.FontVariant;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * A font (face) installed to the current system.
+ */
+public class SystemFont {
+
+    /**
+     * Location of the font file.
+     */
+    private final String location;
+
+    /**
+     * Whether the font file is a font collection.
+     */
+    private final boolean collection;
+
+    /**
+     * Index of the face in the font file (always 0 for files that are no collection).
+     */
+    private final int faceIndex;
+
+    /**
+     * Name of the font.
+     */
+    private final String fontName;
+
+    /**
+     * Name of the font family.
+     */
+    private final String familyName;
+
+    /**
+     * Variant of the font (or null if it could not be determined).
+     */
+    @Nullable
+    private final FontVariant variant;
+
+    /**
+     * Whether the font is monospaced.
+     */
+    private final boolean monospaced;
+
+    public SystemFont(
+            String location,
+            boolean collection,
+            int faceIndex,
+            String fontName,
+            String familyName,
+            @Nullable FontVariant variant,
+            boolean monospaced
+    ) {
+        this.location = location;
+        this.collection = collection;
+        this.faceIndex = faceIndex;
+        this.fontName = fontName;
+        this.familyName = familyName;
+        this.variant = variant;
+        this.monospaced = monospaced;
+    }
+
+    /**
+     * Get the location of the font file.
+     *
+     * @return location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Whether the font file is a font collection.
+     *
+     * @return whether collection
+     */
+    public boolean isCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the index of the face in the font file.
+     *
+     * @return face index
+     */
+    public int getFaceIndex() {
+        return faceIndex;
+    }
+
+    /**
+     * Get the name of the font.
+     *
+     * @return font name
+     */
+    public String getFontName() {
+        return fontName;
+    }
+
+    /**
+     * Get the name of the font family.
+     *
+     * @return family name
+     */
+    public String getFamilyName() {
+        return familyName;
+    }
+
+    /**
+     * Get the variant of the font.
+     *
+     * @return variant or an empty Optional if it could not be determined
+     */
+    public Optional<FontVariant> getVariant() {
+        return Optional.ofNullable(variant);
+    }
+
+    /**
+     * Whether the font is monospaced.
+     *
+     * @return whether monospaced
+     */
+    public boolean isMonospaced() {
+        return monospaced;
+    }
+
+}
@@ -0,0 +1,532 @@
+package de.be.thaw.font.system;
+
+import de.be.thaw.font.util.FontVariant;
+import de.be.thaw.font.util.FontVariantUtil;
+import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
+import de.be.thaw.util.debug.Debug;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent index of the fonts in the system font directories.
+ * <p>
+ * Loading a font using AWT and checking whether it is monospaced takes a while, which adds up for
+ * systems with lots of fonts. Thus the found fonts are persisted in the cache directory.
+ * A directory is only listed again when its modification time changed and a font file
+ * is only scanned again when its size or modification time changed.
+ * Changed font files are scanned in parallel.
+ */
+class SystemFontIndex {
+
+    /**
+     * Logger of the index.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SystemFontIndex.class.getSimpleName());
+
+    /**
+     * Name of the file in the cache root directory holding the index.
+     */
+    static final String CACHE_LOCATION = "system-font-index";
+
+    /**
+     * Version of the index.
+     * When the versions mismatch, the index will have to be rebuilt.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    /**
+     * Marker for fonts whose variant could not be determined.
+     */
+    private static final int NO_VARIANT = -1;
+
+    /**
+     * File the index is persisted in.
+     */
+    private final File indexFile;
+
+    /**
+     * Indexed directories by their path.
+     */
+    private final Map<String, IndexedDirectory> directories = new HashMap<>();
+
+    /**
+     * Whether the index changed since it has been loaded.
+     */
+    private boolean modified = false;
+
+    /**
+     * Create the index persisted in the passed file.
+     *
+     * @param indexFile file to persist the index in
+     */
+    SystemFontIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Get the fonts in the passed directories.
+     * Unchanged directories and files are taken from the persisted index, changed ones are scanned.
+     * The index is persisted afterwards in case something changed.
+     *
+     * @param locations of the directories to get fonts in
+     * @return the found fonts
+     * @throws IOException         in case a font file could not be read
+     * @throws FontFormatException in case a font file could not be parsed
+     */
+    List<SystemFont> getFonts(List<String> locations) throws IOException, FontFormatException {
+        try {
+            load();
+        } catch (IOException e) {
+            // The index is only an optimization, so we start with an empty one instead
+            directories.clear();
+
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.WARNING, String.format(
+                        "Could not load the system font index from '%s'. Rebuilding the index.",
+                        indexFile.getAbsolutePath()
+                ), e);
+            }
+        }
+
+        Map<String, IndexedDirectory> currentDirectories = new HashMap<>();
+        List<IndexedFile> toScan = new ArrayList<>();
+        for (String location : locations) {
+            File directory = new File(location);
+            if (!directory.isDirectory()) {
+                continue;
+            }
+
+            IndexedDirectory indexedDirectory = updateDirectory(directory, toScan);
+            currentDirectories.put(indexedDirectory.getPath(), indexedDirectory);
+        }
+
+        if (currentDirectories.size() != directories.size()) {
+            modified = true; // Some directories are no more available
+        }
+
+        directories.clear();
+        directories.putAll(currentDirectories);
+
+        scan(toScan);
+
+        if (modified) {
+            try {
+                persist();
+            } catch (IOException e) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format(
+                            "Could not persist the system font index at '%s'",
+                            indexFile.getAbsolutePath()
+                    ), e);
+                }
+            }
+        }
+
+        List<SystemFont> result = new ArrayList<>();
+        for (String location : locations) {
+            IndexedDirectory indexedDirectory = directories.get(new File(location).getAbsolutePath());
+            if (indexedDirectory != null) {
+                for (IndexedFile file : indexedDirectory.getFiles()) {
+                    result.addAll(file.getFonts());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Update the index entry of the passed directory.
+     * Files that need to be scanned are added to the passed list.
+     *
+     * @param directory to update
+     * @param toScan    list of files that need to be scanned
+     * @return the updated directory entry
+     */
+    private IndexedDirectory updateDirectory(File directory, List<IndexedFile> toScan) {
+        String path = directory.getAbsolutePath();
+        long lastModified = directory.lastModified();
+
+        IndexedDirectory old = directories.get(path);
+
+        Map<String, IndexedFile> oldFiles = new HashMap<>();
+        if (old != null) {
+            for (IndexedFile file : old.getFiles()) {
+                oldFiles.put(file.getPath(), file);
+            }
+        }
+
+        List<String> filePaths;
+        if (old != null && old.getLastModified() == lastModified) {
+            // Directory listing did not change
+            filePaths = new ArrayList<>(oldFiles.keySet());
+        } else {
+            File[] fontFiles = directory.listFiles((dir, name) -> isFontFileName(name));
+            filePaths = fontFiles != null
+                    ? Arrays.stream(fontFiles).map(File::getAbsolutePath).collect(Collectors.toList())
+                    : new ArrayList<>();
+
+            modified = true;
+        }
+        filePaths.sort(Comparator.naturalOrder());
+
+        List<IndexedFile> files = new ArrayList<>(filePaths.size());
+        for (String filePath : filePaths) {
+            File file = new File(filePath);
+            if (!file.isFile()) {
+                modified = true;
+                continue;
+            }
+
+            long size = file.length();
+            long fileLastModified = file.lastModified();
+
+            IndexedFile oldFile = oldFiles.get(filePath);
+            if (oldFile != null && oldFile.getSize() == size && oldFile.getLastModified() == fileLastModified) {
+                files.add(oldFile);
+            } else {
+                IndexedFile newFile = new IndexedFile(filePath, size, fileLastModified);
+                files.add(newFile);
+                toScan.add(newFile);
+
+                modified = true;
+            }
+        }
+
+        return new IndexedDirectory(path, lastModified, files);
+    }
+
+    /**
+     * Scan the passed files for fonts in parallel.
+     *
+     * @param files to scan
+     * @throws IOException         in case a font file could not be read
+     * @throws FontFormatException in case a font file could not be parsed
+     */
+    private void scan(List<IndexedFile> files) throws IOException, FontFormatException {
+        if (files.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        try {
+            files.parallelStream().forEach(file -> {
+                try {
+                    file.setFonts(scanFile(file.getPath()));
+                } catch (IOException | FontFormatException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof FontFormatException) {
+                throw (FontFormatException) e.getCause();
+            }
+
+            throw e;
+        }
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Scanned %d changed system font files in %d ms",
+                    files.size(),
+                    (System.nanoTime() - startTime) / 1_000_000
+            ));
+        }
+    }
+
+    /**
+     * Scan the font file at the passed path for the fonts it contains.
+     *
+     * @param path of the font file to scan
+     * @return the contained fonts
+     * @throws IOException         in case the font file could not be read
+     * @throws FontFormatException in case the font file could not be parsed
+     */
+    List<SystemFont> scanFile(String path) throws IOException, FontFormatException {
+        boolean isCollection = isCollectionFileName(path);
+
+        Font[] fonts = isCollection
+                ? Font.createFonts(new File(path))
+                : new Font[]{Font.createFont(Font.TRUETYPE_FONT, new File(path))};
+
+        List<SystemFont> result = new ArrayList<>(fonts.length);
+        for (int i = 0; i < fonts.length; i++) {
+            Font font = fonts[i];
+
+            boolean isMonospaced = FontVariantUtil.isMonospaced(font);
+
+            FontVariant variant = null;
+            try {
+                variant = FontVariantUtil.getVariant(font.getFontName(), font.getFamily(), isMonospaced);
+            } catch (CouldNotDetermineFontVariantException e) {
+                System.out.println(String.format("[WARN] '%s'", e.getMessage()));
+            }
+
+            result.add(new SystemFont(path, isCollection, i, font.getFontName(), font.getFamily(), variant, isMonospaced));
+        }
+
+        return result;
+    }
+
+    /**
+     * Check whether the passed file name is the name of a supported font file.
+     *
+     * @param name of the file
+     * @return whether a font file
+     */
+    private static boolean isFontFileName(String name) {
+        String lowerCaseName = name.toLowerCase();
+        return lowerCaseName.endsWith(".ttf") || lowerCaseName.endsWith(".ttc");
+    }
+
+    /**
+     * Check whether the passed file name is the name of a font collection file.
+     *
+     * @param name of the file
+     * @return whether a font collection file
+     */
+    private static boolean isCollectionFileName(String name) {
+        return name.toLowerCase().endsWith(".ttc");
+    }
+
+    /**
+     * Persist the index.
+     *
+     * @throws IOException in case the index could not be written
+     */
+    private void persist() throws IOException {
+        // Write to a temporary file unique to this writer first to not leave a broken index file behind
+        Path tmpFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmpFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(CACHE_VERSION);
+
+                out.writeInt(directories.size());
+                for (IndexedDirectory directory : directories.values()) {
+                    out.writeUTF(directory.getPath());
+                    out.writeLong(directory.getLastModified());
+
+                    out.writeInt(directory.getFiles().size());
+                    for (IndexedFile file : directory.getFiles()) {
+                        out.writeUTF(file.getPath());
+                        out.writeLong(file.getSize());
+                        out.writeLong(file.getLastModified());
+
+                        out.writeInt(file.getFonts().size());
+                        for (SystemFont font : file.getFonts()) {
+                            out.writeBoolean(font.isCollection());
+                            out.writeInt(font.getFaceIndex());
+                            out.writeUTF(font.getFontName());
+                            out.writeUTF(font.getFamilyName());
+                            out.writeInt(font.getVariant().map(Enum::ordinal).orElse(NO_VARIANT));
+                            out.writeBoolean(font.isMonospaced());
+                        }
+                    }
+                }
+            }
+
+            try {
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Persisted the system font index at '%s'",
+                    indexFile.getAbsolutePath()
+            ));
+        }
+    }
+
+    /**
+     * Load the persisted index.
+     *
+     * @throws IOException in case the index file could not be read
+     */
+    private void load() throws IOException {
+        if (!indexFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            int version = in.readInt();
+            if (version != CACHE_VERSION) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.INFO, "System font index is invalid and will be rebuilt");
+                }
+                return;
+            }
+
+            FontVariant[] variants = FontVariant.values();
+
+            int directoryCount = in.readInt();
+            for (int d = 0; d < directoryCount; d++) {
+                String directoryPath = in.readUTF();
+                long directoryLastModified = in.readLong();
+
+                int fileCount = in.readInt();
+                List<IndexedFile> files = new ArrayList<>(fileCount);
+                for (int f = 0; f < fileCount; f++) {
+                    IndexedFile file = new IndexedFile(in.readUTF(), in.readLong(), in.readLong());
+
+                    int fontCount = in.readInt();
+                    List<SystemFont> fonts = new ArrayList<>(fontCount);
+                    for (int i = 0; i < fontCount; i++) {
+                        boolean isCollection = in.readBoolean();
+                        int faceIndex = in.readInt();
+                        String fontName = in.readUTF();
+                        String familyName = in.readUTF();
+
+                        int variantOrdinal = in.readInt();
+                        if (variantOrdinal < NO_VARIANT || variantOrdinal >= variants.length) {
+                            throw new IOException(String.format("Unknown font variant %d in the system font index", variantOrdinal));
+                        }
+
+                        boolean isMonospaced = in.readBoolean();
+
+                        fonts.add(new SystemFont(
+                                file.getPath(),
+                                isCollection,
+                                faceIndex,
+                                fontName,
+                                familyName,
+                                variantOrdinal != NO_VARIANT ? variants[variantOrdinal] : null,
+                                isMonospaced
+                        ));
+                    }
+                    file.setFonts(fonts);
+
+                    files.add(file);
+                }
+
+                directories.put(directoryPath, new IndexedDirectory(directoryPath, directoryLastModified, files));
+            }
+        }
+    }
+
+    /**
+     * An indexed font directory.
+     */
+    private static final class IndexedDirectory {
+
+        /**
+         * Absolute path of the directory.
+         */
+        private final String path;
+
+        /**
+         * Modification time of the directory when it has been listed.
+         */
+        private final long lastModified;
+
+        /**
+         * Font files in the directory.
+         */
+        private final List<IndexedFile> files;
+
+        IndexedDirectory(String path, long lastModified, List<IndexedFile> files) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.files = files;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public List<IndexedFile> getFiles() {
+            return files;
+        }
+
+    }
+
+    /**
+     * An indexed font file.
+     */
+    private static final class IndexedFile {
+
+        /**
+         * Absolute path of the file.
+         */
+        private final String path;
+
+        /**
+         * Size of the file when it has been scanned.
+         */
+        private final long size;
+
+        /**
+         * Modification time of the file when it has been scanned.
+         */
+        private final long lastModified;
+
+        /**
+         * Fonts contained in the file.
+         */
+        private List<SystemFont> fonts = Collections.emptyList();
+
+        IndexedFile(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public List<SystemFont> getFonts() {
+            return fonts;
+        }
+
+        public void setFonts(List<SystemFont> fonts) {
+            this.fonts = fonts;
+        }
+
+    }
+
+}
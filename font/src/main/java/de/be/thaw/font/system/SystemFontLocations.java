@@ -51,6 +51,9 @@ public class SystemFontLocations {
      */
     private static void initForWindows() {
         String windowsFolderPath = System.getenv("WINDIR");
+        if (windowsFolderPath == null) {
+            return; // Not running on Windows
+        }
 
         LOCATIONS.put(OperatingSystem.WINDOWS, Set.of(
                 Path.of(windowsFolderPath, "Fonts").toString()
@@ -1,18 +1,17 @@
 package de.be.thaw.font.util;
 
+import de.be.thaw.font.system.SystemFont;
 import de.be.thaw.font.system.SystemFontManager;
 import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
 import de.be.thaw.font.util.exception.CouldNotGetFontsException;
 import de.be.thaw.font.util.exception.FontRegisterException;
 import de.be.thaw.font.util.file.FontCollectionFile;
 import de.be.thaw.font.util.file.FontFile;
+import de.be.thaw.font.util.file.IndexedFontFile;
 import de.be.thaw.font.util.file.SingleFontFile;
 
 import java.awt.Font;
 import java.awt.FontFormatException;
-import java.awt.RenderingHints;
-import java.awt.font.FontRenderContext;
-import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -38,6 +37,12 @@ public class FontManager {
      */
     private final Map<FontVariant, List<FontFamily>> variantSupport = new HashMap<>();
 
+    /**
+     * Locators of already registered font files and folders by their absolute path.
+     * Each path is only registered once.
+     */
+    private final Map<String, List<FontVariantLocator>> registeredLocators = new HashMap<>();
+
     /**
      * Get the current instance of the font manager.
      *
@@ -87,16 +92,25 @@ public class FontManager {
 
     /**
      * Register a whole font folder.
+     * A folder is only registered once, further calls return the already registered locators.
      *
      * @param fontFolder to register fonts in
      * @return a list of font locators that have been registered
      * @throws FontRegisterException in case one or multiple of the fonts could not be registered
      */
-    public List<FontVariantLocator> registerFontFolder(File fontFolder) throws FontRegisterException {
-        List<FontVariantLocator> locators = new ArrayList<>();
+    public synchronized List<FontVariantLocator> registerFontFolder(File fontFolder) throws FontRegisterException {
+        String path = fontFolder.getAbsolutePath();
+
+        List<FontVariantLocator> locators = registeredLocators.get(path);
+        if (locators == null) {
+            locators = new ArrayList<>();
 
-        for (File files : fontFolder.listFiles()) {
-            locators.addAll(registerFont(files));
+            for (File files : fontFolder.listFiles()) {
+                locators.addAll(registerFont(files));
+            }
+
+            locators = Collections.unmodifiableList(locators);
+            registeredLocators.put(path, locators);
         }
 
         return locators;
@@ -104,12 +118,32 @@ public class FontManager {
 
     /**
      * Register another font.
+     * A font file is only registered once, further calls return the already registered locators.
      *
      * @param fontFile file of the font to register
      * @return the font variant locators that has been registered for the font file
      * @throws FontRegisterException in case the font could not be registered
      */
-    public List<FontVariantLocator> registerFont(File fontFile) throws FontRegisterException {
+    public synchronized List<FontVariantLocator> registerFont(File fontFile) throws FontRegisterException {
+        String path = fontFile.getAbsolutePath();
+
+        List<FontVariantLocator> locators = registeredLocators.get(path);
+        if (locators == null) {
+            locators = Collections.unmodifiableList(registerFontFile(fontFile));
+            registeredLocators.put(path, locators);
+        }
+
+        return locators;
+    }
+
+    /**
+     * Register the fonts in the passed font file.
+     *
+     * @param fontFile file of the font to register
+     * @return the font variant locators that has been registered for the font file
+     * @throws FontRegisterException in case the font could not be registered
+     */
+    private List<FontVariantLocator> registerFontFile(File fontFile) throws FontRegisterException {
         String fileName = fontFile.getName().toLowerCase();
 
         FontFile file;
@@ -158,7 +192,7 @@ public class FontManager {
     private FontVariantLocator registerFontInternal(FontFile file, Font font) throws FontRegisterException {
         FontVariant variant;
         try {
-            variant = getVariantForFont(font);
+            variant = FontVariantUtil.getVariant(font);
         } catch (CouldNotDetermineFontVariantException e) {
             throw new FontRegisterException(e);
         }
@@ -186,26 +220,23 @@ public class FontManager {
      * Initialize the available font families.
      */
     private void initFamilies() {
-        FontFile[] fontFiles;
+        List<SystemFont> fonts;
         try {
-            fontFiles = SystemFontManager.getAvailableFonts();
+            fonts = SystemFontManager.getAvailableFonts();
         } catch (CouldNotGetFontsException e) {
             throw new IllegalStateException("Could not get any fonts from the system");
         }
 
+        Map<String, FontFile> fontFiles = new HashMap<>();
         Map<String, Map<FontVariant, FontVariantLocator>> familyMapping = new HashMap<>();
-        for (FontFile file : fontFiles) {
-            if (file.isCollection()) {
-                FontCollectionFile fcf = (FontCollectionFile) file;
+        for (SystemFont font : fonts) {
+            if (font.getVariant().isEmpty()) {
+                continue; // Variant could not be determined when indexing the font
+            }
 
-                for (Font font : fcf.getFonts()) {
-                    addFontToMapping(font, fcf, familyMapping);
-                }
-            } else {
-                SingleFontFile sff = (SingleFontFile) file;
+            FontFile file = fontFiles.computeIfAbsent(font.getLocation(), location -> new IndexedFontFile(location, font.isCollection()));
 
-                addFontToMapping(sff.getFont(), sff, familyMapping);
-            }
+            addFontToMapping(font.getFontName(), font.getFamilyName(), font.getVariant().orElseThrow(), file, familyMapping);
         }
 
         for (Map.Entry<String, Map<FontVariant, FontVariantLocator>> entry : familyMapping.entrySet()) {
@@ -222,97 +253,20 @@ public class FontManager {
     /**
      * Add the passed font to the given mapping.
      *
-     * @param font          to add
+     * @param fontName      name of the font to add
+     * @param familyName    name of the family of the font
+     * @param variant       of the font
      * @param file          the font belongs to
      * @param familyMapping to add font to
      */
-    private void addFontToMapping(Font font, FontFile file, Map<String, Map<FontVariant, FontVariantLocator>> familyMapping) {
-        String familyName = font.getFamily();
-
-        try {
-            FontVariant variant = getVariantForFont(font);
-
-            Map<FontVariant, FontVariantLocator> currentMapping = familyMapping.computeIfAbsent(familyName, (k) -> new HashMap<>());
-            if (!currentMapping.containsKey(variant)) {
-                // Do not overwrite existing variants
-                currentMapping.put(variant, new FontVariantLocator(file, font.getFontName(), familyName, variant));
-            }
-        } catch (CouldNotDetermineFontVariantException e) {
-            System.out.println(String.format("[WARN] '%s'", e.getMessage()));
+    private void addFontToMapping(String fontName, String familyName, FontVariant variant, FontFile file, Map<String, Map<FontVariant, FontVariantLocator>> familyMapping) {
+        Map<FontVariant, FontVariantLocator> currentMapping = familyMapping.computeIfAbsent(familyName, (k) -> new HashMap<>());
+        if (!currentMapping.containsKey(variant)) {
+            // Do not overwrite existing variants
+            currentMapping.put(variant, new FontVariantLocator(file, fontName, familyName, variant));
         }
     }
 
-    /**
-     * Check if the passed font is monospaced.
-     *
-     * @param font to check
-     * @return whether monospaced
-     */
-    private boolean isMonospaced(Font font) {
-        FontRenderContext frc = new FontRenderContext(null, RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT, RenderingHints.VALUE_FRACTIONALMETRICS_DEFAULT);
-
-        Rectangle2D iBounds = font.getStringBounds("i", frc);
-        Rectangle2D mBounds = font.getStringBounds("m", frc);
-
-        return iBounds.getWidth() == mBounds.getWidth();
-    }
-
-    /**
-     * Get the font variant for the passed font.
-     *
-     * @param font to get variant for
-     * @return the font variant
-     * @throws CouldNotDetermineFontVariantException in case the font variant could not be determined
-     */
-    private FontVariant getVariantForFont(Font font) throws CouldNotDetermineFontVariantException {
-        // Try to guess the variant by the font name
-        String name = font.getFontName();
-        if (name.startsWith(font.getFamily())) {
-            name = name.substring(font.getFamily().length());
-        }
-
-        boolean isMonospaced = isMonospaced(font);
-
-        if (name.isBlank()) {
-            return isMonospaced ? FontVariant.MONOSPACE : FontVariant.PLAIN;
-        }
-
-        String originalFontVariant = name.trim();
-
-        name = name.toLowerCase();
-
-        int regularIndex = name.indexOf("regular");
-        if (regularIndex != -1) {
-            return FontVariant.PLAIN;
-        }
-
-        int boldIndex = name.indexOf("bold");
-        if (boldIndex != -1) {
-            name = name.substring(0, boldIndex) + name.substring(boldIndex + "bold".length());
-        }
-
-        int italicIndex = name.indexOf("italic");
-        if (italicIndex != -1) {
-            name = name.substring(0, italicIndex) + name.substring(italicIndex + "italic".length());
-        }
-
-        if (name.isBlank()) {
-            // There are no more font variants we do not support (yet) -> valid font variant for our uses!
-            if (boldIndex != -1 && italicIndex != -1) {
-                return FontVariant.BOLD_ITALIC;
-            } else if (boldIndex != -1) {
-                return FontVariant.BOLD;
-            } else if (italicIndex != -1) {
-                return FontVariant.ITALIC;
-            }
-        }
-
-        throw new CouldNotDetermineFontVariantException(String.format(
-                "The font variant string '%s' could not be mapped to a known font variant",
-                originalFontVariant
-        ));
-    }
-
     /**
      * Holder of the font manager singleton instance.
      */
@@ -0,0 +1,97 @@
+package de.be.thaw.font.util;
+
+import de.be.thaw.font.util.exception.CouldNotDetermineFontVariantException;
+
+import java.awt.Font;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Utility methods to determine the variant of a font.
+ */
+public class FontVariantUtil {
+
+    /**
+     * Check if the passed font is monospaced.
+     *
+     * @param font to check
+     * @return whether monospaced
+     */
+    public static boolean isMonospaced(Font font) {
+        FontRenderContext frc = new FontRenderContext(null, RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT, RenderingHints.VALUE_FRACTIONALMETRICS_DEFAULT);
+
+        Rectangle2D iBounds = font.getStringBounds("i", frc);
+        Rectangle2D mBounds = font.getStringBounds("m", frc);
+
+        return iBounds.getWidth() == mBounds.getWidth();
+    }
+
+    /**
+     * Get the font variant for the passed font.
+     *
+     * @param font to get variant for
+     * @return the font variant
+     * @throws CouldNotDetermineFontVariantException in case the font variant could not be determined
+     */
+    public static FontVariant getVariant(Font font) throws CouldNotDetermineFontVariantException {
+        return getVariant(font.getFontName(), font.getFamily(), isMonospaced(font));
+    }
+
+    /**
+     * Get the font variant for a font with the passed details.
+     *
+     * @param fontName     name of the font
+     * @param familyName   name of the font family
+     * @param isMonospaced whether the font is monospaced
+     * @return the font variant
+     * @throws CouldNotDetermineFontVariantException in case the font variant could not be determined
+     */
+    public static FontVariant getVariant(String fontName, String familyName, boolean isMonospaced) throws CouldNotDetermineFontVariantException {
+        // Try to guess the variant by the font name
+        String name = fontName;
+        if (name.startsWith(familyName)) {
+            name = name.substring(familyName.length());
+        }
+
+        if (name.isBlank()) {
+            return isMonospaced ? FontVariant.MONOSPACE : FontVariant.PLAIN;
+        }
+
+        String originalFontVariant = name.trim();
+
+        name = name.toLowerCase();
+
+        int regularIndex = name.indexOf("regular");
+        if (regularIndex != -1) {
+            return FontVariant.PLAIN;
+        }
+
+        int boldIndex = name.indexOf("bold");
+        if (boldIndex != -1) {
+            name = name.substring(0, boldIndex) + name.substring(boldIndex + "bold".length());
+        }
+
+        int italicIndex = name.indexOf("italic");
+        if (italicIndex != -1) {
+            name = name.substring(0, italicIndex) + name.substring(italicIndex + "italic".length());
+        }
+
+        if (name.isBlank()) {
+            // There are no more font variants we do not support (yet) -> valid font variant for our uses!
+            if (boldIndex != -1 && italicIndex != -1) {
+                return FontVariant.BOLD_ITALIC;
+            } else if (boldIndex != -1) {
+                return FontVariant.BOLD;
+            } else if (italicIndex != -1) {
+                return FontVariant.ITALIC;
+            }
+        }
+
+        throw new CouldNotDetermineFontVariantException(String.format(
+                "The font variant string '%s' could not be mapped to a known font variant",
+                originalFontVariant
+        ));
+    }
+
+}
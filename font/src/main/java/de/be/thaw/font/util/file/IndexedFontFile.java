@@ -0,0 +1,34 @@
+package de.be.thaw.font.util.file;
+
+/**
+ * Font file known from an index (for example the system font index).
+ * In contrast to the other font file representations the fonts in the file are not loaded.
+ */
+public class IndexedFontFile implements FontFile {
+
+    /**
+     * Location of the file.
+     */
+    private final String location;
+
+    /**
+     * Whether the file is a font collection.
+     */
+    private final boolean collection;
+
+    public IndexedFontFile(String location, boolean collection) {
+        this.location = location;
+        this.collection = collection;
+    }
+
+    @Override
+    public boolean isCollection() {
+        return collection;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+}
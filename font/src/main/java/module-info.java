@@ -3,6 +3,7 @@ module de.be.thaw.font {
     exports de.be.thaw.font.util.file;
     exports de.be.thaw.font;
     exports de.be.thaw.font.util.exception;
+    exports de.be.thaw.font.opentype;
     exports de.be.thaw.font.opentype.gpos;
 
     requires java.desktop;
@@ -0,0 +1,185 @@
+package de.be.thaw.font;
+
+import de.be.thaw.font.util.CharacterSize;
+import de.be.thaw.font.util.KernedSize;
+import de.be.thaw.font.util.StringSize;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AbstractFontTest {
+
+    /**
+     * Allowed deviation of the measured sizes.
+     */
+    private static final double DELTA = 0.000001;
+
+    /**
+     * Emoji outside of the basic multilingual plane (encoded as surrogate pair).
+     */
+    private static final int EMOJI = 0x1F600;
+
+    /**
+     * Font only implementing the character size lookup.
+     * Characters are as wide as their distance to 'a' plus one (scaled by the font size)
+     * and the kerning between 'A' and 'V' is -2 (in either order).
+     */
+    private static class SizeFont extends AbstractFont {
+
+        /**
+         * The kerned character pairs in the order they have been requested.
+         */
+        final List<String> kernedPairs = new ArrayList<>();
+
+        @Override
+        public double getAscent(double fontSize) {
+            return fontSize;
+        }
+
+        @Override
+        public double getDescent(double fontSize) {
+            return fontSize / 4;
+        }
+
+        @Override
+        public CharacterSize getCharacterSize(int character, double fontSize) {
+            double scale = fontSize / 10;
+            if (character == EMOJI) {
+                return new CharacterSize(20 * scale, 14 * scale, 11 * scale, 3 * scale);
+            }
+
+            return new CharacterSize(
+                    (Math.abs(character - 'a') + 1) * scale,
+                    (10 + character % 3) * scale,
+                    (8 + character % 3) * scale,
+                    (character % 2) * scale
+            );
+        }
+
+        @Override
+        public double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+            kernedPairs.add(new String(new int[]{leftChar, rightChar}, 0, 2));
+
+            if ((leftChar == 'A' && rightChar == 'V') || (leftChar == 'V' && rightChar == 'A')) {
+                return -2 * fontSize / 10;
+            }
+
+            return 0;
+        }
+
+    }
+
+    /**
+     * Font overriding the character metric methods, that must not look up character sizes to measure strings.
+     */
+    private static class MetricsFont extends SizeFont {
+
+        @Override
+        public CharacterSize getCharacterSize(int character, double fontSize) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected double getCharacterWidth(int character, double fontSize) {
+            return super.getCharacterSize(character, fontSize).getWidth();
+        }
+
+        @Override
+        protected double getCharacterHeight(int character, double fontSize) {
+            return super.getCharacterSize(character, fontSize).getHeight();
+        }
+
+        @Override
+        protected double getCharacterAscent(int character, double fontSize) {
+            return super.getCharacterSize(character, fontSize).getAscent();
+        }
+
+        @Override
+        protected double getCharacterDescent(int character, double fontSize) {
+            return super.getCharacterSize(character, fontSize).getDescent();
+        }
+
+    }
+
+    /**
+     * Assert that the passed sizes are equal.
+     *
+     * @param expected size
+     * @param actual   size
+     */
+    private static void assertSize(StringSize expected, StringSize actual) {
+        Assertions.assertEquals(expected.getWidth(), actual.getWidth(), DELTA);
+        Assertions.assertEquals(expected.getHeight(), actual.getHeight(), DELTA);
+        Assertions.assertEquals(expected.getAscent(), actual.getAscent(), DELTA);
+        Assertions.assertEquals(expected.getDescent(), actual.getDescent(), DELTA);
+    }
+
+    @Test
+    public void stringSizeTest() throws Exception {
+        SizeFont font = new SizeFont();
+
+        // 'a' (97): 1 x 11, ascent 9, descent 1; 'c' (99): 3 x 10, ascent 8, descent 1; 'b' (98): 2 x 12, ascent 10, descent 0
+        assertSize(new StringSize(6, 12, 10, 1), font.getStringSize("acb", 10));
+        assertSize(new StringSize(12, 24, 20, 2), font.getStringSize("acb", 20));
+
+        // Code points outside the basic multilingual plane are measured once
+        assertSize(new StringSize(21, 14, 11, 3), font.getStringSize(new String(new int[]{'a', EMOJI}, 0, 2), 10));
+
+        Assertions.assertTrue(font.kernedPairs.isEmpty());
+    }
+
+    @Test
+    public void kernedStringSizeTest() throws Exception {
+        SizeFont font = new SizeFont();
+
+        // Widths: 'V' 12, 'A' 33 -> 12 + 33 + 12 and the kerning of 'AV', 'VA' and 'AV'
+        KernedSize size = font.getKernedStringSize('A', "VAV", 10);
+        assertSize(new StringSize(57 - 6, 12, 10, 1), size);
+        Assertions.assertArrayEquals(new double[]{-2, -2, -2}, size.getKerningAdjustments(), DELTA);
+        Assertions.assertEquals(List.of("AV", "VA", "AV"), font.kernedPairs);
+
+        // Without a character before, the first character is not kerned
+        font.kernedPairs.clear();
+        size = font.getKernedStringSize(-1, "VAa", 10);
+        assertSize(new StringSize(12 + 33 + 1 - 2, 12, 10, 1), size);
+        Assertions.assertArrayEquals(new double[]{0, -2, 0}, size.getKerningAdjustments(), DELTA);
+        Assertions.assertEquals(List.of("VA", "Aa"), font.kernedPairs);
+    }
+
+    @Test
+    public void kernedStringSizeWithSurrogatePairsTest() throws Exception {
+        SizeFont font = new SizeFont();
+
+        String str = new String(new int[]{'a', EMOJI, 'b'}, 0, 3);
+        Assertions.assertEquals(4, str.length());
+
+        // One kerning adjustment per code point
+        KernedSize size = font.getKernedStringSize('x', str, 10);
+        assertSize(new StringSize(1 + 20 + 2, 14, 11, 3), size);
+        Assertions.assertEquals(3, size.getKerningAdjustments().length);
+        Assertions.assertEquals(List.of(
+                "xa",
+                new String(new int[]{'a', EMOJI}, 0, 2),
+                new String(new int[]{EMOJI, 'b'}, 0, 2)
+        ), font.kernedPairs);
+    }
+
+    @Test
+    public void characterMetricMethodsTest() throws Exception {
+        SizeFont sizeFont = new SizeFont();
+        MetricsFont metricsFont = new MetricsFont();
+
+        String str = new String(new int[]{'T', 'h', 'a', 'w', EMOJI, 'A', 'V'}, 0, 7);
+
+        // Measuring via the overridden metric methods yields the same sizes as via the character sizes
+        assertSize(sizeFont.getStringSize(str, 12), metricsFont.getStringSize(str, 12));
+
+        KernedSize expected = sizeFont.getKernedStringSize('V', str, 12);
+        KernedSize actual = metricsFont.getKernedStringSize('V', str, 12);
+        assertSize(expected, actual);
+        Assertions.assertArrayEquals(expected.getKerningAdjustments(), actual.getKerningAdjustments(), DELTA);
+    }
+
+}
@@ -0,0 +1,465 @@
+package de.be.thaw.font.opentype.gpos;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+public class GlyphPositioningTableTest {
+
+    /**
+     * Script tags of latin glyphs.
+     */
+    private static final String[] LATIN = {"latn"};
+
+    /**
+     * Script tags of glyphs without a specific script.
+     */
+    private static final String[] DEFAULT = {"DFLT"};
+
+    /**
+     * Maximum glyph ID to compare kerning for.
+     */
+    private static final int MAX_GLYPH_ID = 50;
+
+    /**
+     * Writer of big endian table data that allows to fill in offsets later.
+     */
+    private static class TableWriter {
+
+        /**
+         * The written data.
+         */
+        private byte[] data = new byte[64];
+
+        /**
+         * Count of written bytes.
+         */
+        private int size;
+
+        /**
+         * Get the current position (count of written bytes).
+         *
+         * @return position
+         */
+        int pos() {
+            return size;
+        }
+
+        /**
+         * Write an unsigned 16-bit value (or a signed one, as only the lower 16 bits are written).
+         *
+         * @param value to write
+         */
+        void u16(int value) {
+            ensureCapacity(2);
+            data[size++] = (byte) (value >> 8);
+            data[size++] = (byte) value;
+        }
+
+        /**
+         * Write a 32-bit value.
+         *
+         * @param value to write
+         */
+        void u32(int value) {
+            u16(value >>> 16);
+            u16(value);
+        }
+
+        /**
+         * Write a 4-byte tag.
+         *
+         * @param tag to write
+         */
+        void tag(String tag) {
+            for (byte b : tag.getBytes(StandardCharsets.ISO_8859_1)) {
+                ensureCapacity(1);
+                data[size++] = b;
+            }
+        }
+
+        /**
+         * Write a 16-bit placeholder to fill in later.
+         *
+         * @return position of the placeholder
+         */
+        int placeholder() {
+            int pos = pos();
+            u16(0);
+
+            return pos;
+        }
+
+        /**
+         * Fill in the 16-bit offset of the current position relative to the passed base at the passed placeholder.
+         *
+         * @param placeholder position of the placeholder
+         * @param base        the offset is relative to
+         */
+        void offset(int placeholder, int base) {
+            int offset = pos() - base;
+            data[placeholder] = (byte) (offset >> 8);
+            data[placeholder + 1] = (byte) offset;
+        }
+
+        /**
+         * Ensure that the passed count of bytes can be written.
+         *
+         * @param count of bytes
+         */
+        private void ensureCapacity(int count) {
+            if (size + count > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + count));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+    }
+
+    /**
+     * Write a script table with a default LangSys table using the passed features.
+     *
+     * @param w              to write with
+     * @param scriptList     position of the script list
+     * @param placeholder    position of the script table offset to fill in
+     * @param featureIndices indices of the features used by the script
+     */
+    private static void writeScript(TableWriter w, int scriptList, int placeholder, int... featureIndices) {
+        w.offset(placeholder, scriptList);
+        w.u16(4); // Default LangSys table follows the script table
+        w.u16(0); // No further LangSys tables
+
+        w.u16(0); // Lookup order
+        w.u16(0xFFFF); // No required feature
+        w.u16(featureIndices.length);
+        for (int index : featureIndices) {
+            w.u16(index);
+        }
+    }
+
+    /**
+     * Write a feature table.
+     *
+     * @param w             to write with
+     * @param featureList   position of the feature list
+     * @param placeholder   position of the feature table offset to fill in
+     * @param lookupIndices indices of the lookups used by the feature
+     */
+    private static void writeFeature(TableWriter w, int featureList, int placeholder, int... lookupIndices) {
+        w.offset(placeholder, featureList);
+        w.u16(0); // Feature params
+        w.u16(lookupIndices.length);
+        for (int index : lookupIndices) {
+            w.u16(index);
+        }
+    }
+
+    /**
+     * Create a GPOS table with the following features and lookups:
+     * <ul>
+     *     <li>'kern' (used by 'DFLT' and 'latn'): Lookup 0 and 2 (pair adjustments format 1)</li>
+     *     <li>'dist' (used by 'latn'): Lookup 1 (extension of a pair adjustment format 2)</li>
+     *     <li>'mark' (used by 'latn'): Lookup 3 (mark to base attachment with an invalid sub table offset)</li>
+     * </ul>
+     * Lookup 4 is a pair adjustment with a sub table of an unknown format that is not used by any feature.
+     *
+     * @return the table data
+     */
+    private static byte[] createTable() {
+        TableWriter w = new TableWriter();
+
+        // Header
+        w.u16(1);
+        w.u16(0);
+        int scriptListRef = w.placeholder();
+        int featureListRef = w.placeholder();
+        int lookupListRef = w.placeholder();
+
+        // Script list
+        int scriptList = w.pos();
+        w.offset(scriptListRef, 0);
+        w.u16(2);
+        w.tag("DFLT");
+        int defaultScriptRef = w.placeholder();
+        w.tag("latn");
+        int latinScriptRef = w.placeholder();
+        writeScript(w, scriptList, defaultScriptRef, 0);
+        writeScript(w, scriptList, latinScriptRef, 0, 1, 2);
+
+        // Feature list
+        int featureList = w.pos();
+        w.offset(featureListRef, 0);
+        w.u16(3);
+        w.tag("kern");
+        int kernRef = w.placeholder();
+        w.tag("dist");
+        int distRef = w.placeholder();
+        w.tag("mark");
+        int markRef = w.placeholder();
+        writeFeature(w, featureList, kernRef, 0, 2);
+        writeFeature(w, featureList, distRef, 1);
+        writeFeature(w, featureList, markRef, 3);
+
+        // Lookup list
+        int lookupList = w.pos();
+        w.offset(lookupListRef, 0);
+        w.u16(5);
+        int[] lookupRefs = {w.placeholder(), w.placeholder(), w.placeholder(), w.placeholder(), w.placeholder()};
+
+        // Lookup 0: Pair adjustment format 1 -> (10, 20): -50, (10, 21): -30, (11, 20): -10
+        int lookup = w.pos();
+        w.offset(lookupRefs[0], lookupList);
+        w.u16(2); // Type
+        w.u16(0); // Flag
+        w.u16(1); // Sub table count
+        int subTableRef = w.placeholder();
+
+        int subTable = w.pos();
+        w.offset(subTableRef, lookup);
+        w.u16(1); // Format
+        int coverageRef = w.placeholder();
+        w.u16(0x0004); // Value format 1: X advance
+        w.u16(0); // Value format 2
+        w.u16(2); // Pair set count
+        int pairSet1Ref = w.placeholder();
+        int pairSet2Ref = w.placeholder();
+
+        w.offset(coverageRef, subTable);
+        w.u16(1); // Format
+        w.u16(2);
+        w.u16(10);
+        w.u16(11);
+
+        w.offset(pairSet1Ref, subTable);
+        w.u16(2);
+        w.u16(20);
+        w.u16(-50);
+        w.u16(21);
+        w.u16(-30);
+
+        w.offset(pairSet2Ref, subTable);
+        w.u16(1);
+        w.u16(20);
+        w.u16(-10);
+
+        // Lookup 1: Extension of a pair adjustment format 2 -> glyphs 30 and 31 followed by 40 and 41: -70
+        lookup = w.pos();
+        w.offset(lookupRefs[1], lookupList);
+        w.u16(9); // Type
+        w.u16(0); // Flag
+        w.u16(1); // Sub table count
+        subTableRef = w.placeholder();
+
+        int extension = w.pos();
+        w.offset(subTableRef, lookup);
+        w.u16(1); // Format
+        w.u16(2); // Extension lookup type
+        w.u32(8); // The extended sub table follows
+
+        subTable = w.pos();
+        w.u16(2); // Format
+        coverageRef = w.placeholder();
+        w.u16(0x0004); // Value format 1: X advance
+        w.u16(0); // Value format 2
+        int classDef1Ref = w.placeholder();
+        int classDef2Ref = w.placeholder();
+        w.u16(2); // Class 1 count
+        w.u16(2); // Class 2 count
+        w.u16(0); // Class 1: 0, class 2: 0
+        w.u16(0); // Class 1: 0, class 2: 1
+        w.u16(0); // Class 1: 1, class 2: 0
+        w.u16(-70); // Class 1: 1, class 2: 1
+
+        w.offset(coverageRef, subTable);
+        w.u16(2); // Format
+        w.u16(1); // Range count
+        w.u16(30);
+        w.u16(31);
+        w.u16(0);
+
+        w.offset(classDef1Ref, subTable);
+        w.u16(1); // Format
+        w.u16(30); // Start glyph ID
+        w.u16(2);
+        w.u16(1);
+        w.u16(1);
+
+        w.offset(classDef2Ref, subTable);
+        w.u16(2); // Format
+        w.u16(1); // Range count
+        w.u16(40);
+        w.u16(41);
+        w.u16(1);
+
+        Assertions.assertEquals(8, subTable - extension);
+
+        // Lookup 2: Pair adjustment format 1 with two values per record -> (10, 20): -5, (10, 22): -25
+        lookup = w.pos();
+        w.offset(lookupRefs[2], lookupList);
+        w.u16(2); // Type
+        w.u16(0); // Flag
+        w.u16(1); // Sub table count
+        subTableRef = w.placeholder();
+
+        subTable = w.pos();
+        w.offset(subTableRef, lookup);
+        w.u16(1); // Format
+        coverageRef = w.placeholder();
+        w.u16(0x0005); // Value format 1: X placement and X advance
+        w.u16(0x0004); // Value format 2: X advance
+        w.u16(1); // Pair set count
+        pairSet1Ref = w.placeholder();
+
+        w.offset(coverageRef, subTable);
+        w.u16(1); // Format
+        w.u16(1);
+        w.u16(10);
+
+        w.offset(pairSet1Ref, subTable);
+        w.u16(2);
+        w.u16(20);
+        w.u16(7);
+        w.u16(-5);
+        w.u16(3);
+        w.u16(22);
+        w.u16(0);
+        w.u16(-25);
+        w.u16(4);
+
+        // Lookup 3: Mark to base attachment with a sub table offset pointing past the table (never to be decoded)
+        w.offset(lookupRefs[3], lookupList);
+        w.u16(4); // Type
+        w.u16(0); // Flag
+        w.u16(1); // Sub table count
+        w.u16(0xFFF0);
+
+        // Lookup 4: Unused pair adjustment of an unknown format (decoding it fails)
+        lookup = w.pos();
+        w.offset(lookupRefs[4], lookupList);
+        w.u16(2); // Type
+        w.u16(0); // Flag
+        w.u16(1); // Sub table count
+        w.u16(8);
+        w.u16(7); // Format
+
+        return w.toByteArray();
+    }
+
+    /**
+     * Get the expected kerning of the passed glyph pair as if all lookups were decoded upfront.
+     *
+     * @param left  glyph ID
+     * @param right glyph ID
+     * @param kern  whether the 'kern' feature is enabled
+     * @param dist  whether the 'dist' feature is enabled
+     * @return expected kerning
+     */
+    private static int getExpectedKerning(int left, int right, boolean kern, boolean dist) {
+        int kerning = 0;
+
+        if (kern) {
+            if (left == 10 && right == 20) {
+                kerning += -50 - 5;
+            } else if (left == 10 && right == 21) {
+                kerning += -30;
+            } else if (left == 11 && right == 20) {
+                kerning += -10;
+            } else if (left == 10 && right == 22) {
+                kerning += -25;
+            }
+        }
+
+        if (dist && (left == 30 || left == 31) && (right == 40 || right == 41)) {
+            kerning += -70;
+        }
+
+        return kerning;
+    }
+
+    /**
+     * Assert the kerning of all glyph pairs.
+     *
+     * @param table           to get kerning from
+     * @param scriptTags      to get kerning for
+     * @param enabledFeatures to get kerning for (null to enable all)
+     * @param kern            whether the 'kern' feature applies
+     * @param dist            whether the 'dist' feature applies
+     */
+    private static void assertKerning(GlyphPositioningTable table, String[] scriptTags, Set<String> enabledFeatures, boolean kern, boolean dist) {
+        for (int left = 0; left <= MAX_GLYPH_ID; left++) {
+            for (int right = 0; right <= MAX_GLYPH_ID; right++) {
+                Assertions.assertEquals(
+                        getExpectedKerning(left, right, kern, dist),
+                        table.getKerning(left, right, scriptTags, enabledFeatures),
+                        String.format("(%d, %d)", left, right)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void lazyLookupDecodingTest() throws Exception {
+        GlyphPositioningTable table = new GlyphPositioningTable(ByteBuffer.wrap(createTable()));
+
+        // Neither the mark to base lookup nor the unused lookup are decoded
+        assertKerning(table, LATIN, null, true, true);
+        assertKerning(table, DEFAULT, null, true, false);
+
+        assertKerning(table, LATIN, Set.of("kern"), true, false);
+        assertKerning(table, LATIN, Set.of("dist"), false, true);
+        assertKerning(table, LATIN, Set.of("kern", "dist", "mark"), true, true);
+        assertKerning(table, LATIN, Set.of(), false, false);
+        assertKerning(table, DEFAULT, Set.of("dist"), false, false);
+
+        // Unknown scripts are not kerned
+        assertKerning(table, new String[]{"grek"}, null, false, false);
+    }
+
+    @Test
+    public void decodingOrderDoesNotMatterTest() throws Exception {
+        byte[] data = createTable();
+
+        // Decode the lookups of a single feature first
+        GlyphPositioningTable table = new GlyphPositioningTable(ByteBuffer.wrap(data));
+        assertKerning(table, LATIN, Set.of("dist"), false, true);
+        assertKerning(table, LATIN, Set.of("kern"), true, false);
+        assertKerning(table, LATIN, null, true, true);
+
+        // Decode all lookups concurrently
+        GlyphPositioningTable concurrentTable = new GlyphPositioningTable(ByteBuffer.wrap(data));
+        Set<Set<String>> featureSets = Set.of(Set.of("kern"), Set.of("dist"), Set.of("kern", "dist"));
+        featureSets.parallelStream().forEach(features -> concurrentTable.getKerning(10, 20, LATIN, features));
+
+        assertKerning(concurrentTable, LATIN, Set.of("kern", "dist"), true, true);
+        assertKerning(concurrentTable, LATIN, Set.of("kern"), true, false);
+    }
+
+    @Test
+    public void tableSliceTest() throws Exception {
+        byte[] data = createTable();
+
+        // The table as slice of a larger buffer (like a memory-mapped font file)
+        byte[] file = new byte[data.length + 100];
+        Arrays.fill(file, (byte) 0x7F);
+        System.arraycopy(data, 0, file, 60, data.length);
+        ByteBuffer slice = ByteBuffer.wrap(file, 60, data.length).slice();
+
+        GlyphPositioningTable fromSlice = new GlyphPositioningTable(slice.asReadOnlyBuffer());
+        GlyphPositioningTable fromStream = new GlyphPositioningTable(new ByteArrayInputStream(data));
+
+        assertKerning(fromSlice, LATIN, null, true, true);
+        assertKerning(fromStream, LATIN, null, true, true);
+
+        // Reading the table does not move the passed buffer
+        Assertions.assertEquals(0, slice.position());
+    }
+
+}
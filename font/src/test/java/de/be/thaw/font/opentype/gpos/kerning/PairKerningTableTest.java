@@ -0,0 +1,229 @@
+package de.be.thaw.font.opentype.gpos.kerning;
+
+import de.be.thaw.font.opentype.gpos.LookupSubTable;
+import de.be.thaw.font.opentype.gpos.subtable.ValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.ClassDefTable;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format1.ClassDefTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassDefTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.classdef.format2.ClassRangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.CoverageTable;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format1.CoverageTableFormat1;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.CoverageTableFormat2;
+import de.be.thaw.font.opentype.gpos.subtable.coverage.format2.RangeRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairPosFormat1SubTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairSetTable;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format1.PairValueRecord;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class1Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.Class2Record;
+import de.be.thaw.font.opentype.gpos.subtable.pairpos.format2.PairPosFormat2SubTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PairKerningTableTest {
+
+    /**
+     * Create a value record only adjusting the horizontal advance.
+     *
+     * @param xAdvance adjustment of the horizontal advance
+     * @return value record
+     */
+    private static ValueRecord xAdvance(int xAdvance) {
+        return new ValueRecord(0, 0, xAdvance, 0, null, null, null, null);
+    }
+
+    /**
+     * Create a format 1 sub table with a single pair per left glyph.
+     *
+     * @param pairs left glyph ID, right glyph ID and kerning triples
+     * @return sub table
+     */
+    private static PairPosFormat1SubTable glyphPairs(int... pairs) {
+        int count = pairs.length / 3;
+
+        int[] leftGlyphIDs = new int[count];
+        PairSetTable[] pairSetTables = new PairSetTable[count];
+        for (int i = 0; i < count; i++) {
+            leftGlyphIDs[i] = pairs[i * 3];
+            pairSetTables[i] = new PairSetTable(new PairValueRecord[]{
+                    new PairValueRecord(pairs[i * 3 + 1], xAdvance(pairs[i * 3 + 2]), null)
+            });
+        }
+
+        return new PairPosFormat1SubTable(new CoverageTableFormat1(leftGlyphIDs), 4, 0, pairSetTables);
+    }
+
+    /**
+     * Create a format 2 sub table.
+     *
+     * @param coverage  of the left glyphs
+     * @param classDef1 classes of the left glyphs
+     * @param classDef2 classes of the right glyphs
+     * @param matrix    kerning values by left and right class
+     * @return sub table
+     */
+    private static PairPosFormat2SubTable classPairs(CoverageTable coverage, ClassDefTable classDef1, ClassDefTable classDef2, int[][] matrix) {
+        Class1Record[] class1Records = new Class1Record[matrix.length];
+        for (int c1 = 0; c1 < matrix.length; c1++) {
+            Class2Record[] class2Records = new Class2Record[matrix[c1].length];
+            for (int c2 = 0; c2 < matrix[c1].length; c2++) {
+                class2Records[c2] = new Class2Record(xAdvance(matrix[c1][c2]), null);
+            }
+
+            class1Records[c1] = new Class1Record(class2Records);
+        }
+
+        return new PairPosFormat2SubTable(
+                coverage,
+                4,
+                0,
+                classDef1,
+                classDef2,
+                matrix.length,
+                matrix.length > 0 ? matrix[0].length : 0,
+                class1Records
+        );
+    }
+
+    /**
+     * Compile a table from the passed lookups.
+     *
+     * @param lookups sub tables per lookup
+     * @return the compiled table
+     */
+    private static PairKerningTable compile(LookupSubTable[]... lookups) {
+        return PairKerningTable.compile(List.of(lookups));
+    }
+
+    @Test
+    public void emptyTest() {
+        Assertions.assertSame(PairKerningTable.EMPTY, compile());
+        Assertions.assertSame(PairKerningTable.EMPTY, compile(new LookupSubTable[0]));
+        Assertions.assertEquals(0, PairKerningTable.EMPTY.getKerning(1, 2));
+    }
+
+    @Test
+    public void glyphPairsTest() {
+        PairKerningTable table = compile(new LookupSubTable[]{
+                glyphPairs(10, 20, -50, 11, 20, -30),
+                glyphPairs(10, 20, -99, 12, 21, 15) // Pair 10/20 is already defined by the first sub table
+        });
+
+        Assertions.assertEquals(-50, table.getKerning(10, 20));
+        Assertions.assertEquals(-30, table.getKerning(11, 20));
+        Assertions.assertEquals(15, table.getKerning(12, 21));
+        Assertions.assertEquals(0, table.getKerning(20, 10));
+        Assertions.assertEquals(0, table.getKerning(12, 20));
+    }
+
+    @Test
+    public void manyGlyphPairsTest() {
+        // More pairs than the segment is initially sized for, so that it has to grow
+        List<LookupSubTable> subTables = new ArrayList<>();
+        for (int left = 0; left < 200; left++) {
+            subTables.add(glyphPairs(left, left + 1, left - 100));
+        }
+
+        PairKerningTable table = compile(subTables.toArray(new LookupSubTable[0]));
+
+        for (int left = 0; left < 200; left++) {
+            Assertions.assertEquals(left - 100, table.getKerning(left, left + 1));
+            Assertions.assertEquals(0, table.getKerning(left + 1, left));
+        }
+    }
+
+    @Test
+    public void classPairsTest() {
+        PairKerningTable table = compile(new LookupSubTable[]{classPairs(
+                new CoverageTableFormat2(new RangeRecord[]{
+                        new RangeRecord(5, 7, 0),
+                        new RangeRecord(20, 20, 3)
+                }),
+                new ClassDefTableFormat1(5, new int[]{1, 1, 2}),
+                new ClassDefTableFormat2(new ClassRangeRecord[]{
+                        new ClassRangeRecord(30, 31, 1),
+                        new ClassRangeRecord(40, 40, 2),
+                        new ClassRangeRecord(41, 41, 7) // Invalid class
+                }),
+                new int[][]{
+                        {0, -10, -20},
+                        {-1, -11, -21},
+                        {-2, -12, -22}
+                }
+        )});
+
+        // Start glyph ID of the class definition is honoured
+        Assertions.assertEquals(-11, table.getKerning(5, 30));
+        Assertions.assertEquals(-21, table.getKerning(6, 40));
+        Assertions.assertEquals(-12, table.getKerning(7, 31));
+
+        // Covered glyphs without class definition are in class 0
+        Assertions.assertEquals(-20, table.getKerning(20, 40));
+
+        // Right glyphs without class definition (also beyond the class definitions) are in class 0
+        Assertions.assertEquals(-1, table.getKerning(5, 35));
+        Assertions.assertEquals(-2, table.getKerning(7, 1000));
+
+        // Left glyphs not in the coverage do not match, even when they have a class
+        Assertions.assertEquals(0, table.getKerning(4, 30));
+        Assertions.assertEquals(0, table.getKerning(8, 30));
+        Assertions.assertEquals(0, table.getKerning(1000, 30));
+
+        // Invalid right classes do not match
+        Assertions.assertEquals(0, table.getKerning(5, 41));
+    }
+
+    @Test
+    public void firstMatchingSubTableWinsTest() {
+        PairKerningTable table = compile(new LookupSubTable[]{
+                glyphPairs(1, 2, -5),
+                classPairs(
+                        new CoverageTableFormat1(new int[]{1, 3}),
+                        new ClassDefTableFormat1(1, new int[]{1, 0, 1}),
+                        new ClassDefTableFormat1(2, new int[]{1}),
+                        new int[][]{{0, -7}, {-8, -9}}
+                ),
+                glyphPairs(3, 2, -100, 4, 2, -6) // Must not be merged with the first sub table
+        });
+
+        Assertions.assertEquals(-5, table.getKerning(1, 2));
+        Assertions.assertEquals(-9, table.getKerning(3, 2));
+        Assertions.assertEquals(-6, table.getKerning(4, 2));
+
+        // A format 2 sub table with a class 0 value of 0 still matches
+        Assertions.assertEquals(-8, table.getKerning(3, 5));
+    }
+
+    @Test
+    public void lookupsAddUpTest() {
+        PairKerningTable table = compile(
+                new LookupSubTable[]{glyphPairs(1, 2, -5, 3, 4, -1)},
+                new LookupSubTable[]{glyphPairs(1, 2, -3)}
+        );
+
+        Assertions.assertEquals(-8, table.getKerning(1, 2));
+        Assertions.assertEquals(-1, table.getKerning(3, 4));
+    }
+
+    @Test
+    public void classPairSegmentTest() {
+        char n = ClassPairSegment.NOT_COVERED;
+        ClassPairSegment segment = new ClassPairSegment(
+                new char[]{n, 0, 1},
+                new char[]{1, n, 0},
+                2,
+                new short[]{10, 20, 30, 40}
+        );
+
+        Assertions.assertEquals(20, segment.getKerning(1, 0));
+        Assertions.assertEquals(30, segment.getKerning(2, 2));
+        Assertions.assertEquals(30, segment.getKerning(2, 3)); // Beyond the right classes is class 0
+        Assertions.assertEquals(KerningSegment.NO_MATCH, segment.getKerning(0, 0));
+        Assertions.assertEquals(KerningSegment.NO_MATCH, segment.getKerning(1, 1));
+        Assertions.assertEquals(KerningSegment.NO_MATCH, segment.getKerning(3, 0));
+        Assertions.assertEquals(KerningSegment.NO_MATCH, segment.getKerning(-1, 0));
+    }
+
+}
@@ -0,0 +1,184 @@
+package de.be.thaw.font.system;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SystemFontIndexTest {
+
+    @TempDir
+    File folder;
+
+    /**
+     * Directory holding the font files.
+     */
+    private File fontDir;
+
+    /**
+     * File the index is persisted in.
+     */
+    private File indexFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        fontDir = new File(folder, "fonts");
+        Files.createDirectories(fontDir.toPath());
+
+        File cacheDir = new File(folder, "cache");
+        Files.createDirectories(cacheDir.toPath());
+        indexFile = new File(cacheDir, SystemFontIndex.CACHE_LOCATION);
+    }
+
+    /**
+     * Write a (fake) font file with the passed content.
+     *
+     * @param name    of the file
+     * @param content of the file
+     * @return the written file
+     * @throws IOException in case the file could not be written
+     */
+    private File writeFontFile(String name, String content) throws IOException {
+        File file = new File(fontDir, name);
+        Files.writeString(file.toPath(), content);
+
+        return file;
+    }
+
+    /**
+     * Make sure the modification time of the font directory differs from the indexed one.
+     */
+    private void touchFontDir() {
+        Assertions.assertTrue(fontDir.setLastModified(fontDir.lastModified() + 10_000));
+    }
+
+    /**
+     * Get the fonts in the font directory using a new index.
+     *
+     * @param scanned list to add the paths of the scanned font files to
+     * @return the names of the found fonts
+     * @throws Exception in case the fonts could not be found
+     */
+    private List<String> getFonts(List<String> scanned) throws Exception {
+        SystemFontIndex index = new SystemFontIndex(indexFile) {
+            @Override
+            List<SystemFont> scanFile(String path) throws IOException {
+                synchronized (scanned) {
+                    scanned.add(new File(path).getName());
+                }
+
+                // Name the fake font after the file and its content
+                String name = new File(path).getName() + ":" + Files.readString(new File(path).toPath());
+                return List.of(new SystemFont(path, false, 0, name, "Family", null, false));
+            }
+        };
+
+        List<String> result = index.getFonts(List.of(fontDir.getAbsolutePath())).stream()
+                .map(SystemFont::getFontName)
+                .collect(Collectors.toList());
+
+        Collections.sort(scanned);
+
+        return result;
+    }
+
+    @Test
+    public void unchangedFilesAreNotScannedAgainTest() throws Exception {
+        writeFontFile("a.ttf", "A");
+        writeFontFile("b.TTF", "B");
+        writeFontFile("readme.txt", "Not a font");
+
+        List<String> scanned = new ArrayList<>();
+        Assertions.assertEquals(List.of("a.ttf:A", "b.TTF:B"), getFonts(scanned));
+        Assertions.assertEquals(List.of("a.ttf", "b.TTF"), scanned);
+
+        scanned.clear();
+        Assertions.assertEquals(List.of("a.ttf:A", "b.TTF:B"), getFonts(scanned));
+        Assertions.assertEquals(List.of(), scanned);
+
+        // No temporary files are left behind
+        File[] cacheFiles = indexFile.getParentFile().listFiles();
+        Assertions.assertNotNull(cacheFiles);
+        Assertions.assertEquals(1, cacheFiles.length);
+    }
+
+    @Test
+    public void changedFileIsScannedAgainTest() throws Exception {
+        writeFontFile("a.ttf", "A");
+        File b = writeFontFile("b.ttf", "B");
+        getFonts(new ArrayList<>());
+
+        // Same size, but modified
+        writeFontFile("b.ttf", "C");
+        Assertions.assertTrue(b.setLastModified(b.lastModified() + 10_000));
+
+        List<String> scanned = new ArrayList<>();
+        Assertions.assertEquals(List.of("a.ttf:A", "b.ttf:C"), getFonts(scanned));
+        Assertions.assertEquals(List.of("b.ttf"), scanned);
+
+        // Changed size with the same modification time
+        long lastModified = b.lastModified();
+        writeFontFile("b.ttf", "DD");
+        Assertions.assertTrue(b.setLastModified(lastModified));
+
+        scanned.clear();
+        Assertions.assertEquals(List.of("a.ttf:A", "b.ttf:DD"), getFonts(scanned));
+        Assertions.assertEquals(List.of("b.ttf"), scanned);
+    }
+
+    @Test
+    public void addedAndRemovedFilesTest() throws Exception {
+        File a = writeFontFile("a.ttf", "A");
+        writeFontFile("b.ttf", "B");
+        getFonts(new ArrayList<>());
+
+        Assertions.assertTrue(a.delete());
+        writeFontFile("c.ttc", "C");
+        touchFontDir();
+
+        List<String> scanned = new ArrayList<>();
+        Assertions.assertEquals(List.of("b.ttf:B", "c.ttc:C"), getFonts(scanned));
+        Assertions.assertEquals(List.of("c.ttc"), scanned);
+    }
+
+    @Test
+    public void removedFileInUnchangedDirectoryListingTest() throws Exception {
+        File a = writeFontFile("a.ttf", "A");
+        writeFontFile("b.ttf", "B");
+        getFonts(new ArrayList<>());
+
+        // Removed without the directory modification time changing
+        long lastModified = fontDir.lastModified();
+        Assertions.assertTrue(a.delete());
+        Assertions.assertTrue(fontDir.setLastModified(lastModified));
+
+        List<String> scanned = new ArrayList<>();
+        Assertions.assertEquals(List.of("b.ttf:B"), getFonts(scanned));
+        Assertions.assertEquals(List.of(), scanned);
+    }
+
+    @Test
+    public void brokenIndexIsRebuiltTest() throws Exception {
+        writeFontFile("a.ttf", "A");
+        getFonts(new ArrayList<>());
+
+        Files.writeString(indexFile.toPath(), "Broken");
+
+        List<String> scanned = new ArrayList<>();
+        Assertions.assertEquals(List.of("a.ttf:A"), getFonts(scanned));
+        Assertions.assertEquals(List.of("a.ttf"), scanned);
+
+        scanned.clear();
+        Assertions.assertEquals(List.of("a.ttf:A"), getFonts(scanned));
+        Assertions.assertEquals(List.of(), scanned);
+    }
+
+}
@@ -0,0 +1,142 @@
+package de.be.thaw.hyphenation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hyphenation dictionary caching the hyphenation results of another dictionary.
+ * Running text repeats the same words over and over again, which is why the break offsets are cached by word.
+ * <p>
+ * Additionally, the dictionary supports exceptions (like TeX's \hyphenation{...}):
+ * Words with hyphens marking the only allowed hyphenation points (e. g. 'ta-ble').
+ * Exceptions are never evicted and take precedence over the hyphenation patterns, which are not consulted
+ * for them at all. As in TeX, the minimum lengths of the word parts before and after a hyphen
+ * (left and right hyphen min) of the dictionary still apply to them.
+ * <p>
+ * Words are looked up case-insensitively.
+ * The cached break offsets are shared between all lookups and must thus not be modified.
+ * The cache holds a bounded count of entries and evicts the least recently used ones.
+ * It is thread-safe.
+ */
+public class CachingHyphenationDictionary implements HyphenationDictionary {
+
+    /**
+     * Default maximum count of cached hyphenation results.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 16384;
+
+    /**
+     * Character marking the hyphenation points in exceptions.
+     */
+    private static final char EXCEPTION_HYPHEN = '-';
+
+    /**
+     * The dictionary to cache hyphenation results of.
+     */
+    private final HyphenationDictionary dictionary;
+
+    /**
+     * Break offsets of the exceptions by their lower case word.
+     */
+    private final Map<String, int[]> exceptions;
+
+    /**
+     * Cached break offsets by lower case word in least recently used order.
+     */
+    private final Map<String, int[]> entries;
+
+    public CachingHyphenationDictionary(HyphenationDictionary dictionary, Iterable<String> exceptions, int maxEntries) {
+        this.dictionary = dictionary;
+        this.exceptions = parseExceptions(exceptions, dictionary.getLeftHyphenMin(), dictionary.getRightHyphenMin());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Parse the passed exceptions to break offsets.
+     *
+     * @param exceptions     words with hyphens marking the allowed hyphenation points
+     * @param leftHyphenMin  minimum length of the word part before a hyphen
+     * @param rightHyphenMin minimum length of the word part after a hyphen
+     * @return break offsets by lower case word
+     */
+    private static Map<String, int[]> parseExceptions(Iterable<String> exceptions, int leftHyphenMin, int rightHyphenMin) {
+        Map<String, int[]> result = new HashMap<>();
+
+        for (String exception : exceptions) {
+            StringBuilder word = new StringBuilder(exception.length());
+            int[] breaks = new int[exception.length()];
+            int count = 0;
+
+            for (int i = 0; i < exception.length(); i++) {
+                char c = exception.charAt(i);
+                if (c == EXCEPTION_HYPHEN) {
+                    // Ignore hyphens at the start, too close to the start and repeated hyphens
+                    if (word.length() > 0 && word.length() >= leftHyphenMin && (count == 0 || breaks[count - 1] != word.length())) {
+                        breaks[count++] = word.length();
+                    }
+                } else {
+                    word.append(c);
+                }
+            }
+
+            // Ignore hyphens at the end and too close to the end
+            while (count > 0 && breaks[count - 1] > word.length() - Math.max(rightHyphenMin, 1)) {
+                count--;
+            }
+
+            if (word.length() > 0) {
+                result.put(word.toString().toLowerCase(Locale.ROOT), Arrays.copyOf(breaks, count));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int getLeftHyphenMin() {
+        return dictionary.getLeftHyphenMin();
+    }
+
+    @Override
+    public int getRightHyphenMin() {
+        return dictionary.getRightHyphenMin();
+    }
+
+    @Override
+    public int[] hyphenate(String word) {
+        String key = word.toLowerCase(Locale.ROOT);
+        if (key.length() != word.length()) {
+            return dictionary.hyphenate(word); // Offsets in the lower case word do not apply to the passed word
+        }
+
+        int[] breaks = exceptions.get(key);
+        if (breaks != null) {
+            return breaks;
+        }
+
+        synchronized (entries) {
+            breaks = entries.get(key);
+        }
+
+        if (breaks != null) {
+            return breaks;
+        }
+
+        breaks = dictionary.hyphenate(word);
+
+        synchronized (entries) {
+            entries.put(key, breaks);
+        }
+
+        return breaks;
+    }
+
+}
@@ -1,33 +1,79 @@
 package de.be.thaw.hyphenation;
 
 import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import de.be.thaw.hyphenation.loader.impl.BinaryHyphenationDictionaryLoader;
 import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
 import de.be.thaw.info.model.language.Language;
+import de.be.thaw.util.debug.Debug;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Collection of available hyphenation dictionaries.
+ * <p>
+ * Dictionaries are loaded on first use of their language.
+ * Apart from the dictionaries bundled with the application, additional dictionaries
+ * may be registered (for example from the classpath) to add further languages
+ * or to replace a bundled dictionary for the whole process.
+ * Dictionaries of a project are looked up in the project's dictionary folder instead
+ * (see {@link #getDictionary(Language, File)}), so that they only apply to that project.
  */
 public class HyphenationDictionaries {
 
     /**
-     * Available dictionaries.
+     * Logger for the class.
      */
-    private static final Map<Language, HyphenationDictionary> DICTIONARIES = new HashMap<>();
+    private static final Logger LOGGER = Logger.getLogger(HyphenationDictionaries.class.getSimpleName());
 
-    static {
-        for (Language language : Language.values()) {
-            addDictionaryForLanguage(language);
+    /**
+     * Name of the dictionary file in a language folder.
+     */
+    private static final String DICTIONARY_FILE_NAME = "dictionary.dic";
+
+    /**
+     * Name of the bundled dictionary file compiled to the binary format during the build.
+     */
+    private static final String COMPILED_DICTIONARY_FILE_NAME = "dictionary.bin";
+
+    /**
+     * Sources of additionally registered dictionaries by their language code.
+     */
+    private static final Map<String, URL> REGISTERED_SOURCES = new ConcurrentHashMap<>();
+
+    /**
+     * Already loaded dictionaries by their language code (empty if there is no dictionary for the language).
+     */
+    private static final Map<String, Optional<HyphenationDictionary>> DICTIONARIES = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum count of dictionaries loaded from dictionary folders to keep.
+     */
+    private static final int MAX_FOLDER_DICTIONARIES = 8;
+
+    /**
+     * Dictionaries loaded from dictionary folders by their file in least recently used order.
+     */
+    private static final Map<File, FolderDictionary> FOLDER_DICTIONARIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, FolderDictionary> eldest) {
+            return size() > MAX_FOLDER_DICTIONARIES;
         }
-    }
+    };
 
     /**
      * Get a hyphenation dictionary by the passed language.
@@ -36,25 +82,209 @@ public class HyphenationDictionaries {
      * @return dictionary
      */
     public static Optional<HyphenationDictionary> getDictionary(Language language) {
-        return Optional.ofNullable(DICTIONARIES.get(language));
+        if (language.getCode() == null) {
+            return Optional.empty();
+        }
+
+        return getDictionary(language.getCode());
+    }
+
+    /**
+     * Get a hyphenation dictionary by the passed language code.
+     * The dictionary is loaded when it is requested for the first time.
+     *
+     * @param languageCode to get dictionary for (e. g. 'en')
+     * @return dictionary
+     */
+    public static Optional<HyphenationDictionary> getDictionary(String languageCode) {
+        return DICTIONARIES.computeIfAbsent(normalize(languageCode), HyphenationDictionaries::loadDictionary);
+    }
+
+    /**
+     * Get a hyphenation dictionary by the passed language preferring a dictionary in the passed folder.
+     * The folder is expected to be laid out like the bundled dictionaries, meaning
+     * it contains a folder per language code holding a 'dictionary.dic' file.
+     * <p>
+     * The dictionary in the folder is only used for this lookup and does not replace the dictionary
+     * of the language elsewhere. It is loaded again when the file changed.
+     * In case it cannot be loaded, the dictionary found by {@link #getDictionary(Language)} is used.
+     *
+     * @param language to get dictionary for
+     * @param folder   to look for a dictionary in first (may be null)
+     * @return dictionary
+     */
+    public static Optional<HyphenationDictionary> getDictionary(Language language, File folder) {
+        if (language.getCode() == null) {
+            return Optional.empty();
+        }
+
+        if (folder != null) {
+            File file = new File(new File(folder, normalize(language.getCode())), DICTIONARY_FILE_NAME);
+            if (file.isFile()) {
+                HyphenationDictionary dictionary = getFolderDictionary(file);
+                if (dictionary != null) {
+                    return Optional.of(dictionary);
+                }
+            }
+        }
+
+        return getDictionary(language);
+    }
+
+    /**
+     * Get the dictionary in the passed file of a dictionary folder.
+     * The dictionary is loaded again when the file changed since it has been loaded.
+     *
+     * @param file of the dictionary
+     * @return the dictionary or null in case it could not be loaded
+     */
+    private static HyphenationDictionary getFolderDictionary(File file) {
+        File key = file.getAbsoluteFile();
+        long lastModified = key.lastModified();
+        long length = key.length();
+
+        synchronized (FOLDER_DICTIONARIES) {
+            FolderDictionary loaded = FOLDER_DICTIONARIES.get(key);
+            if (loaded != null && loaded.lastModified == lastModified && loaded.length == length) {
+                return loaded.dictionary;
+            }
+
+            HyphenationDictionary dictionary;
+            try (InputStream stream = Files.newInputStream(key.toPath())) {
+                dictionary = load(stream);
+            } catch (HyphenationDictionaryLoadException | IOException e) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format(
+                            "Could not load hyphenation dictionary '%s'. Falling back to the default dictionary",
+                            key.getAbsolutePath()
+                    ), e);
+                }
+                dictionary = null;
+            }
+
+            FOLDER_DICTIONARIES.put(key, new FolderDictionary(dictionary, lastModified, length));
+
+            return dictionary;
+        }
+    }
+
+    /**
+     * Register the dictionary at the passed URL (e. g. a resource found by a class loader)
+     * for the passed language code.
+     * It replaces the bundled dictionary of the language (if any) for the whole process.
+     * The dictionary is loaded once on first use, so the resource is expected not to change.
+     *
+     * @param languageCode the dictionary is for (e. g. 'en')
+     * @param resource     URL of the dictionary
+     */
+    public static void registerDictionary(String languageCode, URL resource) {
+        // Drop an already loaded dictionary when the source changed to load it from the new source on next use
+        DICTIONARIES.compute(normalize(languageCode), (code, loaded) -> resource.equals(REGISTERED_SOURCES.put(code, resource)) ? loaded : null);
     }
 
     /**
-     * Add a dictionary for the passed language.
+     * Load the dictionary for the passed language code.
+     * Registered dictionaries take precedence over the bundled ones.
      *
-     * @param language to add dictionary for
+     * @param languageCode to load dictionary for
+     * @return the dictionary or an empty Optional if there is none for the language
      */
-    private static void addDictionaryForLanguage(Language language) {
-        String path = String.format("/hyphenation/%s/dictionary.dic", language.getCode());
+    private static Optional<HyphenationDictionary> loadDictionary(String languageCode) {
+        URL registered = REGISTERED_SOURCES.get(languageCode);
+        if (registered != null) {
+            try (InputStream stream = registered.openStream()) {
+                return Optional.of(load(stream));
+            } catch (HyphenationDictionaryLoadException | IOException e) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format(
+                            "Could not load hyphenation dictionary '%s' for language '%s'. Falling back to the bundled dictionary",
+                            registered,
+                            languageCode
+                    ), e);
+                }
+            }
+        }
 
-        InputStream stream = HyphenationDictionaries.class.getResourceAsStream(path);
-        if (stream != null) { // If the resource has been found
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-                DICTIONARIES.put(language, new FileHyphenationDictionaryLoader().load(reader));
+        // Prefer the bundled dictionary compiled during the build as it does not need to be parsed
+        InputStream compiled = HyphenationDictionaries.class.getResourceAsStream(getBundledPath(languageCode, COMPILED_DICTIONARY_FILE_NAME));
+        if (compiled != null) {
+            try (compiled) {
+                return Optional.of(new BinaryHyphenationDictionaryLoader().load(compiled));
             } catch (HyphenationDictionaryLoadException | IOException e) {
                 throw new RuntimeException(e); // Must not happen!
             }
         }
+
+        InputStream stream = HyphenationDictionaries.class.getResourceAsStream(getBundledPath(languageCode, DICTIONARY_FILE_NAME));
+        if (stream == null) {
+            return Optional.empty();
+        }
+
+        try (stream) {
+            return Optional.of(load(stream));
+        } catch (HyphenationDictionaryLoadException | IOException e) {
+            throw new RuntimeException(e); // Must not happen!
+        }
+    }
+
+    /**
+     * Get the resource path of a bundled dictionary file.
+     *
+     * @param languageCode of the dictionary
+     * @param fileName     of the dictionary file
+     * @return resource path
+     */
+    private static String getBundledPath(String languageCode, String fileName) {
+        return String.format("/hyphenation/%s/%s", languageCode, fileName);
+    }
+
+    /**
+     * Load a dictionary from the passed stream.
+     *
+     * @param stream to load dictionary from
+     * @return the loaded dictionary
+     * @throws HyphenationDictionaryLoadException in case the dictionary could not be loaded
+     */
+    private static HyphenationDictionary load(InputStream stream) throws HyphenationDictionaryLoadException {
+        return new FileHyphenationDictionaryLoader().load(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Normalize the passed language code.
+     *
+     * @param languageCode to normalize
+     * @return the normalized language code
+     */
+    private static String normalize(String languageCode) {
+        return Objects.requireNonNull(languageCode).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Dictionary loaded from a dictionary folder.
+     */
+    private static final class FolderDictionary {
+
+        /**
+         * The loaded dictionary (null if it could not be loaded).
+         */
+        private final HyphenationDictionary dictionary;
+
+        /**
+         * Last modification timestamp of the file the dictionary has been loaded from.
+         */
+        private final long lastModified;
+
+        /**
+         * Length of the file the dictionary has been loaded from.
+         */
+        private final long length;
+
+        FolderDictionary(HyphenationDictionary dictionary, long lastModified, long length) {
+            this.dictionary = dictionary;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
     }
 
 }
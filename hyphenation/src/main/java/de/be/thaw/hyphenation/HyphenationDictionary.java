@@ -1,7 +1,5 @@
 package de.be.thaw.hyphenation;
 
-import java.util.List;
-
 /**
  * Dictionary for hyphenation.
  */
@@ -25,8 +23,8 @@ public interface HyphenationDictionary {
      * Hyphenate the passed word.
      *
      * @param word to hyphenate
-     * @return the hyphenated word parts
+     * @return the ascending offsets in the word at which it may be hyphenated (empty if it cannot be hyphenated)
      */
-    List<String> hyphenate(String word);
+    int[] hyphenate(String word);
 
 }
@@ -0,0 +1,95 @@
+package de.be.thaw.hyphenation.compiler;
+
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import de.be.thaw.hyphenation.loader.impl.BinaryHyphenationDictionaryWriter;
+import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Compiler of hyphenation dictionaries in the TeX pattern format to the binary format
+ * loaded at runtime.
+ * Used during the build to compile the bundled dictionaries.
+ */
+public class HyphenationDictionaryCompiler {
+
+    /**
+     * Name of the dictionary source file in a language folder.
+     */
+    private static final String SOURCE_FILE_NAME = "dictionary.dic";
+
+    /**
+     * Name of the compiled dictionary file in a language folder.
+     */
+    private static final String COMPILED_FILE_NAME = "dictionary.bin";
+
+    /**
+     * Compile all dictionaries in the source folder (containing a folder per language code holding a 'dictionary.dic' file)
+     * to the same layout in the output folder.
+     *
+     * @param args source folder and output folder
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: HyphenationDictionaryCompiler <source folder> <output folder>");
+            System.exit(1);
+        }
+
+        try {
+            new HyphenationDictionaryCompiler().compileFolder(new File(args[0]), new File(args[1]));
+        } catch (IOException | HyphenationDictionaryLoadException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compile all dictionaries in the passed source folder.
+     *
+     * @param sourceFolder containing a folder per language code holding a 'dictionary.dic' file
+     * @param outputFolder to write the compiled dictionaries to
+     * @throws IOException                        in case a dictionary could not be written
+     * @throws HyphenationDictionaryLoadException in case a dictionary could not be read
+     */
+    public void compileFolder(File sourceFolder, File outputFolder) throws IOException, HyphenationDictionaryLoadException {
+        File[] languageFolders = sourceFolder.listFiles(File::isDirectory);
+        if (languageFolders == null) {
+            throw new IOException(String.format("'%s' is not a folder", sourceFolder.getAbsolutePath()));
+        }
+
+        for (File languageFolder : languageFolders) {
+            File source = new File(languageFolder, SOURCE_FILE_NAME);
+            if (source.isFile()) {
+                File target = new File(new File(outputFolder, languageFolder.getName()), COMPILED_FILE_NAME);
+                compile(source, target);
+            }
+        }
+    }
+
+    /**
+     * Compile the passed dictionary source file.
+     *
+     * @param source file of the dictionary
+     * @param target file to write the compiled dictionary to
+     * @throws IOException                        in case the dictionary could not be written
+     * @throws HyphenationDictionaryLoadException in case the dictionary could not be read
+     */
+    public void compile(File source, File target) throws IOException, HyphenationDictionaryLoadException {
+        DefaultHyphenationDictionary dictionary;
+        try (BufferedReader reader = Files.newBufferedReader(source.toPath(), StandardCharsets.UTF_8)) {
+            dictionary = new FileHyphenationDictionaryLoader().load(reader);
+        }
+
+        Files.createDirectories(target.getParentFile().toPath());
+        try (OutputStream out = Files.newOutputStream(target.toPath())) {
+            new BinaryHyphenationDictionaryWriter().write(dictionary, out);
+        }
+    }
+
+}
@@ -2,11 +2,7 @@ package de.be.thaw.hyphenation.impl;
 
 import de.be.thaw.hyphenation.HyphenationDictionary;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 
 /**
  * The default hyphenation dictionary.
@@ -14,9 +10,19 @@ import java.util.Map;
 public class DefaultHyphenationDictionary implements HyphenationDictionary {
 
     /**
-     * Points for the individual hyphenation keys.
+     * Result for words that cannot be hyphenated.
      */
-    private final Map<String, int[]> source;
+    private static final int[] NO_BREAKS = new int[0];
+
+    /**
+     * Character marking the start and end of a word in the patterns.
+     */
+    private static final char WORD_BOUNDARY = '.';
+
+    /**
+     * Patterns of the dictionary.
+     */
+    private final PatternTrie patterns;
 
     /**
      * Minimum characters to hyphenate on the left.
@@ -28,12 +34,26 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
      */
     private final int rightHyphenMin;
 
-    public DefaultHyphenationDictionary(Map<String, int[]> source, int leftHyphenMin, int rightHyphenMin) {
-        this.source = source;
+    /**
+     * Buffers reused by hyphenations on the same thread.
+     */
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public DefaultHyphenationDictionary(PatternTrie patterns, int leftHyphenMin, int rightHyphenMin) {
+        this.patterns = patterns;
         this.leftHyphenMin = leftHyphenMin;
         this.rightHyphenMin = rightHyphenMin;
     }
 
+    /**
+     * Get the patterns of the dictionary.
+     *
+     * @return patterns
+     */
+    public PatternTrie getPatterns() {
+        return patterns;
+    }
+
     @Override
     public int getLeftHyphenMin() {
         return leftHyphenMin;
@@ -45,63 +65,86 @@ public class DefaultHyphenationDictionary implements HyphenationDictionary {
     }
 
     @Override
-    public List<String> hyphenate(String word) {
+    public int[] hyphenate(String word) {
+        int length = word.length();
+
         // Words that are too short are not to be hyphenated!
-        if (word.length() <= getLeftHyphenMin() + getRightHyphenMin()) {
-            return Collections.singletonList(word);
+        if (length <= getLeftHyphenMin() + getRightHyphenMin()) {
+            return NO_BREAKS;
+        }
+
+        // Prepare the word for the hyphenation algorithm (lower case and surrounded by word boundaries)
+        Buffers buffers = this.buffers.get();
+        buffers.ensureCapacity(length + 2);
+
+        char[] chars = buffers.chars;
+        chars[0] = WORD_BOUNDARY;
+        for (int i = 0; i < length; i++) {
+            chars[i + 1] = Character.toLowerCase(word.charAt(i));
         }
+        chars[length + 1] = WORD_BOUNDARY;
 
-        // Prepare the word for the hyphenation algorithm
-        word = '.' + word + '.';
+        byte[] priorities = buffers.priorities;
+        Arrays.fill(priorities, 0, length + 3, (byte) 0);
 
-        int[] points = new int[word.length() + 1];
-        Arrays.fill(points, 0);
+        patterns.apply(chars, length + 2, priorities);
 
-        int len = word.length();
-        for (int partLength = 1; partLength < len; partLength++) {
-            for (int start = 0; start <= word.length() - partLength; start++) {
-                String part = word.substring(start, start + partLength).toLowerCase();
+        // Odd priorities are allowed breaks -> collect them while respecting the minimum lengths of the word parts.
+        // The priority before the character at index i of the word is found at index i + 1 due to the leading boundary.
+        int firstBreak = getLeftHyphenMin();
+        int lastBreak = length - getRightHyphenMin();
 
-                int[] curPoints = source.get(part);
-                if (curPoints != null) {
-                    for (int p = 0; p < curPoints.length; p++) {
-                        points[start + p] = Math.max(points[start + p], curPoints[p]);
-                    }
-                }
+        int count = 0;
+        for (int i = firstBreak; i <= lastBreak; i++) {
+            if (priorities[i + 1] % 2 != 0) {
+                count++;
             }
         }
 
-        // Preventing hyphenation at the leading (leftHyphenMin) and trailing (rightHyphenMin) part of the word
-        for (int i = 0; i < getLeftHyphenMin(); i++) {
-            points[i] = 0;
+        if (count == 0) {
+            return NO_BREAKS;
         }
-        for (int i = points.length - 1; i >= points.length - getRightHyphenMin(); i--) {
-            points[i] = 0;
-        }
-
-        // Removing periods again
-        word = word.substring(1, word.length() - 1);
-
-        // Build the list of word parts
-        List<String> parts = new ArrayList<>();
 
-        int startIndex = 0;
-        for (int i = getLeftHyphenMin(); i < word.length() - getRightHyphenMin() + 1; i++) {
-            int point = points[i + 1];
-
-            boolean isOdd = point % 2 != 0;
-            if (isOdd) {
-                parts.add(word.substring(startIndex, i));
-                startIndex = i;
+        int[] breaks = new int[count];
+        count = 0;
+        for (int i = firstBreak; i <= lastBreak; i++) {
+            if (priorities[i + 1] % 2 != 0) {
+                breaks[count++] = i;
             }
         }
 
-        // Add the rest of the word
-        if (startIndex < word.length()) {
-            parts.add(word.substring(startIndex));
+        return breaks;
+    }
+
+    /**
+     * Buffers used during hyphenation.
+     */
+    private static class Buffers {
+
+        /**
+         * Characters of the prepared word.
+         */
+        private char[] chars = new char[32];
+
+        /**
+         * Priorities between the characters of the prepared word.
+         */
+        private byte[] priorities = new byte[33];
+
+        /**
+         * Make sure the buffers are able to hold a prepared word of the passed length.
+         *
+         * @param length of the prepared word
+         */
+        void ensureCapacity(int length) {
+            if (chars.length < length) {
+                int capacity = Math.max(length, chars.length * 2);
+
+                chars = new char[capacity];
+                priorities = new byte[capacity + 1];
+            }
         }
 
-        return parts;
     }
 
 }
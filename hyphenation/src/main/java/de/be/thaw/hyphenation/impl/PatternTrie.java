@@ -0,0 +1,417 @@
+package de.be.thaw.hyphenation.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Liang hyphenation patterns packed into a double-array trie.
+ * <p>
+ * Each state of the trie is an index into the base and check arrays.
+ * The transition from state s with the character code c leads to the state t = base[s] + c
+ * in case check[t] == s.
+ * States that end a pattern point to the priorities of the pattern in a shared value pool
+ * (the pool entry consists of the number of priorities followed by the priorities themselves).
+ */
+public class PatternTrie {
+
+    /**
+     * Index of the root state.
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * Marker in the check array for unused slots and in the value index array for states without a pattern.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Mapping of characters to their character codes.
+     * Characters not occurring in any pattern (or out of bounds of the mapping) have the code 0.
+     */
+    private final char[] charCodes;
+
+    /**
+     * Base offsets of the states.
+     */
+    private final int[] base;
+
+    /**
+     * Parent state of each slot (or NONE if the slot is unused).
+     */
+    private final int[] check;
+
+    /**
+     * Index of the pattern priorities in the value pool for each state (or NONE).
+     */
+    private final int[] valueIndex;
+
+    /**
+     * Pool of all pattern priorities.
+     */
+    private final byte[] values;
+
+    public PatternTrie(char[] charCodes, int[] base, int[] check, int[] valueIndex, byte[] values) {
+        if (base.length != check.length || base.length != valueIndex.length) {
+            throw new IllegalArgumentException("The base, check and value index arrays must have the same length");
+        }
+
+        this.charCodes = charCodes;
+        this.base = base;
+        this.check = check;
+        this.valueIndex = valueIndex;
+        this.values = values;
+    }
+
+    /**
+     * Apply all patterns matching in the passed word to the passed priorities.
+     * The priority before the character at index i of the word is stored at index i of the priorities array,
+     * thus the priorities array must have at least one more element than the word has characters.
+     * Each priority is the maximum of the passed priority and the priorities of all matching patterns.
+     *
+     * @param word       to match patterns in (already lower case)
+     * @param length     of the word (number of characters to consider in the passed array)
+     * @param priorities to update
+     */
+    public void apply(char[] word, int length, byte[] priorities) {
+        for (int start = 0; start < length; start++) {
+            int state = ROOT;
+
+            for (int i = start; i < length; i++) {
+                int code = getCharCode(word[i]);
+                if (code == 0) {
+                    break; // No pattern contains the character
+                }
+
+                int next = base[state] + code;
+                if (next >= check.length || check[next] != state) {
+                    break; // No pattern continues with the character
+                }
+                state = next;
+
+                int index = valueIndex[state];
+                if (index != NONE) {
+                    int count = values[index];
+                    for (int p = 0; p < count; p++) {
+                        byte priority = values[index + 1 + p];
+                        if (priority > priorities[start + p]) {
+                            priorities[start + p] = priority;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the code of the passed character.
+     *
+     * @param c character to get code for
+     * @return the code or 0 if the character does not occur in any pattern
+     */
+    private int getCharCode(char c) {
+        return c < charCodes.length ? charCodes[c] : 0;
+    }
+
+    /**
+     * Get the mapping of characters to their codes.
+     *
+     * @return character codes
+     */
+    public char[] getCharCodes() {
+        return charCodes;
+    }
+
+    /**
+     * Get the base offsets of the states.
+     *
+     * @return base offsets
+     */
+    public int[] getBase() {
+        return base;
+    }
+
+    /**
+     * Get the parent state of each slot.
+     *
+     * @return check array
+     */
+    public int[] getCheck() {
+        return check;
+    }
+
+    /**
+     * Get the index of the pattern priorities in the value pool for each state.
+     *
+     * @return value indices
+     */
+    public int[] getValueIndex() {
+        return valueIndex;
+    }
+
+    /**
+     * Get the pool of pattern priorities.
+     *
+     * @return value pool
+     */
+    public byte[] getValues() {
+        return values;
+    }
+
+    /**
+     * Builder of a pattern trie.
+     */
+    public static class Builder {
+
+        /**
+         * Root node of the intermediate trie.
+         */
+        private final Node root = new Node();
+
+        /**
+         * Add a pattern.
+         * A pattern added multiple times replaces the priorities added before.
+         *
+         * @param letters    of the pattern (without priorities)
+         * @param priorities of the pattern (one more than the pattern has letters, the priority at index i
+         *                   being the priority before the letter at index i)
+         * @return the builder
+         */
+        public Builder add(String letters, byte[] priorities) {
+            Node node = root;
+            for (int i = 0; i < letters.length(); i++) {
+                node = node.children.computeIfAbsent(letters.charAt(i), c -> new Node());
+            }
+
+            // Trailing zero priorities have no effect
+            int count = priorities.length;
+            while (count > 0 && priorities[count - 1] == 0) {
+                count--;
+            }
+            node.priorities = Arrays.copyOf(priorities, count);
+
+            return this;
+        }
+
+        /**
+         * Build the packed trie.
+         *
+         * @return the trie
+         */
+        public PatternTrie build() {
+            char[] charCodes = buildCharCodes();
+
+            int capacity = 1024;
+            int[] base = new int[capacity];
+            int[] check = new int[capacity];
+            int[] valueIndex = new int[capacity];
+            Arrays.fill(check, NONE);
+            Arrays.fill(valueIndex, NONE);
+
+            BitSet used = new BitSet();
+            used.set(ROOT);
+            int maxState = ROOT;
+
+            ValuePool pool = new ValuePool();
+
+            Deque<Node> queue = new ArrayDeque<>();
+            root.state = ROOT;
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+
+                if (node.priorities != null) {
+                    valueIndex[node.state] = pool.add(node.priorities);
+                }
+
+                if (node.children.isEmpty()) {
+                    continue;
+                }
+
+                int[] codes = new int[node.children.size()];
+                int i = 0;
+                for (char c : node.children.keySet()) {
+                    codes[i++] = charCodes[c]; // Ascending as the characters are sorted
+                }
+
+                int b = findBase(codes, used);
+                base[node.state] = b;
+
+                int maxChildState = b + codes[codes.length - 1];
+                if (maxChildState >= capacity) {
+                    capacity = Math.max(capacity * 2, maxChildState + 1);
+                    base = Arrays.copyOf(base, capacity);
+                    check = grow(check, capacity);
+                    valueIndex = grow(valueIndex, capacity);
+                }
+                maxState = Math.max(maxState, maxChildState);
+
+                i = 0;
+                for (Node child : node.children.values()) {
+                    child.state = b + codes[i++];
+                    used.set(child.state);
+                    check[child.state] = node.state;
+                    queue.add(child);
+                }
+            }
+
+            int size = maxState + 1;
+            return new PatternTrie(
+                    charCodes,
+                    Arrays.copyOf(base, size),
+                    Arrays.copyOf(check, size),
+                    Arrays.copyOf(valueIndex, size),
+                    pool.toArray()
+            );
+        }
+
+        /**
+         * Assign codes 1 to n to all characters occurring in the patterns.
+         *
+         * @return mapping of characters to their codes
+         */
+        private char[] buildCharCodes() {
+            TreeSet<Character> characters = new TreeSet<>();
+
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                    characters.add(entry.getKey());
+                    stack.push(entry.getValue());
+                }
+            }
+
+            char[] charCodes = new char[characters.isEmpty() ? 0 : characters.last() + 1];
+            char code = 1;
+            for (char c : characters) {
+                charCodes[c] = code++;
+            }
+
+            return charCodes;
+        }
+
+        /**
+         * Find the first base offset for which all slots of the passed character codes are free.
+         *
+         * @param codes ascending character codes of the children of a node
+         * @param used  slots
+         * @return the base offset
+         */
+        private static int findBase(int[] codes, BitSet used) {
+            int slot = used.nextClearBit(codes[0]);
+            while (true) {
+                int b = slot - codes[0];
+
+                boolean free = true;
+                for (int i = 1; i < codes.length; i++) {
+                    if (used.get(b + codes[i])) {
+                        free = false;
+                        break;
+                    }
+                }
+
+                if (free) {
+                    return b;
+                }
+
+                slot = used.nextClearBit(slot + 1);
+            }
+        }
+
+        /**
+         * Grow the passed array to the passed capacity filling new slots with NONE.
+         *
+         * @param array    to grow
+         * @param capacity new capacity
+         * @return the grown array
+         */
+        private static int[] grow(int[] array, int capacity) {
+            int oldLength = array.length;
+            array = Arrays.copyOf(array, capacity);
+            Arrays.fill(array, oldLength, capacity, NONE);
+            return array;
+        }
+
+    }
+
+    /**
+     * Node of the intermediate trie used while building.
+     */
+    private static class Node {
+
+        /**
+         * Children of the node sorted by their character.
+         */
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+
+        /**
+         * Priorities of the pattern ending in the node (or null).
+         */
+        private byte[] priorities;
+
+        /**
+         * State of the node in the packed trie.
+         */
+        private int state;
+
+    }
+
+    /**
+     * Pool of pattern priorities sharing equal entries.
+     */
+    private static class ValuePool {
+
+        /**
+         * Pool content.
+         */
+        private final List<Byte> values = new ArrayList<>();
+
+        /**
+         * Indices of already added entries.
+         */
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        /**
+         * Add the passed priorities to the pool.
+         *
+         * @param priorities to add
+         * @return index of the entry
+         */
+        int add(byte[] priorities) {
+            return indices.computeIfAbsent(Arrays.toString(priorities), k -> {
+                int index = values.size();
+
+                values.add((byte) priorities.length);
+                for (byte priority : priorities) {
+                    values.add(priority);
+                }
+
+                return index;
+            });
+        }
+
+        /**
+         * Get the pool content.
+         *
+         * @return pool
+         */
+        byte[] toArray() {
+            byte[] result = new byte[values.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = values.get(i);
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.be.thaw.hyphenation.loader.impl;
+
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.PatternTrie;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Hyphenation dictionary loader loading a dictionary compiled to the binary format.
+ * <p>
+ * The format consists of a header (magic number, version, left and right hyphen minimum)
+ * followed by the arrays of the packed pattern trie, each prefixed by its length (all big endian).
+ * The arrays are read in bulk, so that no pattern needs to be parsed at runtime.
+ */
+public class BinaryHyphenationDictionaryLoader {
+
+    /**
+     * Magic number at the beginning of each compiled dictionary ('THYP').
+     */
+    static final int MAGIC = 0x54485950;
+
+    /**
+     * Version of the binary format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Load a compiled hyphenation dictionary from the passed stream.
+     *
+     * @param stream to read from (will not be closed)
+     * @return the loaded hyphenation dictionary
+     * @throws HyphenationDictionaryLoadException in case the dictionary could not be loaded
+     */
+    public DefaultHyphenationDictionary load(InputStream stream) throws HyphenationDictionaryLoadException {
+        try {
+            return load(ByteBuffer.wrap(stream.readAllBytes()));
+        } catch (IOException e) {
+            throw new HyphenationDictionaryLoadException("Could not read compiled hyphenation dictionary", e);
+        }
+    }
+
+    /**
+     * Load a compiled hyphenation dictionary from the passed buffer.
+     *
+     * @param buffer to read from
+     * @return the loaded hyphenation dictionary
+     * @throws HyphenationDictionaryLoadException in case the dictionary could not be loaded
+     */
+    public DefaultHyphenationDictionary load(ByteBuffer buffer) throws HyphenationDictionaryLoadException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled hyphenation dictionary");
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format(
+                        "Compiled hyphenation dictionary has version %d instead of %d",
+                        version,
+                        VERSION
+                ));
+            }
+
+            int leftHyphenMin = buffer.getInt();
+            int rightHyphenMin = buffer.getInt();
+
+            char[] charCodes = new char[buffer.getInt()];
+            buffer.asCharBuffer().get(charCodes);
+            buffer.position(buffer.position() + charCodes.length * Character.BYTES);
+
+            int[] base = readInts(buffer);
+            int[] check = readInts(buffer);
+            int[] valueIndex = readInts(buffer);
+
+            byte[] values = new byte[buffer.getInt()];
+            buffer.get(values);
+
+            return new DefaultHyphenationDictionary(
+                    new PatternTrie(charCodes, base, check, valueIndex, values),
+                    leftHyphenMin,
+                    rightHyphenMin
+            );
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new HyphenationDictionaryLoadException("Could not load compiled hyphenation dictionary", e);
+        }
+    }
+
+    /**
+     * Read a length-prefixed int array from the passed buffer.
+     *
+     * @param buffer to read from
+     * @return the read array
+     */
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] result = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(result);
+        buffer.position(buffer.position() + result.length * Integer.BYTES);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,64 @@
+package de.be.thaw.hyphenation.loader.impl;
+
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.PatternTrie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writer of hyphenation dictionaries in the binary format read by the {@link BinaryHyphenationDictionaryLoader}.
+ */
+public class BinaryHyphenationDictionaryWriter {
+
+    /**
+     * Write the passed dictionary to the passed stream.
+     *
+     * @param dictionary to write
+     * @param stream     to write to (will not be closed)
+     * @throws IOException in case the dictionary could not be written
+     */
+    public void write(DefaultHyphenationDictionary dictionary, OutputStream stream) throws IOException {
+        PatternTrie patterns = dictionary.getPatterns();
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+
+        out.writeInt(BinaryHyphenationDictionaryLoader.MAGIC);
+        out.writeInt(BinaryHyphenationDictionaryLoader.VERSION);
+        out.writeInt(dictionary.getLeftHyphenMin());
+        out.writeInt(dictionary.getRightHyphenMin());
+
+        char[] charCodes = patterns.getCharCodes();
+        out.writeInt(charCodes.length);
+        for (char code : charCodes) {
+            out.writeChar(code);
+        }
+
+        writeInts(out, patterns.getBase());
+        writeInts(out, patterns.getCheck());
+        writeInts(out, patterns.getValueIndex());
+
+        byte[] values = patterns.getValues();
+        out.writeInt(values.length);
+        out.write(values);
+
+        out.flush();
+    }
+
+    /**
+     * Write the passed int array prefixed by its length.
+     *
+     * @param out    to write to
+     * @param values to write
+     * @throws IOException in case the array could not be written
+     */
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+}
@@ -1,32 +1,20 @@
 package de.be.thaw.hyphenation.loader.impl;
 
-import de.be.thaw.hyphenation.HyphenationDictionary;
 import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.PatternTrie;
 import de.be.thaw.hyphenation.loader.HyphenationDictionaryLoader;
 import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 /**
  * Hyphenation dictionary loader loading the dictionary from a file.
  */
 public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoader {
 
-    /**
-     * Pattern to match digits in a string.
-     */
-    private static final Pattern DIGITS_PATTERN = Pattern.compile("[0-9]");
-
-    /**
-     * Pattern used to split points.
-     */
-    private static final Pattern POINTS_SPLIT_PATTERN = Pattern.compile("[.a-z]");
-
     /**
      * States of the loaders parser.
      */
@@ -36,7 +24,7 @@ public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoa
     }
 
     @Override
-    public HyphenationDictionary load(Reader reader) throws HyphenationDictionaryLoadException {
+    public DefaultHyphenationDictionary load(Reader reader) throws HyphenationDictionaryLoadException {
         BufferedReader br;
         if (reader instanceof BufferedReader) {
             br = (BufferedReader) reader;
@@ -47,7 +35,7 @@ public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoa
         int leftHyphenMin = 2;
         int rightHyphenMin = 2;
 
-        Map<String, int[]> source = new HashMap<>();
+        PatternTrie.Builder patterns = new PatternTrie.Builder();
 
         try {
             State state = State.META_DATA;
@@ -68,7 +56,7 @@ public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoa
                             if (!parts[0].equalsIgnoreCase("utf-8")) {
                                 state = State.DATA;
 
-                                insertPattern(source, line);
+                                insertPattern(patterns, line);
                             }
                         } else if (parts.length == 2) {
                             switch (parts[0]) {
@@ -77,48 +65,39 @@ public class FileHyphenationDictionaryLoader implements HyphenationDictionaryLoa
                             }
                         }
                     }
-                    case DATA -> insertPattern(source, line);
+                    case DATA -> insertPattern(patterns, line);
                 }
             }
         } catch (IOException e) {
             throw new HyphenationDictionaryLoadException("Could not load hyphenation dictionary from file", e);
         }
 
-        return new DefaultHyphenationDictionary(source, leftHyphenMin, rightHyphenMin);
+        return new DefaultHyphenationDictionary(patterns.build(), leftHyphenMin, rightHyphenMin);
     }
 
     /**
      * Converting the passed pattern string into a string of characters and
-     * a list of points.
+     * a list of points and adding it to the patterns.
      * <p>
      * e. g. 'a1bc3d4' into 'abcd' and [0, 1, 0, 3, 4]
      *
-     * @param source  to add pattern to
-     * @param pattern to add
+     * @param patterns to add pattern to
+     * @param pattern  to add
      */
-    private void insertPattern(Map<String, int[]> source, String pattern) {
-        String key = DIGITS_PATTERN.matcher(pattern).replaceAll("");
-        int[] points = patternToPoints(pattern);
-
-        source.put(key, points);
-    }
-
-    /**
-     * Converting a pattern to a points array.
-     * <p>
-     * e. g. 'a1bc3d4' to [0, 1, 0, 3, 4]
-     *
-     * @param pattern to convert
-     * @return the points array
-     */
-    private int[] patternToPoints(String pattern) {
-        return POINTS_SPLIT_PATTERN.splitAsStream(pattern).mapToInt(s -> {
-            if (s.length() == 0) {
-                return 0;
+    private void insertPattern(PatternTrie.Builder patterns, String pattern) {
+        StringBuilder letters = new StringBuilder(pattern.length());
+        byte[] points = new byte[pattern.length() + 1];
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c >= '0' && c <= '9') {
+                points[letters.length()] = (byte) (c - '0');
             } else {
-                return Character.getNumericValue(s.charAt(0));
+                letters.append(c);
             }
-        }).toArray();
+        }
+
+        patterns.add(letters.toString(), Arrays.copyOf(points, letters.length() + 1));
     }
 
 }
@@ -1,5 +1,7 @@
 module de.be.thaw.hyphenation {
     exports de.be.thaw.hyphenation;
     requires de.be.thaw.info;
+    requires de.be.thaw.util;
+    requires java.logging;
 
 }
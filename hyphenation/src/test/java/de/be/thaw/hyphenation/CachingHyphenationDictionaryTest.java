@@ -0,0 +1,133 @@
+package de.be.thaw.hyphenation;
+
+import de.be.thaw.info.parser.impl.DefaultInfoParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CachingHyphenationDictionaryTest {
+
+    /**
+     * Dictionary allowing a break after every second character of a word, that records the hyphenated words.
+     */
+    private static class RecordingDictionary implements HyphenationDictionary {
+
+        /**
+         * Minimum length of the word parts.
+         */
+        private final int hyphenMin;
+
+        /**
+         * The words that have been hyphenated.
+         */
+        private final List<String> words = new ArrayList<>();
+
+        RecordingDictionary(int hyphenMin) {
+            this.hyphenMin = hyphenMin;
+        }
+
+        @Override
+        public int getLeftHyphenMin() {
+            return hyphenMin;
+        }
+
+        @Override
+        public int getRightHyphenMin() {
+            return hyphenMin;
+        }
+
+        @Override
+        public int[] hyphenate(String word) {
+            words.add(word);
+
+            int[] breaks = new int[Math.max((word.length() - 1) / 2, 0)];
+            for (int i = 0; i < breaks.length; i++) {
+                breaks[i] = (i + 1) * 2;
+            }
+
+            return breaks;
+        }
+
+    }
+
+    @Test
+    public void cachedResultsTest() {
+        RecordingDictionary patterns = new RecordingDictionary(1);
+        CachingHyphenationDictionary dictionary = new CachingHyphenationDictionary(patterns, List.of(), 2);
+
+        int[] breaks = dictionary.hyphenate("hyphen");
+        Assertions.assertArrayEquals(new int[]{2, 4}, breaks);
+        Assertions.assertSame(breaks, dictionary.hyphenate("hyphen"));
+        Assertions.assertSame(breaks, dictionary.hyphenate("Hyphen")); // Looked up case-insensitively
+        Assertions.assertEquals(List.of("hyphen"), patterns.words);
+
+        // The least recently used word is evicted
+        dictionary.hyphenate("table");
+        dictionary.hyphenate("hyphen");
+        dictionary.hyphenate("word");
+        Assertions.assertEquals(List.of("hyphen", "table", "word"), patterns.words);
+
+        dictionary.hyphenate("hyphen");
+        dictionary.hyphenate("table");
+        Assertions.assertEquals(List.of("hyphen", "table", "word", "table"), patterns.words);
+    }
+
+    @Test
+    public void exceptionsOverridePatternsTest() {
+        RecordingDictionary patterns = new RecordingDictionary(1);
+        CachingHyphenationDictionary dictionary = new CachingHyphenationDictionary(
+                patterns,
+                List.of("ta-ble", "Pro-ject", "-hy--phen-", "thaw"),
+                CachingHyphenationDictionary.DEFAULT_MAX_ENTRIES
+        );
+
+        Assertions.assertArrayEquals(new int[]{2}, dictionary.hyphenate("table"));
+        Assertions.assertArrayEquals(new int[]{3}, dictionary.hyphenate("project"));
+        Assertions.assertArrayEquals(new int[]{3}, dictionary.hyphenate("PROJECT"));
+        Assertions.assertArrayEquals(new int[]{2}, dictionary.hyphenate("hyphen")); // Leading, repeated and trailing hyphens are ignored
+        Assertions.assertArrayEquals(new int[0], dictionary.hyphenate("thaw")); // Exception without hyphenation points
+
+        // The patterns are not consulted for exceptions
+        Assertions.assertTrue(patterns.words.isEmpty());
+
+        Assertions.assertArrayEquals(new int[]{2, 4}, dictionary.hyphenate("tables"));
+        Assertions.assertEquals(List.of("tables"), patterns.words);
+    }
+
+    @Test
+    public void exceptionsRespectHyphenMinTest() {
+        CachingHyphenationDictionary dictionary = new CachingHyphenationDictionary(
+                new RecordingDictionary(2),
+                List.of("a-b-out", "o-ver-l-y", "i-o"),
+                CachingHyphenationDictionary.DEFAULT_MAX_ENTRIES
+        );
+
+        Assertions.assertArrayEquals(new int[]{2}, dictionary.hyphenate("about"));
+        Assertions.assertArrayEquals(new int[]{4}, dictionary.hyphenate("overly"));
+        Assertions.assertArrayEquals(new int[0], dictionary.hyphenate("io"));
+    }
+
+    @Test
+    public void texStyleExceptionsTest() throws Exception {
+        List<String> exceptions = new DefaultInfoParser().parse(new StringReader(
+                "hyphenation.exceptions = \\hyphenation{ta-ble \\\n" +
+                        "    pro-ject Thaw}\n"
+        ), null).getHyphenationExceptions();
+
+        RecordingDictionary patterns = new RecordingDictionary(1);
+        CachingHyphenationDictionary dictionary = new CachingHyphenationDictionary(
+                patterns,
+                exceptions,
+                CachingHyphenationDictionary.DEFAULT_MAX_ENTRIES
+        );
+
+        Assertions.assertArrayEquals(new int[]{2}, dictionary.hyphenate("table"));
+        Assertions.assertArrayEquals(new int[]{3}, dictionary.hyphenate("project"));
+        Assertions.assertArrayEquals(new int[0], dictionary.hyphenate("thaw"));
+        Assertions.assertTrue(patterns.words.isEmpty());
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.be.thaw.hyphenation;
+
+import de.be.thaw.info.model.language.Language;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HyphenationDictionariesTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Write an english dictionary with the passed patterns to the passed dictionary folder.
+     *
+     * @param dictionaryFolder to write dictionary to
+     * @param patterns         of the dictionary
+     * @return the dictionary folder
+     * @throws IOException in case the dictionary could not be written
+     */
+    private File writeDictionary(Path dictionaryFolder, String... patterns) throws IOException {
+        Path languageFolder = Files.createDirectories(dictionaryFolder.resolve("en"));
+        Files.writeString(
+                languageFolder.resolve("dictionary.dic"),
+                "UTF-8\nLEFTHYPHENMIN 1\nRIGHTHYPHENMIN 1\n" + String.join("\n", patterns) + "\n",
+                StandardCharsets.UTF_8
+        );
+
+        return dictionaryFolder.toFile();
+    }
+
+    @Test
+    public void folderDictionaryTest() throws IOException {
+        File projectFolder = writeDictionary(folder.resolve("project"), "a1b");
+
+        HyphenationDictionary dictionary = HyphenationDictionaries.getDictionary(Language.ENGLISH, projectFolder).orElseThrow();
+        Assertions.assertArrayEquals(new int[]{1}, dictionary.hyphenate("abc"));
+    }
+
+    @Test
+    public void folderDictionaryIsNotUsedForOtherFoldersTest() throws IOException {
+        File projectFolder = writeDictionary(folder.resolve("project"), "a1b");
+        HyphenationDictionary projectDictionary = HyphenationDictionaries.getDictionary(Language.ENGLISH, projectFolder).orElseThrow();
+
+        HyphenationDictionary bundled = HyphenationDictionaries.getDictionary(Language.ENGLISH).orElseThrow();
+        Assertions.assertNotSame(projectDictionary, bundled);
+        Assertions.assertSame(bundled, HyphenationDictionaries.getDictionary(Language.ENGLISH, folder.resolve("other").toFile()).orElseThrow());
+        Assertions.assertSame(bundled, HyphenationDictionaries.getDictionary(Language.ENGLISH, null).orElseThrow());
+    }
+
+    @Test
+    public void changedFolderDictionaryIsReloadedTest() throws IOException {
+        File projectFolder = writeDictionary(folder.resolve("project"), "a1b");
+        HyphenationDictionary dictionary = HyphenationDictionaries.getDictionary(Language.ENGLISH, projectFolder).orElseThrow();
+        Assertions.assertSame(dictionary, HyphenationDictionaries.getDictionary(Language.ENGLISH, projectFolder).orElseThrow());
+
+        writeDictionary(folder.resolve("project"), "a1b", "b1c");
+        dictionary = HyphenationDictionaries.getDictionary(Language.ENGLISH, projectFolder).orElseThrow();
+        Assertions.assertArrayEquals(new int[]{1, 2}, dictionary.hyphenate("abc"));
+    }
+
+}
@@ -0,0 +1,177 @@
+package de.be.thaw.hyphenation.impl;
+
+import de.be.thaw.hyphenation.HyphenationDictionaries;
+import de.be.thaw.hyphenation.HyphenationDictionary;
+import de.be.thaw.hyphenation.loader.impl.FileHyphenationDictionaryLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PatternTrieTest {
+
+    /**
+     * Patterns hyphenating 'hyphenation' from Liang's thesis (also found in appendix H of the TeXbook).
+     */
+    private static final String[] LIANG_PATTERNS = {"hy3ph", "he2n", "hena4", "hen5at", "1na", "n2at", "1tio", "2io", "o2n"};
+
+    /**
+     * Load a dictionary from the passed patterns.
+     *
+     * @param leftHyphenMin  minimum characters to hyphenate on the left
+     * @param rightHyphenMin minimum characters to hyphenate on the right
+     * @param patterns       of the dictionary
+     * @return the dictionary
+     * @throws Exception in case the dictionary could not be loaded
+     */
+    private static DefaultHyphenationDictionary load(int leftHyphenMin, int rightHyphenMin, String... patterns) throws Exception {
+        return new FileHyphenationDictionaryLoader().load(new StringReader(String.format(
+                "UTF-8\nLEFTHYPHENMIN %d\nRIGHTHYPHENMIN %d\n%s\n",
+                leftHyphenMin,
+                rightHyphenMin,
+                String.join("\n", patterns)
+        )));
+    }
+
+    /**
+     * Hyphenate the passed word and join the parts with hyphens.
+     *
+     * @param dictionary to hyphenate with
+     * @param word       to hyphenate
+     * @return the hyphenated word
+     */
+    private static String hyphenate(HyphenationDictionary dictionary, String word) {
+        StringBuilder sb = new StringBuilder(word);
+        int[] breaks = dictionary.hyphenate(word);
+        for (int i = breaks.length - 1; i >= 0; i--) {
+            sb.insert(breaks[i], '-');
+        }
+
+        return sb.toString();
+    }
+
+    @Test
+    public void liangExampleTest() throws Exception {
+        DefaultHyphenationDictionary dictionary = load(2, 3, LIANG_PATTERNS);
+
+        char[] word = ".hyphenation.".toCharArray();
+        byte[] priorities = new byte[word.length + 1];
+        dictionary.getPatterns().apply(word, word.length, priorities);
+
+        // h0y3p0h0e2n5a4t2i0o2n
+        Assertions.assertArrayEquals(new byte[]{0, 0, 0, 3, 0, 0, 2, 5, 4, 2, 0, 2, 0, 0}, priorities);
+        Assertions.assertArrayEquals(new int[]{2, 6}, dictionary.hyphenate("hyphenation"));
+        Assertions.assertEquals("Hy-phen-ation", hyphenate(dictionary, "Hyphenation"));
+    }
+
+    @Test
+    public void hyphenMinTest() throws Exception {
+        Assertions.assertEquals("hyphen-ation", hyphenate(load(3, 3, LIANG_PATTERNS), "hyphenation"));
+        Assertions.assertEquals("hy-phenation", hyphenate(load(2, 6, LIANG_PATTERNS), "hyphenation"));
+        Assertions.assertEquals("hyphenation", hyphenate(load(6, 6, LIANG_PATTERNS), "hyphenation"));
+    }
+
+    @Test
+    public void wholeWordPatternTest() throws Exception {
+        DefaultHyphenationDictionary dictionary = load(1, 1, ".pl8u8g9i8n.", "1g");
+
+        Assertions.assertEquals("plug-in", hyphenate(dictionary, "plugin"));
+        Assertions.assertEquals("plu-g", hyphenate(dictionary, "plug"));
+    }
+
+    @Test
+    public void nonAsciiPatternTest() throws Exception {
+        DefaultHyphenationDictionary dictionary = load(1, 1, "1\u00df", "1\u00e4");
+
+        Assertions.assertEquals("Stra-\u00dfen", hyphenate(dictionary, "Stra\u00dfen"));
+        Assertions.assertEquals("Stra-\u00dfe", hyphenate(dictionary, "Stra\u00dfe"));
+        Assertions.assertEquals("K-\u00e4se", hyphenate(dictionary, "K\u00e4se"));
+    }
+
+    @Test
+    public void bundledDictionariesTest() {
+        HyphenationDictionary english = HyphenationDictionaries.getDictionary("en").orElseThrow();
+        Assertions.assertEquals("hy-phen-ation", hyphenate(english, "hyphenation"));
+        Assertions.assertEquals("al-go-rithm", hyphenate(english, "algorithm"));
+        Assertions.assertEquals("type-set-ting", hyphenate(english, "typesetting"));
+        Assertions.assertEquals("con-cate-na-tion", hyphenate(english, "concatenation"));
+        Assertions.assertEquals("table", hyphenate(english, "table")); // Too short for the minimum lengths
+
+        HyphenationDictionary german = HyphenationDictionaries.getDictionary("de").orElseThrow();
+        Assertions.assertEquals("Stra-\u00dfen-bahn", hyphenate(german, "Stra\u00dfenbahn"));
+        Assertions.assertEquals("Sil-ben-tren-nung", hyphenate(german, "Silbentrennung"));
+        Assertions.assertEquals("B\u00fc-cher", hyphenate(german, "B\u00fccher"));
+        Assertions.assertEquals("Gr\u00f6-\u00dfe", hyphenate(german, "Gr\u00f6\u00dfe"));
+    }
+
+    @Test
+    public void builderReplacesPatternTest() {
+        PatternTrie trie = new PatternTrie.Builder()
+                .add("ab", new byte[]{0, 1, 0})
+                .add("ab", new byte[]{0, 2, 0})
+                .build();
+
+        char[] word = "ab".toCharArray();
+        byte[] priorities = new byte[word.length + 1];
+        trie.apply(word, word.length, priorities);
+
+        Assertions.assertArrayEquals(new byte[]{0, 2, 0}, priorities);
+    }
+
+    @Test
+    public void equivalentToSubstringLookupTest() {
+        Random random = new Random(42);
+        String alphabet = ".abcde\u00e4\u00df";
+
+        for (int run = 0; run < 20; run++) {
+            // Random patterns
+            Map<String, byte[]> patterns = new HashMap<>();
+            PatternTrie.Builder builder = new PatternTrie.Builder();
+            for (int p = 0; p < 200; p++) {
+                StringBuilder letters = new StringBuilder();
+                int length = 1 + random.nextInt(5);
+                for (int i = 0; i < length; i++) {
+                    letters.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+
+                byte[] priorities = new byte[length + 1];
+                for (int i = 0; i < priorities.length; i++) {
+                    priorities[i] = (byte) (random.nextInt(3) == 0 ? random.nextInt(10) : 0);
+                }
+
+                patterns.put(letters.toString(), priorities);
+                builder.add(letters.toString(), priorities);
+            }
+            PatternTrie trie = builder.build();
+
+            // Compare with looking up every substring of random words in the patterns
+            for (int w = 0; w < 200; w++) {
+                char[] word = new char[1 + random.nextInt(12)];
+                for (int i = 0; i < word.length; i++) {
+                    word[i] = (alphabet + "xyz").charAt(random.nextInt(alphabet.length() + 3));
+                }
+
+                byte[] expected = new byte[word.length + 1];
+                for (int start = 0; start < word.length; start++) {
+                    for (int end = start + 1; end <= word.length; end++) {
+                        byte[] priorities = patterns.get(new String(word, start, end - start));
+                        if (priorities != null) {
+                            for (int i = 0; i < priorities.length; i++) {
+                                expected[start + i] = (byte) Math.max(expected[start + i], priorities[i]);
+                            }
+                        }
+                    }
+                }
+
+                byte[] actual = new byte[word.length + 1];
+                trie.apply(word, word.length, actual);
+
+                Assertions.assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package de.be.thaw.hyphenation.loader.impl;
+
+import de.be.thaw.hyphenation.compiler.HyphenationDictionaryCompiler;
+import de.be.thaw.hyphenation.impl.DefaultHyphenationDictionary;
+import de.be.thaw.hyphenation.impl.PatternTrie;
+import de.be.thaw.hyphenation.loader.exception.HyphenationDictionaryLoadException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class BinaryHyphenationDictionaryLoaderTest {
+
+    /**
+     * Words to compare the hyphenation of.
+     */
+    private static final String[] WORDS = {
+            "hyphenation", "algorithm", "typesetting", "concatenation", "paragraph", "dictionary",
+            "Silbentrennung", "Donaudampfschiff", "Wirtschaft", "Stra\u00dfenbahn", "B\u00fccher", "Gr\u00f6\u00dfe"
+    };
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Load the bundled dictionary in the pattern text format for the passed language code.
+     *
+     * @param languageCode of the dictionary
+     * @return the dictionary
+     * @throws Exception in case the dictionary could not be loaded
+     */
+    private static DefaultHyphenationDictionary loadBundled(String languageCode) throws Exception {
+        InputStream stream = BinaryHyphenationDictionaryLoaderTest.class.getResourceAsStream(String.format("/hyphenation/%s/dictionary.dic", languageCode));
+        Assertions.assertNotNull(stream);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return new FileHyphenationDictionaryLoader().load(reader);
+        }
+    }
+
+    /**
+     * Write the passed dictionary in the binary format.
+     *
+     * @param dictionary to write
+     * @return the written bytes
+     * @throws Exception in case the dictionary could not be written
+     */
+    private static byte[] write(DefaultHyphenationDictionary dictionary) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryHyphenationDictionaryWriter().write(dictionary, out);
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Check that the passed dictionaries are equal.
+     *
+     * @param expected dictionary
+     * @param actual   dictionary
+     */
+    private static void assertDictionaryEquals(DefaultHyphenationDictionary expected, DefaultHyphenationDictionary actual) {
+        Assertions.assertEquals(expected.getLeftHyphenMin(), actual.getLeftHyphenMin());
+        Assertions.assertEquals(expected.getRightHyphenMin(), actual.getRightHyphenMin());
+
+        PatternTrie expectedPatterns = expected.getPatterns();
+        PatternTrie actualPatterns = actual.getPatterns();
+        Assertions.assertArrayEquals(expectedPatterns.getCharCodes(), actualPatterns.getCharCodes());
+        Assertions.assertArrayEquals(expectedPatterns.getBase(), actualPatterns.getBase());
+        Assertions.assertArrayEquals(expectedPatterns.getCheck(), actualPatterns.getCheck());
+        Assertions.assertArrayEquals(expectedPatterns.getValueIndex(), actualPatterns.getValueIndex());
+        Assertions.assertArrayEquals(expectedPatterns.getValues(), actualPatterns.getValues());
+
+        for (String word : WORDS) {
+            Assertions.assertArrayEquals(expected.hyphenate(word), actual.hyphenate(word));
+        }
+    }
+
+    @Test
+    public void roundTripTest() throws Exception {
+        for (String languageCode : new String[]{"en", "de"}) {
+            DefaultHyphenationDictionary dictionary = loadBundled(languageCode);
+            byte[] bytes = write(dictionary);
+
+            assertDictionaryEquals(dictionary, new BinaryHyphenationDictionaryLoader().load(new ByteArrayInputStream(bytes)));
+            assertDictionaryEquals(dictionary, new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(bytes)));
+        }
+    }
+
+    @Test
+    public void compileFolderTest() throws Exception {
+        Path source = folder.resolve("source");
+        Files.createDirectories(source.resolve("en"));
+        try (InputStream stream = BinaryHyphenationDictionaryLoaderTest.class.getResourceAsStream("/hyphenation/en/dictionary.dic")) {
+            Assertions.assertNotNull(stream);
+            Files.copy(stream, source.resolve("en").resolve("dictionary.dic"));
+        }
+
+        Path output = folder.resolve("output");
+        new HyphenationDictionaryCompiler().compileFolder(source.toFile(), output.toFile());
+
+        try (InputStream stream = Files.newInputStream(output.resolve("en").resolve("dictionary.bin"))) {
+            assertDictionaryEquals(loadBundled("en"), new BinaryHyphenationDictionaryLoader().load(stream));
+        }
+    }
+
+    @Test
+    public void invalidMagicNumberTest() throws Exception {
+        byte[] bytes = write(loadBundled("en"));
+        bytes[0] = 0;
+
+        Assertions.assertThrows(HyphenationDictionaryLoadException.class, () -> new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    public void unsupportedVersionTest() throws Exception {
+        byte[] bytes = write(loadBundled("en"));
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, BinaryHyphenationDictionaryLoader.VERSION + 1);
+
+        Assertions.assertThrows(HyphenationDictionaryLoadException.class, () -> new BinaryHyphenationDictionaryLoader().load(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    public void truncatedTest() throws Exception {
+        byte[] bytes = write(loadBundled("en"));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        Assertions.assertThrows(HyphenationDictionaryLoadException.class, () -> new BinaryHyphenationDictionaryLoader().load(new ByteArrayInputStream(truncated)));
+    }
+
+}
@@ -5,6 +5,7 @@ import de.be.thaw.info.model.language.Language;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -47,6 +48,14 @@ public interface ThawInfo {
      */
     String getBibliographyStyle();
 
+    /**
+     * Get the hyphenation exceptions of the document.
+     * Each exception is a word with hyphens marking the only allowed hyphenation points (e. g. 'ta-ble').
+     *
+     * @return hyphenation exceptions
+     */
+    List<String> getHyphenationExceptions();
+
     /**
      * Get a variable defined in the info file.
      *
@@ -7,6 +7,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -46,6 +48,11 @@ public class DefaultThawInfo implements ThawInfo {
      */
     private String bibliographyStyle = DEFAULT_CITATION_STYLE_NAME;
 
+    /**
+     * Hyphenation exceptions of the document.
+     */
+    private List<String> hyphenationExceptions = Collections.emptyList();
+
     /**
      * Map holding available variables.
      */
@@ -92,6 +99,20 @@ public class DefaultThawInfo implements ThawInfo {
         return bibliographyStyle;
     }
 
+    @Override
+    public List<String> getHyphenationExceptions() {
+        return hyphenationExceptions;
+    }
+
+    /**
+     * Set the hyphenation exceptions of the document.
+     *
+     * @param hyphenationExceptions words with hyphens marking the only allowed hyphenation points
+     */
+    public void setHyphenationExceptions(List<String> hyphenationExceptions) {
+        this.hyphenationExceptions = hyphenationExceptions;
+    }
+
     @Override
     public Optional<String> getVariable(String key) {
         if (variables == null) {
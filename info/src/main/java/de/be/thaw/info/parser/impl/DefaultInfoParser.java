@@ -13,16 +13,31 @@ import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of the Thaw document info format parser.
  */
 public class DefaultInfoParser implements InfoParser {
 
+    /**
+     * Pattern matching hyphenation exceptions in the TeX style (\hyphenation{...}).
+     * Note that the backslash is dropped when loading properties unless it is escaped.
+     */
+    private static final Pattern TEX_HYPHENATION_EXCEPTIONS_PATTERN = Pattern.compile("^\\\\?hyphenation\\s*\\{(.*)}$", Pattern.DOTALL);
+
+    /**
+     * Pattern used to split hyphenation exceptions.
+     */
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
     @Override
     public ThawInfo parse(Reader reader, @Nullable File workingDirectory) throws ParseException {
         Properties properties = new Properties();
@@ -55,6 +70,8 @@ public class DefaultInfoParser implements InfoParser {
             info.setBibliographyStyle(bibliographyStyle);
         }
 
+        info.setHyphenationExceptions(parseHyphenationExceptions(properties));
+
         return info;
     }
 
@@ -127,6 +144,34 @@ public class DefaultInfoParser implements InfoParser {
         }
     }
 
+    /**
+     * Parse the hyphenation exceptions.
+     * They are specified as whitespace-separated words with hyphens marking the allowed hyphenation points,
+     * optionally wrapped in TeX style (e. g. '\hyphenation{ta-ble pro-ject}').
+     *
+     * @param properties to use
+     * @return hyphenation exceptions (empty if not specified in the info file)
+     */
+    private List<String> parseHyphenationExceptions(Properties properties) {
+        String exceptions = properties.getProperty("hyphenation.exceptions");
+        if (exceptions == null) {
+            return Collections.emptyList();
+        }
+
+        exceptions = exceptions.trim();
+
+        Matcher matcher = TEX_HYPHENATION_EXCEPTIONS_PATTERN.matcher(exceptions);
+        if (matcher.matches()) {
+            exceptions = matcher.group(1).trim();
+        }
+
+        if (exceptions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return List.of(WHITESPACE_PATTERN.split(exceptions));
+    }
+
     /**
      * Parse the bibliography style (if any).
      *
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class InfoParserTest {
 
@@ -28,4 +29,19 @@ public class InfoParserTest {
         Assertions.assertEquals("mymail@myimaginarydomain.test", info.getAuthor().getEmail());
     }
 
+    @Test
+    public void hyphenationExceptionsTest() throws ParseException {
+        InfoParser parser = new DefaultInfoParser();
+
+        ThawInfo info = parser.parse(new StringReader("hyphenation.exceptions = \\hyphenation{ta-ble \\\n" +
+                "    pro-ject Thaw}\n"), null);
+        Assertions.assertEquals(List.of("ta-ble", "pro-ject", "Thaw"), info.getHyphenationExceptions());
+
+        info = parser.parse(new StringReader("hyphenation.exceptions = ta-ble pro-ject\n"), null);
+        Assertions.assertEquals(List.of("ta-ble", "pro-ject"), info.getHyphenationExceptions());
+
+        info = parser.parse(new StringReader("language = de\n"), null);
+        Assertions.assertTrue(info.getHyphenationExceptions().isEmpty());
+    }
+
 }
@@ -48,6 +48,11 @@ public class ThawContext {
      */
     private Language language = Language.OTHER;
 
+    /**
+     * Whether to typeset the sections between explicit page breaks concurrently.
+     */
+    private boolean typesetSectionsInParallel = false;
+
     /**
      * Get the current instance of the thaw context.
      *
@@ -186,6 +191,24 @@ public class ThawContext {
         this.encoding = encoding;
     }
 
+    /**
+     * Check whether the sections between explicit page breaks should be typeset concurrently.
+     *
+     * @return whether to typeset sections in parallel
+     */
+    public boolean isTypesetSectionsInParallel() {
+        return typesetSectionsInParallel;
+    }
+
+    /**
+     * Set whether the sections between explicit page breaks should be typeset concurrently.
+     *
+     * @param typesetSectionsInParallel whether to typeset sections in parallel
+     */
+    public void setTypesetSectionsInParallel(boolean typesetSectionsInParallel) {
+        this.typesetSectionsInParallel = typesetSectionsInParallel;
+    }
+
     /**
      * Holder of the font manager singleton instance.
      */
@@ -11,8 +11,8 @@ import de.be.thaw.text.util.TextPosition;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Queue;
 
 /**
@@ -20,6 +20,11 @@ import java.util.Queue;
  */
 public class TextTokenizer implements Iterator<Result<Token, TokenizeException>> {
 
+    /**
+     * Initial size of the read buffer (must be a power of two).
+     */
+    private static final int INITIAL_READ_BUFFER_SIZE = 8192;
+
     /**
      * The current tokenizer state.
      */
@@ -38,12 +43,29 @@ public class TextTokenizer implements Iterator<Result<Token, TokenizeException>>
     /**
      * Tokens currently buffered and ready to be received.
      */
-    private final Queue<Token> tokenBuffer = new LinkedList<>();
+    private final Queue<Token> tokenBuffer = new ArrayDeque<>();
+
+    /**
+     * Ring buffer of characters read from the reader in blocks, but not yet consumed.
+     * Holds the looked ahead characters as well.
+     * Its length is always a power of two.
+     */
+    private char[] readBuffer = new char[INITIAL_READ_BUFFER_SIZE];
+
+    /**
+     * Index of the next character to consume in the read buffer.
+     */
+    private int readBufferStart = 0;
+
+    /**
+     * Count of characters available in the read buffer.
+     */
+    private int readBufferCount = 0;
 
     /**
-     * Buffer for looked ahead characters.
+     * Whether the end of the reader has been reached.
      */
-    private final LinkedList<Integer> lookAheadBuffer = new LinkedList<>();
+    private boolean endOfStream = false;
 
     /**
      * Context used during tokenizing.
@@ -88,7 +110,7 @@ public class TextTokenizer implements Iterator<Result<Token, TokenizeException>>
 
         int c = -1;
         try {
-            while (tokenBuffer.size() == oldLen && (c = lookAheadBuffer.isEmpty() ? reader.read() : lookAheadBuffer.poll()) != -1) {
+            while (tokenBuffer.size() == oldLen && (c = read()) != -1) {
                 ctx.increaseCurrentPos(); // Move current end position one further
 
                 if (ctx.getIgnoreCounter() > 0) {
@@ -194,26 +216,93 @@ public class TextTokenizer implements Iterator<Result<Token, TokenizeException>>
      * @return the character at the passed relative position or -1 if the end of the stream has been reached
      * @throws TokenizeException in case looking ahead went wrong
      */
-    private int lookAhead(int relativePos) throws TokenizeException {
+    int lookAhead(int relativePos) throws TokenizeException {
         if (relativePos <= 0) {
             throw new IllegalArgumentException("Cannot lookahead 0 or less characters");
         }
 
-        int toReadCount = relativePos - lookAheadBuffer.size();
-        for (int i = 0; i < toReadCount; i++) {
-            try {
-                int next = reader.read();
-                if (next == -1) {
-                    return -1; // End of stream reached
-                }
+        try {
+            if (!fill(relativePos)) {
+                return -1; // End of stream reached
+            }
+        } catch (IOException e) {
+            throw new TokenizeException(e);
+        }
+
+        return readBuffer[(readBufferStart + relativePos - 1) & (readBuffer.length - 1)];
+    }
+
+    /**
+     * Consume the next character.
+     *
+     * @return the next character or -1 if the end of the stream has been reached
+     * @throws IOException in case the reader could not be read
+     */
+    private int read() throws IOException {
+        if (readBufferCount == 0 && !fill(1)) {
+            return -1;
+        }
+
+        char c = readBuffer[readBufferStart];
+        readBufferStart = (readBufferStart + 1) & (readBuffer.length - 1);
+        readBufferCount--;
+
+        return c;
+    }
+
+    /**
+     * Make sure that the passed count of characters is available in the read buffer
+     * by reading blocks from the reader.
+     *
+     * @param count of characters needed
+     * @return whether the characters are available (false if the end of the stream has been reached before)
+     * @throws IOException in case the reader could not be read
+     */
+    private boolean fill(int count) throws IOException {
+        if (count > readBuffer.length) {
+            grow(count);
+        }
+
+        if (readBufferCount == 0) {
+            readBufferStart = 0; // Allows reading the largest possible block
+        }
+
+        while (readBufferCount < count && !endOfStream) {
+            int mask = readBuffer.length - 1;
 
-                lookAheadBuffer.add(next);
-            } catch (IOException e) {
-                throw new TokenizeException(e);
+            // Read into the free space following the available characters (without wrapping around)
+            int end = (readBufferStart + readBufferCount) & mask;
+            int length = end < readBufferStart ? readBufferStart - end : readBuffer.length - end;
+
+            int read = reader.read(readBuffer, end, length);
+            if (read == -1) {
+                endOfStream = true;
+            } else {
+                readBufferCount += read;
             }
         }
 
-        return lookAheadBuffer.get(relativePos - 1);
+        return readBufferCount >= count;
+    }
+
+    /**
+     * Grow the read buffer to be able to hold at least the passed count of characters.
+     *
+     * @param minCapacity the buffer needs to have
+     */
+    private void grow(int minCapacity) {
+        int capacity = readBuffer.length;
+        while (capacity < minCapacity) {
+            capacity <<= 1;
+        }
+
+        char[] grown = new char[capacity];
+        for (int i = 0; i < readBufferCount; i++) {
+            grown[i] = readBuffer[(readBufferStart + i) & (readBuffer.length - 1)];
+        }
+
+        readBuffer = grown;
+        readBufferStart = 0;
     }
 
 }
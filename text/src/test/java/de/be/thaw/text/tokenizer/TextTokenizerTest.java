@@ -12,6 +12,9 @@ import de.be.thaw.text.util.TextPosition;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,7 +31,18 @@ public class TextTokenizerTest {
      * @throws TokenizeException in case tokenizing went wrong
      */
     private List<Token> tokenize(String s) throws TokenizeException {
-        TextTokenizer tt = new TextTokenizer(new StringReader(s));
+        return tokenize(new StringReader(s));
+    }
+
+    /**
+     * Helper method to tokenize the text read from the passed reader.
+     *
+     * @param reader to read text to tokenize from
+     * @return the list of tokens
+     * @throws TokenizeException in case tokenizing went wrong
+     */
+    private List<Token> tokenize(Reader reader) throws TokenizeException {
+        TextTokenizer tt = new TextTokenizer(reader);
 
         List<Token> result = new ArrayList<>();
         while (tt.hasNext()) {
@@ -577,4 +591,90 @@ public class TextTokenizerTest {
         Assertions.assertEquals(TextEmphasis.BOLD, ((FormattedToken) tokens.get(2)).getEmphases().iterator().next());
     }
 
+    @Test
+    public void testShortReads() throws TokenizeException {
+        // Long enough for the read buffer to wrap around multiple times
+        String text = ("#H1, label=headline# A complex enumeration\n" +
+                "\n" +
+                "Hel**`l_o_ Wor`**ld! This is kind of a _*longer*_ text.\n" +
+                "- A\n" +
+                "- B\n" +
+                "  - a)\n" +
+                "  - b)\n" +
+                "\n" +
+                "This is code: `System.out.println('This is code: \\`Test\\`')`\r\n" +
+                "Test **_*.hello-world*Hello world**_ Test** Test\n" +
+                "\n" +
+                "\n").repeat(200);
+
+        List<String> expected = describe(tokenize(text));
+
+        for (int maxCharsPerRead : new int[]{1, 7, 8191}) {
+            Assertions.assertEquals(expected, describe(tokenize(new ShortReadReader(new StringReader(text), maxCharsPerRead))));
+        }
+    }
+
+    @Test
+    public void testLookAheadBeyondReadBuffer() throws TokenizeException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 20000; i++) {
+            sb.append("Word").append(i).append(' ');
+        }
+        String rest = sb.toString();
+
+        // The first token is done after reading the empty line, thus the rest has not been consumed yet
+        TextTokenizer tt = new TextTokenizer(new ShortReadReader(new StringReader("Hello World!\n\n" + rest), 3));
+
+        Assertions.assertEquals(rest.charAt(0), tt.lookAhead(1));
+        for (int i = 0; i < rest.length(); i += 997) {
+            Assertions.assertEquals(rest.charAt(i), tt.lookAhead(i + 1));
+        }
+        Assertions.assertEquals(rest.charAt(rest.length() - 1), tt.lookAhead(rest.length()));
+        Assertions.assertEquals(-1, tt.lookAhead(rest.length() + 1));
+
+        // Looking ahead does not consume characters
+        Assertions.assertEquals("Hello World!", tt.next().result().getValue());
+        Assertions.assertEquals(TokenType.EMPTY_LINE, tt.next().result().getType());
+        Assertions.assertEquals(rest, tt.next().result().getValue());
+        Assertions.assertFalse(tt.hasNext());
+    }
+
+    /**
+     * Describe the passed tokens (their type, value and position) to compare them with.
+     *
+     * @param tokens to describe
+     * @return descriptions
+     */
+    private static List<String> describe(List<Token> tokens) {
+        List<String> result = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            result.add(String.format("%s %s '%s'", token.getType(), token.getPosition(), token.getValue()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Reader returning at most the given count of characters per read.
+     */
+    private static class ShortReadReader extends FilterReader {
+
+        /**
+         * Maximum count of characters to return per read.
+         */
+        private final int maxCharsPerRead;
+
+        ShortReadReader(Reader reader, int maxCharsPerRead) {
+            super(reader);
+
+            this.maxCharsPerRead = maxCharsPerRead;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, maxCharsPerRead));
+        }
+
+    }
+
 }
@@ -0,0 +1,20 @@
+package de.be.thaw.typeset;
+
+import de.be.thaw.typeset.exception.TypeSettingException;
+import de.be.thaw.typeset.page.Page;
+
+/**
+ * Consumer of typeset pages.
+ */
+@FunctionalInterface
+public interface PageConsumer {
+
+    /**
+     * Consume the passed finished page.
+     *
+     * @param page to consume
+     * @throws TypeSettingException in case the page could not be consumed
+     */
+    void consume(Page page) throws TypeSettingException;
+
+}
@@ -20,4 +20,20 @@ public interface TypeSetter {
      */
     List<Page> typeset(Document document) throws TypeSettingException;
 
+    /**
+     * Typeset the passed document and hand the pages to the passed consumer.
+     * Implementations may hand over pages as soon as they are finished, so that
+     * not all pages need to be held in memory at once.
+     * Pages are consumed in ascending page number order.
+     *
+     * @param document to typeset
+     * @param consumer to hand the typeset pages to
+     * @throws TypeSettingException in case something went wrong
+     */
+    default void typeset(Document document, PageConsumer consumer) throws TypeSettingException {
+        for (Page page : typeset(document)) {
+            consumer.consume(page);
+        }
+    }
+
 }
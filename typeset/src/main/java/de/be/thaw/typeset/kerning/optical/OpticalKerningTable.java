@@ -4,195 +4,283 @@ import de.be.thaw.typeset.kerning.KerningTable;
 import de.be.thaw.typeset.kerning.glyph.Coordinate;
 import de.be.thaw.typeset.kerning.glyph.Glyph;
 
-import java.io.Serializable;
-import java.util.ArrayList;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Kerning table trying to kern character pairs optically.
+ * <p>
+ * The outer (left and right) contour profile of each glyph is computed once.
+ * Afterwards the minimum distance between the right profile of the left glyph and the left profile
+ * of the right glyph is calculated for all glyph pairs in parallel.
+ * Pairs whose minimum distance deviates too much from the mean minimum distance between letters are kerned.
+ * The resulting kerning values are stored in a dense matrix indexed by the slot of the glyphs in the table.
+ * The matrix may as well be backed by a memory-mapped cache file (see {@link #OpticalKerningTable(int[], FloatBuffer)}).
  */
-public class OpticalKerningTable implements KerningTable, Serializable {
+public class OpticalKerningTable implements KerningTable {
 
     /**
-     * The mean minimum distance between optical kernable character pairs.
+     * Maximum relative deviation from the mean minimum distance that is not corrected.
      */
-    private double meanMinDistance;
+    private static final double MAX_UNCORRECTED_DEVIATION = 0.2;
 
     /**
-     * The mean area between optical kernable character pairs.
+     * Maximum correction relative to the minimum distance of a pair.
      */
-    private double meanArea;
+    private static final double MAX_CORRECTION = 0.4;
 
     /**
-     * Height of the mean area between optical kernable character pairs.
+     * IDs of the glyphs in the table (sorted ascending).
+     * The index of a glyph ID is the slot of the glyph in the kerning matrix.
      */
-    private double meanAreaHeight;
+    private int[] glyphIDs = new int[0];
 
     /**
-     * The lookup for kerning per kerning pair.
+     * Kerning values (in font units) indexed by the left glyph slot * glyph count + the right glyph slot.
      */
-    private final Map<KerningPair, KerningValue> kerningLookup = new HashMap<>();
+    private FloatBuffer kerning = FloatBuffer.allocate(0);
 
-    @Override
-    public void init(Glyph[] glyphs) {
-        kerningLookup.clear();
-
-        double meanMinDistanceSum = 0;
-        double meanAreaSum = 0;
-        double meanAreaHeightSum = 0;
+    public OpticalKerningTable() {
+        // Empty table, call init(Glyph[]) to calculate the kerning
+    }
 
-        long counter = 0;
+    /**
+     * Create a table from already calculated kerning values.
+     *
+     * @param glyphIDs IDs of the glyphs in the table (sorted ascending)
+     * @param kerning  matrix of kerning values (in font units) indexed by the left glyph slot * glyph count + the right glyph slot
+     */
+    public OpticalKerningTable(int[] glyphIDs, FloatBuffer kerning) {
+        if (kerning.remaining() != glyphIDs.length * glyphIDs.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected a kerning matrix of %d values for %d glyphs but got %d",
+                    glyphIDs.length * glyphIDs.length,
+                    glyphIDs.length,
+                    kerning.remaining()
+            ));
+        }
 
-        for (Glyph leftGlyph : glyphs) {
-            for (Glyph rightGlyph : glyphs) {
-                AreaCalculationResult result = calcAreaBetweenContours(
-                        getContour(false, leftGlyph),
-                        getContour(true, rightGlyph),
-                        leftGlyph.getSize().getWidth() + leftGlyph.getPosition().getX()
-                );
+        this.glyphIDs = glyphIDs;
+        this.kerning = kerning.slice();
+    }
 
-                kerningLookup.put(
-                        new KerningPair(leftGlyph.getGlyphID(), rightGlyph.getGlyphID()),
-                        new KerningValue(leftGlyph, rightGlyph, result)
-                );
+    @Override
+    public void init(Glyph[] glyphs) {
+        // Sort glyphs by their ID and drop duplicates
+        Glyph[] byGlyphID = glyphs.clone();
+        Arrays.sort(byGlyphID, Comparator.comparingInt(Glyph::getGlyphID));
+
+        int count = 0;
+        for (Glyph glyph : byGlyphID) {
+            if (count == 0 || byGlyphID[count - 1].getGlyphID() != glyph.getGlyphID()) {
+                byGlyphID[count++] = glyph;
+            }
+        }
 
-                meanMinDistanceSum += result.getMinDistance();
-                meanAreaSum += result.getArea();
-                meanAreaHeightSum += result.getAreaHeight();
+        final int n = count;
+        final Glyph[] sorted = Arrays.copyOf(byGlyphID, n);
+
+        // Calculate the contour profiles once per glyph
+        ContourProfile[] leftProfiles = new ContourProfile[n];
+        ContourProfile[] rightProfiles = new ContourProfile[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            leftProfiles[i] = ContourProfile.of(sorted[i], true);
+            rightProfiles[i] = ContourProfile.of(sorted[i], false);
+        });
+
+        // Calculate the minimum distance between all glyph pairs
+        float[] minDistances = new float[n * n];
+        IntStream.range(0, n * n).parallel().forEach(i -> {
+            int left = i / n;
+            int right = i % n;
+
+            Glyph leftGlyph = sorted[left];
+
+            minDistances[i] = (float) calcMinDistanceBetweenContours(
+                    rightProfiles[left],
+                    leftProfiles[right],
+                    leftGlyph.getSize().getWidth() + leftGlyph.getPosition().getX()
+            );
+        });
+
+        double meanMinDistance = calcMeanMinDistance(sorted, minDistances);
+
+        float[] kerning = new float[n * n];
+        for (int i = 0; i < kerning.length; i++) {
+            kerning[i] = (float) calcKerning(minDistances[i], meanMinDistance);
+        }
 
-                counter++;
-            }
+        int[] glyphIDs = new int[n];
+        for (int i = 0; i < n; i++) {
+            glyphIDs[i] = sorted[i].getGlyphID();
         }
 
-        meanMinDistance = meanMinDistanceSum / counter;
-        meanArea = meanAreaSum / counter;
-        meanAreaHeight = meanAreaHeightSum / counter;
+        this.glyphIDs = glyphIDs;
+        this.kerning = FloatBuffer.wrap(kerning);
     }
 
     @Override
     public double getKerning(int leftGlyphID, int rightGlyphID) {
-        // Fetch the kerning pair
-        KerningValue value = kerningLookup.get(new KerningPair(leftGlyphID, rightGlyphID));
-        if (value == null) {
+        int left = Arrays.binarySearch(glyphIDs, leftGlyphID);
+        if (left < 0) {
+            return 0; // No kerning
+        }
+
+        int right = Arrays.binarySearch(glyphIDs, rightGlyphID);
+        if (right < 0) {
             return 0; // No kerning
         }
 
-        double deviation = Math.abs(meanMinDistance - value.getAreaCalculationResult().getMinDistance());
+        return kerning.get(left * glyphIDs.length + right);
+    }
+
+    /**
+     * Get the IDs of the glyphs in the table (sorted ascending).
+     * The index of a glyph ID is the slot of the glyph in the kerning matrix.
+     *
+     * @return glyph IDs (must not be modified)
+     */
+    public int[] getGlyphIDs() {
+        return glyphIDs;
+    }
+
+    /**
+     * Get the kerning matrix (in font units) indexed by the left glyph slot * glyph count + the right glyph slot.
+     *
+     * @return read-only view of the kerning matrix
+     */
+    public FloatBuffer getKerningMatrix() {
+        return kerning.asReadOnlyBuffer();
+    }
+
+    /**
+     * Calculate the mean minimum distance between glyph pairs.
+     * Only pairs of letters are taken into account (if there are any), so that
+     * other glyphs in the table (digits, punctuation) are kerned relative to the letter spacing.
+     *
+     * @param glyphs       in the table
+     * @param minDistances minimum distances between the glyph pairs
+     * @return the mean minimum distance
+     */
+    private static double calcMeanMinDistance(Glyph[] glyphs, float[] minDistances) {
+        int n = glyphs.length;
+
+        boolean[] isLetter = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            isLetter[i] = Character.isLetter(glyphs[i].getCodePoint());
+        }
+
+        double letterSum = 0;
+        long letterCounter = 0;
+        double sum = 0;
+        for (int left = 0; left < n; left++) {
+            for (int right = 0; right < n; right++) {
+                float minDistance = minDistances[left * n + right];
+
+                sum += minDistance;
+                if (isLetter[left] && isLetter[right]) {
+                    letterSum += minDistance;
+                    letterCounter++;
+                }
+            }
+        }
+
+        return letterCounter > 0 ? letterSum / letterCounter : sum / ((long) n * n);
+    }
+
+    /**
+     * Calculate the kerning for a glyph pair.
+     *
+     * @param minDistance     the minimum distance between the glyphs of the pair
+     * @param meanMinDistance the mean minimum distance between glyph pairs
+     * @return kerning
+     */
+    private static double calcKerning(double minDistance, double meanMinDistance) {
+        double deviation = Math.abs(meanMinDistance - minDistance);
         double relativeDeviation = deviation / meanMinDistance;
 
-        if (relativeDeviation > 0.2) { // Only correct bad situations
-            return -value.getAreaCalculationResult().getMinDistance() * Math.min(0.4, relativeDeviation); // Do kerning!
+        if (relativeDeviation > MAX_UNCORRECTED_DEVIATION) { // Only correct bad situations
+            return -minDistance * Math.min(MAX_CORRECTION, relativeDeviation); // Do kerning!
         } else {
             return 0; // No kerning needed
         }
     }
 
     /**
-     * Calculate the area between the passed right and left contour.
+     * Calculate the minimum horizontal distance between the passed right and left contour.
      *
-     * @param right   contour
-     * @param left    contour
+     * @param right   contour (right contour of the left glyph)
+     * @param left    contour (left contour of the right glyph)
      * @param xOffset the left contour is translated by
-     * @return the area between the passed contours
+     * @return the minimum distance between the passed contours
      */
-    private AreaCalculationResult calcAreaBetweenContours(List<Coordinate> right, List<Coordinate> left, double xOffset) {
-        if (right.isEmpty() || left.isEmpty()) {
-            return new AreaCalculationResult(0, 0, 0, 0, 0);
+    private static double calcMinDistanceBetweenContours(ContourProfile right, ContourProfile left, double xOffset) {
+        int rightSize = right.size();
+        int leftSize = left.size();
+        if (rightSize == 0 || leftSize == 0) {
+            return 0;
         }
 
-        double maxY = Math.min(right.get(0).getY(), left.get(0).getY());
-        double minY = Math.max(right.get(right.size() - 1).getY(), left.get(left.size() - 1).getY());
+        double[] rightX = right.getXs();
+        double[] rightY = right.getYs();
+        double[] leftX = left.getXs();
+        double[] leftY = left.getYs();
 
-        class TrapeziumSide {
-            double y;
-            double xStart;
-            double xEnd;
-        }
+        double maxY = Math.min(rightY[0], leftY[0]);
+        double minY = Math.max(rightY[rightSize - 1], leftY[leftSize - 1]);
 
         int rightIdx = 0;
         int leftIdx = 0;
 
-        List<TrapeziumSide> sides = new ArrayList<>();
+        double minDistance = Double.POSITIVE_INFINITY;
 
         double xStart = Integer.MIN_VALUE;
         double xEnd = Integer.MIN_VALUE;
 
         double y = maxY;
         while (y >= minY) {
-            Coordinate r1 = right.get(rightIdx);
-            Coordinate r2 = right.size() > rightIdx + 1 ? right.get(rightIdx + 1) : null;
+            boolean hasR2 = rightSize > rightIdx + 1;
+            boolean hasL2 = leftSize > leftIdx + 1;
 
-            Coordinate l1 = left.get(leftIdx);
-            Coordinate l2 = left.size() > leftIdx + 1 ? left.get(leftIdx + 1) : null;
-
-            // Find start x coordinate at the currenty y-offset
+            // Find start x coordinate at the current y-offset
             if (xStart == Integer.MIN_VALUE) {
-                if (r1.getY() == y) {
-                    xStart = r1.getX();
-                } else if (r1.getY() > y && r2 != null && r2.getY() < y) {
-                    // xStart is between r1 and r2 -> calculate
-                    double xDiff = r1.getX() - r2.getX();
-                    double yDiff = r1.getY() - r2.getY();
-
-                    if (xDiff != 0) {
-                        // Calculate slope
-                        double slope = (double) yDiff / xDiff;
-
-                        // Calculate t (y-axis section)
-                        double t = r1.getY() - slope * r1.getX();
-
-                        // Calculate xStart
-                        xStart = Math.round((y - t) / slope);
-                    } else {
-                        xStart = r1.getX();
-                    }
+                double r1X = rightX[rightIdx];
+                double r1Y = rightY[rightIdx];
+
+                if (r1Y == y) {
+                    xStart = r1X;
+                } else if (r1Y > y && hasR2 && rightY[rightIdx + 1] < y) {
+                    xStart = interpolateX(r1X, r1Y, rightX[rightIdx + 1], rightY[rightIdx + 1], y);
                 } else {
                     rightIdx++;
                 }
             }
 
-            // Find end x coordinate at the currenty y-offset
+            // Find end x coordinate at the current y-offset
             if (xEnd == Integer.MIN_VALUE) {
-                if (l1.getY() == y) {
-                    xEnd = l1.getX() + xOffset;
-                } else if (l1.getY() > y && l2 != null && l2.getY() < y) {
-                    // xEnd is between l1 and l2 -> calculate
-                    double xDiff = l1.getX() - l2.getX();
-                    double yDiff = l1.getY() - l2.getY();
-
-                    if (xDiff != 0) {
-                        // Calculate slope
-                        double slope = (double) yDiff / xDiff;
-
-                        // Calculate t (y-axis section)
-                        double t = l1.getY() - slope * l1.getX();
-
-                        // Calculate xEnd
-                        xEnd = Math.round((y - t) / slope) + xOffset;
-                    } else {
-                        xEnd = l1.getX() + xOffset;
-                    }
+                double l1X = leftX[leftIdx];
+                double l1Y = leftY[leftIdx];
+
+                if (l1Y == y) {
+                    xEnd = l1X + xOffset;
+                } else if (l1Y > y && hasL2 && leftY[leftIdx + 1] < y) {
+                    xEnd = interpolateX(l1X, l1Y, leftX[leftIdx + 1], leftY[leftIdx + 1], y) + xOffset;
                 } else {
                     leftIdx++;
                 }
             }
 
             if (xStart != Integer.MIN_VALUE && xEnd != Integer.MIN_VALUE) {
-                TrapeziumSide side = new TrapeziumSide();
-                side.y = y;
-                side.xStart = xStart;
-                side.xEnd = xEnd;
-
-                sides.add(side);
+                minDistance = Math.min(minDistance, xEnd - xStart);
 
                 // Choose next y
-                double newY = Math.max(r2 != null ? r2.getY() : minY - 1, l2 != null ? l2.getY() : minY - 1);
+                double newY = Math.max(
+                        hasR2 ? rightY[rightIdx + 1] : minY - 1,
+                        hasL2 ? leftY[leftIdx + 1] : minY - 1
+                );
                 if (newY == y) {
                     y = newY - 1;
                 } else {
@@ -205,320 +293,187 @@ public class OpticalKerningTable implements KerningTable, Serializable {
             }
         }
 
-        // Calculate area for each trapezium
-        double area = 0;
-        for (int i = 0; i < sides.size() - 1; i++) {
-            TrapeziumSide side1 = sides.get(i);
-            TrapeziumSide side2 = sides.get(i + 1);
-
-            double height = side1.y - side2.y;
-            double a = side1.xEnd - side1.xStart;
-            double c = side2.xEnd - side2.xStart;
-
-            area += height * (a + c) / 2;
-        }
-
-        // Calculate other metrics
-        double minDistance = Double.POSITIVE_INFINITY;
-        double distanceSum = 0;
-        double maxDistance = Double.NEGATIVE_INFINITY;
-        for (TrapeziumSide side : sides) {
-            double distance = side.xEnd - side.xStart;
-
-            minDistance = Math.min(minDistance, distance);
-            maxDistance = Math.max(maxDistance, distance);
-            distanceSum += distance;
-        }
-
-        return new AreaCalculationResult(
-                area,
-                maxY - minY,
-                Double.isInfinite(minDistance) ? 0 : minDistance,
-                sides.size() > 0 ? distanceSum / sides.size() : 0,
-                Double.isInfinite(minDistance) ? 0 : maxDistance
-        );
+        return Double.isInfinite(minDistance) ? 0 : minDistance;
     }
 
     /**
-     * Get the right or left contour of the passed glyph data.
+     * Calculate the x-coordinate of the line between the two passed points at the passed y-coordinate.
      *
-     * @param left  or right contour
-     * @param glyph the glyph to get contour for
-     * @return the left or right contour
+     * @param x1 x-coordinate of the first point
+     * @param y1 y-coordinate of the first point
+     * @param x2 x-coordinate of the second point
+     * @param y2 y-coordinate of the second point
+     * @param y  to calculate x-coordinate at
+     * @return the (rounded) x-coordinate
      */
-    private List<Coordinate> getContour(boolean left, Glyph glyph) {
-        class Point {
-            private final int idx;
-            private final int predecessorIdx;
-            private final int successorIdx;
-            private final double x;
-            private final double y;
-
-            public Point(int idx, int predecessorIdx, int successorIdx, double x, double y) {
-                this.idx = idx;
-                this.x = x;
-                this.y = y;
-                this.predecessorIdx = predecessorIdx;
-                this.successorIdx = successorIdx;
-            }
-
-            public int getIdx() {
-                return idx;
-            }
-
-            public int getPredecessorIdx() {
-                return predecessorIdx;
-            }
-
-            public int getSuccessorIdx() {
-                return successorIdx;
-            }
-
-            public double getX() {
-                return x;
-            }
-
-            public double getY() {
-                return y;
-            }
-        }
-
-        class Range {
-            private final double start;
-            private final double end;
-
-            public Range(double start, double end) {
-                this.start = start;
-                this.end = end;
-            }
-
-            public double getStart() {
-                return start;
-            }
-
-            public double getEnd() {
-                return end;
-            }
-        }
-
-        // Find the best contour (righter or lefter most) to use of the glyph
-        List<Point> points = new ArrayList<>();
-        int pointIndex = 0;
-        int maxPointIndex = -1;
-        for (List<Coordinate> contour : glyph.getContours()) {
-            maxPointIndex += contour.size();
-        }
-
-        for (int a = 0; a < glyph.getContours().size(); a++) {
-            List<Coordinate> contour = glyph.getContours().get(a);
-
-            for (Coordinate coordinate : contour) {
-                int predecessor = pointIndex == 0 ? -1 : pointIndex - 1;
-                int successor = pointIndex == maxPointIndex ? -1 : pointIndex + 1;
-
-                points.add(new Point(pointIndex, predecessor, successor, coordinate.getX(), coordinate.getY()));
-
-                pointIndex++;
-            }
-        }
-
-        // Sort points by their x-coordinate
-        if (left) {
-            points.sort(Comparator.comparingDouble(Point::getX));
-        } else {
-            points.sort(Comparator.comparingDouble(Point::getX).reversed());
+    private static double interpolateX(double x1, double y1, double x2, double y2, double y) {
+        double xDiff = x1 - x2;
+        if (xDiff == 0) {
+            return x1;
         }
 
-        Map<Integer, Point> pointLookupByIdx = new HashMap<>();
-        for (Point p : points) {
-            pointLookupByIdx.put(p.getIdx(), p);
-        }
+        // Calculate slope and y-axis section
+        double slope = (y1 - y2) / xDiff;
+        double t = y1 - slope * x1;
 
-        // Iterate from best x-coordinate to worst
-        List<Point> contour = new ArrayList<>();
-        List<Range> acceptedRanges = new ArrayList<>();
-        Set<Integer> acceptedPoints = new HashSet<>();
-        for (Point point : points) {
-            boolean isInAcceptedRange = false;
-            for (Range range : acceptedRanges) {
-                if (point.getY() >= range.getStart() && point.getY() <= range.getEnd()) {
-                    isInAcceptedRange = true;
-                    break;
-                }
-            }
-
-            if (!isInAcceptedRange) {
-                // Accept the point as point of the contour
-                contour.add(point);
-                acceptedPoints.add(point.getIdx());
-            }
-
-            // Add the accepted range
-            if (point.getSuccessorIdx() != -1 && acceptedPoints.contains(point.getSuccessorIdx())) {
-                Point connectedPoint = pointLookupByIdx.get(point.getSuccessorIdx());
-                acceptedRanges.add(new Range(
-                        Math.min(point.getY(), connectedPoint.getY()),
-                        Math.max(point.getY(), connectedPoint.getY())
-                ));
-            }
-            if (point.getPredecessorIdx() != -1 && acceptedPoints.contains(point.getPredecessorIdx())) {
-                Point connectedPoint = pointLookupByIdx.get(point.getPredecessorIdx());
-                acceptedRanges.add(new Range(
-                        Math.min(point.getY(), connectedPoint.getY()),
-                        Math.max(point.getY(), connectedPoint.getY())
-                ));
-            }
-        }
-
-        contour.sort(Comparator.comparingDouble(Point::getY).reversed());
-
-        return contour.stream().map(p -> new Coordinate(p.getX(), p.getY())).collect(Collectors.toList());
+        return Math.round((y - t) / slope);
     }
 
     /**
-     * A kerning pair.
+     * Outer (left or right) contour profile of a glyph.
+     * The points of the profile are sorted by their y-coordinate descending.
      */
-    private static class KerningPair implements Serializable {
+    private static final class ContourProfile {
 
         /**
-         * The left glyph ID.
+         * X-coordinates of the profile points.
          */
-        private final int left;
+        private final double[] xs;
 
         /**
-         * The right glyph ID.
+         * Y-coordinates of the profile points.
          */
-        private final int right;
-
-        public KerningPair(int left, int right) {
-            this.left = left;
-            this.right = right;
-        }
-
-        public int getLeft() {
-            return left;
-        }
+        private final double[] ys;
 
-        public int getRight() {
-            return right;
+        private ContourProfile(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+        /**
+         * Calculate the left or right contour profile of the passed glyph.
+         * Starting with the outermost point, points are accepted as part of the profile
+         * as long as they are not covered by the y-range of an edge between already accepted points.
+         *
+         * @param glyph to calculate profile for
+         * @param left  whether to calculate the left or right profile
+         * @return the profile
+         */
+        static ContourProfile of(Glyph glyph, boolean left) {
+            int count = 0;
+            for (List<Coordinate> contour : glyph.getContours()) {
+                count += contour.size();
+            }
 
-            KerningPair that = (KerningPair) o;
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            int idx = 0;
+            for (List<Coordinate> contour : glyph.getContours()) {
+                for (Coordinate coordinate : contour) {
+                    xs[idx] = coordinate.getX();
+                    ys[idx] = coordinate.getY();
+                    idx++;
+                }
+            }
 
-            if (left != that.left) return false;
-            return right == that.right;
-        }
+            // Iterate from best x-coordinate to worst
+            int[] order = sortIndices(xs, !left);
 
-        @Override
-        public int hashCode() {
-            int result = left;
-            result = 31 * result + right;
-            return result;
-        }
+            boolean[] accepted = new boolean[count];
+            int[] acceptedOrder = new int[count];
+            int acceptedCount = 0;
 
-    }
+            double[] rangeStarts = new double[Math.max(count * 2, 1)];
+            double[] rangeEnds = new double[rangeStarts.length];
+            int rangeCount = 0;
 
-    /**
-     * Value specifying the kerning as well as additional glyph information.
-     */
-    private static class KerningValue implements Serializable {
+            for (int i : order) {
+                double y = ys[i];
 
-        /**
-         * The left glyph.
-         */
-        private final Glyph left;
+                boolean isInAcceptedRange = false;
+                for (int r = 0; r < rangeCount; r++) {
+                    if (y >= rangeStarts[r] && y <= rangeEnds[r]) {
+                        isInAcceptedRange = true;
+                        break;
+                    }
+                }
 
-        /**
-         * The right glyph.
-         */
-        private final Glyph right;
+                if (!isInAcceptedRange) {
+                    // Accept the point as point of the contour
+                    accepted[i] = true;
+                    acceptedOrder[acceptedCount++] = i;
+                }
 
-        /**
-         * Result of the area calculation.
-         */
-        private final AreaCalculationResult areaCalculationResult;
+                // Add the accepted ranges of the edges to already accepted neighbours
+                int successor = i + 1;
+                if (successor < count && accepted[successor]) {
+                    rangeStarts[rangeCount] = Math.min(y, ys[successor]);
+                    rangeEnds[rangeCount] = Math.max(y, ys[successor]);
+                    rangeCount++;
+                }
+                int predecessor = i - 1;
+                if (predecessor >= 0 && accepted[predecessor]) {
+                    rangeStarts[rangeCount] = Math.min(y, ys[predecessor]);
+                    rangeEnds[rangeCount] = Math.max(y, ys[predecessor]);
+                    rangeCount++;
+                }
+            }
 
-        public KerningValue(Glyph left, Glyph right, AreaCalculationResult areaCalculationResult) {
-            this.left = left;
-            this.right = right;
-            this.areaCalculationResult = areaCalculationResult;
-        }
+            // Sort the profile points by their y-coordinate descending
+            double[] acceptedYs = new double[acceptedCount];
+            for (int i = 0; i < acceptedCount; i++) {
+                acceptedYs[i] = ys[acceptedOrder[i]];
+            }
+            int[] profileOrder = sortIndices(acceptedYs, true);
 
-        public Glyph getLeft() {
-            return left;
-        }
+            double[] profileXs = new double[acceptedCount];
+            double[] profileYs = new double[acceptedCount];
+            for (int i = 0; i < acceptedCount; i++) {
+                int point = acceptedOrder[profileOrder[i]];
 
-        public Glyph getRight() {
-            return right;
-        }
+                profileXs[i] = xs[point];
+                profileYs[i] = ys[point];
+            }
 
-        public AreaCalculationResult getAreaCalculationResult() {
-            return areaCalculationResult;
+            return new ContourProfile(profileXs, profileYs);
         }
 
-    }
-
-    /**
-     * Result of the area calculation.
-     */
-    private static class AreaCalculationResult implements Serializable {
-
         /**
-         * The calculated area.
+         * Get the indices of the passed values in (stable) sorted order.
+         *
+         * @param values     to sort
+         * @param descending whether to sort descending instead of ascending
+         * @return the sorted indices
          */
-        private final double area;
+        private static int[] sortIndices(double[] values, boolean descending) {
+            double[] distinct = values.clone();
+            Arrays.sort(distinct);
+
+            // Sort by the rank of the value first and the index second to get a stable order
+            long[] keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                long rank = Arrays.binarySearch(distinct, values[i]);
+                if (descending) {
+                    rank = values.length - rank;
+                }
 
-        /**
-         * Height of the calculated area.
-         */
-        private final double areaHeight;
+                keys[i] = (rank << 32) | i;
+            }
+            Arrays.sort(keys);
 
-        /**
-         * The minimum x distance.
-         */
-        private final double minDistance;
+            int[] indices = new int[values.length];
+            for (int i = 0; i < keys.length; i++) {
+                indices[i] = (int) keys[i];
+            }
 
-        /**
-         * The mean x distance.
-         */
-        private final double meanDistance;
+            return indices;
+        }
 
         /**
-         * The maximum x distance.
+         * Get the count of points in the profile.
+         *
+         * @return point count
          */
-        private final double maxDistance;
-
-        public AreaCalculationResult(double area, double areaHeight, double minDistance, double meanDistance, double maxDistance) {
-            this.area = area;
-            this.areaHeight = areaHeight;
-            this.minDistance = minDistance;
-            this.meanDistance = meanDistance;
-            this.maxDistance = maxDistance;
-        }
-
-        public double getArea() {
-            return area;
-        }
-
-        public double getAreaHeight() {
-            return areaHeight;
-        }
-
-        public double getMinDistance() {
-            return minDistance;
+        int size() {
+            return xs.length;
         }
 
-        public double getMeanDistance() {
-            return meanDistance;
+        double[] getXs() {
+            return xs;
         }
 
-        public double getMaxDistance() {
-            return maxDistance;
+        double[] getYs() {
+            return ys;
         }
 
     }
@@ -2,17 +2,20 @@ package de.be.thaw.typeset.knuthplass;
 
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.exception.CouldNotFindFeasibleSolutionException;
-import de.be.thaw.typeset.knuthplass.item.Item;
-import de.be.thaw.typeset.knuthplass.item.ItemType;
 import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import de.be.thaw.typeset.knuthplass.util.ActiveBreakPoints;
 import de.be.thaw.typeset.knuthplass.util.BreakPoint;
+import de.be.thaw.typeset.knuthplass.util.ItemBuffer;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingCache;
 import de.be.thaw.typeset.knuthplass.util.LineBreakingContext;
 import de.be.thaw.typeset.knuthplass.util.LineFit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Implementation of the Knuth-Plass algorithm.
@@ -25,85 +28,255 @@ public class KnuthPlassAlgorithm {
     private final KnuthPlassTypeSettingConfig config;
 
     /**
-     * Quality level used to let the line breaking algorithm succeed eventually when
-     * it cannot find a solution with best quality.
+     * Quality level the emergency pass uses in case the algorithm
+     * cannot find a solution with best quality.
+     * Every quality level doubles the stretchability of the paragraph items.
      */
-    private final int lineBreakingQuality;
+    private final int worstQuality;
 
-    public KnuthPlassAlgorithm(KnuthPlassTypeSettingConfig config, int lineBreakingQuality) {
+    public KnuthPlassAlgorithm(KnuthPlassTypeSettingConfig config, int worstQuality) {
         this.config = config;
-        this.lineBreakingQuality = lineBreakingQuality;
+        this.worstQuality = worstQuality;
     }
 
     /**
      * Find break points for the given paragraph.
+     * <p>
+     * The algorithm first tries to find break points with the best quality.
+     * When that is not possible, a single emergency pass with the worst quality follows.
+     * It resumes from the break points the first pass found up to where it failed and keeps
+     * infeasible break points in case it would run out of active break points, so that it always
+     * finishes within one extra sweep over the paragraph (like the final pass of TeX).
      *
      * @param paragraph to find break points for
      * @return the found break points
      * @throws CouldNotFindFeasibleSolutionException in case the algorithm could not find a feasible solution
      */
     public LineBreakingResult findBreakPoints(TextParagraph paragraph) throws CouldNotFindFeasibleSolutionException {
-        LineBreakingContext ctx = new LineBreakingContext(paragraph, lineBreakingQuality);
+        return findBreakPoints(paragraph, paragraph::getLineWidth);
+    }
 
-        // Adding initial active break point representing the beginning of the paragraph
-        ctx.getActiveBreakPoints().add(new BreakPoint(0));
+    /**
+     * Find break points for the given paragraph using the passed line widths
+     * instead of the line widths of the paragraph.
+     * The paragraph is not modified, which allows finding break points for multiple paragraphs concurrently.
+     *
+     * @param paragraph         to find break points for
+     * @param lineWidthFunction delivering the required line width for a line number
+     * @return the found break points
+     * @throws CouldNotFindFeasibleSolutionException in case the algorithm could not find a feasible solution
+     * @see #findBreakPoints(TextParagraph)
+     */
+    public LineBreakingResult findBreakPoints(TextParagraph paragraph, IntToDoubleFunction lineWidthFunction) throws CouldNotFindFeasibleSolutionException {
+        LineBreakingCache cache = config.getLineBreakingCache();
+        if (cache == null) {
+            return findBreakPoints(new LineBreakingContext(paragraph, lineWidthFunction, 0));
+        }
 
-        List<BreakPoint> deactivateLater = new ArrayList<>();
-        List<BreakPoint> activateLater = new ArrayList<>();
+        // Record the lines the algorithm looks at, as the result only depends on their widths
+        LineBreakingCache.LineWidthSampler sampler = new LineBreakingCache.LineWidthSampler(lineWidthFunction);
+        LineBreakingContext ctx = new LineBreakingContext(paragraph, sampler, 0);
 
-        int len = ctx.getItems().size();
-        for (int i = 0; i < len; i++) {
-            if (!isLegalBreakPointAt(ctx, i)) {
-                continue;
+        String key = LineBreakingCache.generateKey(ctx.getBuffer(), config, worstQuality);
+        LineBreakingCache.Entry cached = cache.get(key, lineWidthFunction);
+        if (cached != null) {
+            return buildResult(ctx, cached);
+        }
+
+        LineBreakingResult result = findBreakPoints(ctx);
+
+        int[] breakPointIndices = new int[result.getBreakPoints().size()];
+        for (int i = 0; i < breakPointIndices.length; i++) {
+            breakPointIndices[i] = result.getBreakPoints().get(i).getIndex();
+        }
+        cache.put(key, new LineBreakingCache.Entry(
+                breakPointIndices,
+                sampler.getSamples(),
+                result.getContext().getLineBreakingQuality()
+        ));
+
+        return result;
+    }
+
+    /**
+     * Find break points for the paragraph of the passed line breaking context with best quality.
+     *
+     * @param ctx line breaking context with the best quality to start with
+     * @return the found break points
+     * @throws CouldNotFindFeasibleSolutionException in case the algorithm could not find a feasible solution
+     */
+    private LineBreakingResult findBreakPoints(LineBreakingContext ctx) throws CouldNotFindFeasibleSolutionException {
+        // Legal break points do not depend on the quality and are thus shared by both passes
+        int[] candidates = findLegalBreakPoints(ctx);
+
+        // First pass with the best quality remembering all break points it activated
+        List<BreakPoint> activated = new ArrayList<>();
+        BreakPoint start = new BreakPoint(0);
+        ctx.getActiveBreakPoints().activate(start);
+        activated.add(start);
+
+        int failedAt = findBreakPoints(ctx, candidates, 0, activated, false);
+        if (failedAt == -1) {
+            return buildResult(ctx);
+        }
+
+        // The emergency pass resumes at the earliest break point that was still active when the first pass failed
+        int failedIndex = candidates[failedAt];
+        int resumeIndex = Integer.MAX_VALUE;
+        for (BreakPoint breakPoint : activated) {
+            if (breakPoint.getDeactivationIndex() == failedIndex) {
+                resumeIndex = Math.min(resumeIndex, breakPoint.getIndex());
             }
+        }
 
-            BreakPoint current = new BreakPoint(i); // b in the original paper
+        // Restore the break points that were active at that point in the first pass (in activation order)
+        LineBreakingContext emergencyCtx = new LineBreakingContext(ctx, worstQuality);
+        for (BreakPoint breakPoint : activated) {
+            if (breakPoint.getIndex() <= resumeIndex && breakPoint.getDeactivationIndex() > resumeIndex) {
+                breakPoint.setDeactivationIndex(Integer.MAX_VALUE);
+                emergencyCtx.getActiveBreakPoints().activate(breakPoint);
+            }
+        }
 
-            // Iterate over all currently active break points to find the best fitting ones
-            for (BreakPoint activeBreakPoint : ctx.getActiveBreakPoints()) { // activeBreakPoint is a in the original paper
-                double adjustmentRatio = computeAdjustmentRatio(ctx, activeBreakPoint, current);
+        int resumeAt = Arrays.binarySearch(candidates, resumeIndex);
+        resumeAt = resumeAt >= 0 ? resumeAt + 1 : -(resumeAt + 1);
 
-                if (adjustmentRatio < -1 || (
-                        ctx.getItems().get(current.getIndex()).getType() == ItemType.PENALTY
-                                && ((Penalty) ctx.getItems().get(current.getIndex())).isMandatoryLineBreak())
-                ) {
-                    deactivateLater.add(activeBreakPoint);
-                }
+        findBreakPoints(emergencyCtx, candidates, resumeAt, null, true);
+        if (emergencyCtx.getActiveBreakPoints().isEmpty()) {
+            throw new CouldNotFindFeasibleSolutionException();
+        }
 
-                if (adjustmentRatio >= -1 && adjustmentRatio <= config.getTolerance()) {
-                    double demerits = computeDemerits(ctx, current, activeBreakPoint, adjustmentRatio);
-                    LineFit lineFit = getLineFit(adjustmentRatio);
+        return buildResult(emergencyCtx);
+    }
 
-                    // Add demerits if two consecutive lines have different fitness classes
-                    if (Math.abs(current.getLineFit().getFitnessClass() - activeBreakPoint.getLineFit().getFitnessClass()) > 1) {
-                        demerits += config.getFitnessDemerit();
-                    }
+    /**
+     * Find break points for the passed context in one sweep over the passed legal break points
+     * starting at the given candidate position.
+     * The sweep stops as soon as there are no active break points anymore, as
+     * no feasible solution can be found then.
+     *
+     * @param ctx            to find break points for
+     * @param candidates     the legal break point indices
+     * @param from           position in the candidates to start the sweep at
+     * @param activated      list to add all activated break points to (or null)
+     * @param keepInfeasible whether to keep an infeasible break point instead of running out of active break points
+     * @return the position in the candidates the sweep ran out of active break points at or -1 if it did not
+     */
+    private int findBreakPoints(LineBreakingContext ctx, int[] candidates, int from, List<BreakPoint> activated, boolean keepInfeasible) {
+        List<BreakPoint> deactivateLater = new ArrayList<>();
 
-                    // Save the current break as a potential break
-                    current.setLineNumber(activeBreakPoint.getLineNumber() + 1);
-                    current.setLineFit(lineFit);
-                    current.setDemerits(demerits);
-                    current.setPrevious(activeBreakPoint);
+        for (int i = from; i < candidates.length; i++) {
+            BreakPoint current = processBreakPoint(ctx, candidates[i], deactivateLater, keepInfeasible);
+            if (current != null && activated != null) {
+                activated.add(current);
+            }
 
-                    activateLater.add(current);
-                }
+            if (ctx.getActiveBreakPoints().isEmpty()) {
+                return i;
             }
+        }
 
-            for (BreakPoint toDeactivate : deactivateLater) {
-                deactivateActiveBreakPoint(ctx, toDeactivate);
+        return -1;
+    }
+
+    /**
+     * Process the legal break point at the passed item index.
+     *
+     * @param ctx             the line breaking context to operate upon
+     * @param index           of the legal break point
+     * @param deactivateLater list to collect break points to deactivate in (will be emptied afterwards)
+     * @param keepInfeasible  whether to keep an infeasible break point instead of running out of active break points
+     * @return the activated break point or null if no break point has been activated
+     */
+    private BreakPoint processBreakPoint(LineBreakingContext ctx, int index, List<BreakPoint> deactivateLater, boolean keepInfeasible) {
+        ActiveBreakPoints activeBreakPoints = ctx.getActiveBreakPoints();
+
+        boolean isMandatoryLineBreak = ctx.getBuffer().isMandatoryLineBreak(index);
+
+        // State of the current break point (b in the original paper).
+        // The break point object is only created when it is to be activated.
+        boolean activateCurrent = false;
+        int currentLineNumber = 0;
+        LineFit currentLineFit = LineFit.NORMAL;
+        double currentDemerits = 0;
+        BreakPoint currentPrevious = null;
+
+        // Iterate over all currently active break points to find the best fitting ones
+        for (int line = activeBreakPoints.first(); line != ActiveBreakPoints.NONE; line = activeBreakPoints.next(line)) {
+            BreakPoint activeBreakPoint = activeBreakPoints.get(line); // activeBreakPoint is a in the original paper
+            double adjustmentRatio = computeAdjustmentRatio(ctx, activeBreakPoint, index);
+
+            if (adjustmentRatio < -1 || isMandatoryLineBreak) {
+                deactivateLater.add(activeBreakPoint);
             }
-            deactivateLater.clear();
 
-            for (BreakPoint toActivate : activateLater) {
-                activateBreakPoint(ctx, toActivate);
+            if (adjustmentRatio >= -1 && adjustmentRatio <= config.getTolerance()) {
+                double demerits = computeDemerits(ctx, index, activeBreakPoint.getIndex(), adjustmentRatio);
+                LineFit lineFit = getLineFit(adjustmentRatio);
+
+                // Add demerits if two consecutive lines have different fitness classes
+                if (Math.abs(currentLineFit.getFitnessClass() - activeBreakPoint.getLineFit().getFitnessClass()) > 1) {
+                    demerits += config.getFitnessDemerit();
+                }
+
+                // Save the current break as a potential break
+                currentLineNumber = activeBreakPoint.getLineNumber() + 1;
+                currentLineFit = lineFit;
+                currentDemerits = demerits;
+                currentPrevious = activeBreakPoint;
+
+                activateCurrent = true;
             }
-            activateLater.clear();
         }
 
-        if (ctx.getActiveBreakPoints().isEmpty()) {
-            throw new CouldNotFindFeasibleSolutionException();
+        if (keepInfeasible && !activateCurrent && !deactivateLater.isEmpty() && deactivateLater.size() == activeBreakPoints.size()) {
+            // Deactivating would leave no active break points -> break infeasibly after the one with fewest demerits
+            BreakPoint best = deactivateLater.get(0);
+            for (BreakPoint breakPoint : deactivateLater) {
+                if (breakPoint.getDemerits() < best.getDemerits()) {
+                    best = breakPoint;
+                }
+            }
+
+            currentLineNumber = best.getLineNumber() + 1;
+            currentLineFit = getLineFit(computeAdjustmentRatio(ctx, best, index));
+            currentDemerits = best.getDemerits();
+            currentPrevious = best;
+
+            activateCurrent = true;
+        }
+
+        for (BreakPoint toDeactivate : deactivateLater) {
+            activeBreakPoints.deactivate(toDeactivate);
+            toDeactivate.setDeactivationIndex(index);
+        }
+        deactivateLater.clear();
+
+        if (!activateCurrent) {
+            return null;
+        }
+
+        BreakPoint current = new BreakPoint(index);
+        current.setLineNumber(currentLineNumber);
+        current.setLineFit(currentLineFit);
+        current.setDemerits(currentDemerits);
+        current.setPrevious(currentPrevious);
+
+        BreakPoint replaced = activeBreakPoints.activate(current);
+        if (replaced != null) {
+            replaced.setDeactivationIndex(index);
         }
 
+        return current;
+    }
+
+    /**
+     * Build the line breaking result from the active break points of the passed context.
+     *
+     * @param ctx to build result from
+     * @return the line breaking result
+     */
+    private LineBreakingResult buildResult(LineBreakingContext ctx) {
         List<BreakPoint> result = new ArrayList<>();
 
         BreakPoint current = getLastBreakPoint(ctx);
@@ -119,7 +292,55 @@ public class KnuthPlassAlgorithm {
         // We need to reverse the list as it is in the wrong order (last break point to first)
         Collections.reverse(result);
 
-        return new LineBreakingResult(result, ctx);
+        return new LineBreakingResult(result, ctx, ctx.getLineBreakingQuality() > 0);
+    }
+
+    /**
+     * Build the line breaking result from the passed cached break point indices.
+     *
+     * @param ctx    line breaking context with the best quality
+     * @param cached the cached line breaking result
+     * @return the line breaking result
+     */
+    private LineBreakingResult buildResult(LineBreakingContext ctx, LineBreakingCache.Entry cached) {
+        int[] breakPointIndices = cached.getBreakPointIndices();
+        List<BreakPoint> result = new ArrayList<>(breakPointIndices.length);
+
+        BreakPoint previous = null;
+        for (int i = 0; i < breakPointIndices.length; i++) {
+            BreakPoint breakPoint = new BreakPoint(breakPointIndices[i]);
+            breakPoint.setLineNumber(i + 1);
+            breakPoint.setPrevious(previous);
+
+            result.add(breakPoint);
+            previous = breakPoint;
+        }
+
+        int quality = cached.getLineBreakingQuality();
+        LineBreakingContext resultCtx = quality == ctx.getLineBreakingQuality() ? ctx : new LineBreakingContext(ctx, quality);
+
+        return new LineBreakingResult(result, resultCtx, quality > 0);
+    }
+
+    /**
+     * Find the indices of all legal break points in the paragraph.
+     *
+     * @param ctx line breaking context to operate upon
+     * @return legal break point indices in ascending order
+     */
+    private int[] findLegalBreakPoints(LineBreakingContext ctx) {
+        ItemBuffer buffer = ctx.getBuffer();
+        int len = buffer.size();
+
+        int[] candidates = new int[len];
+        int count = 0;
+        for (int i = 0; i < len; i++) {
+            if (buffer.isLegalBreakPoint(i)) {
+                candidates[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(candidates, count);
     }
 
     /**
@@ -136,10 +357,12 @@ public class KnuthPlassAlgorithm {
             double demerits = Double.POSITIVE_INFINITY;
             BreakPoint newLastBreakPoint = lastBreakPoint;
 
-            for (BreakPoint activeBreakPoint : ctx.getActiveBreakPoints()) {
+            ActiveBreakPoints activeBreakPoints = ctx.getActiveBreakPoints();
+            for (int line = activeBreakPoints.first(); line != ActiveBreakPoints.NONE; line = activeBreakPoints.next(line)) {
+                BreakPoint activeBreakPoint = activeBreakPoints.get(line);
                 int lineDiff = activeBreakPoint.getLineNumber() - lastBreakPoint.getLineNumber();
 
-                if ((lineDiff >= config.getLooseness() + lineBreakingQuality && lineDiff < bestLineDiff)
+                if ((lineDiff >= config.getLooseness() + ctx.getLineBreakingQuality() && lineDiff < bestLineDiff)
                         || (lineDiff > bestLineDiff && lineDiff <= config.getLooseness())) {
                     bestLineDiff = lineDiff;
                     demerits = activeBreakPoint.getDemerits();
@@ -165,7 +388,9 @@ public class KnuthPlassAlgorithm {
     private BreakPoint getActiveBreakPointWithFewestDemerits(LineBreakingContext ctx) {
         BreakPoint currentMin = null;
 
-        for (BreakPoint breakPoint : ctx.getActiveBreakPoints()) {
+        ActiveBreakPoints activeBreakPoints = ctx.getActiveBreakPoints();
+        for (int line = activeBreakPoints.first(); line != ActiveBreakPoints.NONE; line = activeBreakPoints.next(line)) {
+            BreakPoint breakPoint = activeBreakPoints.get(line);
             if (currentMin == null) {
                 currentMin = breakPoint;
             } else if (breakPoint.getDemerits() < currentMin.getDemerits()) {
@@ -179,17 +404,16 @@ public class KnuthPlassAlgorithm {
     /**
      * Compute the demerits for the passed current and active break point.
      *
-     * @param ctx              context the algorithm is operating upon
-     * @param current          the current break point
-     * @param activeBreakPoint the currently active break point
-     * @param adjustmentRatio  the calculated adjustment ratio
+     * @param ctx             context the algorithm is operating upon
+     * @param currentIndex    item index of the current break point
+     * @param activeIndex     item index of the currently active break point
+     * @param adjustmentRatio the calculated adjustment ratio
      * @return demerits
      */
-    private double computeDemerits(LineBreakingContext ctx, BreakPoint current, BreakPoint activeBreakPoint, double adjustmentRatio) {
-        Item currentItem = ctx.getItems().get(current.getIndex());
-        Item activeItem = ctx.getItems().get(activeBreakPoint.getIndex());
+    private double computeDemerits(LineBreakingContext ctx, int currentIndex, int activeIndex, double adjustmentRatio) {
+        ItemBuffer buffer = ctx.getBuffer();
 
-        double penalty = currentItem.getPenalty();
+        double penalty = buffer.getPenalty(currentIndex);
 
         double demerits;
         double demeritsBase = 1 + 100 * Math.pow(Math.abs(adjustmentRatio), 3);
@@ -201,7 +425,7 @@ public class KnuthPlassAlgorithm {
             demerits = Math.pow(demeritsBase, 2);
         }
 
-        boolean areBothBreakPointsFlagged = currentItem.isFlagged() && activeItem.isFlagged();
+        boolean areBothBreakPointsFlagged = buffer.isFlagged(currentIndex) && buffer.isFlagged(activeIndex);
         if (areBothBreakPointsFlagged) {
             return demerits + config.getFlaggedDemerit(); // Add a "penalty" because we don't want two consecutive flagged breaks
         } else {
@@ -227,82 +451,6 @@ public class KnuthPlassAlgorithm {
         }
     }
 
-    /**
-     * Deactivate the passed active break point.
-     *
-     * @param ctx        context used during the algorithm
-     * @param breakPoint to deactivate
-     */
-    private void deactivateActiveBreakPoint(LineBreakingContext ctx, BreakPoint breakPoint) {
-        ctx.getActiveBreakPoints().remove(breakPoint);
-    }
-
-    /**
-     * Activate the passed break point.
-     *
-     * @param ctx        context used during the algorithm
-     * @param breakPoint to activate
-     */
-    private void activateBreakPoint(LineBreakingContext ctx, BreakPoint breakPoint) {
-        // Find the index in the active break points list where the line is equal or greater to the passed break points
-        int index = 0;
-        int len = ctx.getActiveBreakPoints().size();
-        while (index < len && ctx.getActiveBreakPoints().get(index).getLineNumber() < breakPoint.getLineNumber()) {
-            index++;
-        }
-
-        // Checking whether the break point to insert is unique in terms of line number, position and fitness
-        int inLineIndex = index;
-        while (inLineIndex < len && ctx.getActiveBreakPoints().get(inLineIndex).getLineNumber() == breakPoint.getLineNumber()) {
-            BreakPoint other = ctx.getActiveBreakPoints().get(inLineIndex);
-
-            if (other.getIndex() == breakPoint.getIndex()
-                    && other.getLineFit() == breakPoint.getLineFit()) {
-                return; // Already having the active break point
-            }
-
-            inLineIndex++;
-        }
-
-        // Insert into the active break points list
-        if (index == len) {
-            ctx.getActiveBreakPoints().add(breakPoint);
-        } else {
-            ctx.getActiveBreakPoints().set(index, breakPoint);
-        }
-    }
-
-    /**
-     * Check if the item at the passed index is a legal break point.
-     *
-     * @param ctx   line breaking context to operate upon
-     * @param index to check at
-     * @return whether legal break point
-     */
-    private boolean isLegalBreakPointAt(LineBreakingContext ctx, int index) {
-        Item item = ctx.getItems().get(index);
-
-        return switch (item.getType()) {
-            case GLUE -> {
-                boolean hasPreviousItem = index > 0;
-                if (hasPreviousItem) {
-                    Item previous = ctx.getItems().get(index - 1);
-                    if (previous.getType() == ItemType.BOX) {
-                        yield true;
-                    }
-                }
-
-                yield false;
-            }
-            case PENALTY -> {
-                Penalty penalty = (Penalty) item;
-                boolean isPossibleLineBreak = !penalty.isImpossibleLineBreak();
-                yield isPossibleLineBreak;
-            }
-            default -> false;
-        };
-    }
-
     /**
      * Compute the adjustment ratio from the given starting break point
      * to the passed ending break point that form a potential line.
@@ -312,16 +460,15 @@ public class KnuthPlassAlgorithm {
      *
      * @param ctx   the line breaking context to operate upon
      * @param start the starting break point
-     * @param end   the ending break point
+     * @param end   item index of the ending break point
      * @return the adjustment ratio
      */
-    private double computeAdjustmentRatio(LineBreakingContext ctx, BreakPoint start, BreakPoint end) {
-        double lineWidth = ctx.getTotalWidth(end.getIndex()) - ctx.getTotalWidth(start.getIndex());
+    private double computeAdjustmentRatio(LineBreakingContext ctx, BreakPoint start, int end) {
+        double lineWidth = ctx.getTotalWidth(end) - ctx.getTotalWidth(start.getIndex());
 
         // Adding penalty width (if any) for example for a hyphen character '-'.
-        Item itemOfEnd = ctx.getItems().get(end.getIndex());
-        if (itemOfEnd.getType() == ItemType.PENALTY) {
-            lineWidth += itemOfEnd.getWidth();
+        if (ctx.getBuffer().isPenalty(end)) {
+            lineWidth += ctx.getBuffer().getWidth(end);
         }
 
         int lineNumber = start.getLineNumber() + 1;
@@ -329,12 +476,12 @@ public class KnuthPlassAlgorithm {
 
         if (lineWidth < requiredLineWidth) {
             // Line width is too small. We need to stretch it!
-            double lineStretchability = ctx.getTotalStretch(end.getIndex()) - ctx.getTotalStretch(start.getIndex());
+            double lineStretchability = ctx.getTotalStretch(end) - ctx.getTotalStretch(start.getIndex());
 
             return lineStretchability > 0 ? (requiredLineWidth - lineWidth) / lineStretchability : Double.POSITIVE_INFINITY;
         } else if (lineWidth > requiredLineWidth) {
             // Line width is too big. We need to shrink it!
-            double lineShrinkability = ctx.getTotalShrink(end.getIndex()) - ctx.getTotalShrink(start.getIndex());
+            double lineShrinkability = ctx.getTotalShrink(end) - ctx.getTotalShrink(start.getIndex());
 
             return lineShrinkability > 0 ? (requiredLineWidth - lineWidth) / lineShrinkability : Double.POSITIVE_INFINITY;
         } else {
@@ -357,9 +504,15 @@ public class KnuthPlassAlgorithm {
          */
         private final LineBreakingContext context;
 
-        public LineBreakingResult(List<BreakPoint> breakPoints, LineBreakingContext context) {
+        /**
+         * Whether the best quality did not suffice and the result stems from the emergency pass.
+         */
+        private final boolean emergency;
+
+        public LineBreakingResult(List<BreakPoint> breakPoints, LineBreakingContext context, boolean emergency) {
             this.breakPoints = breakPoints;
             this.context = context;
+            this.emergency = emergency;
         }
 
         public List<BreakPoint> getBreakPoints() {
@@ -370,6 +523,15 @@ public class KnuthPlassAlgorithm {
             return context;
         }
 
+        /**
+         * Check whether the best quality did not suffice and the result stems from the emergency pass.
+         *
+         * @return whether the emergency pass was needed
+         */
+        public boolean isEmergency() {
+            return emergency;
+        }
+
     }
 
 }
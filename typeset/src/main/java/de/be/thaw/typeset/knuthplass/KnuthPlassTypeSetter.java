@@ -4,10 +4,13 @@ import de.be.thaw.core.document.Document;
 import de.be.thaw.core.document.convert.exception.DocumentConversionException;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.core.document.util.PageRange;
+import de.be.thaw.typeset.PageConsumer;
 import de.be.thaw.typeset.TypeSetter;
 import de.be.thaw.typeset.exception.TypeSettingException;
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.converter.KnuthPlassConverter;
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.impl.box.PageNumberPlaceholderBox;
 import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
 import de.be.thaw.typeset.knuthplass.paragraph.ParagraphType;
 import de.be.thaw.typeset.knuthplass.paragraph.handler.ParagraphTypesetHandler;
@@ -17,13 +20,19 @@ import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.math.MathParagraphHa
 import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.table.TableParagraphHandler;
 import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.tableofcontents.TableOfContentsItemParagraphHandler;
 import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.text.TextParagraphHandler;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 import de.be.thaw.typeset.page.Page;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of the Knuth-Plass line breaking algorithm.
@@ -35,8 +44,13 @@ public class KnuthPlassTypeSetter implements TypeSetter {
      */
     private static final Map<ParagraphType, ParagraphTypesetHandler> PARAGRAPH_HANDLER_MAP = new EnumMap<>(ParagraphType.class);
 
+    /**
+     * Handler for text paragraphs.
+     */
+    private static final TextParagraphHandler TEXT_PARAGRAPH_HANDLER = new TextParagraphHandler();
+
     static {
-        initParagraphTypesetHandler(new TextParagraphHandler());
+        initParagraphTypesetHandler(TEXT_PARAGRAPH_HANDLER);
         initParagraphTypesetHandler(new ImageParagraphHandler());
         initParagraphTypesetHandler(new TableOfContentsItemParagraphHandler());
         initParagraphTypesetHandler(new MathParagraphHandler());
@@ -77,6 +91,16 @@ public class KnuthPlassTypeSetter implements TypeSetter {
         return typesetWithConfig(document, config);
     }
 
+    @Override
+    public void typeset(Document document, PageConsumer consumer) throws TypeSettingException {
+        TypeSettingContext ctx = prepareContext(document, config);
+        ctx.setPageConsumer(consumer);
+
+        typesetConsecutiveParagraphs(ctx.getConsecutiveParagraphLists(), ctx);
+
+        ctx.flushPages();
+    }
+
     /**
      * Typeset the passed document with the given configuration.
      *
@@ -86,6 +110,21 @@ public class KnuthPlassTypeSetter implements TypeSetter {
      * @throws TypeSettingException in case the document could not be typeset properly
      */
     public List<Page> typesetWithConfig(Document document, KnuthPlassTypeSettingConfig configuration) throws TypeSettingException {
+        TypeSettingContext ctx = prepareContext(document, configuration);
+
+        // Type set main document content
+        return typesetConsecutiveParagraphs(ctx.getConsecutiveParagraphLists(), ctx);
+    }
+
+    /**
+     * Convert the passed document to paragraphs and prepare the context to typeset them with.
+     *
+     * @param document      to typeset
+     * @param configuration the config to use
+     * @return the typesetting context
+     * @throws TypeSettingException in case the document could not be prepared for typesetting
+     */
+    private TypeSettingContext prepareContext(Document document, KnuthPlassTypeSettingConfig configuration) throws TypeSettingException {
         List<List<Paragraph>> consecutiveParagraphLists = convertToParagraphs(document, document.getRoot(), configuration);
 
         // Convert headers and footers to paragraph lists for later use during the typesetting
@@ -114,8 +153,46 @@ public class KnuthPlassTypeSetter implements TypeSetter {
                 this::typesetWithConfig
         );
 
-        // Type set main document content
-        return typesetConsecutiveParagraphs(consecutiveParagraphLists, ctx);
+        if (configuration.isTypesetSectionsInParallel()) {
+            // Typeset the foot notes ahead of the layout
+            ctx.preTypesetFootNotes();
+
+            // Find break points of the text paragraphs ahead of the layout
+            ctx.setPrecomputedLineBreakingResults(findBreakPointsAhead(consecutiveParagraphLists, configuration));
+        }
+
+        return ctx;
+    }
+
+    /**
+     * Find the break points of all text paragraphs in the passed consecutive paragraph lists
+     * in parallel (on the common fork-join pool) ahead of the sequential layout.
+     * Only done when typesetting sections in parallel, otherwise the break points are found during the layout.
+     * The layout is only using the results for paragraphs whose line widths are not changed by a floating element.
+     *
+     * @param consecutiveParagraphLists to find break points for
+     * @param configuration             the config to use
+     * @return the line breaking results by their paragraph
+     */
+    private Map<Paragraph, KnuthPlassAlgorithm.LineBreakingResult> findBreakPointsAhead(
+            List<List<Paragraph>> consecutiveParagraphLists,
+            KnuthPlassTypeSettingConfig configuration
+    ) {
+        Map<Paragraph, KnuthPlassAlgorithm.LineBreakingResult> results = new ConcurrentHashMap<>();
+
+        consecutiveParagraphLists.stream()
+                .flatMap(List::stream)
+                .filter(paragraph -> paragraph.getType() == ParagraphType.TEXT)
+                .collect(Collectors.toList())
+                .parallelStream()
+                .forEach(paragraph -> {
+                    KnuthPlassAlgorithm.LineBreakingResult result = TEXT_PARAGRAPH_HANDLER.findBreakPointsAhead((TextParagraph) paragraph, configuration);
+                    if (result != null) {
+                        results.put(paragraph, result);
+                    }
+                });
+
+        return results;
     }
 
     /**
@@ -126,23 +203,102 @@ public class KnuthPlassTypeSetter implements TypeSetter {
      * @return the typeset pages
      */
     private List<Page> typesetConsecutiveParagraphs(List<List<Paragraph>> consecutiveParagraphLists, TypeSettingContext ctx) throws TypeSettingException {
+        if (ctx.getConfig().isTypesetSectionsInParallel() && consecutiveParagraphLists.size() > 1) {
+            return typesetSectionsInParallel(consecutiveParagraphLists, ctx);
+        }
+
         for (List<Paragraph> consecutiveParagraphs : consecutiveParagraphLists) {
-            for (Paragraph paragraph : consecutiveParagraphs) {
-                ParagraphTypesetHandler handler = KnuthPlassTypeSetter.getHandler(paragraph.getType())
-                        .orElseThrow(() -> new TypeSettingException(String.format(
-                                "There is no paragraph typesetting handler registered for paragraph type '%s'",
-                                paragraph.getType().name()
-                        )));
-
-                handler.handle(paragraph, ctx);
-            }
+            typesetSection(consecutiveParagraphs, ctx);
+        }
 
-            ctx.pushPage(); // Push the current page (due to end of consecutive paragraphs reached - explicit page break).
+        return ctx.getPages();
+    }
+
+    /**
+     * Typeset the passed consecutive paragraph lists concurrently (on the common fork-join pool).
+     * Each list starts on a fresh page and is typeset in its own context.
+     * The resulting pages are merged into the passed context afterwards.
+     * <p>
+     * Sections displaying page numbers need to know the page they start on, which is only known
+     * once all previous sections have been merged. They are thus typeset sequentially in the passed context
+     * while merging, as well as sections that turn out to display page numbers that changed
+     * (for example in a foot note) and cannot be merged.
+     *
+     * @param consecutiveParagraphLists a list of consecutive paragraph lists to typeset
+     * @param ctx                       the typesetting context
+     * @return the typeset pages
+     */
+    private List<Page> typesetSectionsInParallel(List<List<Paragraph>> consecutiveParagraphLists, TypeSettingContext ctx) throws TypeSettingException {
+        List<TypeSettingContext> sectionContexts = new ArrayList<>(consecutiveParagraphLists.size());
+        for (List<Paragraph> consecutiveParagraphs : consecutiveParagraphLists) {
+            sectionContexts.add(displaysPageNumbers(consecutiveParagraphs) ? null : ctx.createSectionContext(List.of(consecutiveParagraphs)));
+        }
+
+        try {
+            IntStream.range(0, consecutiveParagraphLists.size())
+                    .filter(i -> sectionContexts.get(i) != null)
+                    .parallel()
+                    .forEach(i -> {
+                        try {
+                            typesetSection(consecutiveParagraphLists.get(i), sectionContexts.get(i));
+                        } catch (TypeSettingException e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        } catch (CompletionException e) {
+            throw (TypeSettingException) e.getCause();
+        }
+
+        for (int i = 0; i < consecutiveParagraphLists.size(); i++) {
+            TypeSettingContext sectionContext = sectionContexts.get(i);
+            if (sectionContext == null || !ctx.mergeSection(sectionContext)) {
+                typesetSection(consecutiveParagraphLists.get(i), ctx);
+            }
         }
 
         return ctx.getPages();
     }
 
+    /**
+     * Check whether the passed consecutive paragraphs display the number of the page they are on.
+     *
+     * @param consecutiveParagraphs to check
+     * @return whether there is a page number to display
+     */
+    private static boolean displaysPageNumbers(List<Paragraph> consecutiveParagraphs) {
+        for (Paragraph paragraph : consecutiveParagraphs) {
+            if (paragraph.getType() == ParagraphType.TEXT) {
+                for (Item item : ((TextParagraph) paragraph).items()) {
+                    if (item instanceof PageNumberPlaceholderBox) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Typeset the passed consecutive paragraphs and finish the current page afterwards.
+     *
+     * @param consecutiveParagraphs to typeset
+     * @param ctx                   the typesetting context
+     */
+    private void typesetSection(List<Paragraph> consecutiveParagraphs, TypeSettingContext ctx) throws TypeSettingException {
+        for (Paragraph paragraph : consecutiveParagraphs) {
+            ParagraphTypesetHandler handler = KnuthPlassTypeSetter.getHandler(paragraph.getType())
+                    .orElseThrow(() -> new TypeSettingException(String.format(
+                            "There is no paragraph typesetting handler registered for paragraph type '%s'",
+                            paragraph.getType().name()
+                    )));
+
+            handler.handle(paragraph, ctx);
+        }
+
+        ctx.pushPage(); // Push the current page (due to end of consecutive paragraphs reached - explicit page break).
+    }
+
     /**
      * Convert the passed header or footer document root nodes to lists of consecutive paragraphs.
      *
@@ -2,8 +2,10 @@ package de.be.thaw.typeset.knuthplass;
 
 import de.be.thaw.core.document.Document;
 import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
+import de.be.thaw.core.document.builder.impl.DocumentBuildContext;
 import de.be.thaw.core.document.builder.impl.exception.DocumentBuildException;
 import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
+import de.be.thaw.core.document.convert.exception.DocumentConversionException;
 import de.be.thaw.core.document.node.DocumentNode;
 import de.be.thaw.core.document.util.PageRange;
 import de.be.thaw.style.model.StyleModel;
@@ -14,15 +16,29 @@ import de.be.thaw.style.model.style.StyleType;
 import de.be.thaw.style.model.style.value.DoubleStyleValue;
 import de.be.thaw.style.model.style.value.StyleValue;
 import de.be.thaw.text.model.TextModel;
+import de.be.thaw.text.model.tree.Node;
+import de.be.thaw.text.model.tree.NodeType;
+import de.be.thaw.text.model.tree.impl.BoxNode;
+import de.be.thaw.text.model.tree.impl.RootNode;
+import de.be.thaw.text.model.tree.impl.TextNode;
 import de.be.thaw.text.parser.exception.ParseException;
+import de.be.thaw.text.util.TextPosition;
+import de.be.thaw.typeset.PageConsumer;
 import de.be.thaw.typeset.exception.TypeSettingException;
 import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.converter.KnuthPlassConverter;
 import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
+import de.be.thaw.typeset.knuthplass.paragraph.ParagraphType;
+import de.be.thaw.typeset.knuthplass.paragraph.handler.impl.text.TextParagraphHandler;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import de.be.thaw.typeset.knuthplass.util.PageElementTemplate;
 import de.be.thaw.typeset.knuthplass.util.RethrowingBiFunction;
 import de.be.thaw.typeset.page.AbstractElement;
 import de.be.thaw.typeset.page.Element;
 import de.be.thaw.typeset.page.Page;
 import de.be.thaw.typeset.page.impl.LineElement;
+import de.be.thaw.typeset.page.impl.LineNumberElement;
+import de.be.thaw.typeset.page.impl.PageNumberElement;
 import de.be.thaw.typeset.page.util.LineStyle;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Position;
@@ -33,15 +49,24 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Context used during typesetting.
  */
 public class TypeSettingContext {
 
+    /**
+     * Handler used to lay out the text paragraphs of plain texts (for example table cells) without a nested context.
+     */
+    private static final TextParagraphHandler TEXT_PARAGRAPH_HANDLER = new TextParagraphHandler();
+
     /**
      * Configuration of the Knuth-Plass type setting algorithm.
      */
@@ -49,9 +74,21 @@ public class TypeSettingContext {
 
     /**
      * The currently typeset pages.
+     * When a page consumer is set, only the last typeset page is held.
      */
     private final List<Page> pages = new ArrayList<>();
 
+    /**
+     * Count of typeset pages.
+     */
+    private int pageCount = 0;
+
+    /**
+     * Consumer to hand finished pages to (if any).
+     */
+    @Nullable
+    private PageConsumer pageConsumer;
+
     /**
      * Elements of the current page.
      */
@@ -92,6 +129,16 @@ public class TypeSettingContext {
      */
     private final Map<PageRange, List<List<Paragraph>>> footerParagraphs;
 
+    /**
+     * Already typeset header templates per header paragraph list.
+     */
+    private final Map<List<List<Paragraph>>, PageElementTemplate> headerTemplates = new IdentityHashMap<>();
+
+    /**
+     * Already typeset footer templates per footer paragraph list.
+     */
+    private final Map<List<List<Paragraph>>, PageElementTemplate> footerTemplates = new IdentityHashMap<>();
+
     /**
      * Function used to typeset a passed list of paragraphs to pages.
      * Used to typeset headers and footer paragraph lists on demand.
@@ -121,6 +168,12 @@ public class TypeSettingContext {
      */
     private final Map<String, List<List<Paragraph>>> footNoteParagraphs;
 
+    /**
+     * Already typeset foot notes by their node ID.
+     * Shared with the contexts of sections that are typeset concurrently.
+     */
+    private Map<String, PageElementTemplate> footNoteTemplates = new ConcurrentHashMap<>();
+
     /**
      * Current foot note index.
      */
@@ -156,6 +209,11 @@ public class TypeSettingContext {
      */
     private final Color footNoteLineColor;
 
+    /**
+     * Line breaking results of text paragraphs found ahead of the layout.
+     */
+    private Map<Paragraph, KnuthPlassAlgorithm.LineBreakingResult> precomputedLineBreakingResults = Collections.emptyMap();
+
     public TypeSettingContext(
             KnuthPlassTypeSettingConfig config,
             Document document,
@@ -226,10 +284,43 @@ public class TypeSettingContext {
         return consecutiveParagraphLists;
     }
 
+    /**
+     * Get the typeset pages.
+     * Note that only the last typeset page is available when a page consumer is set.
+     *
+     * @return pages
+     */
     public List<Page> getPages() {
         return pages;
     }
 
+    /**
+     * Set a consumer to hand finished pages to instead of holding all of them.
+     * The last typeset page is held back until the next one is pushed, since it may still be modified
+     * (for example when the numbering of a table of contents item belongs to the previous page).
+     *
+     * @param pageConsumer to set
+     */
+    public void setPageConsumer(@Nullable PageConsumer pageConsumer) {
+        this.pageConsumer = pageConsumer;
+    }
+
+    /**
+     * Hand all pages that have not been handed over yet to the page consumer (if any).
+     *
+     * @throws TypeSettingException in case a page could not be consumed
+     */
+    public void flushPages() throws TypeSettingException {
+        if (pageConsumer == null) {
+            return;
+        }
+
+        for (Page page : pages) {
+            pageConsumer.consume(page);
+        }
+        pages.clear();
+    }
+
     public List<Element> getCurrentPageElements() {
         return currentPageElements;
     }
@@ -260,6 +351,103 @@ public class TypeSettingContext {
         this.pageNumberOffset = pageNumberOffset;
     }
 
+    /**
+     * Create a context to typeset the passed section (starting on a fresh page) in independently of this context.
+     * The section context shares the foot notes and precomputed line breaking results with this context,
+     * but does not add headers and footers to its pages.
+     * Its pages are numbered as if the section started at the current page.
+     *
+     * @param consecutiveParagraphLists of the section
+     * @return the new context
+     */
+    public TypeSettingContext createSectionContext(List<List<Paragraph>> consecutiveParagraphLists) {
+        TypeSettingContext sectionContext = new TypeSettingContext(
+                config,
+                document,
+                consecutiveParagraphLists,
+                null,
+                null,
+                footNoteParagraphs,
+                typesettingFunction,
+                typesetDocumentFunction
+        );
+        sectionContext.setPageNumberOffset(getCurrentPageNumber() - 1);
+        sectionContext.footNoteTemplates = footNoteTemplates;
+        sectionContext.precomputedLineBreakingResults = precomputedLineBreakingResults;
+
+        return sectionContext;
+    }
+
+    /**
+     * Merge the pages typeset in the passed section context into this context.
+     * The pages are renumbered to follow the already typeset pages, line numbers
+     * are continued and headers and footers are added.
+     * <p>
+     * Sections displaying the number of the page they are on can only be merged
+     * when their page numbers do not change, since they would need to be laid out again otherwise.
+     *
+     * @param sectionContext the section has been typeset in (see {@link #createSectionContext(List)})
+     * @return whether the section could be merged; it needs to be typeset again in this context otherwise
+     * @throws TypeSettingException in case the section pages could not be merged
+     */
+    public boolean mergeSection(TypeSettingContext sectionContext) throws TypeSettingException {
+        int pageNumberShift = getCurrentPageNumber() - 1 - sectionContext.getPageNumberOffset();
+        int lineNumberShift = lineNumberCounter;
+
+        if (pageNumberShift != 0 && containsPageNumbers(sectionContext.getPages())) {
+            return false;
+        }
+
+        for (Page page : sectionContext.getPages()) {
+            int pageNumber = getCurrentPageNumber();
+
+            for (Element element : page.getElements()) {
+                if (lineNumberShift != 0 && element instanceof LineNumberElement) {
+                    LineNumberElement lineNumberElement = (LineNumberElement) element;
+
+                    try {
+                        currentPageElements.add(lineNumberElement.renumber(
+                                lineNumberElement.getLineNumber() + lineNumberShift,
+                                pageNumber,
+                                config.getFontDetailsSupplier()
+                        ));
+                    } catch (Exception e) {
+                        throw new TypeSettingException(e);
+                    }
+                } else if (pageNumberShift != 0) {
+                    currentPageElements.add(((AbstractElement) element).copy(pageNumber));
+                } else {
+                    currentPageElements.add(element);
+                }
+            }
+
+            pushPage();
+        }
+
+        lineNumberCounter += sectionContext.lineNumberCounter;
+        footNoteNumber += sectionContext.footNoteNumber - 1;
+
+        return true;
+    }
+
+    /**
+     * Check whether the passed pages contain elements displaying a page number.
+     *
+     * @param pages to check
+     * @return whether there is a page number element
+     */
+    private static boolean containsPageNumbers(List<Page> pages) {
+        for (Page page : pages) {
+            for (Element element : page.getElements()) {
+                if (element instanceof PageNumberElement) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Push the current page elements to a new page.
      */
@@ -268,6 +456,11 @@ public class TypeSettingContext {
         addFootNotesToPage();
 
         pages.add(new Page(getCurrentPageNumber(), config.getPageSize(), config.getPageInsets(), currentPageElements));
+        pageCount++;
+
+        if (pageConsumer != null && pages.size() > 1) {
+            pageConsumer.consume(pages.remove(0));
+        }
 
         currentPageElements = new ArrayList<>();
         getPositionContext().setY(config.getPageInsets().getTop());
@@ -335,56 +528,120 @@ public class TypeSettingContext {
         List<List<Paragraph>> footerParagraphList = getHeaderFooterForPageNumber(currentPageNumber, footerParagraphs);
 
         if (headerParagraphList != null) {
-            TypeSettingContext newContext = new TypeSettingContext(config, document, headerParagraphList, null, null, null, null, null);
-            newContext.setPageNumberOffset(currentPageNumber - 1);
+            currentPageElements.addAll(getHeaderFooterElements(headerParagraphList, headerTemplates, currentPageNumber, true));
+        }
 
-            List<Page> headerPages = typesettingFunction.apply(headerParagraphList, newContext);
-            Page headerPage = headerPages.get(0); // We are only interested in the first page -> Content should actually be only a portion of one page
+        if (footerParagraphList != null) {
+            currentPageElements.addAll(getHeaderFooterElements(footerParagraphList, footerTemplates, currentPageNumber, false));
+        }
+    }
 
-            double pageXInsets = headerPage.getInsets().getLeft();
-            double pageYInsets = headerPage.getInsets().getTop();
+    /**
+     * Get the header or footer elements for the page with the passed number.
+     * The header or footer is only typeset in case there is no template that can be reused for the page.
+     *
+     * @param paragraphList of the header or footer
+     * @param templates     lookup of already typeset header or footer templates
+     * @param pageNumber    number of the page to get the elements for
+     * @param isHeader      whether to get a header or footer
+     * @return the elements positioned on the page
+     * @throws TypeSettingException in case the header or footer could not be typeset
+     */
+    private List<Element> getHeaderFooterElements(
+            List<List<Paragraph>> paragraphList,
+            Map<List<List<Paragraph>>, PageElementTemplate> templates,
+            int pageNumber,
+            boolean isHeader
+    ) throws TypeSettingException {
+        PageElementTemplate template = templates.get(paragraphList);
+        if (template != null) {
+            List<Element> elements = template.instantiate(pageNumber, config.getFontDetailsSupplier());
+            if (elements != null) {
+                return elements;
+            }
+        }
 
-            headerPage.getElements().sort(Comparator.comparingDouble(e -> e.getPosition().getY() + e.getSize().getHeight()));
-            Element lastElm = headerPage.getElements().get(headerPage.getElements().size() - 1);
-            double maxY = lastElm.getPosition().getY() + lastElm.getSize().getHeight();
+        // Typeset the header or footer (again) for the page
+        template = new PageElementTemplate(isHeader
+                ? typesetHeader(paragraphList, pageNumber)
+                : typesetFooter(paragraphList, pageNumber), pageNumber);
+        templates.put(paragraphList, template);
 
-            // Position elements properly on the actual page
-            for (Element element : headerPage.getElements()) {
-                AbstractElement e = (AbstractElement) element;
+        return template.instantiate(pageNumber, config.getFontDetailsSupplier());
+    }
 
-                e.setPosition(new Position(
-                        element.getPosition().getX() - pageXInsets + config.getPageInsets().getLeft(),
-                        element.getPosition().getY() - maxY + pageYInsets
-                ));
+    /**
+     * Typeset the passed header paragraph list for the page with the given number.
+     *
+     * @param headerParagraphList to typeset
+     * @param pageNumber          number of the page to typeset the header for
+     * @return the header elements positioned on the page
+     * @throws TypeSettingException in case the header could not be typeset
+     */
+    private List<AbstractElement> typesetHeader(List<List<Paragraph>> headerParagraphList, int pageNumber) throws TypeSettingException {
+        TypeSettingContext newContext = new TypeSettingContext(config, document, headerParagraphList, null, null, null, null, null);
+        newContext.setPageNumberOffset(pageNumber - 1);
 
-                currentPageElements.add(e);
-            }
+        List<Page> headerPages = typesettingFunction.apply(headerParagraphList, newContext);
+        Page headerPage = headerPages.get(0); // We are only interested in the first page -> Content should actually be only a portion of one page
+
+        double pageXInsets = headerPage.getInsets().getLeft();
+        double pageYInsets = headerPage.getInsets().getTop();
+
+        headerPage.getElements().sort(Comparator.comparingDouble(e -> e.getPosition().getY() + e.getSize().getHeight()));
+        Element lastElm = headerPage.getElements().get(headerPage.getElements().size() - 1);
+        double maxY = lastElm.getPosition().getY() + lastElm.getSize().getHeight();
+
+        // Position elements properly on the actual page
+        List<AbstractElement> result = new ArrayList<>(headerPage.getElements().size());
+        for (Element element : headerPage.getElements()) {
+            AbstractElement e = (AbstractElement) element;
+
+            e.setPosition(new Position(
+                    element.getPosition().getX() - pageXInsets + config.getPageInsets().getLeft(),
+                    element.getPosition().getY() - maxY + pageYInsets
+            ));
+
+            result.add(e);
         }
 
-        if (footerParagraphList != null) {
-            TypeSettingContext newContext = new TypeSettingContext(config, document, footerParagraphList, null, null, null, null, typesetDocumentFunction);
-            newContext.setPageNumberOffset(currentPageNumber - 1);
+        return result;
+    }
+
+    /**
+     * Typeset the passed footer paragraph list for the page with the given number.
+     *
+     * @param footerParagraphList to typeset
+     * @param pageNumber          number of the page to typeset the footer for
+     * @return the footer elements positioned on the page
+     * @throws TypeSettingException in case the footer could not be typeset
+     */
+    private List<AbstractElement> typesetFooter(List<List<Paragraph>> footerParagraphList, int pageNumber) throws TypeSettingException {
+        TypeSettingContext newContext = new TypeSettingContext(config, document, footerParagraphList, null, null, null, null, typesetDocumentFunction);
+        newContext.setPageNumberOffset(pageNumber - 1);
 
-            List<Page> footerPages = typesettingFunction.apply(footerParagraphList, newContext);
-            Page footerPage = footerPages.get(0); // We are only interested in the first page -> Content should actually be only a portion of one page
+        List<Page> footerPages = typesettingFunction.apply(footerParagraphList, newContext);
+        Page footerPage = footerPages.get(0); // We are only interested in the first page -> Content should actually be only a portion of one page
 
-            double pageXInsets = footerPage.getInsets().getLeft();
-            double pageYInsets = footerPage.getInsets().getTop();
+        double pageXInsets = footerPage.getInsets().getLeft();
+        double pageYInsets = footerPage.getInsets().getTop();
 
-            double startY = config.getPageSize().getHeight() - config.getPageInsets().getBottom();
+        double startY = config.getPageSize().getHeight() - config.getPageInsets().getBottom();
 
-            // Position elements properly on the actual page
-            for (Element element : footerPage.getElements()) {
-                AbstractElement e = (AbstractElement) element;
+        // Position elements properly on the actual page
+        List<AbstractElement> result = new ArrayList<>(footerPage.getElements().size());
+        for (Element element : footerPage.getElements()) {
+            AbstractElement e = (AbstractElement) element;
 
-                e.setPosition(new Position(
-                        element.getPosition().getX() - pageXInsets + config.getPageInsets().getLeft(),
-                        element.getPosition().getY() - pageYInsets + startY
-                ));
+            e.setPosition(new Position(
+                    element.getPosition().getX() - pageXInsets + config.getPageInsets().getLeft(),
+                    element.getPosition().getY() - pageYInsets + startY
+            ));
 
-                currentPageElements.add(e);
-            }
+            result.add(e);
         }
+
+        return result;
     }
 
     /**
@@ -431,17 +688,77 @@ public class TypeSettingContext {
      * @return current page number
      */
     public int getCurrentPageNumber() {
-        return pages.size() + 1 + getPageNumberOffset();
+        return pageCount + 1 + getPageNumberOffset();
+    }
+
+    /**
+     * Typeset all foot notes ahead of the layout in parallel (on the common fork-join pool),
+     * so that pushing a foot note only needs to copy the already typeset elements.
+     * Without calling this, foot notes are typeset when they are pushed to a page for the first time.
+     *
+     * @throws TypeSettingException in case a foot note could not be typeset
+     */
+    public void preTypesetFootNotes() throws TypeSettingException {
+        if (footNoteParagraphs == null || footNoteParagraphs.isEmpty() || typesettingFunction == null) {
+            return;
+        }
+
+        int pageNumber = getCurrentPageNumber();
+
+        Map<String, PageElementTemplate> templates = new ConcurrentHashMap<>();
+        try {
+            footNoteParagraphs.entrySet().parallelStream().forEach(entry -> {
+                try {
+                    templates.put(entry.getKey(), typesetFootNote(entry.getValue(), pageNumber));
+                } catch (TypeSettingException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            throw (TypeSettingException) e.getCause();
+        }
+
+        footNoteTemplates.putAll(templates);
     }
 
     /**
      * Push a foot note to the current page.
      */
     public void pushFootNote(DocumentNode node) throws TypeSettingException {
-        List<List<Paragraph>> paragraphLists = footNoteParagraphs.get(node.getId());
+        int pageNumber = getCurrentPageNumber();
+
+        List<Element> elements = null;
+        PageElementTemplate template = footNoteTemplates.get(node.getId());
+        if (template != null) {
+            elements = template.instantiate(pageNumber, config.getFontDetailsSupplier());
+        }
+
+        if (elements == null) {
+            // Typeset the foot note (again) for the current page
+            template = typesetFootNote(footNoteParagraphs.get(node.getId()), pageNumber);
+            footNoteTemplates.put(node.getId(), template);
+
+            elements = template.instantiate(pageNumber, config.getFontDetailsSupplier());
+        }
+
+        pushFootNote(elements);
+
+        footNoteNumber++;
+    }
+
+    /**
+     * Typeset the passed foot note paragraph lists for the page with the given number.
+     * Note that the context is not modified, so that multiple foot notes may be typeset concurrently.
+     *
+     * @param paragraphLists of the foot note
+     * @param pageNumber     number of the page to typeset the foot note for
+     * @return the typeset foot note elements ordered by their lower bound
+     * @throws TypeSettingException in case the foot note could not be typeset
+     */
+    private PageElementTemplate typesetFootNote(List<List<Paragraph>> paragraphLists, int pageNumber) throws TypeSettingException {
         List<Page> pages = typesettingFunction.apply(paragraphLists, new TypeSettingContext(
                 KnuthPlassTypeSettingConfig.newBuilder(config)
-                        .setPageNumberOffset(getCurrentPageNumber() - 1)
+                        .setPageNumberOffset(pageNumber - 1)
                         .setAllowHeadersAndFooters(false)
                         .build(),
                 document,
@@ -455,18 +772,13 @@ public class TypeSettingContext {
         Page page = pages.get(0);
 
         page.getElements().sort(Comparator.comparingDouble(e -> e.getPosition().getY() + e.getSize().getHeight()));
-        Element lastElement = page.getElements().get(page.getElements().size() - 1);
-        double height = lastElement.getPosition().getY() + lastElement.getSize().getHeight() - page.getInsets().getTop();
 
-        if (currentFootNotePageElements.isEmpty()) {
-            // Is first foot note being pushed
-            currentFootNoteElementsHeight += footNotesMarginTop + footNotesPaddingTop + footNotesLineSize;
+        List<AbstractElement> elements = new ArrayList<>(page.getElements().size());
+        for (Element element : page.getElements()) {
+            elements.add((AbstractElement) element);
         }
 
-        currentFootNotePageElements.add(page.getElements());
-        currentFootNoteElementsHeight += height;
-
-        footNoteNumber++;
+        return new PageElementTemplate(elements, pageNumber);
     }
 
     /**
@@ -512,6 +824,26 @@ public class TypeSettingContext {
         return null;
     }
 
+    /**
+     * Set the line breaking results of text paragraphs found ahead of the layout.
+     *
+     * @param precomputedLineBreakingResults to set
+     */
+    public void setPrecomputedLineBreakingResults(Map<Paragraph, KnuthPlassAlgorithm.LineBreakingResult> precomputedLineBreakingResults) {
+        this.precomputedLineBreakingResults = precomputedLineBreakingResults;
+    }
+
+    /**
+     * Take the line breaking result found ahead of the layout for the passed paragraph (if any).
+     *
+     * @param paragraph to get line breaking result for
+     * @return the line breaking result or null if there is none
+     */
+    @Nullable
+    public KnuthPlassAlgorithm.LineBreakingResult takePrecomputedLineBreakingResult(Paragraph paragraph) {
+        return precomputedLineBreakingResults.remove(paragraph);
+    }
+
     /**
      * Increase and get the current line number.
      */
@@ -545,10 +877,182 @@ public class TypeSettingContext {
      * @throws TypeSettingException in case the passed text could not be typset to pages properly
      */
     public List<Page> typesetThawTextFormat(String text, double width, @Nullable StyleModel customStyleModel) throws TypeSettingException {
-        // Parse Thaw document text format.
-        TextModel textModel;
+        TextModel textModel = parseThawTextFormat(text);
+        StyleModel styleModel = createNestedStyleModel(width, customStyleModel);
+
+        // Create Thaw document.
+        Document newDocument;
+        try {
+            newDocument = new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                    getDocument().getInfo(),
+                    textModel,
+                    styleModel,
+                    getDocument().getReferenceModel(),
+                    getDocument()
+            ));
+        } catch (DocumentBuildException e) {
+            throw new TypeSettingException(String.format(
+                    "Could not build a document for the following string written in the Thaw document text format: '%s'. Exception message was: %s",
+                    text,
+                    e.getMessage()
+            ), e);
+        }
+
+        // Typeset the document.
+        return typesetDocument(newDocument, createNestedConfig(width));
+    }
+
+    /**
+     * Typeset the passed string written in Thaw document text format (*.tdt) directly to page elements
+     * without building a nested document or typesetting context, which is way cheaper for short texts (for example table cells).
+     * The text is converted to text paragraphs that are broken into lines of the passed width using the Knuth-Plass algorithm.
+     * This is only possible for plain (optionally formatted) text without any thingies or enumerations.
+     *
+     * @param text       to typeset
+     * @param width      to use for typesetting (in printer points)
+     * @param styleModel the style model to use (see {@link #createNestedStyleModel(double, StyleModel)})
+     * @return the typeset elements (relative to the top left corner) or null if the text is not plain and needs to be typeset using {@link #typesetThawTextFormat(String, double, StyleModel)}
+     * @throws TypeSettingException in case the passed text could not be typeset properly
+     */
+    @Nullable
+    public List<Element> typesetPlainThawTextFormat(String text, double width, StyleModel styleModel) throws TypeSettingException {
+        TextModel textModel = isUnformattedText(text) ? createUnformattedTextModel(text) : parseThawTextFormat(text);
+        if (!isPlainText(textModel.getRoot())) {
+            return null;
+        }
+
+        // Create the document nodes of the paragraphs directly
+        DocumentBuildContext buildContext = new DocumentBuildContext(
+                getDocument().getInfo(),
+                textModel,
+                getDocument().getReferenceModel(),
+                styleModel
+        );
+        DocumentNode root = new DocumentNode(textModel.getRoot(), null, styleModel.select(new StyleSelectorBuilder().build()));
         try {
-            textModel = getConfig().getTextParser().parse(new StringReader(text));
+            for (Node box : textModel.getRoot().children()) {
+                buildContext.processBoxNode((BoxNode) box, root);
+            }
+        } catch (DocumentBuildException e) {
+            throw new TypeSettingException(String.format(
+                    "Could not build the paragraphs for the following string written in the Thaw document text format: '%s'. Exception message was: %s",
+                    text,
+                    e.getMessage()
+            ), e);
+        }
+
+        // Convert to text paragraphs
+        KnuthPlassTypeSettingConfig nestedConfig = createNestedConfig(width);
+
+        List<List<Paragraph>> paragraphLists;
+        try {
+            paragraphLists = new KnuthPlassConverter(root, nestedConfig).convert(getDocument());
+        } catch (DocumentConversionException e) {
+            throw new TypeSettingException("Could not convert the text into the Knuth-Plass algorithm format", e);
+        }
+
+        for (List<Paragraph> paragraphs : paragraphLists) {
+            for (Paragraph paragraph : paragraphs) {
+                if (paragraph.getType() != ParagraphType.TEXT || !TEXT_PARAGRAPH_HANDLER.canLayOutPlain((TextParagraph) paragraph)) {
+                    return null;
+                }
+            }
+        }
+
+        // Break the text paragraphs into lines of the passed width and lay them out
+        List<Element> elements = new ArrayList<>();
+        double y = nestedConfig.getPageInsets().getTop();
+        for (List<Paragraph> paragraphs : paragraphLists) {
+            for (Paragraph paragraph : paragraphs) {
+                y = TEXT_PARAGRAPH_HANDLER.layOutPlain((TextParagraph) paragraph, nestedConfig, y, getCurrentPageNumber(), elements);
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Check whether the passed string written in Thaw document text format (*.tdt) is a single line
+     * of text without any characters that may start formatted text, thingies, enumerations or escape sequences.
+     *
+     * @param text to check
+     * @return whether the text is unformatted
+     */
+    private static boolean isUnformattedText(String text) {
+        if (text.isBlank()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '*', '_', '`', '#', '\\', '\t', '\n', '\r' -> {
+                    return false;
+                }
+                case '-' -> {
+                    if (i == text.length() - 1 || text.charAt(i + 1) == ' ') {
+                        return false; // May be an enumeration item start
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Create the text model for the passed unformatted text (see {@link #isUnformattedText(String)})
+     * directly instead of parsing it, which results in the same single text node.
+     *
+     * @param text to create text model for
+     * @return the text model
+     */
+    private static TextModel createUnformattedTextModel(String text) {
+        RootNode root = new RootNode();
+
+        BoxNode box = new BoxNode();
+        root.addChild(box);
+
+        box.addChild(new TextNode(text, new TextPosition(1, 1, 1, text.length())));
+
+        return new TextModel(root);
+    }
+
+    /**
+     * Check whether the passed node only consists of paragraphs with (optionally formatted) text.
+     *
+     * @param node to check
+     * @return whether only plain text
+     */
+    private static boolean isPlainText(Node node) {
+        if (node.getType() != NodeType.ROOT
+                && node.getType() != NodeType.BOX
+                && node.getType() != NodeType.TEXT
+                && node.getType() != NodeType.FORMATTED) {
+            return false;
+        }
+
+        if (node.hasChildren()) {
+            for (Node child : node.children()) {
+                if (!isPlainText(child)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parse the passed string written in Thaw document text format (*.tdt).
+     *
+     * @param text to parse
+     * @return the parsed text model
+     * @throws TypeSettingException in case the text could not be parsed
+     */
+    private TextModel parseThawTextFormat(String text) throws TypeSettingException {
+        try {
+            return getConfig().getTextParser().parse(new StringReader(text));
         } catch (ParseException e) {
             throw new TypeSettingException(String.format(
                     "Could not parse the following string written in the Thaw document text format: '%s'. Exception message was: %s",
@@ -556,8 +1060,16 @@ public class TypeSettingContext {
                     e.getMessage()
             ), e);
         }
+    }
 
-        // Create style model to use.
+    /**
+     * Create the style model to typeset nested Thaw document text format strings with.
+     *
+     * @param width            to use for typesetting (in printer points)
+     * @param customStyleModel a custom style model to use
+     * @return the style model
+     */
+    public StyleModel createNestedStyleModel(double width, @Nullable StyleModel customStyleModel) {
         StyleModel styleModel = new DefaultStyleModel().merge(getDocument().getStyleModel());
         styleModel.addBlock(new StyleBlock(
                 new StyleSelectorBuilder().setTargetName("document").build(),
@@ -575,31 +1087,22 @@ public class TypeSettingContext {
             styleModel = customStyleModel.merge(styleModel);
         }
 
-        // Create Thaw document.
-        Document newDocument;
-        try {
-            newDocument = new DefaultDocumentBuilder().build(new DocumentBuildSource(
-                    getDocument().getInfo(),
-                    textModel,
-                    styleModel,
-                    getDocument().getReferenceModel(),
-                    getDocument()
-            ));
-        } catch (DocumentBuildException e) {
-            throw new TypeSettingException(String.format(
-                    "Could not build a document for the following string written in the Thaw document text format: '%s'. Exception message was: %s",
-                    text,
-                    e.getMessage()
-            ), e);
-        }
+        return styleModel;
+    }
 
-        // Typeset the document.
-        return typesetDocument(newDocument, KnuthPlassTypeSettingConfig.newBuilder(getConfig())
+    /**
+     * Create the configuration to typeset nested Thaw document text format strings with.
+     *
+     * @param width to use for typesetting (in printer points)
+     * @return the configuration
+     */
+    private KnuthPlassTypeSettingConfig createNestedConfig(double width) {
+        return KnuthPlassTypeSettingConfig.newBuilder(getConfig())
                 .setPageSize(new Size(width, Double.MAX_VALUE))
                 .setPageInsets(new Insets(0))
                 .setPageNumberOffset(getCurrentPageNumber() - 1)
                 .setAllowHeadersAndFooters(false)
-                .build());
+                .build();
     }
 
     /**
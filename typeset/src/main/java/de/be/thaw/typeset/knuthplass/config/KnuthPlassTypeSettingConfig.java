@@ -6,8 +6,11 @@ import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
 import de.be.thaw.typeset.knuthplass.config.util.image.ImageSourceSupplier;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingCache;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingReport;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Size;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.Properties;
@@ -105,6 +108,23 @@ public class KnuthPlassTypeSettingConfig {
      */
     private boolean allowHeadersAndFooters;
 
+    /**
+     * Cache for found line break points (or null if no caching should happen).
+     */
+    @Nullable
+    private final LineBreakingCache lineBreakingCache;
+
+    /**
+     * Whether to typeset the sections between explicit page breaks concurrently.
+     */
+    private final boolean typesetSectionsInParallel;
+
+    /**
+     * Report to add the paragraphs that needed the emergency line breaking pass to (or null if not reported).
+     */
+    @Nullable
+    private final LineBreakingReport lineBreakingReport;
+
     public KnuthPlassTypeSettingConfig(
             Size pageSize,
             Insets pageInsets,
@@ -122,7 +142,10 @@ public class KnuthPlassTypeSettingConfig {
             TextParser textParser,
             int pageNumberOffset,
             Properties properties,
-            boolean allowHeadersAndFooters
+            boolean allowHeadersAndFooters,
+            @Nullable LineBreakingCache lineBreakingCache,
+            boolean typesetSectionsInParallel,
+            @Nullable LineBreakingReport lineBreakingReport
     ) {
         if (fontDetailsSupplier == null) {
             throw new NullPointerException("Cannot build line breaking configuration as the font details supplier is null which is required to properly typeset");
@@ -177,6 +200,12 @@ public class KnuthPlassTypeSettingConfig {
         this.properties = properties;
 
         this.allowHeadersAndFooters = allowHeadersAndFooters;
+
+        this.lineBreakingCache = lineBreakingCache;
+
+        this.typesetSectionsInParallel = typesetSectionsInParallel;
+
+        this.lineBreakingReport = lineBreakingReport;
     }
 
     /**
@@ -345,6 +374,37 @@ public class KnuthPlassTypeSettingConfig {
         return allowHeadersAndFooters;
     }
 
+    /**
+     * Get the cache for found line break points.
+     *
+     * @return line breaking cache or null if no caching should happen
+     */
+    @Nullable
+    public LineBreakingCache getLineBreakingCache() {
+        return lineBreakingCache;
+    }
+
+    /**
+     * Check whether the sections between explicit page breaks should be typeset concurrently.
+     * The break points of text paragraphs and the foot notes are then prepared concurrently ahead of the layout as well.
+     * Note that the font details, image source and text parser need to be thread-safe in that case.
+     *
+     * @return whether to typeset sections in parallel
+     */
+    public boolean isTypesetSectionsInParallel() {
+        return typesetSectionsInParallel;
+    }
+
+    /**
+     * Get the report to add the paragraphs that needed the emergency line breaking pass to.
+     *
+     * @return line breaking report or null if not reported
+     */
+    @Nullable
+    public LineBreakingReport getLineBreakingReport() {
+        return lineBreakingReport;
+    }
+
     /**
      * Create a new builder for the line breaking configuration.
      *
@@ -369,7 +429,10 @@ public class KnuthPlassTypeSettingConfig {
                 .setTolerance(config.getTolerance())
                 .setPageNumberOffset(config.getPageNumberOffset())
                 .setProperties(config.getProperties())
-                .setAllowHeadersAndFooters(config.isAllowHeadersAndFooters());
+                .setAllowHeadersAndFooters(config.isAllowHeadersAndFooters())
+                .setLineBreakingCache(config.getLineBreakingCache())
+                .setTypesetSectionsInParallel(config.isTypesetSectionsInParallel())
+                .setLineBreakingReport(config.getLineBreakingReport());
     }
 
 }
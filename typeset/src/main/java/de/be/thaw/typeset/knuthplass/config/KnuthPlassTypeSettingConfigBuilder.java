@@ -6,6 +6,8 @@ import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
 import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
 import de.be.thaw.typeset.knuthplass.config.util.image.ImageSourceSupplier;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingCache;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingReport;
 import de.be.thaw.typeset.util.Insets;
 import de.be.thaw.util.Size;
 
@@ -138,6 +140,21 @@ public class KnuthPlassTypeSettingConfigBuilder {
      */
     private boolean allowHeadersAndFooters = true;
 
+    /**
+     * Cache for found line break points.
+     */
+    private LineBreakingCache lineBreakingCache;
+
+    /**
+     * Whether to typeset the sections between explicit page breaks concurrently.
+     */
+    private boolean typesetSectionsInParallel = false;
+
+    /**
+     * Report to add the paragraphs that needed the emergency line breaking pass to.
+     */
+    private LineBreakingReport lineBreakingReport;
+
     /**
      * Get the size of the page to typeset on (in mm).
      *
@@ -493,6 +510,72 @@ public class KnuthPlassTypeSettingConfigBuilder {
         return this;
     }
 
+    /**
+     * Get the cache for found line break points.
+     *
+     * @return line breaking cache
+     */
+    public LineBreakingCache getLineBreakingCache() {
+        return lineBreakingCache;
+    }
+
+    /**
+     * Set the cache for found line break points.
+     * No caching happens when not set.
+     *
+     * @param lineBreakingCache to set
+     * @return the builder
+     */
+    public KnuthPlassTypeSettingConfigBuilder setLineBreakingCache(LineBreakingCache lineBreakingCache) {
+        this.lineBreakingCache = lineBreakingCache;
+
+        return this;
+    }
+
+    /**
+     * Check whether the sections between explicit page breaks should be typeset concurrently.
+     *
+     * @return whether to typeset sections in parallel
+     */
+    public boolean isTypesetSectionsInParallel() {
+        return typesetSectionsInParallel;
+    }
+
+    /**
+     * Set whether the sections between explicit page breaks should be typeset concurrently.
+     * Disabled by default.
+     *
+     * @param typesetSectionsInParallel whether to typeset sections in parallel
+     * @return the builder
+     */
+    public KnuthPlassTypeSettingConfigBuilder setTypesetSectionsInParallel(boolean typesetSectionsInParallel) {
+        this.typesetSectionsInParallel = typesetSectionsInParallel;
+
+        return this;
+    }
+
+    /**
+     * Get the report to add the paragraphs that needed the emergency line breaking pass to.
+     *
+     * @return line breaking report
+     */
+    public LineBreakingReport getLineBreakingReport() {
+        return lineBreakingReport;
+    }
+
+    /**
+     * Set the report to add the paragraphs that needed the emergency line breaking pass to.
+     * No paragraphs are reported when not set.
+     *
+     * @param lineBreakingReport to set
+     * @return the builder
+     */
+    public KnuthPlassTypeSettingConfigBuilder setLineBreakingReport(LineBreakingReport lineBreakingReport) {
+        this.lineBreakingReport = lineBreakingReport;
+
+        return this;
+    }
+
 
     /**
      * Build the line breaking configuration.
@@ -517,7 +600,10 @@ public class KnuthPlassTypeSettingConfigBuilder {
                 getTextParser(),
                 getPageNumberOffset(),
                 getProperties(),
-                isAllowHeadersAndFooters()
+                isAllowHeadersAndFooters(),
+                getLineBreakingCache(),
+                isTypesetSectionsInParallel(),
+                getLineBreakingReport()
         );
     }
 
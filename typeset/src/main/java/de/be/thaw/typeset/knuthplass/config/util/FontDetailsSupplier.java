@@ -4,6 +4,7 @@ import de.be.thaw.core.document.node.DocumentNode;
 
 /**
  * Supplier for font details needed to properly typeset text.
+ * Implementations need to be thread-safe, as for example foot notes are typeset concurrently.
  */
 public interface FontDetailsSupplier {
 
@@ -29,6 +30,8 @@ public interface FontDetailsSupplier {
 
     /**
      * Collective metrics when measuring a string.
+     * Instances may be shared between multiple elements (see {@link StringMetricsCache})
+     * and thus must not be modified, including the kerning adjustments array.
      */
     class StringMetrics {
 
@@ -0,0 +1,195 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.font.ThawFont;
+import de.be.thaw.font.util.KerningMode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of string metrics to put in front of {@link FontDetailsSupplier#measureString(de.be.thaw.core.document.node.DocumentNode, int, String)}.
+ * Most words of a document (and especially hyphens and punctuation characters) are measured over and over again,
+ * which is why the metrics are cached by the resolved font, font size, preceding code point and string.
+ * <p>
+ * The cached metrics are shared between all lookups and must thus not be modified.
+ * The cache holds a bounded count of entries and evicts the least recently used ones.
+ * It is thread-safe.
+ */
+public class StringMetricsCache {
+
+    /**
+     * Default maximum count of cached string metrics.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 65536;
+
+    /**
+     * Maximum count of entries to keep.
+     */
+    private final int maxEntries;
+
+    /**
+     * Cached string metrics in least recently used order.
+     */
+    private final Map<Key, FontDetailsSupplier.StringMetrics> entries;
+
+    /**
+     * Count of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Count of lookups that needed to measure the string.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    public StringMetricsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FontDetailsSupplier.StringMetrics> eldest) {
+                return size() > StringMetricsCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the metrics of the passed string from the cache or measure them using the passed measurer.
+     *
+     * @param font        the string is measured with
+     * @param kerningMode the font is used with
+     * @param fontSize    the string is measured with
+     * @param charBefore  optional character before the passed string (may be -1)
+     * @param str         to get metrics for
+     * @param measurer    to measure the string with in case the metrics are not cached
+     * @return the (shared) string metrics
+     * @throws Exception in case the string could not be measured
+     */
+    public FontDetailsSupplier.StringMetrics get(
+            ThawFont font,
+            KerningMode kerningMode,
+            double fontSize,
+            int charBefore,
+            String str,
+            Measurer measurer
+    ) throws Exception {
+        Key key = new Key(font, kerningMode, fontSize, charBefore, str);
+
+        FontDetailsSupplier.StringMetrics metrics;
+        synchronized (entries) {
+            metrics = entries.get(key);
+        }
+
+        if (metrics != null) {
+            hits.increment();
+            return metrics;
+        }
+
+        misses.increment();
+        metrics = measurer.measure();
+
+        synchronized (entries) {
+            entries.put(key, metrics);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Get the count of lookups answered from the cache.
+     *
+     * @return hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the count of lookups that needed to measure the string.
+     *
+     * @return miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Measurer of a string not found in the cache.
+     */
+    @FunctionalInterface
+    public interface Measurer {
+
+        /**
+         * Measure the string.
+         *
+         * @return the string metrics
+         * @throws Exception in case the string could not be measured
+         */
+        FontDetailsSupplier.StringMetrics measure() throws Exception;
+
+    }
+
+    /**
+     * Key of cached string metrics.
+     */
+    private static class Key {
+
+        /**
+         * The font the string is measured with (compared by identity).
+         */
+        private final ThawFont font;
+
+        /**
+         * The kerning mode the font is used with.
+         */
+        private final KerningMode kerningMode;
+
+        /**
+         * Font size the string is measured with.
+         */
+        private final double fontSize;
+
+        /**
+         * Character before the string (or -1).
+         */
+        private final int charBefore;
+
+        /**
+         * The measured string.
+         */
+        private final String str;
+
+        public Key(ThawFont font, KerningMode kerningMode, double fontSize, int charBefore, String str) {
+            this.font = font;
+            this.kerningMode = kerningMode;
+            this.fontSize = fontSize;
+            this.charBefore = charBefore;
+            this.str = str;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return font == key.font
+                    && kerningMode == key.kerningMode
+                    && Double.compare(key.fontSize, fontSize) == 0
+                    && charBefore == key.charBefore
+                    && str.equals(key.str);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(font), kerningMode, fontSize, charBefore, str);
+        }
+
+    }
+
+}
@@ -19,7 +19,6 @@ import de.be.thaw.typeset.knuthplass.paragraph.impl.table.TableParagraph;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.table.ThawTableCell;
 import de.be.thaw.typeset.page.AbstractElement;
 import de.be.thaw.typeset.page.Element;
-import de.be.thaw.typeset.page.Page;
 import de.be.thaw.typeset.page.impl.RectangleElement;
 import de.be.thaw.typeset.page.util.LineStyle;
 import de.be.thaw.typeset.util.Insets;
@@ -30,10 +29,13 @@ import de.be.thaw.util.VerticalAlignment;
 import de.be.thaw.util.color.Color;
 import de.be.thaw.util.unit.Unit;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -79,6 +81,19 @@ public class TableParagraphHandler extends AbstractParagraphHandler {
             StyleType.PADDING_RIGHT
     );
 
+    /**
+     * Whether cells with the same text, styles and width share the same layout.
+     */
+    private final boolean cacheCellLayouts;
+
+    public TableParagraphHandler() {
+        this(true);
+    }
+
+    public TableParagraphHandler(boolean cacheCellLayouts) {
+        this.cacheCellLayouts = cacheCellLayouts;
+    }
+
     @Override
     public ParagraphType supportedType() {
         return ParagraphType.TABLE;
@@ -106,11 +121,12 @@ public class TableParagraphHandler extends AbstractParagraphHandler {
 
         List<ThawTableCell> cells = table.getCells();
         TypeSetCellInfo[] typeSetCellInfos = new TypeSetCellInfo[cells.size()];
+        CellLayoutCache layoutCache = new CellLayoutCache();
         for (int i = 0; i < cells.size(); i++) {
             ThawTableCell cell = cells.get(i);
 
             // Typeset the cell (does not yet add it to the page)
-            TypeSetCellInfo info = typeSetCell(cell, table.getBounds(cell.getSpan()), ctx);
+            TypeSetCellInfo info = typeSetCell(cell, table.getBounds(cell.getSpan()), layoutCache, ctx);
             typeSetCellInfos[i] = info;
 
             // Only set a new row size if the current row size is not specially set (fixed size)
@@ -241,13 +257,14 @@ public class TableParagraphHandler extends AbstractParagraphHandler {
     /**
      * Typeset the passed cell.
      *
-     * @param cell       to typeset contents of
-     * @param cellBounds bounds of the cell
-     * @param ctx        the typesetting context
+     * @param cell        to typeset contents of
+     * @param cellBounds  bounds of the cell
+     * @param layoutCache cache of already typeset cell contents of the table
+     * @param ctx         the typesetting context
      * @return the typeset cell information yet to be added to pages
      * @throws TypeSettingException in case the cell could not be typeset
      */
-    private TypeSetCellInfo typeSetCell(ThawTableCell cell, Bounds cellBounds, TypeSettingContext ctx) throws TypeSettingException {
+    private TypeSetCellInfo typeSetCell(ThawTableCell cell, Bounds cellBounds, CellLayoutCache layoutCache, TypeSettingContext ctx) throws TypeSettingException {
         // Fetch needed styles for the cell
         double marginTop = 0;
         double marginBottom = 0;
@@ -318,38 +335,32 @@ public class TableParagraphHandler extends AbstractParagraphHandler {
             borderRadius = new Insets(borderRadiusTop, borderRadiusRight, borderRadiusBottom, borderRadiusLeft);
         }
 
-        // Create style model for the cell
-        Map<StyleType, StyleValue> collectiveStyles = new HashMap<>();
-        if (cell.getStyles() != null) {
-            for (int i = cell.getStyles().getBlocks().size() - 1; i >= 0; i--) {
-                cell.getStyles().getBlocks().get(i).getStyles().entrySet().stream()
-                        .filter(entry -> !FORBIDDEN_CELL_TYPESETTING_STYLE_TYPES.contains(entry.getKey()))
-                        .forEach(entry -> collectiveStyles.put(entry.getKey(), entry.getValue()));
-            }
-        }
-
-        StyleModel styleModel = new DefaultStyleModel();
-        styleModel.addBlock(new StyleBlock(
-                new StyleSelectorBuilder().setTargetName("document").build(),
-                collectiveStyles
-        ));
-
-        // Typeset cell
+        // Typeset cell (or reuse the layout of a cell with the same text and styles)
         double typeSetWidth = cellBounds.getSize().getWidth() - marginLeft - marginRight - paddingLeft - paddingRight;
-        Page page = ctx.typesetThawTextFormat(
+        CellLayoutKey key = new CellLayoutKey(
                 cell.toString(),
-                typeSetWidth,
-                styleModel
-        ).get(0);
+                cell.getStyles() != null ? cell.getStyles().getBlocks() : Collections.emptyList(),
+                typeSetWidth
+        );
 
-        double typeSetHeight = 0;
-        for (Element element : page.getElements()) {
-            typeSetHeight = Math.max(typeSetHeight, element.getPosition().getY() + element.getSize().getHeight());
+        CellLayout layout = cacheCellLayouts ? layoutCache.getLayouts().get(key) : null;
+        if (layout == null) {
+            layout = layoutCell(cell, key, layoutCache, ctx);
+            if (cacheCellLayouts) {
+                layoutCache.getLayouts().put(key, layout);
+            }
+        }
+
+        // Copy the elements as they are positioned individually per cell
+        int pageNumber = ctx.getCurrentPageNumber();
+        List<Element> elements = new ArrayList<>(layout.getElements().size());
+        for (Element element : layout.getElements()) {
+            elements.add(((AbstractElement) element).copy(pageNumber));
         }
 
         return new TypeSetCellInfo(
-                page.getElements(),
-                new Size(typeSetWidth, typeSetHeight),
+                elements,
+                new Size(typeSetWidth, layout.getHeight()),
                 backgroundColor,
                 new Color[]{
                         borderTopColor,
@@ -371,6 +382,186 @@ public class TableParagraphHandler extends AbstractParagraphHandler {
         );
     }
 
+    /**
+     * Typeset the contents of the passed cell.
+     * Plain text cells are broken into lines directly, other cells are typeset as nested document.
+     *
+     * @param cell        to typeset contents of
+     * @param key         of the cell layout
+     * @param layoutCache cache of already typeset cell contents of the table
+     * @param ctx         the typesetting context
+     * @return the cell layout
+     * @throws TypeSettingException in case the cell could not be typeset
+     */
+    private CellLayout layoutCell(ThawTableCell cell, CellLayoutKey key, CellLayoutCache layoutCache, TypeSettingContext ctx) throws TypeSettingException {
+        // Create style model for the cell
+        StyleModel customStyleModel = layoutCache.getStyleModels().computeIfAbsent(key.getStyleBlocks(), styleBlocks -> {
+            Map<StyleType, StyleValue> collectiveStyles = new HashMap<>();
+            for (int i = styleBlocks.size() - 1; i >= 0; i--) {
+                styleBlocks.get(i).getStyles().entrySet().stream()
+                        .filter(entry -> !FORBIDDEN_CELL_TYPESETTING_STYLE_TYPES.contains(entry.getKey()))
+                        .forEach(entry -> collectiveStyles.put(entry.getKey(), entry.getValue()));
+            }
+
+            StyleModel styleModel = new DefaultStyleModel();
+            styleModel.addBlock(new StyleBlock(
+                    new StyleSelectorBuilder().setTargetName("document").build(),
+                    collectiveStyles
+            ));
+
+            return styleModel;
+        });
+
+        StyleModel nestedStyleModel = layoutCache.getNestedStyleModels()
+                .computeIfAbsent(key.getWidth(), width -> new HashMap<>())
+                .computeIfAbsent(key.getStyleBlocks(), styleBlocks -> ctx.createNestedStyleModel(key.getWidth(), customStyleModel));
+
+        List<Element> elements = ctx.typesetPlainThawTextFormat(
+                cell.toString(),
+                key.getWidth(),
+                nestedStyleModel
+        );
+        if (elements == null) {
+            elements = ctx.typesetThawTextFormat(
+                    cell.toString(),
+                    key.getWidth(),
+                    customStyleModel
+            ).get(0).getElements();
+        }
+
+        double typeSetHeight = 0;
+        for (Element element : elements) {
+            typeSetHeight = Math.max(typeSetHeight, element.getPosition().getY() + element.getSize().getHeight());
+        }
+
+        return new CellLayout(elements, typeSetHeight);
+    }
+
+    /**
+     * Cache of typeset cell contents of a table.
+     */
+    private static class CellLayoutCache {
+
+        /**
+         * Typeset cell contents by their key.
+         */
+        private final Map<CellLayoutKey, CellLayout> layouts = new HashMap<>();
+
+        /**
+         * Custom style models of the cells by their style blocks.
+         */
+        private final Map<List<StyleBlock>, StyleModel> styleModels = new HashMap<>();
+
+        /**
+         * Style models merged with the document style model by the typesetting width and the style blocks of the cell.
+         */
+        private final Map<Double, Map<List<StyleBlock>, StyleModel>> nestedStyleModels = new HashMap<>();
+
+        public Map<CellLayoutKey, CellLayout> getLayouts() {
+            return layouts;
+        }
+
+        public Map<List<StyleBlock>, StyleModel> getStyleModels() {
+            return styleModels;
+        }
+
+        public Map<Double, Map<List<StyleBlock>, StyleModel>> getNestedStyleModels() {
+            return nestedStyleModels;
+        }
+
+    }
+
+    /**
+     * Key of typeset cell contents.
+     * Cells with the same text, style blocks and width share the same layout.
+     */
+    private static class CellLayoutKey {
+
+        /**
+         * Text of the cell.
+         */
+        private final String text;
+
+        /**
+         * Style blocks of the cell (compared by identity).
+         */
+        private final List<StyleBlock> styleBlocks;
+
+        /**
+         * Width to typeset the cell contents with.
+         */
+        private final double width;
+
+        public CellLayoutKey(String text, List<StyleBlock> styleBlocks, double width) {
+            this.text = text;
+            this.styleBlocks = styleBlocks;
+            this.width = width;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<StyleBlock> getStyleBlocks() {
+            return styleBlocks;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            CellLayoutKey that = (CellLayoutKey) o;
+            return Double.compare(that.width, width) == 0
+                    && text.equals(that.text)
+                    && styleBlocks.equals(that.styleBlocks);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, styleBlocks, width);
+        }
+
+    }
+
+    /**
+     * Typeset contents of a cell.
+     */
+    private static class CellLayout {
+
+        /**
+         * The content elements (positioned relative to the cell contents origin).
+         */
+        private final List<Element> elements;
+
+        /**
+         * Height of the typeset contents.
+         */
+        private final double height;
+
+        public CellLayout(List<Element> elements, double height) {
+            this.elements = elements;
+            this.height = height;
+        }
+
+        public List<Element> getElements() {
+            return elements;
+        }
+
+        public double getHeight() {
+            return height;
+        }
+
+    }
+
     /**
      * Information about a already typeset cell.
      */
@@ -15,6 +15,7 @@ import de.be.thaw.text.model.tree.impl.TextNode;
 import de.be.thaw.typeset.exception.TypeSettingException;
 import de.be.thaw.typeset.knuthplass.KnuthPlassAlgorithm;
 import de.be.thaw.typeset.knuthplass.TypeSettingContext;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
 import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
 import de.be.thaw.typeset.knuthplass.exception.CouldNotFindFeasibleSolutionException;
 import de.be.thaw.typeset.knuthplass.item.Item;
@@ -32,8 +33,11 @@ import de.be.thaw.typeset.knuthplass.paragraph.handler.ParagraphTypesetHandler;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 import de.be.thaw.typeset.knuthplass.util.BreakPoint;
 import de.be.thaw.typeset.knuthplass.util.LineBreakingContext;
+import de.be.thaw.typeset.knuthplass.util.LineBreakingReport;
 import de.be.thaw.typeset.page.Element;
+import de.be.thaw.typeset.page.impl.LineNumberElement;
 import de.be.thaw.typeset.page.impl.MathExpressionElement;
+import de.be.thaw.typeset.page.impl.PageNumberElement;
 import de.be.thaw.typeset.page.impl.RectangleElement;
 import de.be.thaw.typeset.page.impl.TextElement;
 import de.be.thaw.typeset.page.util.LineStyle;
@@ -45,6 +49,7 @@ import de.be.thaw.util.color.Color;
 import de.be.thaw.util.debug.Debug;
 import de.be.thaw.util.unit.BaseUnit;
 import de.be.thaw.util.unit.Unit;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -60,7 +65,7 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
     /**
      * The worst quality the Knuth-Plass algorithm is allowed to output in.
      */
-    private static final int WORST_QUALITY = 5;
+    private static final int WORST_QUALITY = 4;
 
     /**
      * Logger for the class.
@@ -79,16 +84,7 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         // Fetch some paragraph styles
         Styles styles = paragraph.getNode().getStyles();
 
-        double lineHeight;
-        StyleValue lineHeightStyleValue = styles.resolve(StyleType.LINE_HEIGHT).orElseThrow();
-        if (lineHeightStyleValue.unit().getBaseUnit() == BaseUnit.UNITARY) {
-            // Is relative line-height -> Calculate line height from the font size
-            lineHeight = styles.resolve(StyleType.FONT_SIZE)
-                    .orElseThrow()
-                    .doubleValue(Unit.POINTS) * lineHeightStyleValue.doubleValue(Unit.UNITARY);
-        } else {
-            lineHeight = lineHeightStyleValue.doubleValue(Unit.POINTS);
-        }
+        final double lineHeight = getLineHeight(styles);
 
         final HorizontalAlignment alignment = styles.resolve(StyleType.TEXT_ALIGN).orElse(new HorizontalAlignmentStyleValue(HorizontalAlignment.LEFT)).horizontalAlignment();
         final boolean justify = styles.resolve(StyleType.TEXT_JUSTIFY).orElse(new BooleanStyleValue(true)).booleanValue();
@@ -111,9 +107,6 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT)
                 .orElseThrow()
                 .doubleValue(Unit.POINTS);
-        final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
 
         // Calculate paddings
         final double paddingTop = styles.resolve(StyleType.PADDING_TOP)
@@ -125,9 +118,6 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         final double paddingLeft = styles.resolve(StyleType.PADDING_LEFT)
                 .orElseThrow()
                 .doubleValue(Unit.POINTS);
-        final double paddingRight = styles.resolve(StyleType.PADDING_RIGHT)
-                .orElseThrow()
-                .doubleValue(Unit.POINTS);
 
         // Calculate some metrics
         double baseline;
@@ -146,45 +136,38 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         ctx.getPositionContext().setX(ctx.getConfig().getPageInsets().getLeft() + marginLeft + paddingLeft);
 
         // Check if we have a floating element nearby
-        if (ctx.getFloatConfig().getFloatUntilY() > ctx.getPositionContext().getY()) {
+        boolean isFloatAffected = ctx.getFloatConfig().getFloatUntilY() > ctx.getPositionContext().getY();
+        final int floatAffectedLineCount;
+        final double floatWidth;
+        if (isFloatAffected) {
             // Calculate count of lines that are affected by the floating paragraph
             double diff = ctx.getFloatConfig().getFloatUntilY() - ctx.getPositionContext().getY();
-            int lineCount = (int) Math.round(Math.min(diff, ctx.getAvailableHeight()) / lineHeight);
-
-            // Set a line width supplier that adjusts the line width for the affected lines
-            IntToDoubleFunction oldLineWidthSupplier = textParagraph.getLineWidthSupplier();
-            textParagraph.setLineWidthSupplier(lineNumber -> {
-                double oldLineWidth = oldLineWidthSupplier != null
-                        ? oldLineWidthSupplier.applyAsDouble(lineNumber)
-                        : textParagraph.getDefaultLineWidth();
-
-                if (lineNumber <= lineCount) {
-                    return oldLineWidth - ctx.getFloatConfig().getFloatWidth();
-                } else {
-                    return oldLineWidth;
-                }
-            });
+            floatAffectedLineCount = (int) Math.round(Math.min(diff, ctx.getAvailableHeight()) / lineHeight);
+            floatWidth = ctx.getFloatConfig().getFloatWidth();
+        } else {
+            floatAffectedLineCount = 0;
+            floatWidth = 0;
         }
 
-        // Reduce line width supplier line width by the paragraphs left and right indents
-        if (marginLeft != 0 || marginRight != 0 || paddingLeft != 0 || paddingRight != 0) {
-            final double reduceBy = marginLeft + marginRight + paddingLeft + paddingRight;
-            IntToDoubleFunction oldLineWidthSupplier = textParagraph.getLineWidthSupplier();
-            textParagraph.setLineWidthSupplier(lineNumber -> {
-                if (oldLineWidthSupplier != null) {
-                    return oldLineWidthSupplier.applyAsDouble(lineNumber) - reduceBy;
-                } else {
-                    return textParagraph.getDefaultLineWidth() - reduceBy;
-                }
-            });
-        }
+        // Reduce the paragraphs line widths by its left and right indents and the width of a floating element nearby.
+        // The paragraph itself is not modified, so that typesetting it again starts from the same line widths.
+        final double reduceBy = getHorizontalIndent(styles);
+        IntToDoubleFunction lineWidthFunction = lineNumber -> {
+            double lineWidth = textParagraph.getLineWidth(lineNumber) - reduceBy;
+
+            return lineNumber <= floatAffectedLineCount ? lineWidth - floatWidth : lineWidth;
+        };
 
         // Since not all items in the text paragraph have the correct width by now (For example the #PAGE# thingy items).
         // We need to set them to a reasonable estimation.
         fixItemWidthWithEstimations(textParagraph, ctx);
 
-        // Find the break points in the text paragraph to split the paragraph into lines with later
-        KnuthPlassAlgorithm.LineBreakingResult result = findBreakPoints(textParagraph, ctx);
+        // Find the break points in the text paragraph to split the paragraph into lines with later.
+        // Break points found ahead of time can only be used when no floating element changed the line widths.
+        KnuthPlassAlgorithm.LineBreakingResult result = ctx.takePrecomputedLineBreakingResult(textParagraph);
+        if (result == null || isFloatAffected) {
+            result = findBreakPoints(textParagraph, ctx.getConfig(), lineWidthFunction);
+        }
 
         // Split the text paragraph into lines using the previously computed break points
         List<List<Item>> lines = splitParagraphIntoLines(textParagraph, result);
@@ -245,7 +228,7 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
             fixItemWidthForLine(line, ctx);
 
             // Calculating some metrics describing the line in more detail
-            double lineWidth = textParagraph.getLineWidth(i + 1);
+            double lineWidth = lineWidthFunction.applyAsDouble(i + 1);
             LineMetrics lineMetrics = calculateLineMetrics(line);
 
             // Last item is glue with width 0 -> indicates explicit line break
@@ -300,8 +283,8 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
                     throw new TypeSettingException(e);
                 }
 
-                ctx.pushPageElement(new TextElement(
-                        lineNumberStr,
+                ctx.pushPageElement(new LineNumberElement(
+                        currentLineNumber,
                         lineNumberStrMetrics,
                         lineNumberDocumentNode,
                         ctx.getCurrentPageNumber(),
@@ -321,15 +304,15 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
                 if (item instanceof TextBox) {
                     TextBox tb = (TextBox) item;
 
-                    ctx.pushPageElement(new TextElement(
-                            tb.getText(),
-                            tb.getMetrics(),
-                            tb.getNode(),
-                            ctx.getCurrentPageNumber(),
-                            baseline,
-                            new Size(item.getWidth(), lineHeight),
-                            new Position(ctx.getPositionContext().getX(), ctx.getPositionContext().getY())
-                    ));
+                    Size size = new Size(item.getWidth(), lineHeight);
+                    Position position = new Position(ctx.getPositionContext().getX(), ctx.getPositionContext().getY());
+
+                    if (item instanceof PageNumberPlaceholderBox) {
+                        // Mark the page number, so that it can be exchanged when reusing the element (for example in headers and footers)
+                        ctx.pushPageElement(new PageNumberElement(tb.getText(), tb.getMetrics(), tb.getNode(), ctx.getCurrentPageNumber(), baseline, size, position));
+                    } else {
+                        ctx.pushPageElement(new TextElement(tb.getText(), tb.getMetrics(), tb.getNode(), ctx.getCurrentPageNumber(), baseline, size, position));
+                    }
 
                     ctx.getPositionContext().increaseX(item.getWidth());
                 } else if (item instanceof Penalty) {
@@ -378,6 +361,167 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
         ctx.getPositionContext().increaseY(marginBottom + paddingBottom);
     }
 
+    /**
+     * Check whether the passed text paragraph can be laid out without a typesetting context
+     * using {@link #layOutPlain(TextParagraph, KnuthPlassTypeSettingConfig, double, int, List)}.
+     * That is the case for paragraphs only containing (optionally formatted) text and
+     * neither showing line numbers nor a background or border.
+     *
+     * @param textParagraph to check
+     * @return whether the paragraph can be laid out without a typesetting context
+     */
+    public boolean canLayOutPlain(TextParagraph textParagraph) {
+        Styles styles = textParagraph.getNode().getStyles();
+        if (styles.resolve(StyleType.SHOW_LINE_NUMBERS).orElse(new BooleanStyleValue(false)).booleanValue()) {
+            return false;
+        }
+
+        if (styles.resolve(StyleType.BACKGROUND_COLOR).map(v -> v.colorValue().getAlpha() > 0.0).orElse(false)
+                || styles.resolve(StyleType.BORDER_TOP_WIDTH).map(v -> v.doubleValue(Unit.POINTS) > 0).orElse(false)
+                || styles.resolve(StyleType.BORDER_RIGHT_WIDTH).map(v -> v.doubleValue(Unit.POINTS) > 0).orElse(false)
+                || styles.resolve(StyleType.BORDER_BOTTOM_WIDTH).map(v -> v.doubleValue(Unit.POINTS) > 0).orElse(false)
+                || styles.resolve(StyleType.BORDER_LEFT_WIDTH).map(v -> v.doubleValue(Unit.POINTS) > 0).orElse(false)) {
+            return false;
+        }
+
+        for (Item item : textParagraph.items()) {
+            if (item instanceof EnumerationItemStartBox
+                    || item instanceof FootNoteBox
+                    || item instanceof PageNumberPlaceholderBox
+                    || item instanceof MathBox) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Lay out the passed text paragraph without a typesetting context (for example the contents of a table cell).
+     * The paragraph is broken into lines of its line width using the Knuth-Plass algorithm
+     * and laid out the same way {@link #handle(Paragraph, TypeSettingContext)} does on a page of unlimited height.
+     * Check whether that is possible using {@link #canLayOutPlain(TextParagraph)} first.
+     *
+     * @param textParagraph to lay out
+     * @param config        the type setting configuration
+     * @param y             offset to start the paragraph at
+     * @param pageNumber    number of the page the elements are placed on
+     * @param elements      to add the laid out elements to
+     * @return the y-offset after the paragraph
+     * @throws TypeSettingException in case the paragraph could not be laid out
+     */
+    public double layOutPlain(
+            TextParagraph textParagraph,
+            KnuthPlassTypeSettingConfig config,
+            double y,
+            int pageNumber,
+            List<Element> elements
+    ) throws TypeSettingException {
+        Styles styles = textParagraph.getNode().getStyles();
+
+        final double lineHeight = getLineHeight(styles);
+        final HorizontalAlignment alignment = styles.resolve(StyleType.TEXT_ALIGN).orElse(new HorizontalAlignmentStyleValue(HorizontalAlignment.LEFT)).horizontalAlignment();
+        final boolean justify = styles.resolve(StyleType.TEXT_JUSTIFY).orElse(new BooleanStyleValue(true)).booleanValue();
+
+        final double marginTop = styles.resolve(StyleType.MARGIN_TOP).orElseThrow().doubleValue(Unit.POINTS);
+        final double marginBottom = styles.resolve(StyleType.MARGIN_BOTTOM).orElseThrow().doubleValue(Unit.POINTS);
+        final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT).orElseThrow().doubleValue(Unit.POINTS);
+        final double paddingTop = styles.resolve(StyleType.PADDING_TOP).orElseThrow().doubleValue(Unit.POINTS);
+        final double paddingBottom = styles.resolve(StyleType.PADDING_BOTTOM).orElseThrow().doubleValue(Unit.POINTS);
+        final double paddingLeft = styles.resolve(StyleType.PADDING_LEFT).orElseThrow().doubleValue(Unit.POINTS);
+
+        double baseline;
+        double spaceWidth;
+        try {
+            baseline = config.getFontDetailsSupplier().measureString(textParagraph.getNode(), -1, "X").getHeight();
+            spaceWidth = config.getFontDetailsSupplier().getSpaceWidth(textParagraph.getNode());
+        } catch (Exception e) {
+            throw new TypeSettingException(e);
+        }
+
+        final double reduceBy = getHorizontalIndent(styles);
+        IntToDoubleFunction lineWidthFunction = lineNumber -> textParagraph.getLineWidth(lineNumber) - reduceBy;
+
+        List<List<Item>> lines = splitParagraphIntoLines(textParagraph, findBreakPoints(textParagraph, config, lineWidthFunction));
+
+        // End-line may contain no boxes -> filter those end-lines
+        if (lines.get(lines.size() - 1).stream().noneMatch(item -> item.getType() == ItemType.BOX)) {
+            lines.remove(lines.size() - 1);
+        }
+
+        y += marginTop + paddingTop;
+        final double startX = config.getPageInsets().getLeft() + marginLeft + paddingLeft;
+        for (int i = 0; i < lines.size(); i++) {
+            List<Item> line = lines.get(i);
+
+            double lineWidth = lineWidthFunction.applyAsDouble(i + 1);
+            LineMetrics lineMetrics = calculateLineMetrics(line);
+
+            // Last item is glue with width 0 -> indicates explicit line break
+            Item last = line.get(line.size() - 1);
+            boolean isExplicitLineBreakInLine = last.getType() == ItemType.GLUE && last.getWidth() == 0 && last.getStretchability() > 0;
+
+            boolean justifyLine = justify && !isExplicitLineBreakInLine && i < lines.size() - 1;
+            double lineSpaceWidth = justifyLine ? getJustifiedLineSpaceWidth(lineMetrics, lineWidth) : spaceWidth;
+
+            double x = startX;
+            if (!justifyLine) {
+                double restWidth = lineWidth - lineMetrics.getMinWidth() - lineMetrics.getWhiteSpaces() * lineSpaceWidth;
+
+                if (alignment == HorizontalAlignment.RIGHT) {
+                    x += restWidth;
+                } else if (alignment == HorizontalAlignment.CENTER) {
+                    x += restWidth / 2;
+                }
+            }
+
+            for (Item item : line) {
+                if (item instanceof TextBox) {
+                    TextBox tb = (TextBox) item;
+
+                    elements.add(new TextElement(tb.getText(), tb.getMetrics(), tb.getNode(), pageNumber, baseline, new Size(item.getWidth(), lineHeight), new Position(x, y)));
+                    x += item.getWidth();
+                } else if (item instanceof Penalty) {
+                    if (item.isFlagged() && item.getWidth() > 0) {
+                        // Is a hyphen because the width is bigger than 0 -> add the '-'-character
+                        Penalty penalty = (Penalty) item;
+
+                        elements.add(new TextElement(penalty.getReplacementString(), penalty.getMetrics(), penalty.getNode(), pageNumber, baseline, new Size(item.getWidth(), lineHeight), new Position(x, y)));
+                        x += item.getWidth();
+                    }
+                } else if (item instanceof Glue) {
+                    if (item.getWidth() > 0) { // Is a white space
+                        x += lineSpaceWidth;
+                    }
+                } else {
+                    x += item.getWidth();
+                }
+            }
+
+            y += lineHeight;
+        }
+
+        return y + marginBottom + paddingBottom;
+    }
+
+    /**
+     * Get the line height of a paragraph with the passed styles.
+     *
+     * @param styles of the paragraph
+     * @return line height (in printer points)
+     */
+    private double getLineHeight(Styles styles) {
+        StyleValue lineHeightStyleValue = styles.resolve(StyleType.LINE_HEIGHT).orElseThrow();
+        if (lineHeightStyleValue.unit().getBaseUnit() == BaseUnit.UNITARY) {
+            // Is relative line-height -> Calculate line height from the font size
+            return styles.resolve(StyleType.FONT_SIZE)
+                    .orElseThrow()
+                    .doubleValue(Unit.POINTS) * lineHeightStyleValue.doubleValue(Unit.UNITARY);
+        } else {
+            return lineHeightStyleValue.doubleValue(Unit.POINTS);
+        }
+    }
+
     /**
      * Push a rectangle element for the background if necessary.
      */
@@ -523,63 +667,151 @@ public class TextParagraphHandler implements ParagraphTypesetHandler {
     }
 
     /**
-     * Find break points for the passed paragraph.
+     * Find the break points of the passed paragraph ahead of laying it out.
+     * <p>
+     * The found break points are only valid as long as no floating element nearby changes
+     * the line widths of the paragraph during the layout.
+     * The paragraph is not modified, so that break points can be found for multiple paragraphs concurrently.
      *
      * @param textParagraph to find break points for
-     * @param ctx           the type setting context
+     * @param config        the type setting configuration
+     * @return the found break points or null in case the line breaking depends on the layout
+     */
+    @Nullable
+    public KnuthPlassAlgorithm.LineBreakingResult findBreakPointsAhead(TextParagraph textParagraph, KnuthPlassTypeSettingConfig config) {
+        for (Item item : textParagraph.items()) {
+            if (item instanceof PageNumberPlaceholderBox) {
+                return null; // Item width is estimated using the current page number during the layout
+            }
+        }
+
+        final double reduceBy = getHorizontalIndent(textParagraph.getNode().getStyles());
+
+        return findBreakPoints(textParagraph, config, lineNumber -> textParagraph.getLineWidth(lineNumber) - reduceBy);
+    }
+
+    /**
+     * Get the horizontal indent of a paragraph with the passed styles (left and right margins and paddings).
+     *
+     * @param styles of the paragraph
+     * @return horizontal indent
+     */
+    private double getHorizontalIndent(Styles styles) {
+        final double marginLeft = styles.resolve(StyleType.MARGIN_LEFT)
+                .orElseThrow()
+                .doubleValue(Unit.POINTS);
+        final double marginRight = styles.resolve(StyleType.MARGIN_RIGHT)
+                .orElseThrow()
+                .doubleValue(Unit.POINTS);
+        final double paddingLeft = styles.resolve(StyleType.PADDING_LEFT)
+                .orElseThrow()
+                .doubleValue(Unit.POINTS);
+        final double paddingRight = styles.resolve(StyleType.PADDING_RIGHT)
+                .orElseThrow()
+                .doubleValue(Unit.POINTS);
+
+        return marginLeft + marginRight + paddingLeft + paddingRight;
+    }
+
+    /**
+     * Find break points for the passed paragraph.
+     *
+     * @param textParagraph     to find break points for
+     * @param config            the type setting configuration
+     * @param lineWidthFunction delivering the required line width for a line number
      * @return the found break points
-     * @throws TypeSettingException in case the algorithm could not find a feasible solution
      */
-    private KnuthPlassAlgorithm.LineBreakingResult findBreakPoints(TextParagraph textParagraph, TypeSettingContext ctx) throws TypeSettingException {
-        // Do the line breaking. Try several quality levels in case it does not work.
-        for (int quality = 0; quality < WORST_QUALITY; quality++) {
-            KnuthPlassAlgorithm algorithm = new KnuthPlassAlgorithm(ctx.getConfig(), quality);
+    private KnuthPlassAlgorithm.LineBreakingResult findBreakPoints(
+            TextParagraph textParagraph,
+            KnuthPlassTypeSettingConfig config,
+            IntToDoubleFunction lineWidthFunction
+    ) {
+        // Do the line breaking. The algorithm will try the worst quality in an emergency pass in case it does not work.
+        KnuthPlassAlgorithm algorithm = new KnuthPlassAlgorithm(config, WORST_QUALITY);
 
-            try {
-                return algorithm.findBreakPoints(textParagraph);
-            } catch (CouldNotFindFeasibleSolutionException e) {
-                if (quality == WORST_QUALITY - 1) {
-                    if (Debug.isDebug()) {
-                        LOGGER.log(Level.INFO, String.format(
-                                "Paragraph at %s could not be split into lines properly using the Knuth-Plass algorithm. Instead using the first-fit algorithm now.",
-                                textParagraph.getNode() != null && textParagraph.getNode().getTextNode() != null ? textParagraph.getNode().getTextNode().getTextPosition() : "UNKNOWN"
-                        ));
-                    }
+        try {
+            KnuthPlassAlgorithm.LineBreakingResult result = algorithm.findBreakPoints(textParagraph, lineWidthFunction);
 
-                    // Do the first-fit algorithm instead
-                    int currentLineNumber = 1;
-                    double lineWidth = textParagraph.getLineWidth(currentLineNumber);
-                    double currentWidth = 0;
-                    List<BreakPoint> breakPoints = new ArrayList<>();
-                    int lastPossibleLineBreakIndex = 0;
-                    for (int i = 0; i < textParagraph.items().size(); i++) {
-                        Item item = textParagraph.items().get(i);
+            if (result.isEmergency()) {
+                reportEmergency(textParagraph, config, result.getContext().getLineBreakingQuality(), false);
 
-                        boolean forceLineBreak = false;
-                        if (item.getType() == ItemType.PENALTY || item.getType() == ItemType.GLUE) {
-                            lastPossibleLineBreakIndex = i;
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.INFO, String.format(
+                            "Paragraph at %s could not be split into lines with the best quality. Needed the emergency pass with quality level %d.",
+                            getTextPosition(textParagraph),
+                            result.getContext().getLineBreakingQuality()
+                    ));
+                }
+            }
 
-                            forceLineBreak = item instanceof Penalty && ((Penalty) item).isMandatoryLineBreak();
-                        }
+            return result;
+        } catch (CouldNotFindFeasibleSolutionException e) {
+            reportEmergency(textParagraph, config, WORST_QUALITY, true);
 
-                        if (forceLineBreak || currentWidth + item.getWidth() > lineWidth) {
-                            breakPoints.add(new BreakPoint(lastPossibleLineBreakIndex));
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.INFO, String.format(
+                        "Paragraph at %s could not be split into lines properly using the Knuth-Plass algorithm. Instead using the first-fit algorithm now.",
+                        getTextPosition(textParagraph)
+                ));
+            }
 
-                            lineWidth = textParagraph.getLineWidth(++currentLineNumber);
-                            currentWidth = 0;
-                        }
+            // Do the first-fit algorithm instead
+            int currentLineNumber = 1;
+            double lineWidth = lineWidthFunction.applyAsDouble(currentLineNumber);
+            double currentWidth = 0;
+            List<BreakPoint> breakPoints = new ArrayList<>();
+            int lastPossibleLineBreakIndex = 0;
+            for (int i = 0; i < textParagraph.items().size(); i++) {
+                Item item = textParagraph.items().get(i);
 
-                        currentWidth += item.getWidth();
-                    }
+                boolean forceLineBreak = false;
+                if (item.getType() == ItemType.PENALTY || item.getType() == ItemType.GLUE) {
+                    lastPossibleLineBreakIndex = i;
 
-                    return new KnuthPlassAlgorithm.LineBreakingResult(
-                            breakPoints, new LineBreakingContext(textParagraph,
-                            Integer.MAX_VALUE));
+                    forceLineBreak = item instanceof Penalty && ((Penalty) item).isMandatoryLineBreak();
                 }
+
+                if (forceLineBreak || currentWidth + item.getWidth() > lineWidth) {
+                    breakPoints.add(new BreakPoint(lastPossibleLineBreakIndex));
+
+                    lineWidth = lineWidthFunction.applyAsDouble(++currentLineNumber);
+                    currentWidth = 0;
+                }
+
+                currentWidth += item.getWidth();
             }
+
+            return new KnuthPlassAlgorithm.LineBreakingResult(
+                    breakPoints, new LineBreakingContext(textParagraph, lineWidthFunction,
+                    Integer.MAX_VALUE), true);
         }
+    }
+
+    /**
+     * Report that the passed paragraph needed the emergency pass to the line breaking report (if any).
+     *
+     * @param textParagraph that needed the emergency pass
+     * @param config        the type setting configuration
+     * @param quality       the line breaking quality level used
+     * @param firstFit      whether the first-fit algorithm has been used
+     */
+    private void reportEmergency(TextParagraph textParagraph, KnuthPlassTypeSettingConfig config, int quality, boolean firstFit) {
+        LineBreakingReport report = config.getLineBreakingReport();
+        if (report != null) {
+            report.reportEmergency(textParagraph, getTextPosition(textParagraph), quality, firstFit);
+        }
+    }
 
-        throw new TypeSettingException();
+    /**
+     * Get a description of the position of the passed paragraph in the source text.
+     *
+     * @param textParagraph to get position of
+     * @return the position description
+     */
+    private String getTextPosition(TextParagraph textParagraph) {
+        return textParagraph.getNode() != null && textParagraph.getNode().getTextNode() != null
+                ? String.valueOf(textParagraph.getNode().getTextNode().getTextPosition())
+                : "UNKNOWN";
     }
 
     /**
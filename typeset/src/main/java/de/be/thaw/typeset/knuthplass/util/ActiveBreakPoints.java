@@ -0,0 +1,236 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import java.util.Arrays;
+
+/**
+ * Active break points of the Knuth-Plass algorithm bucketed by the line number
+ * of the line ending at the break point.
+ * <p>
+ * Each bucket holds at most one break point, since activating a break point
+ * replaces the first active break point with an equal or greater line number.
+ * The non-empty buckets are chained in ascending line number order using
+ * primitive arrays, so that removal and iteration are O(1) per break point.
+ * Insertion is O(1) as well, except for skipping empty buckets when looking for
+ * the active break point to replace.
+ * <p>
+ * Iterate using the line numbers as cursor:
+ * <pre>
+ * for (int line = active.first(); line != ActiveBreakPoints.NONE; line = active.next(line)) {
+ *     BreakPoint breakPoint = active.get(line);
+ * }
+ * </pre>
+ */
+public class ActiveBreakPoints {
+
+    /**
+     * Cursor value signalling that there is no (further) active break point.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Initial bucket capacity.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Active break point per line number (or null if the bucket is empty).
+     */
+    private BreakPoint[] breakPoints = new BreakPoint[INITIAL_CAPACITY];
+
+    /**
+     * Next non-empty line number per non-empty line number.
+     */
+    private int[] next = new int[INITIAL_CAPACITY];
+
+    /**
+     * Previous non-empty line number per non-empty line number.
+     */
+    private int[] previous = new int[INITIAL_CAPACITY];
+
+    /**
+     * Lowest line number with an active break point.
+     */
+    private int first = NONE;
+
+    /**
+     * Highest line number with an active break point.
+     */
+    private int last = NONE;
+
+    /**
+     * Count of active break points.
+     */
+    private int size = 0;
+
+    /**
+     * Activate the passed break point.
+     * The first active break point with an equal or greater line number is replaced by it.
+     * Activating an already active break point does nothing.
+     *
+     * @param breakPoint to activate
+     * @return the replaced break point or null if no break point has been replaced
+     */
+    public BreakPoint activate(BreakPoint breakPoint) {
+        int line = breakPoint.getLineNumber();
+        ensureCapacity(line);
+
+        BreakPoint existing = breakPoints[line];
+        if (existing != null) {
+            // Replace the break point in the bucket (if it is not the same break point already)
+            breakPoints[line] = breakPoint;
+            return existing != breakPoint ? existing : null;
+        }
+
+        // Find the first non-empty bucket with a greater line number
+        int successor = NONE;
+        if (last > line) {
+            successor = line + 1;
+            while (breakPoints[successor] == null) {
+                successor++;
+            }
+        }
+
+        BreakPoint replaced = null;
+        if (successor != NONE) {
+            // Replace the active break point of the successor by the new one
+            replaced = breakPoints[successor];
+
+            int predecessor = previous[successor];
+            unlink(successor);
+            link(line, predecessor);
+        } else {
+            link(line, last);
+        }
+
+        breakPoints[line] = breakPoint;
+        size++;
+
+        return replaced;
+    }
+
+    /**
+     * Deactivate the passed break point (if it is active).
+     *
+     * @param breakPoint to deactivate
+     */
+    public void deactivate(BreakPoint breakPoint) {
+        int line = breakPoint.getLineNumber();
+        if (line < breakPoints.length && breakPoints[line] == breakPoint) {
+            unlink(line);
+        }
+    }
+
+    /**
+     * Get the line number of the first active break point.
+     *
+     * @return line number cursor or {@link #NONE} if there are no active break points
+     */
+    public int first() {
+        return first;
+    }
+
+    /**
+     * Get the line number of the active break point following the one with the passed line number.
+     *
+     * @param line cursor to get the next one for
+     * @return line number cursor or {@link #NONE} if there is no further active break point
+     */
+    public int next(int line) {
+        return next[line];
+    }
+
+    /**
+     * Get the active break point for the passed line number cursor.
+     *
+     * @param line cursor to get break point for
+     * @return the active break point
+     */
+    public BreakPoint get(int line) {
+        return breakPoints[line];
+    }
+
+    /**
+     * Get the count of active break points.
+     *
+     * @return count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether there are no active break points.
+     *
+     * @return whether empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Link the bucket with the passed line number after the given predecessor.
+     *
+     * @param line        to link
+     * @param predecessor to link after (or {@link #NONE} to link as first bucket)
+     */
+    private void link(int line, int predecessor) {
+        int successor = predecessor == NONE ? first : next[predecessor];
+
+        previous[line] = predecessor;
+        next[line] = successor;
+
+        if (predecessor == NONE) {
+            first = line;
+        } else {
+            next[predecessor] = line;
+        }
+
+        if (successor == NONE) {
+            last = line;
+        } else {
+            previous[successor] = line;
+        }
+    }
+
+    /**
+     * Remove the bucket with the passed line number from the chain and empty it.
+     *
+     * @param line to unlink
+     */
+    private void unlink(int line) {
+        int predecessor = previous[line];
+        int successor = next[line];
+
+        if (predecessor == NONE) {
+            first = successor;
+        } else {
+            next[predecessor] = successor;
+        }
+
+        if (successor == NONE) {
+            last = predecessor;
+        } else {
+            previous[successor] = predecessor;
+        }
+
+        breakPoints[line] = null;
+        size--;
+    }
+
+    /**
+     * Make sure the bucket arrays are able to hold the passed line number.
+     *
+     * @param line to hold
+     */
+    private void ensureCapacity(int line) {
+        if (line < breakPoints.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(breakPoints.length * 2, line + 1);
+        breakPoints = Arrays.copyOf(breakPoints, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        previous = Arrays.copyOf(previous, newCapacity);
+    }
+
+}
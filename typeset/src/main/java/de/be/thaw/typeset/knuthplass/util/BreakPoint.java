@@ -30,6 +30,12 @@ public class BreakPoint {
      */
     private BreakPoint previous;
 
+    /**
+     * Item index of the legal break point at which this break point has been deactivated
+     * or replaced ({@link Integer#MAX_VALUE} as long as it is active).
+     */
+    private int deactivationIndex = Integer.MAX_VALUE;
+
     public BreakPoint(int index) {
         this.index = index;
     }
@@ -70,4 +76,12 @@ public class BreakPoint {
         this.previous = previous;
     }
 
+    public int getDeactivationIndex() {
+        return deactivationIndex;
+    }
+
+    public void setDeactivationIndex(int deactivationIndex) {
+        this.deactivationIndex = deactivationIndex;
+    }
+
 }
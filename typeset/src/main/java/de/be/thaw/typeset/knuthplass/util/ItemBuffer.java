@@ -0,0 +1,279 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.ItemType;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Packed representation of the items of a paragraph used by the Knuth-Plass line breaking algorithm.
+ * <p>
+ * The metrics of the items are stored in parallel primitive arrays along with their
+ * prefix sums, so that the algorithm does not need to access the item objects
+ * (which are only needed for the layout of the lines afterwards).
+ */
+public class ItemBuffer {
+
+    /**
+     * Flag bits describing the item type.
+     */
+    private static final byte TYPE_MASK = 0b0000_0011;
+
+    /**
+     * Type bits for boxes.
+     */
+    private static final byte TYPE_BOX = 0;
+
+    /**
+     * Type bits for glues.
+     */
+    private static final byte TYPE_GLUE = 1;
+
+    /**
+     * Type bits for penalties.
+     */
+    private static final byte TYPE_PENALTY = 2;
+
+    /**
+     * Flag bit set when the item is flagged.
+     */
+    private static final byte FLAGGED = 0b0000_0100;
+
+    /**
+     * Flag bit set when the item is a penalty forcing a line break.
+     */
+    private static final byte MANDATORY_BREAK = 0b0000_1000;
+
+    /**
+     * Flag bit set when the item is a legal break point.
+     */
+    private static final byte LEGAL_BREAK = 0b0001_0000;
+
+    /**
+     * Count of items in the buffer.
+     */
+    private final int size;
+
+    /**
+     * Widths of the items.
+     */
+    private final double[] widths;
+
+    /**
+     * Penalties of the items.
+     */
+    private final double[] penalties;
+
+    /**
+     * Type and flag bits of the items.
+     */
+    private final byte[] flags;
+
+    /**
+     * Total widths of the items until (and including) an index.
+     */
+    private final double[] totalWidths;
+
+    /**
+     * Total stretchabilities of the items until (and including) an index.
+     */
+    private final double[] totalStretches;
+
+    /**
+     * Total shrinkabilities of the items until (and including) an index.
+     */
+    private final double[] totalShrinks;
+
+    public ItemBuffer(List<Item> items) {
+        size = items.size();
+
+        widths = new double[size];
+        penalties = new double[size];
+        flags = new byte[size];
+        totalWidths = new double[size];
+        totalStretches = new double[size];
+        totalShrinks = new double[size];
+
+        double totalWidth = 0;
+        double totalStretch = 0;
+        double totalShrink = 0;
+
+        byte previousType = -1;
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i);
+
+            double width = item.getWidth();
+            double penalty = item.getPenalty();
+
+            byte type = toTypeBits(item.getType());
+            byte flag = type;
+            if (item.isFlagged()) {
+                flag |= FLAGGED;
+            }
+            if (type == TYPE_PENALTY) {
+                if (penalty <= Penalty.MIN_PENALTY) {
+                    flag |= MANDATORY_BREAK;
+                }
+                if (penalty < Penalty.MAX_PENALTY) {
+                    flag |= LEGAL_BREAK;
+                }
+            } else if (type == TYPE_GLUE && previousType == TYPE_BOX) {
+                flag |= LEGAL_BREAK;
+            }
+
+            widths[i] = width;
+            penalties[i] = penalty;
+            flags[i] = flag;
+
+            totalWidth += width;
+            totalStretch += item.getStretchability();
+            totalShrink += item.getShrinkability();
+
+            totalWidths[i] = totalWidth;
+            totalStretches[i] = totalStretch;
+            totalShrinks[i] = totalShrink;
+
+            previousType = type;
+        }
+    }
+
+    /**
+     * Convert the passed item type to its type bits.
+     *
+     * @param type to convert
+     * @return type bits
+     */
+    private static byte toTypeBits(ItemType type) {
+        return switch (type) {
+            case BOX -> TYPE_BOX;
+            case GLUE -> TYPE_GLUE;
+            case PENALTY -> TYPE_PENALTY;
+        };
+    }
+
+    /**
+     * Get the count of items in the buffer.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the width of the item at the passed index.
+     *
+     * @param index of the item
+     * @return width
+     */
+    public double getWidth(int index) {
+        return widths[index];
+    }
+
+    /**
+     * Get the penalty of the item at the passed index.
+     *
+     * @param index of the item
+     * @return penalty
+     */
+    public double getPenalty(int index) {
+        return penalties[index];
+    }
+
+    /**
+     * Check whether the item at the passed index is a penalty.
+     *
+     * @param index of the item
+     * @return whether a penalty
+     */
+    public boolean isPenalty(int index) {
+        return (flags[index] & TYPE_MASK) == TYPE_PENALTY;
+    }
+
+    /**
+     * Check whether the item at the passed index is flagged.
+     *
+     * @param index of the item
+     * @return whether flagged
+     */
+    public boolean isFlagged(int index) {
+        return (flags[index] & FLAGGED) != 0;
+    }
+
+    /**
+     * Check whether the item at the passed index is a penalty forcing a line break.
+     *
+     * @param index of the item
+     * @return whether a mandatory line break
+     */
+    public boolean isMandatoryLineBreak(int index) {
+        return (flags[index] & MANDATORY_BREAK) != 0;
+    }
+
+    /**
+     * Check whether the item at the passed index is a legal break point.
+     * That is either a glue directly following a box or a penalty that does not prohibit breaking.
+     *
+     * @param index of the item
+     * @return whether a legal break point
+     */
+    public boolean isLegalBreakPoint(int index) {
+        return (flags[index] & LEGAL_BREAK) != 0;
+    }
+
+    /**
+     * Get the total width until (and including) the given index.
+     *
+     * @param index to get total width for
+     * @return total width
+     */
+    public double getTotalWidth(int index) {
+        return totalWidths[index];
+    }
+
+    /**
+     * Get the total stretchability until (and including) the given index.
+     *
+     * @param index to get total stretchability for
+     * @return total stretchability
+     */
+    public double getTotalStretch(int index) {
+        return totalStretches[index];
+    }
+
+    /**
+     * Get the total shrinkability until (and including) the given index.
+     *
+     * @param index to get total shrinkability for
+     * @return total shrinkability
+     */
+    public double getTotalShrink(int index) {
+        return totalShrinks[index];
+    }
+
+    /**
+     * Update the passed digest with all item metrics relevant to the line breaking.
+     *
+     * @param digest to update
+     */
+    void digest(MessageDigest digest) {
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + size * (5 * Double.BYTES + 1));
+
+        bytes.putInt(size);
+        for (int i = 0; i < size; i++) {
+            bytes.putDouble(widths[i]);
+            bytes.putDouble(penalties[i]);
+            bytes.putDouble(totalWidths[i]);
+            bytes.putDouble(totalStretches[i]);
+            bytes.putDouble(totalShrinks[i]);
+            bytes.put(flags[i]);
+        }
+
+        bytes.flip();
+        digest.update(bytes);
+    }
+
+}
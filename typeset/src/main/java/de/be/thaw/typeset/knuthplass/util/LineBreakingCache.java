@@ -0,0 +1,435 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.util.debug.Debug;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache for the break point indices found by the Knuth-Plass line breaking algorithm.
+ * <p>
+ * Entries are keyed by a hash of the packed item metrics of a paragraph and the line breaking
+ * settings. Since the count of lines is not known beforehand, each entry additionally stores the
+ * line widths of all lines the algorithm looked at, which need to match the line width function
+ * of a paragraph for the entry to be used.
+ * <p>
+ * The cache holds a bounded count of entries in memory and evicts the least recently used ones.
+ * It may be backed by a directory in the project-specific cache folder to survive between runs.
+ */
+public class LineBreakingCache {
+
+    /**
+     * Logger of the cache.
+     */
+    private static final Logger LOGGER = Logger.getLogger(LineBreakingCache.class.getSimpleName());
+
+    /**
+     * Name of the folder in the project-specific cache directory.
+     */
+    public static final String CACHE_LOCATION = "line-breaking";
+
+    /**
+     * Version of the cache.
+     * When the versions mismatch, the cache will have to be invalidated.
+     */
+    private static final int CACHE_VERSION = 2;
+
+    /**
+     * Name of the file holding the cache entries.
+     */
+    private static final String CACHE_FILE_NAME = "break-points";
+
+    /**
+     * Default maximum count of cached paragraphs.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 8192;
+
+    /**
+     * Maximum count of entries to keep.
+     */
+    private final int maxEntries;
+
+    /**
+     * Cached entries in least recently used order.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Directory to persist the cache in (or null if only held in memory).
+     */
+    @Nullable
+    private final File cacheDir;
+
+    /**
+     * Whether the cache changed since it has been loaded.
+     */
+    private boolean modified = false;
+
+    /**
+     * Create a cache held in memory only.
+     *
+     * @param maxEntries maximum count of entries to keep
+     */
+    public LineBreakingCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * Create a cache that is persisted in the passed project-specific cache directory.
+     * Already persisted entries are loaded immediately.
+     *
+     * @param maxEntries      maximum count of entries to keep
+     * @param projectCacheDir the project-specific cache directory (or null to hold the cache in memory only)
+     */
+    public LineBreakingCache(int maxEntries, @Nullable File projectCacheDir) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LineBreakingCache.this.maxEntries;
+            }
+        };
+
+        cacheDir = projectCacheDir != null ? createCacheDir(new File(projectCacheDir, CACHE_LOCATION)) : null;
+        if (cacheDir != null) {
+            try {
+                load();
+            } catch (IOException e) {
+                // The cache is only an optimization, so we start with an empty one instead
+                entries.clear();
+
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.WARNING, String.format(
+                            "Could not load the line breaking cache from '%s'. Starting with an empty cache.",
+                            cacheDir.getAbsolutePath()
+                    ), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the passed cache directory (if it does not exist yet).
+     *
+     * @param dir to create
+     * @return the directory or null in case it could not be created and the cache is to be held in memory only
+     */
+    @Nullable
+    private static File createCacheDir(File dir) {
+        try {
+            Files.createDirectories(dir.toPath());
+
+            return dir;
+        } catch (IOException e) {
+            if (Debug.isDebug()) {
+                LOGGER.log(Level.WARNING, String.format(
+                        "Could not create the line breaking cache directory at '%s'. Holding the cache in memory only.",
+                        dir.getAbsolutePath()
+                ), e);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Generate the key of a paragraph for the passed item metrics and configuration.
+     *
+     * @param buffer       packed item metrics of the paragraph
+     * @param config       the type setting configuration
+     * @param worstQuality worst quality level the algorithm is allowed to use
+     * @return the key
+     */
+    public static String generateKey(ItemBuffer buffer, KnuthPlassTypeSettingConfig config, int worstQuality) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        buffer.digest(digest);
+
+        ByteBuffer settings = ByteBuffer.allocate(2 * Integer.BYTES + 3 * Double.BYTES);
+        settings.putInt(config.getLooseness());
+        settings.putInt(worstQuality);
+        settings.putDouble(config.getTolerance());
+        settings.putDouble(config.getFlaggedDemerit());
+        settings.putDouble(config.getFitnessDemerit());
+        settings.flip();
+        digest.update(settings);
+
+        try (Formatter formatter = new Formatter()) {
+            for (byte b : digest.digest()) {
+                formatter.format("%02X", b);
+            }
+            return formatter.toString();
+        }
+    }
+
+    /**
+     * Get the cached entry for the passed key.
+     * The entry is only returned when the line widths it has been computed with
+     * match the passed line width function.
+     *
+     * @param key               of the paragraph
+     * @param lineWidthFunction delivering the required line width for a line number
+     * @return the cached entry or null
+     */
+    @Nullable
+    public Entry get(String key, IntToDoubleFunction lineWidthFunction) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            return null;
+        }
+
+        double[] lineWidths = entry.getLineWidths();
+        for (int i = 0; i < lineWidths.length; i++) {
+            if (Double.compare(lineWidths[i], lineWidthFunction.applyAsDouble(i + 1)) != 0) {
+                return null;
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Put an entry in the cache.
+     *
+     * @param key   of the paragraph
+     * @param entry to cache
+     */
+    public void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+            modified = true;
+        }
+    }
+
+    /**
+     * Persist the cache in the project-specific cache directory (if any).
+     * Nothing is written when the cache has not changed since it has been loaded.
+     *
+     * @throws IOException in case the cache file could not be written
+     */
+    public void persist() throws IOException {
+        if (cacheDir == null) {
+            return;
+        }
+
+        List<Map.Entry<String, Entry>> toWrite;
+        synchronized (entries) {
+            if (!modified) {
+                return;
+            }
+
+            toWrite = new ArrayList<>(entries.entrySet());
+            modified = false;
+        }
+
+        // Write to a temporary file unique to this writer first to not leave a broken cache file behind
+        File cacheFile = new File(cacheDir, CACHE_FILE_NAME);
+        Path tmpFile = Files.createTempFile(cacheDir.toPath(), CACHE_FILE_NAME, ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmpFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(CACHE_VERSION);
+                out.writeInt(toWrite.size());
+
+                // Written in least recently used order so that loading restores the order
+                for (Map.Entry<String, Entry> mapEntry : toWrite) {
+                    Entry entry = mapEntry.getValue();
+
+                    out.writeUTF(mapEntry.getKey());
+                    out.writeInt(entry.getLineBreakingQuality());
+
+                    out.writeInt(entry.getLineWidths().length);
+                    for (double lineWidth : entry.getLineWidths()) {
+                        out.writeDouble(lineWidth);
+                    }
+
+                    out.writeInt(entry.getBreakPointIndices().length);
+                    for (int index : entry.getBreakPointIndices()) {
+                        out.writeInt(index);
+                    }
+                }
+            }
+
+            try {
+                Files.move(tmpFile, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Persisted %d line breaking cache entries at '%s'",
+                    toWrite.size(),
+                    cacheFile.getAbsolutePath()
+            ));
+        }
+    }
+
+    /**
+     * Load the persisted entries from the cache directory.
+     *
+     * @throws IOException in case the cache file could not be read
+     */
+    private void load() throws IOException {
+        File cacheFile = new File(cacheDir, CACHE_FILE_NAME);
+        if (!cacheFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            int version = in.readInt();
+            if (version != CACHE_VERSION) {
+                if (Debug.isDebug()) {
+                    LOGGER.log(Level.INFO, "Line breaking cache is invalid and will not be used");
+                }
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                int lineBreakingQuality = in.readInt();
+
+                double[] lineWidths = new double[in.readInt()];
+                for (int l = 0; l < lineWidths.length; l++) {
+                    lineWidths[l] = in.readDouble();
+                }
+
+                int[] breakPointIndices = new int[in.readInt()];
+                for (int b = 0; b < breakPointIndices.length; b++) {
+                    breakPointIndices[b] = in.readInt();
+                }
+
+                entries.put(key, new Entry(breakPointIndices, lineWidths, lineBreakingQuality));
+            }
+        }
+
+        if (Debug.isDebug()) {
+            LOGGER.log(Level.INFO, String.format(
+                    "Loaded %d line breaking cache entries from '%s'",
+                    entries.size(),
+                    cacheFile.getAbsolutePath()
+            ));
+        }
+    }
+
+    /**
+     * Line width function recording the highest line number the algorithm asked for.
+     */
+    public static class LineWidthSampler implements IntToDoubleFunction {
+
+        /**
+         * The sampled line width function.
+         */
+        private final IntToDoubleFunction lineWidthFunction;
+
+        /**
+         * Highest line number requested so far.
+         */
+        private int maxLineNumber = 0;
+
+        public LineWidthSampler(IntToDoubleFunction lineWidthFunction) {
+            this.lineWidthFunction = lineWidthFunction;
+        }
+
+        @Override
+        public double applyAsDouble(int lineNumber) {
+            if (lineNumber > maxLineNumber) {
+                maxLineNumber = lineNumber;
+            }
+
+            return lineWidthFunction.applyAsDouble(lineNumber);
+        }
+
+        /**
+         * Get the line widths for all lines up to the highest requested line number.
+         *
+         * @return line widths starting with the first line
+         */
+        public double[] getSamples() {
+            double[] samples = new double[maxLineNumber];
+            for (int i = 0; i < maxLineNumber; i++) {
+                samples[i] = lineWidthFunction.applyAsDouble(i + 1);
+            }
+
+            return samples;
+        }
+
+    }
+
+    /**
+     * A cached line breaking result.
+     */
+    public static class Entry {
+
+        /**
+         * Item indices of the found break points.
+         */
+        private final int[] breakPointIndices;
+
+        /**
+         * Line widths of all lines the algorithm looked at.
+         */
+        private final double[] lineWidths;
+
+        /**
+         * Quality level the break points have been found with.
+         */
+        private final int lineBreakingQuality;
+
+        public Entry(int[] breakPointIndices, double[] lineWidths, int lineBreakingQuality) {
+            this.breakPointIndices = breakPointIndices;
+            this.lineWidths = lineWidths;
+            this.lineBreakingQuality = lineBreakingQuality;
+        }
+
+        public int[] getBreakPointIndices() {
+            return breakPointIndices;
+        }
+
+        public double[] getLineWidths() {
+            return lineWidths;
+        }
+
+        public int getLineBreakingQuality() {
+            return lineBreakingQuality;
+        }
+
+    }
+
+}
@@ -3,9 +3,8 @@ package de.be.thaw.typeset.knuthplass.util;
 import de.be.thaw.typeset.knuthplass.item.Item;
 import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Context used to carry information during executing the Knuth-Plass line breaking algorithm.
@@ -13,9 +12,9 @@ import java.util.List;
 public class LineBreakingContext {
 
     /**
-     * List of currently active break points (considered to be potential starting/ending points of a line/page).
+     * Currently active break points (considered to be potential starting/ending points of a line/page).
      */
-    private final List<BreakPoint> activeBreakPoints = new LinkedList<>();
+    private final ActiveBreakPoints activeBreakPoints = new ActiveBreakPoints();
 
     /**
      * The paragraph to find line breaks in.
@@ -23,41 +22,50 @@ public class LineBreakingContext {
     private final TextParagraph paragraph;
 
     /**
-     * Cumulative metrics used by the algorithm.
+     * Function delivering the required line width for a line number.
      */
-    private final List<CumulativeMetrics> cumulativeMetrics = new ArrayList<>();
+    private final IntToDoubleFunction lineWidthFunction;
+
+    /**
+     * Packed item metrics used by the algorithm.
+     * The stretchabilities are stored for the best line breaking quality.
+     */
+    private final ItemBuffer buffer;
 
     /**
      * Quality of the line breaking.
      */
     private final int lineBreakingQuality;
 
+    /**
+     * Factor to multiply the stretchabilities with for the line breaking quality.
+     */
+    private final double stretchFactor;
+
     public LineBreakingContext(TextParagraph paragraph, int lineBreakingQuality) {
+        this(paragraph, paragraph::getLineWidth, lineBreakingQuality);
+    }
+
+    public LineBreakingContext(TextParagraph paragraph, IntToDoubleFunction lineWidthFunction, int lineBreakingQuality) {
         this.paragraph = paragraph;
+        this.lineWidthFunction = lineWidthFunction;
         this.lineBreakingQuality = lineBreakingQuality;
-
-        initializeCumulativeMetrics();
+        this.stretchFactor = Math.pow(2, lineBreakingQuality);
+        this.buffer = new ItemBuffer(paragraph.items());
     }
 
     /**
-     * Initialize the cumulative widths, stretchabilities and shrinkabilities.
+     * Create a context for another line breaking quality sharing the item buffer of the passed context.
+     *
+     * @param other               context to share the item buffer with
+     * @param lineBreakingQuality quality of the line breaking
      */
-    private void initializeCumulativeMetrics() {
-        double totalWidth = 0;
-        double totalStretch = 0;
-        double totalShrink = 0;
-
-        for (Item item : paragraph.items()) {
-            totalWidth += item.getWidth();
-            totalStretch += item.getStretchability() * Math.pow(2, lineBreakingQuality);
-            totalShrink += item.getShrinkability();
-
-            cumulativeMetrics.add(new CumulativeMetrics(
-                    totalWidth,
-                    totalStretch,
-                    totalShrink
-            ));
-        }
+    public LineBreakingContext(LineBreakingContext other, int lineBreakingQuality) {
+        this.paragraph = other.paragraph;
+        this.lineWidthFunction = other.lineWidthFunction;
+        this.lineBreakingQuality = lineBreakingQuality;
+        this.stretchFactor = Math.pow(2, lineBreakingQuality);
+        this.buffer = other.buffer;
     }
 
     /**
@@ -67,7 +75,7 @@ public class LineBreakingContext {
      * @return total width
      */
     public double getTotalWidth(int index) {
-        return cumulativeMetrics.get(index).getTotalWidth();
+        return buffer.getTotalWidth(index);
     }
 
     /**
@@ -77,7 +85,7 @@ public class LineBreakingContext {
      * @return total stretchability
      */
     public double getTotalStretch(int index) {
-        return cumulativeMetrics.get(index).getTotalStretch();
+        return buffer.getTotalStretch(index) * stretchFactor;
     }
 
     /**
@@ -87,13 +95,26 @@ public class LineBreakingContext {
      * @return total shrinkability
      */
     public double getTotalShrink(int index) {
-        return cumulativeMetrics.get(index).getTotalShrink();
+        return buffer.getTotalShrink(index);
     }
 
-    public List<BreakPoint> getActiveBreakPoints() {
+    public ActiveBreakPoints getActiveBreakPoints() {
         return activeBreakPoints;
     }
 
+    public int getLineBreakingQuality() {
+        return lineBreakingQuality;
+    }
+
+    /**
+     * Get the packed item metrics the algorithm operates upon.
+     *
+     * @return item buffer
+     */
+    public ItemBuffer getBuffer() {
+        return buffer;
+    }
+
     public List<Item> getItems() {
         return paragraph.items();
     }
@@ -104,47 +125,7 @@ public class LineBreakingContext {
      * @return required line width
      */
     public double getLineWidth(int lineNumber) {
-        return paragraph.getLineWidth(lineNumber);
-    }
-
-    /**
-     * Cumulative metrics for every item of the paragraph.
-     */
-    private static class CumulativeMetrics {
-
-        /**
-         * Total width at this point.
-         */
-        private final double totalWidth;
-
-        /**
-         * Total stretchability at this point.
-         */
-        private final double totalStretch;
-
-        /**
-         * Total shrinkability at this point.
-         */
-        private final double totalShrink;
-
-        public CumulativeMetrics(double totalWidth, double totalStretch, double totalShrink) {
-            this.totalWidth = totalWidth;
-            this.totalStretch = totalStretch;
-            this.totalShrink = totalShrink;
-        }
-
-        public double getTotalWidth() {
-            return totalWidth;
-        }
-
-        public double getTotalStretch() {
-            return totalStretch;
-        }
-
-        public double getTotalShrink() {
-            return totalShrink;
-        }
-
+        return lineWidthFunction.applyAsDouble(lineNumber);
     }
 
 }
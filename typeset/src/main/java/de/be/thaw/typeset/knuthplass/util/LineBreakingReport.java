@@ -0,0 +1,86 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report of the paragraphs that could not be split into lines with the best quality
+ * and needed the emergency pass of the line breaking algorithm (or even the first-fit fallback).
+ * Use it to find the paragraphs whose styles need tuning.
+ * <p>
+ * The report is thread-safe, as break points may be found concurrently.
+ */
+public class LineBreakingReport {
+
+    /**
+     * Emergency paragraphs by the paragraph they have been reported for.
+     * A paragraph that is split into lines again replaces its earlier entry.
+     */
+    private final Map<TextParagraph, EmergencyParagraph> emergencyParagraphs = new LinkedHashMap<>();
+
+    /**
+     * Report that the passed paragraph needed the emergency pass.
+     *
+     * @param paragraph    that needed the emergency pass
+     * @param textPosition description of the position of the paragraph in the source text
+     * @param quality      the line breaking quality level used
+     * @param firstFit     whether even the emergency pass failed and the first-fit algorithm has been used
+     */
+    public synchronized void reportEmergency(TextParagraph paragraph, String textPosition, int quality, boolean firstFit) {
+        emergencyParagraphs.put(paragraph, new EmergencyParagraph(textPosition, quality, firstFit));
+    }
+
+    /**
+     * Get the reported paragraphs that needed the emergency pass.
+     *
+     * @return emergency paragraphs in the order they have been reported
+     */
+    public synchronized List<EmergencyParagraph> getEmergencyParagraphs() {
+        return new ArrayList<>(emergencyParagraphs.values());
+    }
+
+    /**
+     * A paragraph that needed the emergency pass.
+     */
+    public static class EmergencyParagraph {
+
+        /**
+         * Description of the position of the paragraph in the source text.
+         */
+        private final String textPosition;
+
+        /**
+         * The line breaking quality level used.
+         */
+        private final int quality;
+
+        /**
+         * Whether even the emergency pass failed and the first-fit algorithm has been used.
+         */
+        private final boolean firstFit;
+
+        public EmergencyParagraph(String textPosition, int quality, boolean firstFit) {
+            this.textPosition = textPosition;
+            this.quality = quality;
+            this.firstFit = firstFit;
+        }
+
+        public String getTextPosition() {
+            return textPosition;
+        }
+
+        public int getQuality() {
+            return quality;
+        }
+
+        public boolean isFirstFit() {
+            return firstFit;
+        }
+
+    }
+
+}
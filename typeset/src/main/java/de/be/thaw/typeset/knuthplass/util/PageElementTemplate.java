@@ -0,0 +1,87 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.typeset.exception.TypeSettingException;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.page.AbstractElement;
+import de.be.thaw.typeset.page.Element;
+import de.be.thaw.typeset.page.impl.PageNumberElement;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeset page elements (for example of a header, footer or foot note) that can be reused for other pages.
+ * <p>
+ * The only page-dependent elements are page numbers. When the page number of another page
+ * has the same count of digits (which leads to the same width estimation during the line breaking)
+ * and the same width, the layout of the elements is exactly the same, so that only the
+ * page number texts need to be exchanged.
+ */
+public class PageElementTemplate {
+
+    /**
+     * The typeset elements.
+     */
+    private final List<AbstractElement> elements;
+
+    /**
+     * Page number the elements have been typeset for.
+     */
+    private final String pageNumberStr;
+
+    public PageElementTemplate(List<AbstractElement> elements, int pageNumber) {
+        this.elements = elements;
+        this.pageNumberStr = String.valueOf(pageNumber);
+    }
+
+    /**
+     * Get copies of the elements for the page with the passed number.
+     *
+     * @param pageNumber          number of the page to get elements for
+     * @param fontDetailsSupplier to measure page numbers with
+     * @return the elements or null in case the template cannot be used for the page and the elements need to be typeset again
+     * @throws TypeSettingException in case a page number could not be measured
+     */
+    @Nullable
+    public List<Element> instantiate(int pageNumber, FontDetailsSupplier fontDetailsSupplier) throws TypeSettingException {
+        String newPageNumberStr = String.valueOf(pageNumber);
+
+        List<Element> result = new ArrayList<>(elements.size());
+        for (AbstractElement element : elements) {
+            if (element instanceof PageNumberElement && !newPageNumberStr.equals(pageNumberStr)) {
+                PageNumberElement pageNumberElement = (PageNumberElement) element;
+
+                if (newPageNumberStr.length() != pageNumberStr.length()) {
+                    return null;
+                }
+
+                FontDetailsSupplier.StringMetrics metrics;
+                try {
+                    metrics = fontDetailsSupplier.measureString(pageNumberElement.getNode().orElseThrow(), -1, newPageNumberStr);
+                } catch (Exception e) {
+                    throw new TypeSettingException(e);
+                }
+
+                if (Double.compare(metrics.getWidth(), element.getSize().getWidth()) != 0) {
+                    return null; // Layout of the line would change
+                }
+
+                result.add(new PageNumberElement(
+                        newPageNumberStr,
+                        metrics,
+                        pageNumberElement.getNode().orElseThrow(),
+                        pageNumber,
+                        pageNumberElement.getBaseline(),
+                        pageNumberElement.getSize(),
+                        pageNumberElement.getPosition()
+                ));
+            } else {
+                result.add(element.copy(pageNumber));
+            }
+        }
+
+        return result;
+    }
+
+}
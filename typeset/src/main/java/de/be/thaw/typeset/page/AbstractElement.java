@@ -70,4 +70,12 @@ public abstract class AbstractElement implements Element {
         return Optional.empty();
     }
 
+    /**
+     * Create a copy of the element at the same position placed on the page with the passed number.
+     *
+     * @param pageNumber number of the page the copy is on
+     * @return the copy
+     */
+    public abstract AbstractElement copy(int pageNumber);
+
 }
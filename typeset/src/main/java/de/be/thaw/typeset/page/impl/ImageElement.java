@@ -36,6 +36,11 @@ public class ImageElement extends AbstractElement {
         return ElementType.IMAGE;
     }
 
+    @Override
+    public ImageElement copy(int pageNumber) {
+        return new ImageElement(src, node, pageNumber, getSize(), getPosition());
+    }
+
     /**
      * Get the image source.
      *
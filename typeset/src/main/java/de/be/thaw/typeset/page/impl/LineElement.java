@@ -67,4 +67,9 @@ public class LineElement extends AbstractElement {
         return ElementType.LINE;
     }
 
+    @Override
+    public LineElement copy(int pageNumber) {
+        return new LineElement(pageNumber, getSize(), getPosition(), style, lineWidth, color);
+    }
+
 }
@@ -0,0 +1,70 @@
+package de.be.thaw.typeset.page.impl;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.util.Position;
+import de.be.thaw.util.Size;
+
+/**
+ * Text element displaying the number of a line in front of it.
+ */
+public class LineNumberElement extends TextElement {
+
+    /**
+     * The displayed line number.
+     */
+    private final int lineNumber;
+
+    public LineNumberElement(
+            int lineNumber,
+            FontDetailsSupplier.StringMetrics metrics,
+            DocumentNode node,
+            int pageNumber,
+            double baseline,
+            Size size,
+            Position position
+    ) {
+        super(String.valueOf(lineNumber), metrics, node, pageNumber, baseline, size, position);
+
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Get the displayed line number.
+     *
+     * @return line number
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Create a copy of the element displaying another line number.
+     * The copy is right-aligned to the same position as this element.
+     *
+     * @param lineNumber          to display
+     * @param pageNumber          number of the page the copy is on
+     * @param fontDetailsSupplier to measure the new line number with
+     * @return the copy
+     * @throws Exception in case the line number could not be measured
+     */
+    public LineNumberElement renumber(int lineNumber, int pageNumber, FontDetailsSupplier fontDetailsSupplier) throws Exception {
+        FontDetailsSupplier.StringMetrics metrics = fontDetailsSupplier.measureString(getNode().orElseThrow(), -1, String.valueOf(lineNumber));
+
+        return new LineNumberElement(
+                lineNumber,
+                metrics,
+                getNode().orElseThrow(),
+                pageNumber,
+                getBaseline(),
+                new Size(metrics.getWidth(), getSize().getHeight()),
+                new Position(getPosition().getX() + getSize().getWidth() - metrics.getWidth(), getPosition().getY())
+        );
+    }
+
+    @Override
+    public LineNumberElement copy(int pageNumber) {
+        return new LineNumberElement(lineNumber, getMetrics(), getNode().orElseThrow(), pageNumber, getBaseline(), getSize(), getPosition());
+    }
+
+}
@@ -48,6 +48,11 @@ public class MathExpressionElement extends AbstractElement {
         return ElementType.MATH;
     }
 
+    @Override
+    public MathExpressionElement copy(int pageNumber) {
+        return new MathExpressionElement(expression, pageNumber, getSize(), getPosition(), node, inline, baseline);
+    }
+
     /**
      * Get the math expression.
      *
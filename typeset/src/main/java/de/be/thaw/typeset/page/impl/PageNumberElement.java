@@ -0,0 +1,30 @@
+package de.be.thaw.typeset.page.impl;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.util.Position;
+import de.be.thaw.util.Size;
+
+/**
+ * Text element displaying the number of the page it is on (for example in a header or footer).
+ */
+public class PageNumberElement extends TextElement {
+
+    public PageNumberElement(
+            String text,
+            FontDetailsSupplier.StringMetrics metrics,
+            DocumentNode node,
+            int pageNumber,
+            double baseline,
+            Size size,
+            Position position
+    ) {
+        super(text, metrics, node, pageNumber, baseline, size, position);
+    }
+
+    @Override
+    public PageNumberElement copy(int pageNumber) {
+        return new PageNumberElement(getText(), getMetrics(), getNode().orElseThrow(), pageNumber, getBaseline(), getSize(), getPosition());
+    }
+
+}
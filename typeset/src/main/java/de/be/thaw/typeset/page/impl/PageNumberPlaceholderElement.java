@@ -11,4 +11,12 @@ public class PageNumberPlaceholderElement extends TextElement {
         super("", metrics, node, pageNumber, baseline, size, position);
     }
 
+    @Override
+    public PageNumberPlaceholderElement copy(int pageNumber) {
+        PageNumberPlaceholderElement copy = new PageNumberPlaceholderElement(getMetrics(), getNode().orElseThrow(), pageNumber, getBaseline(), getSize(), getPosition());
+        copy.setText(getText());
+
+        return copy;
+    }
+
 }
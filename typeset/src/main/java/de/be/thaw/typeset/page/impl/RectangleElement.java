@@ -334,6 +334,20 @@ public class RectangleElement extends AbstractElement {
         return ElementType.RECTANGLE;
     }
 
+    @Override
+    public RectangleElement copy(int pageNumber) {
+        RectangleElement copy = new RectangleElement(pageNumber, getSize(), getPosition());
+
+        copy.setBorderRadius(borderRadius);
+        copy.setFillColor(fillColor);
+        copy.setStrokeColors(strokeColors.clone());
+        copy.setBorderStyles(borderStyles.clone());
+        copy.setBorderWidths(borderWidths);
+        copy.setNode(node);
+
+        return copy;
+    }
+
     @Override
     public Optional<DocumentNode> getNode() {
         return Optional.ofNullable(node);
@@ -81,6 +81,11 @@ public class TextElement extends AbstractElement {
         return ElementType.TEXT;
     }
 
+    @Override
+    public TextElement copy(int pageNumber) {
+        return new TextElement(text, metrics, node, pageNumber, baseline, getSize(), getPosition());
+    }
+
     /**
      * Get the metrics of the text.
      *
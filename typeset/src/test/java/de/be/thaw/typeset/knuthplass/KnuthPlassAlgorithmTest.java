@@ -0,0 +1,164 @@
+package de.be.thaw.typeset.knuthplass;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.item.impl.Glue;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import de.be.thaw.typeset.knuthplass.paragraph.impl.TextParagraph;
+import de.be.thaw.typeset.knuthplass.util.BreakPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+public class KnuthPlassAlgorithmTest {
+
+    /**
+     * Width of the lines to break the paragraphs into.
+     */
+    private static final double LINE_WIDTH = 100;
+
+    /**
+     * Worst quality level to allow in the emergency pass.
+     */
+    private static final int WORST_QUALITY = 4;
+
+    /**
+     * Create a type setting configuration.
+     *
+     * @return the configuration
+     */
+    private static KnuthPlassTypeSettingConfig createConfig() {
+        return KnuthPlassTypeSettingConfig.newBuilder()
+                .setWorkingDirectory(new File("."))
+                .setTextParser(new TextParser())
+                .setProperties(new Properties())
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        throw new UnsupportedOperationException();
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        throw new UnsupportedOperationException();
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return new HyphenatedWord(List.of(new HyphenatedWordPart(word)));
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return HyphenatedWordPart.DEFAULT_PENALTY;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Create a paragraph with the passed box widths each followed by glue of width 5.
+     * The paragraph starts with an empty box (like the indent of a paragraph), so that
+     * every line with n boxes has a width of n times the box width plus 5.
+     *
+     * @param boxWidths widths of the boxes
+     * @return the paragraph
+     */
+    private static TextParagraph createParagraph(double... boxWidths) {
+        TextParagraph paragraph = new TextParagraph(LINE_WIDTH, null);
+        paragraph.addItem(new EmptyBox(0));
+        for (int i = 0; i < boxWidths.length; i++) {
+            paragraph.addItem(new EmptyBox(boxWidths[i]));
+            paragraph.addItem(i < boxWidths.length - 1 ? new Glue(5, 1, 1) : new Glue(0, Double.POSITIVE_INFINITY, 0));
+        }
+        paragraph.addItem(new Penalty(Penalty.MIN_PENALTY, 0, false));
+
+        return paragraph;
+    }
+
+    /**
+     * Get the item indices of the passed break points.
+     *
+     * @param result to get break point indices of
+     * @return item indices
+     */
+    private static List<Integer> getIndices(KnuthPlassAlgorithm.LineBreakingResult result) {
+        return result.getBreakPoints().stream()
+                .map(BreakPoint::getIndex)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void bestQualityTest() throws Exception {
+        // Five boxes of width 15 each followed by glue of width 5 fit a line exactly
+        KnuthPlassAlgorithm.LineBreakingResult result = new KnuthPlassAlgorithm(createConfig(), WORST_QUALITY)
+                .findBreakPoints(createParagraph(15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15));
+
+        Assertions.assertFalse(result.isEmergency());
+        Assertions.assertEquals(0, result.getContext().getLineBreakingQuality());
+        Assertions.assertEquals(List.of(10, 20, 23), getIndices(result));
+    }
+
+    @Test
+    public void emergencyPassTest() throws Exception {
+        // Four boxes of width 18 need more stretch than allowed with the best quality, five boxes are too wide
+        KnuthPlassAlgorithm.LineBreakingResult result = new KnuthPlassAlgorithm(createConfig(), WORST_QUALITY)
+                .findBreakPoints(createParagraph(18, 18, 18, 18, 18, 18, 18, 18, 18));
+
+        Assertions.assertTrue(result.isEmergency());
+        Assertions.assertEquals(WORST_QUALITY, result.getContext().getLineBreakingQuality());
+        Assertions.assertEquals(List.of(8, 16, 19), getIndices(result));
+    }
+
+    @Test
+    public void emergencyPassKeepsLinesOfFirstPassTest() throws Exception {
+        // The first line fits with the best quality, the following lines need the emergency pass
+        KnuthPlassAlgorithm.LineBreakingResult result = new KnuthPlassAlgorithm(createConfig(), WORST_QUALITY)
+                .findBreakPoints(createParagraph(15, 15, 15, 15, 15, 18, 18, 18, 18, 18, 18, 18));
+
+        Assertions.assertTrue(result.isEmergency());
+        Assertions.assertEquals(List.of(10, 18, 25), getIndices(result));
+
+        // The kept break point from the first pass is still chained to the following ones
+        List<BreakPoint> breakPoints = result.getBreakPoints();
+        for (int i = 1; i < breakPoints.size(); i++) {
+            Assertions.assertSame(breakPoints.get(i - 1), breakPoints.get(i).getPrevious());
+            Assertions.assertEquals(i + 1, breakPoints.get(i).getLineNumber());
+        }
+    }
+
+    @Test
+    public void infeasibleLineIsKeptTest() throws Exception {
+        // A box wider than the line cannot be set without an overfull line
+        KnuthPlassAlgorithm.LineBreakingResult result = new KnuthPlassAlgorithm(createConfig(), WORST_QUALITY)
+                .findBreakPoints(createParagraph(15, 150, 15));
+
+        Assertions.assertTrue(result.isEmergency());
+
+        Assertions.assertEquals(List.of(4, 7), getIndices(result)); // Overfull line with the wide box
+    }
+
+}
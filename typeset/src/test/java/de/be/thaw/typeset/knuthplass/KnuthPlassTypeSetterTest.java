@@ -0,0 +1,246 @@
+package de.be.thaw.typeset.knuthplass;
+
+import de.be.thaw.core.document.Document;
+import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
+import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.info.impl.DefaultThawInfo;
+import de.be.thaw.info.model.author.Author;
+import de.be.thaw.info.model.language.Language;
+import de.be.thaw.reference.citation.empty.EmptyCitationManager;
+import de.be.thaw.shared.ThawContext;
+import de.be.thaw.style.model.impl.DefaultStyleModel;
+import de.be.thaw.style.model.style.StyleType;
+import de.be.thaw.style.parser.impl.DefaultStyleFormatParser;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.page.Element;
+import de.be.thaw.typeset.page.Page;
+import de.be.thaw.typeset.page.impl.PageNumberElement;
+import de.be.thaw.typeset.page.impl.TextElement;
+import de.be.thaw.typeset.util.Insets;
+import de.be.thaw.util.Size;
+import de.be.thaw.util.unit.Unit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+public class KnuthPlassTypeSetterTest {
+
+    /**
+     * A paragraph of filler text.
+     */
+    private static final String FILLER = "The quick brown fox jumps over the lazy dog while the typesetter " +
+            "breaks this paragraph into lines of roughly equal width.\n\n";
+
+    /**
+     * Styles indenting the paragraphs on both sides.
+     */
+    private static final String STYLE = "paragraph {\n" +
+            "    margin: 0 2cm 0 1cm;\n" +
+            "}\n";
+
+    /**
+     * Create a document from the passed text using the passed styles (on top of the default styles).
+     *
+     * @param text  of the document
+     * @param style of the document
+     * @return the document
+     * @throws Exception in case the document could not be built
+     */
+    private Document createDocument(String text, String style) throws Exception {
+        DefaultThawInfo info = new DefaultThawInfo(
+                StandardCharsets.UTF_8,
+                Language.ENGLISH,
+                new Author("Test", "test@example.com"),
+                new HashMap<>()
+        );
+
+        return new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                info,
+                new TextParser().parse(new StringReader(text)),
+                new DefaultStyleFormatParser().parse(new StringReader(style), null).merge(DefaultStyleModel.defaultModel()),
+                new EmptyCitationManager()
+        ));
+    }
+
+    /**
+     * Create a type setter measuring strings as if all characters were half as wide as the font size.
+     *
+     * @param typesetSectionsInParallel whether to typeset the sections in parallel
+     * @return the type setter
+     * @throws Exception in case the type setter could not be created
+     */
+    private KnuthPlassTypeSetter createTypeSetter(boolean typesetSectionsInParallel) throws Exception {
+        Properties properties = new Properties();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                KnuthPlassTypeSetter.class.getResourceAsStream("/i18n/en.properties"),
+                StandardCharsets.UTF_8
+        ))) {
+            properties.load(br);
+        }
+
+        return new KnuthPlassTypeSetter(KnuthPlassTypeSettingConfig.newBuilder()
+                .setWorkingDirectory(new File("."))
+                .setTextParser(new TextParser())
+                .setProperties(properties)
+                .setPageSize(new Size(595, 842))
+                .setPageInsets(new Insets(56))
+                .setLooseness(1)
+                .setTypesetSectionsInParallel(typesetSectionsInParallel)
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        double fontSize = getFontSize(node);
+
+                        return new StringMetrics(str.length() * fontSize / 2, fontSize, new double[str.length()], fontSize, fontSize * 0.8);
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        return getFontSize(node) / 2;
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        return getFontSize(node) / 6;
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        return getFontSize(node) / 9;
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return new HyphenatedWord(List.of(new HyphenatedWordPart(word)));
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return HyphenatedWordPart.DEFAULT_PENALTY;
+                    }
+                })
+                .build());
+    }
+
+    /**
+     * Get the font size of the passed node.
+     *
+     * @param node to get font size of
+     * @return font size
+     */
+    private static double getFontSize(DocumentNode node) {
+        return node.getStyles().resolve(StyleType.FONT_SIZE).orElseThrow().doubleValue(Unit.POINTS);
+    }
+
+    /**
+     * Describe the passed pages (their elements types, positions and texts) to compare them with.
+     *
+     * @param pages to describe
+     * @return description
+     */
+    private static String describe(List<Page> pages) {
+        StringBuilder sb = new StringBuilder();
+        for (Page page : pages) {
+            sb.append("Page ").append(page.getNumber()).append('\n');
+
+            for (Element element : page.getElements()) {
+                sb.append(String.format(
+                        "  %s %d (%.3f, %.3f) [%.3f x %.3f]",
+                        element.getClass().getSimpleName(),
+                        element.getPageNumber(),
+                        element.getPosition().getX(),
+                        element.getPosition().getY(),
+                        element.getSize().getWidth(),
+                        element.getSize().getHeight()
+                ));
+
+                if (element instanceof TextElement) {
+                    sb.append(" '").append(((TextElement) element).getText()).append('\'');
+                }
+
+                sb.append('\n');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Test
+    public void pageNumberInLaterSectionTest() throws Exception {
+        String text = FILLER.repeat(40) +
+                "#BREAK, type=PAGE#\n\n" +
+                FILLER.repeat(3) +
+                "#BREAK, type=PAGE#\n\n" +
+                FILLER +
+                "This is page #PAGE#.\n\n" +
+                FILLER.repeat(30) +
+                "And this is page #PAGE#.\n\n" +
+                "#BREAK, type=PAGE#\n\n" +
+                FILLER.repeat(2);
+
+        List<Page> sequential = createTypeSetter(false).typeset(createDocument(text, STYLE));
+        List<Page> parallel = createTypeSetter(true).typeset(createDocument(text, STYLE));
+
+        Assertions.assertEquals(describe(sequential), describe(parallel));
+
+        // The page numbers displayed need to match the pages they are displayed on
+        int pageNumberCount = 0;
+        for (Page page : parallel) {
+            for (Element element : page.getElements()) {
+                if (element instanceof PageNumberElement) {
+                    Assertions.assertEquals(String.valueOf(page.getNumber()), ((PageNumberElement) element).getText());
+                    pageNumberCount++;
+                }
+            }
+        }
+        Assertions.assertEquals(2, pageNumberCount);
+        Assertions.assertTrue(parallel.size() > 3);
+    }
+
+    @Test
+    public void preparedAheadOfLayoutTest() throws Exception {
+        ThawContext.getInstance().setTextParser(new TextParser()); // Needed to parse the foot notes
+
+        String footNote = "Some text with a foot note#FOOTNOTE, \"The foot note explains the text before in detail.\"#.\n\n";
+        String text = (FILLER.repeat(5) + footNote).repeat(8) +
+                "#BREAK, type=PAGE#\n\n" +
+                FILLER.repeat(4) +
+                footNote.repeat(3) +
+                "#BREAK, type=PAGE#\n\n" +
+                (footNote + FILLER.repeat(3)).repeat(6);
+
+        // Break points and foot notes are prepared ahead of the layout only when typesetting in parallel
+        List<Page> sequential = createTypeSetter(false).typeset(createDocument(text, STYLE));
+        List<Page> parallel = createTypeSetter(true).typeset(createDocument(text, STYLE));
+
+        Assertions.assertEquals(describe(sequential), describe(parallel));
+
+        int footNoteCount = 0;
+        for (Page page : parallel) {
+            for (Element element : page.getElements()) {
+                if (element instanceof TextElement && ((TextElement) element).getText().equals("explains")) {
+                    footNoteCount++;
+                }
+            }
+        }
+        Assertions.assertEquals(8 + 3 + 6, footNoteCount);
+    }
+
+}
@@ -0,0 +1,130 @@
+package de.be.thaw.typeset.knuthplass.config.util;
+
+import de.be.thaw.font.AbstractFont;
+import de.be.thaw.font.ThawFont;
+import de.be.thaw.font.util.CharacterSize;
+import de.be.thaw.font.util.KerningMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StringMetricsCacheTest {
+
+    /**
+     * Font whose characters are all as wide and as high as the font size.
+     */
+    private static class TestFont extends AbstractFont {
+
+        @Override
+        public double getAscent(double fontSize) {
+            return fontSize;
+        }
+
+        @Override
+        public double getDescent(double fontSize) {
+            return 0;
+        }
+
+        @Override
+        public CharacterSize getCharacterSize(int character, double fontSize) {
+            return new CharacterSize(fontSize, fontSize, fontSize, 0);
+        }
+
+        @Override
+        public double getKerningAdjustment(int leftChar, int rightChar, double fontSize) {
+            return 0;
+        }
+
+    }
+
+    /**
+     * Measurer counting its measurements.
+     */
+    private static class CountingMeasurer implements StringMetricsCache.Measurer {
+
+        /**
+         * Count of measurements.
+         */
+        private int count;
+
+        @Override
+        public FontDetailsSupplier.StringMetrics measure() {
+            count++;
+            return new FontDetailsSupplier.StringMetrics(count, 10, new double[0], 10, 8);
+        }
+
+    }
+
+    @Test
+    public void cachedMetricsTest() throws Exception {
+        StringMetricsCache cache = new StringMetricsCache(StringMetricsCache.DEFAULT_MAX_ENTRIES);
+        ThawFont font = new TestFont();
+        CountingMeasurer measurer = new CountingMeasurer();
+
+        FontDetailsSupplier.StringMetrics metrics = cache.get(font, KerningMode.NATIVE, 12, 'a', "word", measurer);
+        Assertions.assertSame(metrics, cache.get(font, KerningMode.NATIVE, 12, 'a', "word", measurer));
+        Assertions.assertSame(metrics, cache.get(font, KerningMode.NATIVE, 12, 'a', new String("word"), measurer));
+
+        Assertions.assertEquals(1, measurer.count);
+        Assertions.assertEquals(2, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void keyIsNotSharedTest() throws Exception {
+        StringMetricsCache cache = new StringMetricsCache(StringMetricsCache.DEFAULT_MAX_ENTRIES);
+        ThawFont font = new TestFont();
+        CountingMeasurer measurer = new CountingMeasurer();
+
+        FontDetailsSupplier.StringMetrics metrics = cache.get(font, KerningMode.NATIVE, 12, 'a', "word", measurer);
+
+        // Different kerning modes
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.OPTICAL, 12, 'a', "word", measurer));
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NONE, 12, 'a', "word", measurer));
+
+        // Different font sizes
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NATIVE, 12.5, 'a', "word", measurer));
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NATIVE, 24, 'a', "word", measurer));
+
+        // Different characters before the string
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NATIVE, 12, -1, "word", measurer));
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NATIVE, 12, 'b', "word", measurer));
+
+        // Different (even though equally measuring) fonts
+        Assertions.assertNotSame(metrics, cache.get(new TestFont(), KerningMode.NATIVE, 12, 'a', "word", measurer));
+
+        // Different strings
+        Assertions.assertNotSame(metrics, cache.get(font, KerningMode.NATIVE, 12, 'a', "Word", measurer));
+
+        Assertions.assertEquals(9, measurer.count);
+        Assertions.assertEquals(0, cache.getHits());
+
+        // All variants are cached separately
+        Assertions.assertSame(metrics, cache.get(font, KerningMode.NATIVE, 12, 'a', "word", measurer));
+        Assertions.assertEquals(2, cache.get(font, KerningMode.OPTICAL, 12, 'a', "word", measurer).getWidth());
+        Assertions.assertEquals(5, cache.get(font, KerningMode.NATIVE, 24, 'a', "word", measurer).getWidth());
+        Assertions.assertEquals(9, measurer.count);
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictionTest() throws Exception {
+        StringMetricsCache cache = new StringMetricsCache(2);
+        ThawFont font = new TestFont();
+        CountingMeasurer measurer = new CountingMeasurer();
+
+        FontDetailsSupplier.StringMetrics a = cache.get(font, KerningMode.NATIVE, 12, -1, "a", measurer);
+        FontDetailsSupplier.StringMetrics b = cache.get(font, KerningMode.NATIVE, 12, -1, "b", measurer);
+
+        // Use 'a' again, so that 'b' is the least recently used entry
+        Assertions.assertSame(a, cache.get(font, KerningMode.NATIVE, 12, -1, "a", measurer));
+
+        FontDetailsSupplier.StringMetrics c = cache.get(font, KerningMode.NATIVE, 12, -1, "c", measurer); // Evicts 'b'
+
+        Assertions.assertSame(a, cache.get(font, KerningMode.NATIVE, 12, -1, "a", measurer));
+        Assertions.assertSame(c, cache.get(font, KerningMode.NATIVE, 12, -1, "c", measurer));
+        Assertions.assertEquals(3, measurer.count);
+
+        Assertions.assertNotSame(b, cache.get(font, KerningMode.NATIVE, 12, -1, "b", measurer));
+        Assertions.assertEquals(4, measurer.count);
+    }
+
+}
@@ -0,0 +1,250 @@
+package de.be.thaw.typeset.knuthplass.paragraph.handler.impl.table;
+
+import de.be.thaw.core.document.Document;
+import de.be.thaw.core.document.builder.impl.DefaultDocumentBuilder;
+import de.be.thaw.core.document.builder.impl.source.DocumentBuildSource;
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.info.impl.DefaultThawInfo;
+import de.be.thaw.info.model.author.Author;
+import de.be.thaw.info.model.language.Language;
+import de.be.thaw.reference.citation.empty.EmptyCitationManager;
+import de.be.thaw.style.model.impl.DefaultStyleModel;
+import de.be.thaw.style.model.style.StyleType;
+import de.be.thaw.style.parser.impl.DefaultStyleFormatParser;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.typeset.knuthplass.TypeSettingContext;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.converter.KnuthPlassConverter;
+import de.be.thaw.typeset.knuthplass.paragraph.Paragraph;
+import de.be.thaw.typeset.knuthplass.paragraph.ParagraphType;
+import de.be.thaw.typeset.page.Element;
+import de.be.thaw.typeset.page.Page;
+import de.be.thaw.typeset.page.impl.TextElement;
+import de.be.thaw.typeset.util.Insets;
+import de.be.thaw.util.Size;
+import de.be.thaw.util.unit.Unit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+public class TableParagraphHandlerTest {
+
+    /**
+     * A row of the table with cells that need to be broken into multiple lines.
+     */
+    private static final String ROW = "John Doe | 43 | The quick brown fox jumps over the lazy dog | *male*\n";
+
+    /**
+     * Styles of the table cells.
+     */
+    private static final String STYLE = "table-cell {\n" +
+            "    text-align: left;\n" +
+            "}\n" +
+            "\n" +
+            "table-cell:column(2) {\n" +
+            "    text-align: right;\n" +
+            "}\n";
+
+    /**
+     * Create a document from the passed text using the passed styles (on top of the default styles).
+     *
+     * @param text  of the document
+     * @param style of the document
+     * @return the document
+     * @throws Exception in case the document could not be built
+     */
+    private Document createDocument(String text, String style) throws Exception {
+        DefaultThawInfo info = new DefaultThawInfo(
+                StandardCharsets.UTF_8,
+                Language.ENGLISH,
+                new Author("Test", "test@example.com"),
+                new HashMap<>()
+        );
+
+        return new DefaultDocumentBuilder().build(new DocumentBuildSource(
+                info,
+                new TextParser().parse(new StringReader(text)),
+                new DefaultStyleFormatParser().parse(new StringReader(style), null).merge(DefaultStyleModel.defaultModel()),
+                new EmptyCitationManager()
+        ));
+    }
+
+    /**
+     * Create a type setting configuration measuring strings as if all characters were half as wide as the font size.
+     *
+     * @return the configuration
+     * @throws Exception in case the configuration could not be created
+     */
+    private KnuthPlassTypeSettingConfig createConfig() throws Exception {
+        Properties properties = new Properties();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                TableParagraphHandler.class.getResourceAsStream("/i18n/en.properties"),
+                StandardCharsets.UTF_8
+        ))) {
+            properties.load(br);
+        }
+
+        return KnuthPlassTypeSettingConfig.newBuilder()
+                .setWorkingDirectory(new File("."))
+                .setTextParser(new TextParser())
+                .setProperties(properties)
+                .setPageSize(new Size(595, 842))
+                .setPageInsets(new Insets(56))
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        double fontSize = getFontSize(node);
+
+                        return new StringMetrics(str.length() * fontSize / 2, fontSize, new double[str.length()], fontSize, fontSize * 0.8);
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        return getFontSize(node) / 2;
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        return getFontSize(node) / 6;
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        return getFontSize(node) / 9;
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return new HyphenatedWord(List.of(new HyphenatedWordPart(word)));
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return HyphenatedWordPart.DEFAULT_PENALTY;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the font size of the passed node.
+     *
+     * @param node to get font size of
+     * @return font size
+     */
+    private static double getFontSize(DocumentNode node) {
+        return node.getStyles().resolve(StyleType.FONT_SIZE).orElseThrow().doubleValue(Unit.POINTS);
+    }
+
+    /**
+     * Typeset the table in the passed document using a table paragraph handler.
+     *
+     * @param document         containing the table
+     * @param cacheCellLayouts whether the handler shares the layout of identical cells
+     * @return the typeset pages
+     * @throws Exception in case the table could not be typeset
+     */
+    private List<Page> typesetTable(Document document, boolean cacheCellLayouts) throws Exception {
+        KnuthPlassTypeSettingConfig config = createConfig();
+        List<List<Paragraph>> paragraphLists = new KnuthPlassConverter(document.getRoot(), config).convert(document);
+
+        TypeSettingContext ctx = new TypeSettingContext(
+                config,
+                document,
+                paragraphLists,
+                new HashMap<>(),
+                new HashMap<>(),
+                new HashMap<>(),
+                null,
+                null
+        );
+
+        TableParagraphHandler handler = new TableParagraphHandler(cacheCellLayouts);
+        for (List<Paragraph> paragraphs : paragraphLists) {
+            for (Paragraph paragraph : paragraphs) {
+                if (paragraph.getType() == ParagraphType.TABLE) {
+                    handler.handle(paragraph, ctx);
+                }
+            }
+        }
+        ctx.pushPage();
+
+        return ctx.getPages();
+    }
+
+    /**
+     * Describe the passed pages (their elements types, positions and texts) to compare them with.
+     *
+     * @param pages to describe
+     * @return description
+     */
+    private static String describe(List<Page> pages) {
+        StringBuilder sb = new StringBuilder();
+        for (Page page : pages) {
+            sb.append("Page ").append(page.getNumber()).append('\n');
+
+            for (Element element : page.getElements()) {
+                sb.append(String.format(
+                        "  %s %d (%.3f, %.3f) [%.3f x %.3f]",
+                        element.getClass().getSimpleName(),
+                        element.getPageNumber(),
+                        element.getPosition().getX(),
+                        element.getPosition().getY(),
+                        element.getSize().getWidth(),
+                        element.getSize().getHeight()
+                ));
+
+                if (element instanceof TextElement) {
+                    sb.append(" '").append(((TextElement) element).getText()).append('\'');
+                }
+
+                sb.append('\n');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    @Test
+    public void cachedCellLayoutsTest() throws Exception {
+        String text = "#TABLE, '\n" +
+                "Name | Age | Description | Sex\n" +
+                ROW.repeat(60) +
+                "Jane Doe | 42 | The lazy dog sleeps | *female*\n" +
+                "', class=test-table#\n";
+
+        List<Page> uncached = typesetTable(createDocument(text, STYLE), false);
+        List<Page> cached = typesetTable(createDocument(text, STYLE), true);
+
+        Assertions.assertEquals(describe(uncached), describe(cached));
+
+        // The table spans multiple pages and its cells are broken into multiple lines
+        Assertions.assertTrue(cached.size() > 1);
+
+        int dogCount = 0;
+        for (Page page : cached) {
+            for (Element element : page.getElements()) {
+                if (element instanceof TextElement && ((TextElement) element).getText().equals("dog")) {
+                    dogCount++;
+                }
+            }
+        }
+        Assertions.assertEquals(61, dogCount);
+    }
+
+}
@@ -0,0 +1,181 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+public class ActiveBreakPointsTest {
+
+    /**
+     * Create a break point for the passed item index ending the passed line.
+     *
+     * @param index      of the break point
+     * @param lineNumber of the line ending at the break point
+     * @return break point
+     */
+    private static BreakPoint breakPoint(int index, int lineNumber) {
+        BreakPoint breakPoint = new BreakPoint(index);
+        breakPoint.setLineNumber(lineNumber);
+
+        return breakPoint;
+    }
+
+    /**
+     * Collect the active break points in iteration order.
+     *
+     * @param active break points to collect
+     * @return break points in iteration order
+     */
+    private static List<BreakPoint> toList(ActiveBreakPoints active) {
+        List<BreakPoint> result = new ArrayList<>();
+        for (int line = active.first(); line != ActiveBreakPoints.NONE; line = active.next(line)) {
+            result.add(active.get(line));
+        }
+
+        return result;
+    }
+
+    /**
+     * Activate the passed break point in a list the way the algorithm did before the active break points were bucketed.
+     * The first break point with an equal or greater line number is replaced, otherwise the break point is appended.
+     *
+     * @param list       of active break points ordered by line number
+     * @param breakPoint to activate
+     */
+    private static void activateInList(List<BreakPoint> list, BreakPoint breakPoint) {
+        int index = 0;
+        while (index < list.size() && list.get(index).getLineNumber() < breakPoint.getLineNumber()) {
+            index++;
+        }
+
+        if (index == list.size()) {
+            list.add(breakPoint);
+        } else {
+            list.set(index, breakPoint);
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        ActiveBreakPoints active = new ActiveBreakPoints();
+
+        Assertions.assertTrue(active.isEmpty());
+        Assertions.assertEquals(0, active.size());
+        Assertions.assertEquals(ActiveBreakPoints.NONE, active.first());
+    }
+
+    @Test
+    public void iterateInLineOrderTest() {
+        ActiveBreakPoints active = new ActiveBreakPoints();
+        BreakPoint a = breakPoint(0, 0);
+        BreakPoint b = breakPoint(4, 1);
+        BreakPoint c = breakPoint(9, 3);
+
+        active.activate(a);
+        active.activate(b);
+        active.activate(c);
+
+        Assertions.assertEquals(List.of(a, b, c), toList(active));
+        Assertions.assertEquals(3, active.size());
+    }
+
+    @Test
+    public void replaceFirstWithEqualOrGreaterLineTest() {
+        ActiveBreakPoints active = new ActiveBreakPoints();
+        BreakPoint a = breakPoint(0, 0);
+        BreakPoint b = breakPoint(4, 3);
+        BreakPoint c = breakPoint(9, 5);
+        active.activate(a);
+        active.activate(b);
+        active.activate(c);
+
+        // Equal line number replaces the break point in the bucket
+        BreakPoint d = breakPoint(10, 3);
+        active.activate(d);
+        Assertions.assertEquals(List.of(a, d, c), toList(active));
+
+        // Lower line number replaces the next break point with a greater line number
+        BreakPoint e = breakPoint(11, 4);
+        active.activate(e);
+        Assertions.assertEquals(List.of(a, d, e), toList(active));
+        Assertions.assertEquals(3, active.size());
+
+        // Activating an already active break point does nothing
+        active.activate(e);
+        Assertions.assertEquals(List.of(a, d, e), toList(active));
+        Assertions.assertEquals(3, active.size());
+    }
+
+    @Test
+    public void deactivateTest() {
+        ActiveBreakPoints active = new ActiveBreakPoints();
+        BreakPoint a = breakPoint(0, 0);
+        BreakPoint b = breakPoint(4, 1);
+        BreakPoint c = breakPoint(9, 2);
+        active.activate(a);
+        active.activate(b);
+        active.activate(c);
+
+        active.deactivate(b);
+        Assertions.assertEquals(List.of(a, c), toList(active));
+
+        // Deactivating a break point that is not active (anymore) does nothing
+        active.deactivate(b);
+        active.deactivate(breakPoint(9, 2));
+        active.deactivate(breakPoint(20, 100));
+        Assertions.assertEquals(List.of(a, c), toList(active));
+
+        active.deactivate(a);
+        active.deactivate(c);
+        Assertions.assertTrue(active.isEmpty());
+        Assertions.assertEquals(ActiveBreakPoints.NONE, active.first());
+
+        // Activating again after the chain became empty
+        active.activate(b);
+        Assertions.assertEquals(List.of(b), toList(active));
+    }
+
+    @Test
+    public void growBeyondInitialCapacityTest() {
+        ActiveBreakPoints active = new ActiveBreakPoints();
+        List<BreakPoint> expected = new ArrayList<>();
+        for (int line = 0; line < 100; line += 3) {
+            BreakPoint breakPoint = breakPoint(line, line);
+            active.activate(breakPoint);
+            expected.add(breakPoint);
+        }
+
+        Assertions.assertEquals(expected, toList(active));
+        Assertions.assertEquals(expected.size(), active.size());
+    }
+
+    @Test
+    public void equivalentToListTest() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 100; run++) {
+            ActiveBreakPoints active = new ActiveBreakPoints();
+            List<BreakPoint> list = new LinkedList<>();
+
+            for (int index = 0; index < 500; index++) {
+                if (!list.isEmpty() && random.nextInt(3) == 0) {
+                    BreakPoint toDeactivate = list.get(random.nextInt(list.size()));
+                    list.remove(toDeactivate);
+                    active.deactivate(toDeactivate);
+                } else {
+                    BreakPoint breakPoint = breakPoint(index, random.nextInt(40));
+                    activateInList(list, breakPoint);
+                    active.activate(breakPoint);
+                }
+
+                Assertions.assertEquals(list, toList(active));
+                Assertions.assertEquals(list.size(), active.size());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.ItemType;
+import de.be.thaw.typeset.knuthplass.item.impl.Glue;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ItemBufferTest {
+
+    @Test
+    public void flagsTest() {
+        ItemBuffer buffer = new ItemBuffer(List.of(
+                new Glue(10, 0, 0),
+                new EmptyBox(20),
+                new Glue(5, 2, 1),
+                new Glue(3, 1, 1),
+                new Penalty(50, 4, true),
+                new Penalty(Penalty.MAX_PENALTY, 0, false),
+                new EmptyBox(30),
+                new Penalty(Penalty.MIN_PENALTY, 0, true)
+        ));
+
+        Assertions.assertEquals(8, buffer.size());
+
+        // Glue is a legal break point only directly after a box
+        Assertions.assertFalse(buffer.isLegalBreakPoint(0));
+        Assertions.assertFalse(buffer.isLegalBreakPoint(1));
+        Assertions.assertTrue(buffer.isLegalBreakPoint(2));
+        Assertions.assertFalse(buffer.isLegalBreakPoint(3));
+
+        // Penalties are legal break points unless they prohibit breaking
+        Assertions.assertTrue(buffer.isPenalty(4));
+        Assertions.assertTrue(buffer.isLegalBreakPoint(4));
+        Assertions.assertTrue(buffer.isFlagged(4));
+        Assertions.assertFalse(buffer.isMandatoryLineBreak(4));
+        Assertions.assertEquals(50, buffer.getPenalty(4));
+        Assertions.assertEquals(4, buffer.getWidth(4));
+
+        Assertions.assertTrue(buffer.isPenalty(5));
+        Assertions.assertFalse(buffer.isLegalBreakPoint(5));
+        Assertions.assertFalse(buffer.isFlagged(5));
+
+        Assertions.assertFalse(buffer.isPenalty(6));
+        Assertions.assertFalse(buffer.isLegalBreakPoint(6));
+
+        Assertions.assertTrue(buffer.isLegalBreakPoint(7));
+        Assertions.assertTrue(buffer.isMandatoryLineBreak(7));
+    }
+
+    @Test
+    public void totalsTest() {
+        ItemBuffer buffer = new ItemBuffer(List.of(
+                new EmptyBox(20),
+                new Glue(5, 2, 1),
+                new EmptyBox(30),
+                new Penalty(0, 4, false)
+        ));
+
+        Assertions.assertArrayEquals(
+                new double[]{20, 25, 55, 59},
+                new double[]{buffer.getTotalWidth(0), buffer.getTotalWidth(1), buffer.getTotalWidth(2), buffer.getTotalWidth(3)}
+        );
+        Assertions.assertArrayEquals(
+                new double[]{0, 2, 2, 2},
+                new double[]{buffer.getTotalStretch(0), buffer.getTotalStretch(1), buffer.getTotalStretch(2), buffer.getTotalStretch(3)}
+        );
+        Assertions.assertArrayEquals(
+                new double[]{0, 1, 1, 1},
+                new double[]{buffer.getTotalShrink(0), buffer.getTotalShrink(1), buffer.getTotalShrink(2), buffer.getTotalShrink(3)}
+        );
+    }
+
+    @Test
+    public void equivalentToItemsTest() {
+        Random random = new Random(42);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            items.add(switch (random.nextInt(3)) {
+                case 0 -> new EmptyBox(random.nextDouble() * 50);
+                case 1 -> new Glue(random.nextDouble() * 5, random.nextDouble() * 3, random.nextDouble() * 2);
+                default -> new Penalty(
+                        switch (random.nextInt(4)) {
+                            case 0 -> Penalty.MIN_PENALTY;
+                            case 1 -> Penalty.MAX_PENALTY;
+                            default -> random.nextDouble() * 200 - 100;
+                        },
+                        random.nextDouble() * 5,
+                        random.nextBoolean()
+                );
+            });
+        }
+
+        ItemBuffer buffer = new ItemBuffer(items);
+
+        // The totals must be accumulated exactly as by summing up the item metrics in order
+        double totalWidth = 0;
+        double totalStretch = 0;
+        double totalShrink = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+
+            totalWidth += item.getWidth();
+            totalStretch += item.getStretchability();
+            totalShrink += item.getShrinkability();
+
+            Assertions.assertEquals(totalWidth, buffer.getTotalWidth(i));
+            Assertions.assertEquals(totalStretch, buffer.getTotalStretch(i));
+            Assertions.assertEquals(totalShrink, buffer.getTotalShrink(i));
+
+            Assertions.assertEquals(item.getWidth(), buffer.getWidth(i));
+            Assertions.assertEquals(item.getPenalty(), buffer.getPenalty(i));
+            Assertions.assertEquals(item.isFlagged(), buffer.isFlagged(i));
+            Assertions.assertEquals(item.getType() == ItemType.PENALTY, buffer.isPenalty(i));
+
+            boolean isLegalBreakPoint = switch (item.getType()) {
+                case GLUE -> i > 0 && items.get(i - 1).getType() == ItemType.BOX;
+                case PENALTY -> !((Penalty) item).isImpossibleLineBreak();
+                default -> false;
+            };
+            Assertions.assertEquals(isLegalBreakPoint, buffer.isLegalBreakPoint(i));
+            Assertions.assertEquals(
+                    item.getType() == ItemType.PENALTY && ((Penalty) item).isMandatoryLineBreak(),
+                    buffer.isMandatoryLineBreak(i)
+            );
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package de.be.thaw.typeset.knuthplass.util;
+
+import de.be.thaw.core.document.node.DocumentNode;
+import de.be.thaw.text.parser.TextParser;
+import de.be.thaw.typeset.knuthplass.config.KnuthPlassTypeSettingConfig;
+import de.be.thaw.typeset.knuthplass.config.util.FontDetailsSupplier;
+import de.be.thaw.typeset.knuthplass.config.util.GlueConfig;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWord;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.HyphenatedWordPart;
+import de.be.thaw.typeset.knuthplass.config.util.hyphen.Hyphenator;
+import de.be.thaw.typeset.knuthplass.item.Item;
+import de.be.thaw.typeset.knuthplass.item.impl.Glue;
+import de.be.thaw.typeset.knuthplass.item.impl.Penalty;
+import de.be.thaw.typeset.knuthplass.item.impl.box.EmptyBox;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+
+public class LineBreakingCacheTest {
+
+    /**
+     * Temporary project-specific cache directory.
+     */
+    @TempDir
+    File projectCacheDir;
+
+    /**
+     * Create a type setting configuration with the passed tolerance.
+     *
+     * @param tolerance of the configuration
+     * @return the configuration
+     */
+    private static KnuthPlassTypeSettingConfig createConfig(double tolerance) {
+        return KnuthPlassTypeSettingConfig.newBuilder()
+                .setWorkingDirectory(new File("."))
+                .setTextParser(new TextParser())
+                .setProperties(new Properties())
+                .setTolerance(tolerance)
+                .setFontDetailsSupplier(new FontDetailsSupplier() {
+                    @Override
+                    public StringMetrics measureString(DocumentNode node, int charBefore, String str) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public double getSpaceWidth(DocumentNode node) {
+                        throw new UnsupportedOperationException();
+                    }
+                })
+                .setGlueConfig(new GlueConfig() {
+                    @Override
+                    public double getInterWordStretchability(DocumentNode node, char lastChar) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public double getInterWordShrinkability(DocumentNode node, char lastChar) {
+                        throw new UnsupportedOperationException();
+                    }
+                })
+                .setHyphenator(new Hyphenator() {
+                    @Override
+                    public HyphenatedWord hyphenate(String word) {
+                        return new HyphenatedWord(List.of(new HyphenatedWordPart(word)));
+                    }
+
+                    @Override
+                    public double getExplicitHyphenPenalty() {
+                        return HyphenatedWordPart.DEFAULT_PENALTY;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Create the items of a paragraph with the passed box widths.
+     *
+     * @param boxWidths widths of the boxes separated by glue
+     * @return items
+     */
+    private static ItemBuffer createItems(double... boxWidths) {
+        Item[] items = new Item[boxWidths.length * 2 + 1];
+        for (int i = 0; i < boxWidths.length; i++) {
+            items[i * 2] = new EmptyBox(boxWidths[i]);
+            items[i * 2 + 1] = i < boxWidths.length - 1 ? new Glue(5, 2, 1) : new Glue(0, 10000, 0);
+        }
+        items[items.length - 1] = new Penalty(Penalty.MIN_PENALTY, 0, true);
+
+        return new ItemBuffer(List.of(items));
+    }
+
+    @Test
+    public void keyTest() {
+        KnuthPlassTypeSettingConfig config = createConfig(1);
+
+        String key = LineBreakingCache.generateKey(createItems(10, 20, 30), config, 1);
+
+        Assertions.assertEquals(key, LineBreakingCache.generateKey(createItems(10, 20, 30), createConfig(1), 1));
+        Assertions.assertNotEquals(key, LineBreakingCache.generateKey(createItems(10, 20, 31), config, 1));
+        Assertions.assertNotEquals(key, LineBreakingCache.generateKey(createItems(10, 20), config, 1));
+        Assertions.assertNotEquals(key, LineBreakingCache.generateKey(createItems(10, 20, 30), createConfig(2), 1));
+        Assertions.assertNotEquals(key, LineBreakingCache.generateKey(createItems(10, 20, 30), config, 2));
+    }
+
+    @Test
+    public void lineWidthMismatchTest() {
+        LineBreakingCache cache = new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES);
+        LineBreakingCache.Entry entry = new LineBreakingCache.Entry(new int[]{3, 7}, new double[]{100, 80}, 0);
+        cache.put("A", entry);
+
+        Assertions.assertSame(entry, cache.get("A", lineNumber -> lineNumber == 1 ? 100 : 80));
+        Assertions.assertNull(cache.get("A", lineNumber -> 100));
+        Assertions.assertNull(cache.get("B", lineNumber -> lineNumber == 1 ? 100 : 80));
+    }
+
+    @Test
+    public void lineWidthSamplerTest() {
+        LineBreakingCache.LineWidthSampler sampler = new LineBreakingCache.LineWidthSampler(lineNumber -> lineNumber * 10);
+        sampler.applyAsDouble(2);
+        sampler.applyAsDouble(3);
+        sampler.applyAsDouble(1);
+
+        Assertions.assertArrayEquals(new double[]{10, 20, 30}, sampler.getSamples());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedTest() {
+        LineBreakingCache cache = new LineBreakingCache(2);
+        cache.put("A", new LineBreakingCache.Entry(new int[]{1}, new double[]{100}, 0));
+        cache.put("B", new LineBreakingCache.Entry(new int[]{2}, new double[]{100}, 0));
+
+        Assertions.assertNotNull(cache.get("A", lineNumber -> 100)); // Makes B the least recently used entry
+
+        cache.put("C", new LineBreakingCache.Entry(new int[]{3}, new double[]{100}, 0));
+
+        Assertions.assertNotNull(cache.get("A", lineNumber -> 100));
+        Assertions.assertNull(cache.get("B", lineNumber -> 100));
+        Assertions.assertNotNull(cache.get("C", lineNumber -> 100));
+    }
+
+    @Test
+    public void persistRoundTripTest() throws Exception {
+        LineBreakingCache cache = new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES, projectCacheDir);
+        cache.put("A", new LineBreakingCache.Entry(new int[]{3, 7, 12}, new double[]{100, 80.5}, 0));
+        cache.put("B", new LineBreakingCache.Entry(new int[]{5}, new double[]{120}, 2));
+        cache.persist();
+
+        LineBreakingCache loaded = new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES, projectCacheDir);
+
+        LineBreakingCache.Entry a = loaded.get("A", lineNumber -> lineNumber == 1 ? 100 : 80.5);
+        Assertions.assertNotNull(a);
+        Assertions.assertArrayEquals(new int[]{3, 7, 12}, a.getBreakPointIndices());
+        Assertions.assertArrayEquals(new double[]{100, 80.5}, a.getLineWidths());
+        Assertions.assertEquals(0, a.getLineBreakingQuality());
+
+        LineBreakingCache.Entry b = loaded.get("B", lineNumber -> 120);
+        Assertions.assertNotNull(b);
+        Assertions.assertArrayEquals(new int[]{5}, b.getBreakPointIndices());
+        Assertions.assertEquals(2, b.getLineBreakingQuality());
+
+        // Only the cache file should be left in the cache directory
+        File[] files = new File(projectCacheDir, LineBreakingCache.CACHE_LOCATION).listFiles();
+        Assertions.assertNotNull(files);
+        Assertions.assertEquals(1, files.length);
+    }
+
+    @Test
+    public void persistKeepsLeastRecentlyUsedOrderTest() throws Exception {
+        LineBreakingCache cache = new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES, projectCacheDir);
+        cache.put("A", new LineBreakingCache.Entry(new int[]{1}, new double[]{100}, 0));
+        cache.put("B", new LineBreakingCache.Entry(new int[]{2}, new double[]{100}, 0));
+        cache.put("C", new LineBreakingCache.Entry(new int[]{3}, new double[]{100}, 0));
+        cache.get("A", lineNumber -> 100); // Makes B the least recently used entry
+        cache.persist();
+
+        // Loading into a smaller cache drops the least recently used entry
+        LineBreakingCache loaded = new LineBreakingCache(2, projectCacheDir);
+
+        Assertions.assertNotNull(loaded.get("A", lineNumber -> 100));
+        Assertions.assertNull(loaded.get("B", lineNumber -> 100));
+        Assertions.assertNotNull(loaded.get("C", lineNumber -> 100));
+    }
+
+    @Test
+    public void uncreatableCacheDirectoryTest() throws Exception {
+        // A file where the project cache directory should be prevents creating the cache directory
+        File file = new File(projectCacheDir, "file");
+        Files.writeString(file.toPath(), "Not a directory");
+
+        LineBreakingCache cache = new LineBreakingCache(LineBreakingCache.DEFAULT_MAX_ENTRIES, file);
+        cache.put("A", new LineBreakingCache.Entry(new int[]{1}, new double[]{100}, 0));
+        cache.persist();
+
+        Assertions.assertNotNull(cache.get("A", lineNumber -> 100));
+        Assertions.assertTrue(file.isFile());
+    }
+
+}